@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.rogeraraujo.jwtcodec.benchmarks;
+
+import com.rogeraraujo.jwtcodec.jwt.JwtBatchVerifier;
+import com.rogeraraujo.jwtcodec.jwt.JwtEngine;
+import com.rogeraraujo.jwtcodec.jwt.JwtSignatureAlgorithm;
+import com.rogeraraujo.jwtcodec.jwt.JwtUtils;
+import com.rogeraraujo.jwtcodec.jwt.JwtVerificationResult;
+import com.rogeraraujo.jwtcodec.jwt.KeyGenerationType;
+import io.fusionauth.jwt.domain.JWT;
+import io.fusionauth.jwt.domain.KeyPair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the throughput of JwtBatchVerifier scales with the number of
+ * worker threads of its pool. Scores are in tokens per second; narrow a run
+ * down with JMH options, e.g., "-p threadCount=1,4".
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchVerifierBenchmark {
+    private static final int TOKEN_COUNT = 5_000;
+
+    private static final JwtSignatureAlgorithm SIGNATURE_ALGO =
+        JwtSignatureAlgorithm.ECDSA_SHA_256;
+
+    /**
+     * Number of worker threads of the pool that verifies the tokens.
+     */
+    @Param({ "1", "2", "4", "8" })
+    private int threadCount;
+
+    private List<String> encodedTokens;
+
+    private String publicKey;
+
+    private ForkJoinPool pool;
+
+    private JwtBatchVerifier batchVerifier;
+
+    @Setup
+    public void setUp() {
+        KeyPair keyPair = JwtUtils.generateKeyPair(KeyGenerationType.EC_256);
+        JwtEngine jwtEngine = new JwtEngine();
+        encodedTokens = new ArrayList<>(TOKEN_COUNT);
+
+        for (int i = 0; i < TOKEN_COUNT; ++i) {
+            encodedTokens.add(jwtEngine.encode(
+                new JWT().setSubject("subject-" + i), SIGNATURE_ALGO,
+                keyPair.privateKey));
+        }
+
+        publicKey = keyPair.publicKey;
+        pool = new ForkJoinPool(threadCount);
+        batchVerifier = new JwtBatchVerifier(jwtEngine, pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TOKEN_COUNT)
+    public List<JwtVerificationResult> verify() {
+        return batchVerifier.verify(encodedTokens, SIGNATURE_ALGO, publicKey);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.rogeraraujo.jwtcodec.benchmarks;
+
+import com.rogeraraujo.jwtcodec.jwt.JwtUtils;
+import com.rogeraraujo.jwtcodec.jwt.KeyGenerationType;
+import io.fusionauth.jwt.domain.KeyPair;
+import io.fusionauth.pem.domain.PEM;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of generating keys of every KeyGenerationType, through
+ * the same JwtUtils calls as the "Generate Key" button of the main window,
+ * and of decoding and encoding again the PEM text of asymmetric keys. Each
+ * operation runs on a single thread and on as many threads as there are
+ * processors. Run this class' main() method, or pass "-prof gc" to JMH, to
+ * report allocation rates as well.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class KeyGenerationBenchmark {
+    @State(Scope.Benchmark)
+    public static class KeyTypeState {
+        @Param({
+            "HMAC_SHA_256", "HMAC_SHA_384", "HMAC_SHA_512",
+            "RSA_2048", "RSA_3072", "RSA_4096",
+            "EC_256", "EC_384", "EC_521"
+        })
+        private String keyType;
+
+        private KeyGenerationType kgType;
+
+        @Setup
+        public void setUp() {
+            kgType = parseKeyType(keyType);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class PemState {
+        @Param({
+            "RSA_2048", "RSA_3072", "RSA_4096", "EC_256", "EC_384", "EC_521"
+        })
+        private String keyType;
+
+        private KeyPair keyPair;
+
+        @Setup
+        public void setUp() {
+            keyPair = JwtUtils.generateKeyPair(parseKeyType(keyType));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object generateKey(KeyTypeState state) {
+        return generate(state.kgType);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object generateKeyMultiThreaded(KeyTypeState state) {
+        return generate(state.kgType);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void pemRoundTrip(PemState state, Blackhole blackhole) {
+        roundTrip(state.keyPair, blackhole);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void pemRoundTripMultiThreaded(PemState state, Blackhole blackhole) {
+        roundTrip(state.keyPair, blackhole);
+    }
+
+    public static void main(String[] args)
+            throws CommandLineOptionException, RunnerException {
+        Options options = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .include(KeyGenerationBenchmark.class.getName())
+            .addProfiler(GCProfiler.class)
+            .build();
+
+        new Runner(options).run();
+    }
+
+    private static Object generate(KeyGenerationType kgType) {
+        return kgType.isAsymmetric() ?
+            JwtUtils.generateKeyPair(kgType) : JwtUtils.generateSecret(kgType);
+    }
+
+    private static void roundTrip(KeyPair keyPair, Blackhole blackhole) {
+        PEM privatePem = PEM.decode(keyPair.privateKey);
+        PEM publicPem = PEM.decode(keyPair.publicKey);
+
+        blackhole.consume(PEM.encode(privatePem.privateKey));
+        blackhole.consume(PEM.encode(publicPem.publicKey));
+    }
+
+    private static KeyGenerationType parseKeyType(String keyType) {
+        KeyGenerationType result = KeyGenerationType.fromName(keyType);
+
+        if (result == null) {
+            throw new IllegalArgumentException(
+                "Invalid key generation type [" + keyType + "]");
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.rogeraraujo.jwtcodec.benchmarks;
+
+import com.rogeraraujo.jwtcodec.jwt.JwtEngine;
+import com.rogeraraujo.jwtcodec.jwt.JwtSignatureAlgorithm;
+import com.rogeraraujo.jwtcodec.jwt.JwtUtils;
+import com.rogeraraujo.jwtcodec.jwt.KeyGenerationType;
+import io.fusionauth.jwt.Signer;
+import io.fusionauth.jwt.Verifier;
+import io.fusionauth.jwt.domain.JWT;
+import io.fusionauth.jwt.domain.KeyPair;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput and latency of signing and verifying tokens with
+ * every JwtSignatureAlgorithm, using the signers and verifiers created by
+ * JwtEngine. Each algorithm is paired with every KeyGenerationType whose keys
+ * it accepts, and tokens carry from a few to hundreds of claims. Narrow a run
+ * down with JMH options, e.g., "-p algorithmAndKey=ES256:EC_256 -bm thrpt".
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SignatureBenchmark {
+    /**
+     * Short name of the signature algorithm and name of the key generation
+     * type, separated by a colon.
+     */
+    @Param({
+        "HS256:HMAC_SHA_256", "HS256:HMAC_SHA_384", "HS256:HMAC_SHA_512",
+        "HS384:HMAC_SHA_256", "HS384:HMAC_SHA_384", "HS384:HMAC_SHA_512",
+        "HS512:HMAC_SHA_256", "HS512:HMAC_SHA_384", "HS512:HMAC_SHA_512",
+        "RS256:RSA_2048", "RS256:RSA_3072", "RS256:RSA_4096",
+        "RS384:RSA_2048", "RS384:RSA_3072", "RS384:RSA_4096",
+        "RS512:RSA_2048", "RS512:RSA_3072", "RS512:RSA_4096",
+        "PS256:RSA_2048", "PS256:RSA_3072", "PS256:RSA_4096",
+        "PS384:RSA_2048", "PS384:RSA_3072", "PS384:RSA_4096",
+        "PS512:RSA_2048", "PS512:RSA_3072", "PS512:RSA_4096",
+        "ES256:EC_256", "ES384:EC_384", "ES512:EC_521"
+    })
+    private String algorithmAndKey;
+
+    /**
+     * Number of claims of the token, including iss, sub and iat.
+     */
+    @Param({ "3", "30", "300" })
+    private int claimCount;
+
+    private JWT unsignedToken;
+
+    private String encodedToken;
+
+    private Signer signer;
+
+    private Verifier verifier;
+
+    @Setup
+    public void setUp() {
+        String[] parts = algorithmAndKey.split(":");
+        JwtSignatureAlgorithm signatureAlgo =
+            JwtSignatureAlgorithm.fromShortName(parts[0]);
+        KeyGenerationType kgType = KeyGenerationType.fromName(parts[1]);
+
+        if ((signatureAlgo == null) || (kgType == null)) {
+            throw new IllegalArgumentException(
+                "Invalid algorithm and key [" + algorithmAndKey + "]");
+        }
+
+        String signingKey;
+        String verificationKey;
+
+        if (kgType.isAsymmetric()) {
+            KeyPair keyPair = JwtUtils.generateKeyPair(kgType);
+            signingKey = keyPair.privateKey;
+            verificationKey = keyPair.publicKey;
+        }
+        else {
+            signingKey = JwtUtils.generateSecret(kgType);
+            verificationKey = signingKey;
+        }
+
+        signer = JwtEngine.createSigner(signatureAlgo, signingKey);
+        verifier = JwtEngine.createVerifier(signatureAlgo, verificationKey);
+
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("iss", "jwtcodec");
+        claims.put("sub", "benchmark");
+        claims.put("iat", System.currentTimeMillis() / 1000L);
+
+        for (int i = claims.size(); i < claimCount; ++i) {
+            claims.put("claim" + i, "value of claim " + i);
+        }
+
+        unsignedToken = JwtUtils.createToken(claims);
+        encodedToken = JWT.getEncoder().encode(unsignedToken, signer);
+    }
+
+    @Benchmark
+    public String sign() {
+        return JWT.getEncoder().encode(unsignedToken, signer);
+    }
+
+    @Benchmark
+    public JWT verify() {
+        return JWT.getDecoder().decode(encodedToken, verifier);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.rogeraraujo.jwtcodec.benchmarks;
+
+import com.rogeraraujo.jwtcodec.jwt.JwtEngine;
+import com.rogeraraujo.jwtcodec.jwt.JwtSignatureAlgorithm;
+import com.rogeraraujo.jwtcodec.jwt.JwtUtils;
+import com.rogeraraujo.jwtcodec.jwt.KeyGenerationType;
+import io.fusionauth.jwt.Signer;
+import io.fusionauth.jwt.domain.JWT;
+import io.fusionauth.jwt.domain.KeyPair;
+import io.fusionauth.jwt.ec.ECSigner;
+import io.fusionauth.jwt.hmac.HMACSigner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-token cost of the FusionAuth JWT signers, which initialize
+ * a new JCA object on every call, with the reusable signers created by
+ * JwtEngine. Narrow a run down with JMH options, e.g., "-p algorithm=ES256".
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SignerBenchmark {
+    /**
+     * Short name of the signature algorithm.
+     */
+    @Param({ "HS256", "ES256" })
+    private String algorithm;
+
+    private JWT unsignedToken;
+
+    private Signer fusionAuthSigner;
+
+    private Signer reusableSigner;
+
+    @Setup
+    public void setUp() {
+        JwtSignatureAlgorithm signatureAlgo =
+            JwtSignatureAlgorithm.fromShortName(algorithm);
+
+        if (signatureAlgo == JwtSignatureAlgorithm.HMAC_SHA_256) {
+            String secret = JwtUtils.generateSecret(
+                KeyGenerationType.HMAC_SHA_256);
+            fusionAuthSigner = HMACSigner.newSHA256Signer(secret);
+            reusableSigner = JwtEngine.createSigner(signatureAlgo, secret);
+        }
+        else if (signatureAlgo == JwtSignatureAlgorithm.ECDSA_SHA_256) {
+            KeyPair keyPair = JwtUtils.generateKeyPair(KeyGenerationType.EC_256);
+            fusionAuthSigner = ECSigner.newSHA256Signer(keyPair.privateKey);
+            reusableSigner = JwtEngine.createSigner(
+                signatureAlgo, keyPair.privateKey);
+        }
+        else {
+            throw new IllegalArgumentException(
+                "Invalid algorithm [" + algorithm + "]");
+        }
+
+        unsignedToken = new JWT().setSubject("benchmark").setIssuer("jwtcodec");
+    }
+
+    @Benchmark
+    public String signFusionAuth() {
+        return JWT.getEncoder().encode(unsignedToken, fusionAuthSigner);
+    }
+
+    @Benchmark
+    public String signReusable() {
+        return JWT.getEncoder().encode(unsignedToken, reusableSigner);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.rogeraraujo.jwtcodec.benchmarks;
+
+import com.rogeraraujo.jwtcodec.components.CustomTable;
+import com.rogeraraujo.jwtcodec.components.CustomTableCellRenderer;
+import com.rogeraraujo.jwtcodec.components.ListTableModel;
+import com.rogeraraujo.jwtcodec.jwt.JwtClaim;
+import com.rogeraraujo.jwtcodec.jwt.JwtClaimTableFormat;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to paint a screenful of a 100,000-row CustomTable,
+ * scrolled to a different position on every frame, with and without
+ * high-volume rendering. The table is painted into an image in a headless
+ * JVM, so no display is needed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class TablePaintBenchmark {
+    private static final int ROW_COUNT = 100_000;
+
+    private static final int FRAME_COUNT = 2_000;
+
+    private static final int WIDTH = 800;
+
+    private static final int HEIGHT = 600;
+
+    /**
+     * Whether the high-volume rendering mode of the table is enabled.
+     */
+    @Param({ "false", "true" })
+    private boolean highVolumeRendering;
+
+    private CustomTable table;
+
+    private BufferedImage image;
+
+    private int frame;
+
+    @Setup
+    public void setUp() {
+        List<JwtClaim> rows = new ArrayList<>(ROW_COUNT);
+
+        for (int i = 0; i < ROW_COUNT; ++i) {
+            rows.add(new JwtClaim("claim-" + i, "value of claim number " + i));
+        }
+
+        table = new CustomTable(
+            new ListTableModel<>(rows, new JwtClaimTableFormat()));
+        table.setCustomCellRenderer(new CustomTableCellRenderer(null,
+            new CustomTableCellRenderer.AlternateRowColorTransformer(null)));
+        table.setHighVolumeRendering(highVolumeRendering);
+        table.setSize(WIDTH, table.getRowHeight() * ROW_COUNT);
+        table.getSelectionModel().setSelectionInterval(10, 20);
+        table.doLayout();
+
+        image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        frame = 0;
+    }
+
+    @Benchmark
+    public void paintFrame() {
+        int maxY = table.getHeight() - HEIGHT;
+        int y = (int) ((long) maxY * frame / FRAME_COUNT);
+        frame = (frame + 1) % FRAME_COUNT;
+
+        Graphics2D graphics = image.createGraphics();
+
+        try {
+            graphics.translate(0, -y);
+            graphics.setClip(0, y, WIDTH, HEIGHT);
+            table.paint(graphics);
+        } finally {
+            graphics.dispose();
+        }
+    }
+}
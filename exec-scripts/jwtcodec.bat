@@ -5,4 +5,14 @@ set JAVA_OPTIONS=-Dswing.aatext=true
 set JAR_FILE=jwtcodec.jar
 set JWT_CODEC_OPTIONS=-listLafs
 
+rem Uses the trimmed Java runtime and its AppCDS archive when the distribution
+rem was packaged with "ant package-dist-runtime"
+if exist runtime\bin\java.exe (
+  set JAVA_CMD=runtime\bin\java.exe
+
+  if exist jwtcodec.jsa (
+    set JAVA_OPTIONS=%JAVA_OPTIONS% -XX:SharedArchiveFile=jwtcodec.jsa -Xshare:auto
+  )
+)
+
 %JAVA_CMD% %JAVA_OPTIONS% -jar %JAR_FILE% %JWT_CODEC_OPTIONS%
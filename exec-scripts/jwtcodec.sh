@@ -5,4 +5,14 @@ JAVA_OPTIONS=-Dswing.aatext=true
 JAR_FILE=jwtcodec.jar
 JWT_CODEC_OPTIONS=-listLafs
 
+# Uses the trimmed Java runtime and its AppCDS archive when the distribution
+# was packaged with "ant package-dist-runtime"
+if [ -x runtime/bin/java ]; then
+  JAVA_CMD=runtime/bin/java
+
+  if [ -f jwtcodec.jsa ]; then
+    JAVA_OPTIONS="${JAVA_OPTIONS} -XX:SharedArchiveFile=jwtcodec.jsa -Xshare:auto"
+  fi
+fi
+
 ${JAVA_CMD} ${JAVA_OPTIONS} -jar ${JAR_FILE} ${JWT_CODEC_OPTIONS}
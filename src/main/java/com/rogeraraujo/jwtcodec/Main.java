@@ -16,14 +16,23 @@
 
 package com.rogeraraujo.jwtcodec;
 
+import com.rogeraraujo.jwtcodec.cli.CommandRunner;
 import com.rogeraraujo.jwtcodec.components.CustomTableCellRenderer;
+import com.rogeraraujo.jwtcodec.gui.EdtWatchdog;
 import com.rogeraraujo.jwtcodec.gui.MainWindow;
 import com.rogeraraujo.jwtcodec.gui.SwingUtils;
+import com.rogeraraujo.jwtcodec.jwt.JwtWarmUp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileReader;
+import java.lang.management.ManagementFactory;
 import java.security.Security;
 import java.util.*;
 
@@ -45,6 +54,11 @@ public class Main {
         //   https://www.baeldung.com/java-bouncy-castle
         Security.setProperty("crypto.policy", "unlimited");
 
+        // Runs a headless command, such as "verify", instead of the GUI
+        if ((args.length > 0) && CommandRunner.isCommand(args[0])) {
+            System.exit(CommandRunner.run(args));
+        }
+
         SwingUtilities.invokeLater(() -> initializeGui(args));
     }
 
@@ -57,6 +71,8 @@ public class Main {
     }
 
     private static void initializeGui(String[] args) {
+        long start = System.nanoTime();
+
         // Reads configuration file
         Properties config = new Properties();
         FileReader reader = null;
@@ -73,6 +89,17 @@ public class Main {
             }
         }
 
+        long configRead = System.nanoTime();
+
+        // Starts watching the event dispatch thread for stalls
+        Integer stallThreshold = Utils.stringToInt(
+            config.getProperty("edt-stall-threshold-millis", ""));
+
+        if ((stallThreshold == null) || (stallThreshold > 0)) {
+            EdtWatchdog.install((stallThreshold != null) ?
+                stallThreshold : EdtWatchdog.DEFAULT_THRESHOLD_MILLIS);
+        }
+
         // Lists available Look-and-Feels
         for (String arg : args) {
             if ("-listLafs".equalsIgnoreCase(arg)) {
@@ -81,6 +108,21 @@ public class Main {
             }
         }
 
+        // Measures startup and exits, e.g., for the AppCDS training run
+        boolean startupProbe = false;
+
+        for (String arg : args) {
+            if ("-startupProbe".equalsIgnoreCase(arg)) {
+                startupProbe = true;
+                break;
+            }
+        }
+
+        if (startupProbe && GraphicsEnvironment.isHeadless()) {
+            System.out.println("startup-probe: error: a display is required");
+            System.exit(1);
+        }
+
         // Configures the Look-and-Feel
         try {
             String className = config.getProperty("swing-look-and-feel-class-name");
@@ -121,9 +163,108 @@ public class Main {
             }
         }
 
+        long lafConfigured = System.nanoTime();
+
         // Creates and displays the main window
         MainWindow mainWin = MainWindow.createInstance(config);
+        long windowCreated = System.nanoTime();
+
+        // Warms up the signing and verification code once the window is up,
+        // so that the first token encoded or decoded is not slowed down; on
+        // by default, as in the shipped configuration file
+        JwtWarmUp warmUp = null;
+        String jitWarmUp = config.getProperty("jit-warm-up", "").trim();
+
+        if (!startupProbe && (jitWarmUp.isEmpty() ||
+                Boolean.parseBoolean(jitWarmUp))) {
+            Integer iterations = Utils.stringToInt(
+                config.getProperty("jit-warm-up-iterations", ""));
+            warmUp = new JwtWarmUp(((iterations != null) && (iterations > 0)) ?
+                iterations : JwtWarmUp.DEFAULT_ITERATIONS);
+        }
+
+        JwtWarmUp finalWarmUp = warmUp;
+        boolean finalStartupProbe = startupProbe;
+        mainWin.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent event) {
+                getLogger().info("First frame shown {} ms after JVM start",
+                    ManagementFactory.getRuntimeMXBean().getUptime());
+
+                if (finalStartupProbe) {
+                    runStartupProbe();
+                }
+                else if (finalWarmUp != null) {
+                    finalWarmUp.start();
+                }
+            }
+
+            @Override
+            public void windowClosed(WindowEvent event) {
+                if (finalWarmUp != null) {
+                    finalWarmUp.cancel();
+                }
+            }
+        });
+
         mainWin.setVisible(true);
+
+        getLogger().info("GUI initialized: configuration read in {} ms, " +
+            "Look-and-Feel configured in {} ms, main window created in {} ms",
+            (configRead - start) / 1_000_000L,
+            (lafConfigured - configRead) / 1_000_000L,
+            (windowCreated - lafConfigured) / 1_000_000L);
+    }
+
+    private static void runStartupProbe() {
+        long firstFrameMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        // Signs and verifies one token per algorithm, so the training run
+        // also loads the classes used by the first encode or decode. The
+        // keys are generated first and timed apart, as key generation
+        // (mostly RSA) does not happen when the user opens the application
+        Thread thread = new Thread(() -> {
+            JwtWarmUp warmUp = new JwtWarmUp(1);
+            warmUp.run();
+
+            Runtime runtime = Runtime.getRuntime();
+            System.out.println("startup-probe: first-frame-millis=" +
+                firstFrameMillis + " key-generation-millis=" +
+                warmUp.getKeyGenerationMillis() +
+                " first-sign-verify-millis=" + (warmUp.getElapsedMillis() -
+                warmUp.getKeyGenerationMillis()) + " heap-used-kb=" +
+                ((runtime.totalMemory() - runtime.freeMemory()) / 1024L) +
+                " resident-kb=" + readResidentKilobytes());
+            System.exit(0);
+        }, "startup-probe");
+
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static String readResidentKilobytes() {
+        // Only available on Linux
+        File statusFile = new File("/proc/self/status");
+
+        if (!statusFile.isFile()) {
+            return "n/a";
+        }
+
+        try (BufferedReader reader = new BufferedReader(
+                new FileReader(statusFile))) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("VmRSS:")) {
+                    return line.substring("VmRSS:".length())
+                        .replace("kB", "").trim();
+                }
+            }
+        } catch (Exception ex) {
+            getLogger().trace("Error reading {}:", statusFile, ex);
+        }
+
+        return "n/a";
     }
 
     private static void listAvailableLookAndFeels() {
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.cli;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A headless subcommand of this application, e.g., "verify". Commands run
+ * instead of the GUI when their name is the first command-line argument.
+ */
+public interface Command {
+    /**
+     * Returns the name that selects this command on the command line.
+     *
+     * @return Name of the command
+     */
+    String getName();
+
+    /**
+     * Returns a one-line description of this command.
+     *
+     * @return Description of the command
+     */
+    String getDescription();
+
+    /**
+     * Returns the usage text of this command, listing its options.
+     *
+     * @return Usage text; can have several lines
+     */
+    String getUsage();
+
+    /**
+     * Returns the names of the options of this command that do not take a
+     * value, without the leading "--".
+     *
+     * @return Names of the flag options
+     */
+    default Set<String> getFlagNames() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Executes this command.
+     *
+     * @param options Parsed command-line options, without the command name
+     *
+     * @return Exit code of the process; see the EXIT_* constants of
+     *         CommandRunner
+     *
+     * @throws UsageException If the options are missing or invalid
+     * @throws Exception If the command fails
+     */
+    int execute(CommandOptions options) throws Exception;
+}
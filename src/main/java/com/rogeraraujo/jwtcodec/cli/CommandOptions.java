@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.cli;
+
+import com.rogeraraujo.jwtcodec.Utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Command-line options of a command. Options have the form "--name value";
+ * flags have the form "--name" and no value. Any other argument is a
+ * positional argument.
+ */
+public class CommandOptions {
+    private final Map<String, String> options = new HashMap<>();
+
+    private final List<String> positionalArgs = new ArrayList<>();
+
+    /**
+     * Parses command-line arguments.
+     *
+     * @param args Arguments to parse
+     * @param flagNames Names of the options that do not take a value,
+     *                  without the leading "--"
+     *
+     * @throws UsageException If an option that takes a value has none
+     */
+    public CommandOptions(List<String> args, Set<String> flagNames) {
+        for (int i = 0; i < args.size(); ++i) {
+            String arg = args.get(i);
+
+            if (!arg.startsWith("--") || (arg.length() == 2)) {
+                positionalArgs.add(arg);
+                continue;
+            }
+
+            String name = arg.substring(2);
+
+            if (flagNames.contains(name)) {
+                options.put(name, "true");
+            }
+            else if (i + 1 < args.size()) {
+                options.put(name, args.get(++i));
+            }
+            else {
+                throw new UsageException("Option --" + name + " requires a value");
+            }
+        }
+    }
+
+    public List<String> getPositionalArgs() {
+        return Collections.unmodifiableList(positionalArgs);
+    }
+
+    public boolean hasOption(String name) {
+        return options.containsKey(name);
+    }
+
+    /**
+     * Returns the value of an option.
+     *
+     * @param name Name of the option, without the leading "--"
+     * @param defaultValue Value to return if the option is absent; can be
+     *                     null
+     *
+     * @return The value of the option, or the default value
+     */
+    public String getString(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Returns the value of an option that must be present.
+     *
+     * @param name Name of the option, without the leading "--"
+     *
+     * @return The value of the option
+     *
+     * @throws UsageException If the option is absent
+     */
+    public String getRequiredString(String name) {
+        String result = options.get(name);
+
+        if (result == null) {
+            throw new UsageException("Option --" + name + " is required");
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the value of an option as a positive integer.
+     *
+     * @param name Name of the option, without the leading "--"
+     * @param defaultValue Value to return if the option is absent
+     *
+     * @return The value of the option, or the default value
+     *
+     * @throws UsageException If the value is not a positive integer
+     */
+    public int getPositiveInt(String name, int defaultValue) {
+        String value = options.get(name);
+
+        if (value == null) {
+            return defaultValue;
+        }
+
+        Integer result = Utils.stringToInt(value);
+
+        if ((result == null) || (result < 1)) {
+            throw new UsageException(
+                "Option --" + name + " must be a positive integer");
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a text given either directly by an option or by the contents
+     * of a file named by another option, e.g., "--key" and "--key-file".
+     * Leading and trailing whitespace in the file contents, such as a final
+     * line break, is removed.
+     *
+     * @param textOptionName Name of the option that holds the text
+     * @param fileOptionName Name of the option that holds the file name
+     *
+     * @return The text
+     *
+     * @throws UsageException If none or both of the options are present
+     * @throws IOException If the file cannot be read
+     */
+    public String getTextOrFileContents(String textOptionName,
+            String fileOptionName) throws IOException {
+        String text = options.get(textOptionName);
+        String fileName = options.get(fileOptionName);
+
+        if ((text == null) == (fileName == null)) {
+            throw new UsageException("Exactly one of --" + textOptionName +
+                " or --" + fileOptionName + " is required");
+        }
+
+        return (text != null) ? text :
+            new String(Files.readAllBytes(Paths.get(fileName)),
+                StandardCharsets.UTF_8).trim();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.cli;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Finds and executes the headless commands of this application.
+ */
+public class CommandRunner {
+    public static final int EXIT_SUCCESS = 0;
+
+    public static final int EXIT_FAILURE = 1;
+
+    public static final int EXIT_USAGE_ERROR = 2;
+
+    private static final String HELP_COMMAND_NAME = "help";
+
+    private static final Map<String, Command> COMMANDS = new LinkedHashMap<>();
+
+    static {
+        register(new VerifyCommand());
+        register(new MintCommand());
+        register(new KeygenCommand());
+    }
+
+    // Private constructor to prevent instantiation
+    private CommandRunner() { }
+
+    private static void register(Command command) {
+        COMMANDS.put(command.getName(), command);
+    }
+
+    /**
+     * Checks whether a command-line argument is the name of a command.
+     *
+     * @param arg Argument to check; can be null
+     *
+     * @return true if the argument names a command, false otherwise
+     */
+    public static boolean isCommand(String arg) {
+        return HELP_COMMAND_NAME.equals(arg) || COMMANDS.containsKey(arg);
+    }
+
+    /**
+     * Executes the command named by the first command-line argument, passing
+     * the remaining arguments to it. Usage errors are reported to the
+     * standard error stream.
+     *
+     * @param args Command-line arguments; the first one is the command name
+     *
+     * @return Exit code of the process
+     */
+    public static int run(String[] args) {
+        PrintStream err = System.err;
+        Command command = (args.length > 0) ? COMMANDS.get(args[0]) : null;
+
+        if (command == null) {
+            printHelp(err);
+            return ((args.length > 0) && HELP_COMMAND_NAME.equals(args[0])) ?
+                EXIT_SUCCESS : EXIT_USAGE_ERROR;
+        }
+
+        try {
+            return command.execute(new CommandOptions(
+                Arrays.asList(args).subList(1, args.length),
+                command.getFlagNames()));
+        } catch (UsageException ex) {
+            err.println("Error: " + ex.getMessage());
+            err.println();
+            err.println(command.getUsage());
+            return EXIT_USAGE_ERROR;
+        } catch (Exception ex) {
+            err.println("Error: " + ex);
+            return EXIT_FAILURE;
+        }
+    }
+
+    private static void printHelp(PrintStream out) {
+        out.println("Usage: jwtcodec <command> [options]");
+        out.println("Runs the GUI when no command is given. Commands:");
+
+        for (Command command : COMMANDS.values()) {
+            out.printf("  %-10s %s%n", command.getName(), command.getDescription());
+        }
+    }
+}
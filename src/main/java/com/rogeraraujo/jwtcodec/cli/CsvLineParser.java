@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.cli;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a line of comma-separated values into fields, following RFC 4180:
+ * fields can be enclosed in double quotes, and a double quote inside a quoted
+ * field is written as two double quotes. Quoted fields cannot contain line
+ * breaks, since the input is read one line at a time.
+ */
+class CsvLineParser {
+    // Private constructor to prevent instantiation
+    private CsvLineParser() { }
+
+    /**
+     * Splits a line into fields.
+     *
+     * @param line Line to split
+     *
+     * @return The fields of the line, without the enclosing quotes
+     *
+     * @throws IllegalArgumentException If a quoted field is not closed
+     */
+    static List<String> parse(String line) {
+        List<String> result = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean isQuoted = false;
+
+        for (int i = 0, len = line.length(); i < len; ++i) {
+            char ch = line.charAt(i);
+
+            if (isQuoted) {
+                if (ch != '"') {
+                    field.append(ch);
+                }
+                else if ((i + 1 < len) && (line.charAt(i + 1) == '"')) {
+                    field.append('"');
+                    ++i;
+                }
+                else {
+                    isQuoted = false;
+                }
+            }
+            else if (ch == ',') {
+                result.add(field.toString());
+                field.setLength(0);
+            }
+            else if ((ch == '"') && (field.length() == 0)) {
+                isQuoted = true;
+            }
+            else {
+                field.append(ch);
+            }
+        }
+
+        if (isQuoted) {
+            throw new IllegalArgumentException("Quoted field is not closed");
+        }
+
+        result.add(field.toString());
+
+        return result;
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.cli;
+
+import com.rogeraraujo.jwtcodec.jwt.JwtUtils;
+import com.rogeraraujo.jwtcodec.jwt.KeyGenerationType;
+import io.fusionauth.jwt.domain.KeyPair;
+import io.fusionauth.jwt.json.Mapper;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The "keygen" command: generates many HMAC secrets or RSA/EC key pairs at
+ * once and writes them to a directory, along with a manifest listing the key
+ * ID and thumbprint of every key. Keys are generated in parallel, in bounded
+ * batches; while a batch is being generated, the previous one is written.
+ *
+ * <p>Public keys are written to "&lt;kid&gt;.pem" files, so the directory
+ * can be used as a key ring (see the --key-dir option of the verify
+ * command). Private keys are written to "&lt;kid&gt;.key" files and HMAC
+ * secrets to "&lt;kid&gt;.secret" files. Existing key files are never
+ * overwritten; the manifest is appended to.</p>
+ */
+public class KeygenCommand implements Command {
+    public static final String DEFAULT_PREFIX = "key-";
+
+    public static final String MANIFEST_FILE_NAME = "manifest.jsonl";
+
+    private static final int BATCH_SIZE = 256;
+
+    private static final int MANIFEST_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Keys below which a task generates its keys itself instead of
+     * splitting them further.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 4;
+
+    private static final Set<PosixFilePermission> OWNER_ONLY_PERMISSIONS =
+        PosixFilePermissions.fromString("rw-------");
+
+    @Override
+    public String getName() {
+        return "keygen";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Generates many keys at once and writes them to a directory";
+    }
+
+    @Override
+    public String getUsage() {
+        return "Usage: jwtcodec keygen --type <type> --count <n> " +
+            "--out-dir <directory>\n" +
+            "                       [--prefix <prefix>] [--threads <n>]\n" +
+            "\n" +
+            "  --type     Key type: " + getTypeNames() + "\n" +
+            "  --count    Number of keys to generate\n" +
+            "  --out-dir  Directory where the keys are written; it is created\n" +
+            "             if it does not exist\n" +
+            "  --prefix   Prefix of the key IDs; defaults to \"" +
+            DEFAULT_PREFIX + "\"\n" +
+            "  --threads  Number of generation threads; defaults to the number\n" +
+            "             of processors\n" +
+            "\n" +
+            "Key IDs are the prefix followed by a sequence number. Public keys\n" +
+            "are written to <kid>.pem, private keys to <kid>.key and HMAC\n" +
+            "secrets to <kid>.secret. Every key is also listed, with its JWK\n" +
+            "thumbprint, in " + MANIFEST_FILE_NAME + ".";
+    }
+
+    private static String getTypeNames() {
+        StringBuilder result = new StringBuilder();
+
+        for (KeyGenerationType kgType : KeyGenerationType.values()) {
+            if (result.length() > 0) {
+                result.append(", ");
+            }
+
+            result.append(kgType.name());
+        }
+
+        return result.toString();
+    }
+
+    @Override
+    public int execute(CommandOptions options) throws Exception {
+        String typeName = options.getRequiredString("type");
+        KeyGenerationType kgType = KeyGenerationType.fromName(typeName);
+
+        if (kgType == null) {
+            throw new UsageException("Key type [" + typeName + "] is not supported");
+        }
+
+        // Checks the presence of the option before its value
+        options.getRequiredString("count");
+        int count = options.getPositiveInt("count", 0);
+
+        Path directory = Paths.get(options.getRequiredString("out-dir"));
+        String prefix = options.getString("prefix", DEFAULT_PREFIX);
+        int threadCount = options.getPositiveInt(
+            "threads", Runtime.getRuntime().availableProcessors());
+
+        if (!options.getPositionalArgs().isEmpty()) {
+            throw new UsageException("Unexpected argument [" +
+                options.getPositionalArgs().get(0) + "]");
+        }
+
+        Files.createDirectories(directory);
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+
+        try {
+            long start = System.nanoTime();
+            generate(kgType, count, prefix, directory, pool);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            System.err.printf("Generated %d %s keys in %.3f s, %.1f keys/s%n",
+                count, kgType, seconds, count / Math.max(seconds, 1e-9));
+
+            return CommandRunner.EXIT_SUCCESS;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Generates keys and writes them, with the manifest, to a directory.
+     *
+     * @param kgType Type of the keys
+     * @param count Number of keys to generate
+     * @param prefix Prefix of the key IDs
+     * @param directory Existing directory where the keys are written
+     * @param pool Pool that generates the keys
+     *
+     * @throws IOException If a key file already exists or the files cannot
+     *                     be written
+     */
+    static void generate(KeyGenerationType kgType, int count, String prefix,
+            Path directory, ForkJoinPool pool) throws IOException {
+        String kidFormat = prefix + "%0" + String.valueOf(count).length() + "d";
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MANIFEST_BUFFER_SIZE);
+
+        try (FileChannel manifest = FileChannel.open(
+                directory.resolve(MANIFEST_FILE_NAME), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            GenerateTask pendingTask = null;
+
+            for (int batchStart = 1; ; batchStart += BATCH_SIZE) {
+                GenerateTask task = null;
+
+                if (batchStart <= count) {
+                    int batchEnd = Math.min(batchStart + BATCH_SIZE, count + 1);
+                    String[] keyIds = new String[batchEnd - batchStart];
+
+                    for (int i = 0; i < keyIds.length; ++i) {
+                        keyIds[i] = String.format(kidFormat, batchStart + i);
+                    }
+
+                    task = new GenerateTask(kgType, keyIds);
+                    pool.execute(task);
+                }
+
+                if (pendingTask != null) {
+                    pendingTask.join();
+                    pendingTask.write(directory, manifest, buffer);
+                }
+
+                if (task == null) {
+                    flush(manifest, buffer);
+                    return;
+                }
+
+                pendingTask = task;
+            }
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        // The casts keep the code compatible with Java 8, where flip() and
+        // clear() are only declared by Buffer
+        ((Buffer) buffer).flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        ((Buffer) buffer).clear();
+    }
+
+    private static void writeFile(Path file, String contents, boolean isSecret)
+            throws IOException {
+        ByteBuffer data = ByteBuffer.wrap(
+            contents.getBytes(StandardCharsets.US_ASCII));
+
+        try (FileChannel channel = createFile(file, isSecret)) {
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+        }
+    }
+
+    private static FileChannel createFile(Path file, boolean isSecret)
+            throws IOException {
+        Set<StandardOpenOption> options = EnumSet.of(
+            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+
+        if (isSecret && file.getFileSystem().supportedFileAttributeViews()
+                .contains("posix")) {
+            // Creates the file with restricted permissions right away, so
+            // the key is never readable by others, not even for a moment
+            return FileChannel.open(file, options,
+                PosixFilePermissions.asFileAttribute(OWNER_ONLY_PERMISSIONS));
+        }
+
+        FileChannel result = FileChannel.open(file, options);
+
+        if (isSecret) {
+            try {
+                restrictPermissions(file);
+            } catch (IOException | RuntimeException e) {
+                result.close();
+                throw e;
+            }
+        }
+
+        return result;
+    }
+
+    private static void restrictPermissions(Path file) throws IOException {
+        try {
+            Files.setPosixFilePermissions(file, OWNER_ONLY_PERMISSIONS);
+        } catch (UnsupportedOperationException ex) {
+            // Not a POSIX file system; the default permissions are kept
+        }
+    }
+
+    /**
+     * Fork/join task that generates a range of keys of a batch, splitting it
+     * in halves while it is larger than SEQUENTIAL_THRESHOLD. The root task
+     * covers the whole batch and keeps the results.
+     */
+    private static class GenerateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final KeyGenerationType kgType;
+
+        private final String[] keyIds;
+
+        // Secrets or PEM-encoded private keys
+        private final String[] privateKeys;
+
+        // PEM-encoded public keys; null elements for secrets
+        private final String[] publicKeys;
+
+        private final String[] thumbprints;
+
+        private final int start;
+
+        private final int end;
+
+        GenerateTask(KeyGenerationType kgType, String[] keyIds) {
+            this(kgType, keyIds, new String[keyIds.length],
+                new String[keyIds.length], new String[keyIds.length],
+                0, keyIds.length);
+        }
+
+        private GenerateTask(KeyGenerationType kgType, String[] keyIds,
+                String[] privateKeys, String[] publicKeys, String[] thumbprints,
+                int start, int end) {
+            this.kgType = kgType;
+            this.keyIds = keyIds;
+            this.privateKeys = privateKeys;
+            this.publicKeys = publicKeys;
+            this.thumbprints = thumbprints;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if ((end - start) > SEQUENTIAL_THRESHOLD) {
+                int middle = (start + end) >>> 1;
+
+                invokeAll(
+                    new GenerateTask(kgType, keyIds, privateKeys, publicKeys,
+                        thumbprints, start, middle),
+                    new GenerateTask(kgType, keyIds, privateKeys, publicKeys,
+                        thumbprints, middle, end));
+                return;
+            }
+
+            for (int i = start; i < end; ++i) {
+                if (kgType.isAsymmetric()) {
+                    KeyPair keyPair = JwtUtils.generateKeyPair(kgType);
+                    privateKeys[i] = keyPair.privateKey;
+                    publicKeys[i] = keyPair.publicKey;
+                    thumbprints[i] = JwtUtils.computeThumbprint(keyPair.publicKey);
+                }
+                else {
+                    privateKeys[i] = JwtUtils.generateSecret(kgType);
+                    thumbprints[i] = JwtUtils.computeSecretThumbprint(
+                        privateKeys[i]);
+                }
+            }
+        }
+
+        /**
+         * Writes the key files of the batch and appends their manifest
+         * lines, in order.
+         */
+        void write(Path directory, FileChannel manifest, ByteBuffer buffer)
+                throws IOException {
+            for (int i = 0; i < keyIds.length; ++i) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("kid", keyIds[i]);
+                entry.put("type", kgType.name());
+                entry.put("thumbprint", thumbprints[i]);
+
+                if (publicKeys[i] != null) {
+                    String privateKeyFileName = keyIds[i] + ".key";
+                    String publicKeyFileName = keyIds[i] + ".pem";
+                    writeFile(directory.resolve(privateKeyFileName),
+                        privateKeys[i] + '\n', true);
+                    writeFile(directory.resolve(publicKeyFileName),
+                        publicKeys[i] + '\n', false);
+                    entry.put("privateKeyFile", privateKeyFileName);
+                    entry.put("publicKeyFile", publicKeyFileName);
+                }
+                else {
+                    String secretFileName = keyIds[i] + ".secret";
+                    writeFile(directory.resolve(secretFileName),
+                        privateKeys[i] + '\n', true);
+                    entry.put("secretFile", secretFileName);
+                }
+
+                byte[] json = Mapper.serialize(entry);
+                byte[] line = Arrays.copyOf(json, json.length + 1);
+                line[json.length] = '\n';
+
+                if (buffer.remaining() < line.length) {
+                    flush(manifest, buffer);
+                }
+
+                buffer.put(line);
+            }
+        }
+    }
+}
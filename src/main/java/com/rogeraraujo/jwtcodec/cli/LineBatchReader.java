@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.cli;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups the non-blank lines read by a LineReader into batches of bounded
+ * size, keeping track of their line numbers. Commands process one batch at a
+ * time, so their memory usage does not depend on the input size.
+ */
+class LineBatchReader {
+    private final LineReader reader;
+
+    private final int batchSize;
+
+    private long lineCount;
+
+    LineBatchReader(LineReader reader, int batchSize) {
+        this.reader = reader;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Reads the next non-blank line, such as the header of a CSV file,
+     * outside of any batch.
+     *
+     * @return The next non-blank line, trimmed, or null at the end of the
+     *         input
+     *
+     * @throws IOException If the input cannot be read
+     */
+    String nextLine() throws IOException {
+        String line;
+
+        while ((line = reader.readLine()) != null) {
+            ++lineCount;
+            line = line.trim();
+
+            if (!line.isEmpty()) {
+                return line;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Reads the next batch. The lines are trimmed, and blank lines are
+     * skipped.
+     *
+     * @return The next batch, or null at the end of the input
+     *
+     * @throws IOException If the input cannot be read
+     */
+    LineBatch next() throws IOException {
+        LineBatch result = new LineBatch(batchSize);
+
+        while (result.lines.size() < batchSize) {
+            String line = reader.readLine();
+
+            if (line == null) {
+                break;
+            }
+
+            ++lineCount;
+            line = line.trim();
+
+            if (!line.isEmpty()) {
+                result.add(lineCount, line);
+            }
+        }
+
+        return result.lines.isEmpty() ? null : result;
+    }
+
+    /**
+     * Non-blank lines of the input that are processed together, with their
+     * line numbers.
+     */
+    static class LineBatch {
+        final List<String> lines;
+
+        final long[] lineNumbers;
+
+        LineBatch(int maxSize) {
+            lines = new ArrayList<>(maxSize);
+            lineNumbers = new long[maxSize];
+        }
+
+        void add(long lineNumber, String line) {
+            lineNumbers[lines.size()] = lineNumber;
+            lines.add(line);
+        }
+    }
+}
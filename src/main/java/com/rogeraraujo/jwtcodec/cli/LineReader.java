@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads text one line at a time. Lines end with "\n" or "\r\n"; the line
+ * terminator is not part of the returned lines.
+ */
+public interface LineReader extends Closeable {
+    /**
+     * Reads the next line.
+     *
+     * @return The next line, or null at the end of the input
+     *
+     * @throws IOException If the input cannot be read
+     */
+    String readLine() throws IOException;
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.cli;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads UTF-8 lines from a file by memory-mapping it one chunk at a time.
+ * Only the current chunk is mapped, and the mapped pages belong to the
+ * operating system's file cache rather than to the Java heap, so reading a
+ * file of several gigabytes keeps the heap usage flat. A line cannot be
+ * longer than the chunk size.
+ */
+public class MappedFileLineReader implements LineReader {
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+
+    private final long fileSize;
+
+    private final int chunkSize;
+
+    private MappedByteBuffer chunk;
+
+    // Position of the current chunk in the file
+    private long chunkOffset;
+
+    // Position of the next line in the current chunk
+    private int position;
+
+    // Reused to copy a line out of the mapped chunk before decoding it
+    private byte[] lineBytes = new byte[1024];
+
+    public MappedFileLineReader(Path file) throws IOException {
+        this(file, DEFAULT_CHUNK_SIZE);
+    }
+
+    public MappedFileLineReader(Path file, int chunkSize) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("File cannot be null");
+        }
+
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException(
+                "Chunk size must be greater than zero");
+        }
+
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.chunkSize = chunkSize;
+        mapChunk(0L);
+    }
+
+    private void mapChunk(long offset) throws IOException {
+        chunkOffset = offset;
+        position = 0;
+        chunk = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+            Math.min(chunkSize, fileSize - offset));
+    }
+
+    @Override
+    public String readLine() throws IOException {
+        while (true) {
+            int limit = chunk.limit();
+
+            for (int i = position; i < limit; ++i) {
+                if (chunk.get(i) == '\n') {
+                    String result = decodeLine(position, i);
+                    position = i + 1;
+
+                    return result;
+                }
+            }
+
+            boolean isLastChunk = (chunkOffset + limit == fileSize);
+
+            if (isLastChunk) {
+                if (position == limit) {
+                    return null;
+                }
+
+                // The last line has no terminator
+                String result = decodeLine(position, limit);
+                position = limit;
+
+                return result;
+            }
+
+            if (position == 0) {
+                throw new IOException("Line at offset " + chunkOffset +
+                    " is longer than the chunk size of " + chunkSize + " bytes");
+            }
+
+            // Maps the next chunk starting at the incomplete line
+            mapChunk(chunkOffset + position);
+        }
+    }
+
+    private String decodeLine(int start, int end) {
+        if ((end > start) && (chunk.get(end - 1) == '\r')) {
+            --end;
+        }
+
+        int length = end - start;
+
+        if (lineBytes.length < length) {
+            lineBytes = new byte[Math.max(length, 2 * lineBytes.length)];
+        }
+
+        // The cast keeps the code compatible with Java 8, where position()
+        // is only declared by Buffer
+        ((Buffer) chunk).position(start);
+        chunk.get(lineBytes, 0, length);
+
+        return new String(lineBytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        chunk = null;
+        channel.close();
+    }
+}
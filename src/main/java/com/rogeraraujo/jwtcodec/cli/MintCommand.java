@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.cli;
+
+import com.rogeraraujo.jwtcodec.cli.LineBatchReader.LineBatch;
+import com.rogeraraujo.jwtcodec.jwt.JwtEngine;
+import com.rogeraraujo.jwtcodec.jwt.JwtSignatureAlgorithm;
+import com.rogeraraujo.jwtcodec.jwt.JwtUtils;
+import com.rogeraraujo.jwtcodec.jwt.UniqueIdGenerator;
+import io.fusionauth.jwt.Signer;
+import io.fusionauth.jwt.domain.JWT;
+import io.fusionauth.jwt.json.Mapper;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The "mint" command: reads claim rows from a JSONL or CSV file (or from the
+ * standard input), creates one token per row and writes the signed tokens,
+ * one per line and in the order of the rows. Rows are parsed and signed in
+ * parallel, in bounded batches, and the tokens are written through a
+ * buffered channel, so millions of tokens can be minted without holding them
+ * in memory.
+ */
+public class MintCommand implements Command {
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 20;
+
+    private static final String STDIN_FILE_NAME = "-";
+
+    private static final String FORMAT_JSONL = "jsonl";
+
+    private static final String FORMAT_CSV = "csv";
+
+    /**
+     * Rows below which a task mints its rows itself instead of splitting
+     * them further.
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+
+    @Override
+    public String getName() {
+        return "mint";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Signs one token per row of a JSONL or CSV claims file";
+    }
+
+    @Override
+    public String getUsage() {
+        return "Usage: jwtcodec mint --alg <algorithm> " +
+            "(--key <key> | --key-file <file>)\n" +
+            "                     [--format jsonl|csv] [--jti <format>] " +
+            "[--threads <n>]\n" +
+            "                     [--batch-size <n>] " +
+            "[--out <file>] [<input-file>]\n" +
+            "\n" +
+            "  --alg         Signature algorithm, e.g., HS256, RS256, ES256 or PS256\n" +
+            "  --key         Secret key (HMAC) or PEM-encoded private key (RSA, EC)\n" +
+            "  --key-file    File containing the key\n" +
+            "  --format      Format of the input; defaults to csv for .csv files\n" +
+            "                and to jsonl otherwise\n" +
+            "  --jti         Generates a JWT ID for rows without one, in the\n" +
+            "                uuid-v7, ulid or random-uuid format\n" +
+            "  --threads     Number of signing threads; defaults to the number\n" +
+            "                of processors\n" +
+            "  --batch-size  Number of rows signed together; defaults to " +
+            DEFAULT_BATCH_SIZE + "\n" +
+            "  --out         Output file; defaults to the standard output\n" +
+            "  <input-file>  File with the claim rows; reads the standard input\n" +
+            "                when absent or \"-\"\n" +
+            "\n" +
+            "JSONL rows are JSON objects; CSV files start with a header row\n" +
+            "naming the claims. The iat, exp and nbf claims take epoch seconds\n" +
+            "or ISO-8601 timestamps; empty CSV fields are skipped.";
+    }
+
+    @Override
+    public int execute(CommandOptions options) throws Exception {
+        String algoName = options.getRequiredString("alg");
+        JwtSignatureAlgorithm signatureAlgo =
+            JwtSignatureAlgorithm.fromShortName(algoName);
+
+        if (signatureAlgo == null) {
+            throw new UsageException(
+                "Signature algorithm [" + algoName + "] is not supported");
+        }
+
+        String key = options.getTextOrFileContents("key", "key-file");
+        int threadCount = options.getPositiveInt(
+            "threads", Runtime.getRuntime().availableProcessors());
+        int batchSize = options.getPositiveInt("batch-size", DEFAULT_BATCH_SIZE);
+        List<String> positionalArgs = options.getPositionalArgs();
+
+        if (positionalArgs.size() > 1) {
+            throw new UsageException("Only one input file can be given");
+        }
+
+        String inputFileName = positionalArgs.isEmpty() ?
+            STDIN_FILE_NAME : positionalArgs.get(0);
+        String outputFileName = options.getString("out", null);
+        String format = options.getString("format",
+            inputFileName.toLowerCase().endsWith(".csv") ? FORMAT_CSV : FORMAT_JSONL);
+
+        if (!FORMAT_JSONL.equals(format) && !FORMAT_CSV.equals(format)) {
+            throw new UsageException("Format [" + format + "] is not supported");
+        }
+
+        String jtiFormatName = options.getString("jti", null);
+        UniqueIdGenerator.Format jtiFormat =
+            UniqueIdGenerator.Format.fromName(jtiFormatName);
+
+        if ((jtiFormatName != null) && (jtiFormat == null)) {
+            throw new UsageException(
+                "JWT ID format [" + jtiFormatName + "] is not supported");
+        }
+
+        UniqueIdGenerator idGenerator = (jtiFormat != null) ?
+            new UniqueIdGenerator(jtiFormat) : null;
+        Signer signer;
+
+        try {
+            signer = new JwtEngine().getSigner(signatureAlgo, key);
+        } catch (Exception ex) {
+            System.err.println("Error: Could not create signer. Please " +
+                "check whether the key is in a valid format (" + ex + ")");
+            return CommandRunner.EXIT_FAILURE;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+
+        try (LineReader reader = STDIN_FILE_NAME.equals(inputFileName) ?
+                new StreamLineReader(System.in) :
+                new MappedFileLineReader(Paths.get(inputFileName));
+             WritableByteChannel channel = (outputFileName != null) ?
+                FileChannel.open(Paths.get(outputFileName),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING) :
+                Channels.newChannel(new FileOutputStream(FileDescriptor.out))) {
+            long start = System.nanoTime();
+            long tokenCount = mint(reader, FORMAT_CSV.equals(format), channel,
+                pool, signer, idGenerator, batchSize);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            System.err.printf("Minted %d tokens in %.3f s, %.0f tokens/s%n",
+                tokenCount, seconds, tokenCount / Math.max(seconds, 1e-9));
+
+            return CommandRunner.EXIT_SUCCESS;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Mints one token per row read by a LineReader and writes the tokens to
+     * a channel, one per line. While a batch is being signed, the previous
+     * one is written and the next one is read.
+     *
+     * @param reader Source of the claim rows
+     * @param isCsv Whether the rows are in CSV format, with a header row,
+     *              instead of JSONL
+     * @param channel Destination of the tokens
+     * @param pool Pool that parses and signs the rows
+     * @param signer Signer of the tokens
+     * @param idGenerator Generator of JWT IDs for rows without one; can be
+     *                    null
+     * @param batchSize Maximum number of rows per batch
+     *
+     * @return Number of tokens written
+     *
+     * @throws IOException If the rows cannot be read or the tokens cannot be
+     *                     written
+     * @throws IllegalArgumentException If a row is not valid; the message
+     *                                  includes its line number
+     */
+    static long mint(LineReader reader, boolean isCsv, WritableByteChannel channel,
+            ForkJoinPool pool, Signer signer, UniqueIdGenerator idGenerator,
+            int batchSize) throws IOException {
+        LineBatchReader batchReader = new LineBatchReader(reader, batchSize);
+        String[] csvHeader = null;
+
+        if (isCsv) {
+            String headerLine = batchReader.nextLine();
+
+            if (headerLine == null) {
+                return 0L;
+            }
+
+            csvHeader = CsvLineParser.parse(headerLine).stream()
+                .map(String::trim).toArray(String[]::new);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(OUTPUT_BUFFER_SIZE);
+        long tokenCount = 0L;
+        MintTask pendingTask = null;
+
+        while (true) {
+            LineBatch batch = batchReader.next();
+            MintTask task = null;
+
+            if (batch != null) {
+                task = new MintTask(batch, csvHeader, signer, idGenerator);
+                pool.execute(task);
+            }
+
+            if (pendingTask != null) {
+                pendingTask.join();
+                tokenCount += pendingTask.write(channel, buffer);
+            }
+
+            if (task == null) {
+                flush(channel, buffer);
+                return tokenCount;
+            }
+
+            pendingTask = task;
+        }
+    }
+
+    private static void flush(WritableByteChannel channel, ByteBuffer buffer)
+            throws IOException {
+        // The casts keep the code compatible with Java 8, where flip() and
+        // clear() are only declared by Buffer
+        ((Buffer) buffer).flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        ((Buffer) buffer).clear();
+    }
+
+    /**
+     * Creates a token from a claim row.
+     *
+     * @param line The row
+     * @param csvHeader Claim names of the CSV columns; null for JSONL rows
+     *
+     * @return The unsigned token
+     */
+    @SuppressWarnings("unchecked")
+    static JWT createToken(String line, String[] csvHeader) {
+        if (csvHeader == null) {
+            return JwtUtils.createToken(Mapper.deserialize(
+                line.getBytes(StandardCharsets.UTF_8), Map.class));
+        }
+
+        List<String> fields = CsvLineParser.parse(line);
+
+        if (fields.size() != csvHeader.length) {
+            throw new IllegalArgumentException("Expected " + csvHeader.length +
+                " fields, but found " + fields.size());
+        }
+
+        Map<String, String> claims = new HashMap<>();
+
+        for (int i = 0; i < csvHeader.length; ++i) {
+            String value = fields.get(i);
+
+            // Empty fields are skipped, as disabled fields are in the
+            // encoding tab
+            if (!value.isEmpty()) {
+                claims.put(csvHeader[i], value);
+            }
+        }
+
+        return JwtUtils.createToken(claims);
+    }
+
+    /**
+     * Fork/join task that parses and signs a range of rows of a batch,
+     * splitting it in halves while it is larger than SEQUENTIAL_THRESHOLD.
+     * The root task covers the whole batch and keeps the results.
+     */
+    private static class MintTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient LineBatch batch;
+
+        private final String[] csvHeader;
+
+        private final transient Signer signer;
+
+        private final transient UniqueIdGenerator idGenerator;
+
+        // Encoded tokens, each followed by a line break
+        private final byte[][] tokens;
+
+        private final String[] errorMessages;
+
+        private final int start;
+
+        private final int end;
+
+        MintTask(LineBatch batch, String[] csvHeader, Signer signer,
+                UniqueIdGenerator idGenerator) {
+            this(batch, csvHeader, signer, idGenerator,
+                new byte[batch.lines.size()][],
+                new String[batch.lines.size()], 0, batch.lines.size());
+        }
+
+        private MintTask(LineBatch batch, String[] csvHeader, Signer signer,
+                UniqueIdGenerator idGenerator, byte[][] tokens, String[] errorMessages, int start, int end) {
+            this.batch = batch;
+            this.csvHeader = csvHeader;
+            this.signer = signer;
+            this.idGenerator = idGenerator;
+            this.tokens = tokens;
+            this.errorMessages = errorMessages;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if ((end - start) > SEQUENTIAL_THRESHOLD) {
+                int middle = (start + end) >>> 1;
+
+                invokeAll(
+                    new MintTask(batch, csvHeader, signer, idGenerator, tokens,
+                        errorMessages, start, middle),
+                    new MintTask(batch, csvHeader, signer, idGenerator, tokens,
+                        errorMessages, middle, end));
+                return;
+            }
+
+            for (int i = start; i < end; ++i) {
+                try {
+                    JWT unsignedToken = createToken(batch.lines.get(i), csvHeader);
+
+                    if ((idGenerator != null) && (unsignedToken.uniqueId == null)) {
+                        unsignedToken.setUniqueId(idGenerator.nextId());
+                    }
+
+                    String token = JWT.getEncoder().encode(unsignedToken, signer);
+                    tokens[i] = (token + '\n').getBytes(StandardCharsets.US_ASCII);
+                } catch (Exception ex) {
+                    errorMessages[i] = (ex.getMessage() != null) ?
+                        ex.getMessage() : ex.getClass().getName();
+                }
+            }
+        }
+
+        /**
+         * Writes the tokens of the batch, in order.
+         *
+         * @return Number of tokens written
+         *
+         * @throws IllegalArgumentException If a row could not be minted
+         */
+        long write(WritableByteChannel channel, ByteBuffer buffer)
+                throws IOException {
+            for (int i = 0; i < tokens.length; ++i) {
+                if (errorMessages[i] != null) {
+                    flush(channel, buffer);
+                    throw new IllegalArgumentException("Line " +
+                        batch.lineNumbers[i] + ": " + errorMessages[i]);
+                }
+
+                if (buffer.remaining() < tokens[i].length) {
+                    flush(channel, buffer);
+                }
+
+                if (buffer.remaining() < tokens[i].length) {
+                    // Longer than the whole buffer
+                    ByteBuffer tokenBuffer = ByteBuffer.wrap(tokens[i]);
+
+                    while (tokenBuffer.hasRemaining()) {
+                        channel.write(tokenBuffer);
+                    }
+                }
+                else {
+                    buffer.put(tokens[i]);
+                }
+            }
+
+            return tokens.length;
+        }
+    }
+}
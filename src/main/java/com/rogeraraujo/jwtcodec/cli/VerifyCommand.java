@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.cli;
+
+import com.rogeraraujo.jwtcodec.cli.LineBatchReader.LineBatch;
+import com.rogeraraujo.jwtcodec.jwt.JwtBatchVerifier;
+import com.rogeraraujo.jwtcodec.jwt.JwtEngine;
+import com.rogeraraujo.jwtcodec.jwt.JwtKeyResolver;
+import com.rogeraraujo.jwtcodec.jwt.JwtKeyRing;
+import com.rogeraraujo.jwtcodec.jwt.JwtSignatureAlgorithm;
+import com.rogeraraujo.jwtcodec.jwt.JwtVerificationResult;
+import io.fusionauth.jwt.json.Mapper;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * The "verify" command: reads newline-delimited tokens from a file or from
+ * the standard input, verifies them and writes one JSON line per token with
+ * its status and decoded claims. Files are memory-mapped in chunks, and
+ * tokens are verified in bounded batches, so memory usage does not grow
+ * with the input size. While a batch is being verified, the previous one is
+ * written and the next one is read.
+ */
+public class VerifyCommand implements Command {
+    public static final int DEFAULT_BATCH_SIZE = 8192;
+
+    private static final int OUTPUT_BUFFER_SIZE = 1 << 16;
+
+    private static final String STDIN_FILE_NAME = "-";
+
+    @Override
+    public String getName() {
+        return "verify";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Verifies newline-delimited tokens and writes JSON lines";
+    }
+
+    @Override
+    public String getUsage() {
+        return "Usage: jwtcodec verify [--alg <algorithm>] " +
+            "(--key <key> | --key-file <file> | --key-dir <dir>)\n" +
+            "                       [--threads <n>] [--batch-size <n>] " +
+            "[--out <file>] [<input-file>]\n" +
+            "\n" +
+            "  --alg         Signature algorithm, e.g., HS256, RS256, ES256 or PS256;\n" +
+            "                when absent, the algorithm named by each token header\n" +
+            "                is used if it fits the type of the key\n" +
+            "  --key         Secret key (HMAC) or PEM-encoded public key (RSA, EC)\n" +
+            "  --key-file    File containing the key\n" +
+            "  --key-dir     Directory of PEM and JWKS files; each token is\n" +
+            "                verified with the key named by its \"kid\" header,\n" +
+            "                so --alg cannot be given\n" +
+            "  --threads     Number of verification threads; defaults to the\n" +
+            "                number of processors\n" +
+            "  --batch-size  Number of tokens verified together; defaults to " +
+            DEFAULT_BATCH_SIZE + "\n" +
+            "  --out         Output file; defaults to the standard output\n" +
+            "  <input-file>  File with one token per line; reads the standard\n" +
+            "                input when absent or \"-\"\n" +
+            "\n" +
+            "Output lines have the form {\"line\":1,\"valid\":true,\"claims\":{...}} " +
+            "or\n{\"line\":1,\"valid\":false,\"error\":\"...\"}. Blank lines are skipped.\n" +
+            "The exit code is 0 if every token is valid and 1 otherwise.";
+    }
+
+    @Override
+    public int execute(CommandOptions options) throws Exception {
+        String algoName = options.getString("alg", null);
+        JwtSignatureAlgorithm signatureAlgo =
+            JwtSignatureAlgorithm.fromShortName(algoName);
+
+        if ((algoName != null) && (signatureAlgo == null)) {
+            throw new UsageException(
+                "Signature algorithm [" + algoName + "] is not supported");
+        }
+
+        String keyDirName = options.getString("key-dir", null);
+        String key = null;
+        JwtKeyResolver keyResolver;
+
+        if (keyDirName != null) {
+            if (options.hasOption("key") || options.hasOption("key-file") ||
+                (signatureAlgo != null)) {
+                throw new UsageException(
+                    "--key-dir cannot be combined with --key, --key-file or --alg");
+            }
+
+            JwtKeyRing keyRing = new JwtKeyRing(Paths.get(keyDirName));
+            System.err.printf("Loaded %d key(s) from %s%n",
+                keyRing.size(), keyRing.getDirectory());
+            keyResolver = keyRing;
+        }
+        else {
+            String fixedKey = options.getTextOrFileContents("key", "key-file");
+            key = fixedKey;
+            keyResolver = headerInfo -> fixedKey;
+        }
+
+        int threadCount = options.getPositiveInt(
+            "threads", Runtime.getRuntime().availableProcessors());
+        int batchSize = options.getPositiveInt("batch-size", DEFAULT_BATCH_SIZE);
+        List<String> positionalArgs = options.getPositionalArgs();
+
+        if (positionalArgs.size() > 1) {
+            throw new UsageException("Only one input file can be given");
+        }
+
+        String inputFileName = positionalArgs.isEmpty() ?
+            STDIN_FILE_NAME : positionalArgs.get(0);
+        String outputFileName = options.getString("out", null);
+
+        JwtEngine jwtEngine = new JwtEngine();
+
+        try {
+            // Fails early, and only once, if the key is not usable. Without
+            // an algorithm, key errors are reported per token instead
+            if (signatureAlgo != null) {
+                jwtEngine.getVerifier(signatureAlgo, key);
+            }
+        } catch (Exception ex) {
+            System.err.println("Error: Could not create verifier. Please " +
+                "check whether the key is in a valid format (" + ex + ")");
+            return CommandRunner.EXIT_FAILURE;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threadCount);
+
+        try (LineReader reader = STDIN_FILE_NAME.equals(inputFileName) ?
+                new StreamLineReader(System.in) :
+                new MappedFileLineReader(Paths.get(inputFileName));
+             OutputStream out = new BufferedOutputStream((outputFileName != null) ?
+                new FileOutputStream(outputFileName) :
+                new FileOutputStream(FileDescriptor.out), OUTPUT_BUFFER_SIZE)) {
+            JwtBatchVerifier batchVerifier = new JwtBatchVerifier(jwtEngine, pool);
+            long start = System.nanoTime();
+            String fixedKey = key;
+            Statistics stats = verify(reader, out, pool,
+                (signatureAlgo != null) ?
+                    tokens -> batchVerifier.verify(tokens, signatureAlgo, fixedKey) :
+                    tokens -> batchVerifier.verify(tokens, keyResolver),
+                batchSize);
+            out.flush();
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+            System.err.printf("Verified %d tokens (%d valid, %d invalid) in " +
+                "%.3f s, %.0f tokens/s%n", stats.validCount + stats.invalidCount,
+                stats.validCount, stats.invalidCount, seconds,
+                (stats.validCount + stats.invalidCount) / Math.max(seconds, 1e-9));
+
+            return (stats.invalidCount == 0) ?
+                CommandRunner.EXIT_SUCCESS : CommandRunner.EXIT_FAILURE;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Verifies every token read by a LineReader and writes the results as
+     * JSON lines.
+     *
+     * @param reader Source of the tokens
+     * @param out Destination of the JSON lines
+     * @param pool Pool that runs the batch verifications
+     * @param batchVerification Function that verifies a batch of tokens,
+     *                          usually with a JwtBatchVerifier running on
+     *                          the pool
+     * @param batchSize Maximum number of tokens per batch
+     *
+     * @return Counts of valid and invalid tokens
+     *
+     * @throws IOException If the tokens cannot be read or the results cannot
+     *                     be written
+     */
+    static Statistics verify(LineReader reader, OutputStream out,
+            ForkJoinPool pool, Function<List<String>,
+                List<JwtVerificationResult>> batchVerification,
+            int batchSize) throws IOException {
+        Statistics stats = new Statistics();
+        LineBatchReader batchReader = new LineBatchReader(reader, batchSize);
+        LineBatch pendingBatch = null;
+        ForkJoinTask<List<JwtVerificationResult>> pendingTask = null;
+
+        while (true) {
+            // Reads the next batch while the pending one is being verified
+            LineBatch batch = batchReader.next();
+            ForkJoinTask<List<JwtVerificationResult>> task = (batch == null) ?
+                null : pool.submit(() -> batchVerification.apply(batch.lines));
+
+            if (pendingTask != null) {
+                writeResults(pendingBatch, pendingTask.join(), out, stats);
+            }
+
+            if (task == null) {
+                return stats;
+            }
+
+            pendingBatch = batch;
+            pendingTask = task;
+        }
+    }
+
+    private static void writeResults(LineBatch batch,
+            List<JwtVerificationResult> results, OutputStream out,
+            Statistics stats) throws IOException {
+        for (JwtVerificationResult result : results) {
+            // Only the variable parts go through the JSON mapper, which is
+            // noticeably faster than serializing a map per line
+            String prefix = "{\"line\":" + batch.lineNumbers[result.getIndex()];
+
+            if (result.isValid()) {
+                out.write((prefix + ",\"valid\":true,\"claims\":")
+                    .getBytes(StandardCharsets.US_ASCII));
+                out.write(Mapper.serialize(result.getDecodedToken()));
+                ++stats.validCount;
+            }
+            else {
+                out.write((prefix + ",\"valid\":false,\"error\":")
+                    .getBytes(StandardCharsets.US_ASCII));
+                out.write(Mapper.serialize(result.getErrorMessage()));
+                ++stats.invalidCount;
+            }
+
+            out.write('}');
+            out.write('\n');
+        }
+    }
+
+    /**
+     * Counts of the tokens verified by the command.
+     */
+    static class Statistics {
+        long validCount;
+
+        long invalidCount;
+    }
+}
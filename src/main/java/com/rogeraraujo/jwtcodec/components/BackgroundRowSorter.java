@@ -0,0 +1,580 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.components;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.swing.*;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * A RowSorter for ListTableModel that sorts and filters rows on a background
+ * thread, so that tables with millions of rows stay responsive. Sort keys
+ * are computed once per row before sorting (CollationKeys for strings,
+ * doubles for numbers), and rows are sorted with Arrays.parallelSort. The
+ * new view-to-model mapping is then swapped in on the event dispatch thread
+ * in a single step, and listeners are notified with a SORTED event; until
+ * then, the table keeps showing the previous order.
+ *
+ * <p>The rows are copied on the event dispatch thread, which is cheap, and
+ * the copy is read in the background through the TableFormat of the model.
+ * Therefore, TableFormat.getValueAt() and the row filters must be
+ * thread-safe, and rows must be replaced with ListTableModel.setRow() instead
+ * of modified in place.</p>
+ *
+ * <p>Inserted rows are shown at the end of the view, and deleted rows are
+ * removed from it immediately; the rows are sorted and filtered again in the
+ * background. When a filter only narrows the previous one, e.g., as the user
+ * types a filter text, only the rows shown by the previous filter are
+ * tested.</p>
+ *
+ * <p>All methods must be called on the event dispatch thread.</p>
+ *
+ * @param <T> Type of the rows of the model
+ */
+@Slf4j
+public class BackgroundRowSorter<T> extends RowSorter<ListTableModel<T>> {
+    public static final int MAX_SORT_KEYS = 3;
+
+    private static final ExecutorService EXECUTOR =
+        Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "background-row-sorter");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private static final ThreadLocal<Collator> COLLATORS =
+        ThreadLocal.withInitial(Collator::getInstance);
+
+    private final ListTableModel<T> model;
+
+    private List<SortKey> sortKeys = Collections.emptyList();
+
+    private Predicate<? super T> rowFilter;
+
+    @Getter
+    private String filterText;
+
+    /**
+     * Current mapping; replaced as a whole, never modified.
+     */
+    private Mapping mapping = Mapping.IDENTITY;
+
+    /**
+     * Row filter and filter text that produced the current mapping. They
+     * differ from rowFilter and filterText while a request is pending.
+     */
+    private Predicate<? super T> mappingFilter;
+
+    private String mappingFilterText;
+
+    /**
+     * Incremented for every new sort request, so that results of outdated
+     * requests are discarded.
+     */
+    private volatile long generation;
+
+    /**
+     * Incremented whenever the rows of the model change, so that a filter is
+     * only narrowed over the rows it was applied to.
+     */
+    private long modelVersion;
+
+    private long mappingModelVersion;
+
+    public BackgroundRowSorter(ListTableModel<T> model) {
+        if (model == null) {
+            throw new IllegalArgumentException("Table model cannot be null");
+        }
+
+        this.model = model;
+    }
+
+    @Override
+    public ListTableModel<T> getModel() {
+        return model;
+    }
+
+    @Override
+    public void toggleSortOrder(int column) {
+        checkColumn(column);
+        List<SortKey> newSortKeys = new ArrayList<>(sortKeys);
+        SortOrder sortOrder = SortOrder.ASCENDING;
+
+        for (int i = 0; i < newSortKeys.size(); ++i) {
+            if (newSortKeys.get(i).getColumn() == column) {
+                if (newSortKeys.get(i).getSortOrder() == SortOrder.ASCENDING) {
+                    sortOrder = SortOrder.DESCENDING;
+                }
+
+                newSortKeys.remove(i);
+                break;
+            }
+        }
+
+        newSortKeys.add(0, new SortKey(column, sortOrder));
+
+        if (newSortKeys.size() > MAX_SORT_KEYS) {
+            newSortKeys = newSortKeys.subList(0, MAX_SORT_KEYS);
+        }
+
+        setSortKeys(newSortKeys);
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        List<SortKey> newSortKeys = new ArrayList<>();
+
+        if (keys != null) {
+            for (SortKey key : keys) {
+                checkColumn(key.getColumn());
+
+                if (key.getSortOrder() != SortOrder.UNSORTED) {
+                    newSortKeys.add(key);
+                }
+            }
+        }
+
+        if (!newSortKeys.equals(sortKeys)) {
+            sortKeys = Collections.unmodifiableList(newSortKeys);
+            fireSortOrderChanged();
+            sort(false);
+        }
+    }
+
+    private void checkColumn(int column) {
+        if ((column < 0) || (column >= model.getColumnCount())) {
+            throw new IndexOutOfBoundsException(
+                "Column [" + column + "] is invalid");
+        }
+    }
+
+    /**
+     * Returns the current row filter.
+     *
+     * @return The row filter, or null if no rows are filtered out
+     */
+    public Predicate<? super T> getRowFilter() {
+        return rowFilter;
+    }
+
+    /**
+     * Sets a row filter, testing every row of the model.
+     *
+     * @param rowFilter Predicate that accepts the rows to show; can be null
+     */
+    public void setRowFilter(Predicate<? super T> rowFilter) {
+        this.rowFilter = rowFilter;
+        this.filterText = null;
+        sort(false);
+    }
+
+    /**
+     * Sets a row filter that only accepts rows accepted by the current one,
+     * so only the rows currently shown are tested. If the rows shown were
+     * not filtered by the current filter yet, every row is tested.
+     *
+     * @param rowFilter Predicate that accepts the rows to show; cannot be null
+     */
+    public void narrowRowFilter(Predicate<? super T> rowFilter) {
+        if (rowFilter == null) {
+            throw new IllegalArgumentException("Row filter cannot be null");
+        }
+
+        // The rows shown may still come from an older filter, which does
+        // not necessarily accept every row accepted by the current one
+        boolean narrows = (mappingFilter != null) &&
+            (mappingFilter == this.rowFilter);
+        this.rowFilter = rowFilter;
+        this.filterText = null;
+        sort(narrows);
+    }
+
+    /**
+     * Shows only the rows with a cell that contains a text, ignoring case.
+     * If the text contains the filter text of the rows shown, e.g., because
+     * the user typed another character, the filter is narrowed. The cell values are
+     * read with a row index of -1, as the filter only knows the row objects.
+     *
+     * @param text Text to look for; null or empty to show every row
+     */
+    public void setFilterText(String text) {
+        String newText = ((text != null) && !text.isEmpty()) ?
+            text.toLowerCase(Locale.ROOT) : null;
+
+        if (Objects.equals(newText, filterText)) {
+            return;
+        }
+
+        // Compared with the text of the rows shown rather than the last
+        // requested one, which may not have been applied yet
+        boolean narrows = (newText != null) && (mappingFilterText != null) &&
+            newText.contains(mappingFilterText);
+        TableFormat<T> format = model.getFormat();
+        int columnCount = model.getColumnCount();
+
+        rowFilter = (newText == null) ? null : row -> {
+            for (int column = 0; column < columnCount; ++column) {
+                Object value = format.getValueAt(row, -1, column);
+
+                if ((value != null) &&
+                    value.toString().toLowerCase(Locale.ROOT).contains(newText)) {
+                    return true;
+                }
+            }
+
+            return false;
+        };
+        filterText = newText;
+        sort(narrows);
+    }
+
+    /**
+     * Sorts and filters the rows again in the background, e.g., after rows
+     * were changed in place.
+     */
+    public void sort() {
+        sort(false);
+    }
+
+    private void sort(boolean narrowFilter) {
+        long requestGeneration = ++generation;
+
+        if (sortKeys.isEmpty() && (rowFilter == null)) {
+            // Nothing to compute
+            apply(requestGeneration, Mapping.IDENTITY, modelVersion, null, null);
+            return;
+        }
+
+        Object[] rows = model.getItems().toArray();
+        int[] baseRows = (narrowFilter && (mapping.viewToModel != null) &&
+            (mappingModelVersion == modelVersion)) ? mapping.viewToModel : null;
+        List<SortKey> requestSortKeys = sortKeys;
+        Predicate<? super T> requestFilter = rowFilter;
+        String requestFilterText = filterText;
+        long requestModelVersion = modelVersion;
+
+        EXECUTOR.execute(() -> {
+            if (!isCurrent(requestGeneration)) {
+                return;
+            }
+
+            try {
+                Mapping newMapping = computeMapping(rows, baseRows,
+                    requestSortKeys, requestFilter);
+                SwingUtilities.invokeLater(() -> apply(requestGeneration,
+                    newMapping, requestModelVersion, requestFilter,
+                    requestFilterText));
+            } catch (RuntimeException ex) {
+                log.error("Error sorting table rows:", ex);
+            }
+        });
+    }
+
+    private boolean isCurrent(long requestGeneration) {
+        return requestGeneration == generation;
+    }
+
+    private void apply(long requestGeneration, Mapping newMapping,
+            long requestModelVersion, Predicate<? super T> requestFilter,
+            String requestFilterText) {
+        // Results of a request made before the latest one, or before the
+        // rows changed, are discarded; a newer request is on its way
+        if ((requestGeneration != generation) ||
+            (requestModelVersion != modelVersion)) {
+            return;
+        }
+
+        setMapping(newMapping, requestFilter, requestFilterText);
+    }
+
+    private void setMapping(Mapping newMapping,
+            Predicate<? super T> newMappingFilter, String newMappingFilterText) {
+        int[] previousViewToModel = mapping.toViewToModel(model.getRowCount());
+        mapping = newMapping;
+        mappingFilter = newMappingFilter;
+        mappingFilterText = newMappingFilterText;
+        mappingModelVersion = modelVersion;
+        fireRowSorterChanged(previousViewToModel);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mapping computeMapping(Object[] rows, int[] baseRows,
+            List<SortKey> requestSortKeys, Predicate<? super T> requestFilter) {
+        IntStream candidates = (baseRows != null) ?
+            Arrays.stream(baseRows) : IntStream.range(0, rows.length);
+        int[] included = (requestFilter != null) ?
+            candidates.parallel()
+                .filter(i -> requestFilter.test((T) rows[i])).toArray() :
+            candidates.toArray();
+
+        if (!requestSortKeys.isEmpty()) {
+            ColumnKeys[] columnKeys = new ColumnKeys[requestSortKeys.size()];
+
+            for (int k = 0; k < columnKeys.length; ++k) {
+                SortKey sortKey = requestSortKeys.get(k);
+                columnKeys[k] = new ColumnKeys(sortKey, rows, included,
+                    model.getFormat(),
+                    model.getColumnClass(sortKey.getColumn()));
+            }
+
+            Integer[] boxed = new Integer[included.length];
+
+            for (int i = 0; i < included.length; ++i) {
+                boxed[i] = included[i];
+            }
+
+            // Stable, so equal rows keep their model order
+            Arrays.parallelSort(boxed, (r1, r2) -> {
+                for (ColumnKeys keys : columnKeys) {
+                    int result = keys.compare(r1, r2);
+
+                    if (result != 0) {
+                        return result;
+                    }
+                }
+
+                return 0;
+            });
+
+            for (int i = 0; i < included.length; ++i) {
+                included[i] = boxed[i];
+            }
+        }
+
+        return new Mapping(included, rows.length);
+    }
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        int[] viewToModel = mapping.viewToModel;
+
+        if (viewToModel == null) {
+            if ((index < 0) || (index >= model.getRowCount())) {
+                throw new IndexOutOfBoundsException("Invalid index");
+            }
+
+            return index;
+        }
+
+        return viewToModel[index];
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        int[] modelToView = mapping.modelToView;
+
+        if (modelToView == null) {
+            if ((index < 0) || (index >= model.getRowCount())) {
+                throw new IndexOutOfBoundsException("Invalid index");
+            }
+
+            return index;
+        }
+
+        return modelToView[index];
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return (mapping.viewToModel != null) ?
+            mapping.viewToModel.length : model.getRowCount();
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return model.getRowCount();
+    }
+
+    @Override
+    public void modelStructureChanged() {
+        sortKeys = Collections.emptyList();
+        rowFilter = null;
+        filterText = null;
+        allRowsChanged();
+    }
+
+    @Override
+    public void allRowsChanged() {
+        ++modelVersion;
+        mapping = Mapping.IDENTITY;
+        sort(false);
+    }
+
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+        ++modelVersion;
+
+        if (mapping.viewToModel != null) {
+            int insertedCount = endRow - firstRow + 1;
+            int[] oldViewToModel = mapping.viewToModel;
+            int[] viewToModel = Arrays.copyOf(
+                oldViewToModel, oldViewToModel.length + insertedCount);
+
+            for (int i = 0; i < oldViewToModel.length; ++i) {
+                if (viewToModel[i] >= firstRow) {
+                    viewToModel[i] += insertedCount;
+                }
+            }
+
+            for (int i = 0; i < insertedCount; ++i) {
+                viewToModel[oldViewToModel.length + i] = firstRow + i;
+            }
+
+            mapping = new Mapping(viewToModel, model.getRowCount());
+        }
+
+        sort(false);
+    }
+
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+        ++modelVersion;
+
+        if (mapping.viewToModel != null) {
+            int deletedCount = endRow - firstRow + 1;
+            int[] viewToModel = Arrays.stream(mapping.viewToModel)
+                .filter(i -> (i < firstRow) || (i > endRow))
+                .map(i -> (i > endRow) ? (i - deletedCount) : i)
+                .toArray();
+            mapping = new Mapping(viewToModel, model.getRowCount());
+        }
+
+        sort(false);
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+        ++modelVersion;
+        sort(false);
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+        rowsUpdated(firstRow, endRow);
+    }
+
+    /**
+     * View-to-model and model-to-view mappings; both null if the view shows
+     * every row in model order.
+     */
+    private static class Mapping {
+        static final Mapping IDENTITY = new Mapping();
+
+        final int[] viewToModel;
+
+        final int[] modelToView;
+
+        private Mapping() {
+            viewToModel = null;
+            modelToView = null;
+        }
+
+        Mapping(int[] viewToModel, int modelRowCount) {
+            this.viewToModel = viewToModel;
+            this.modelToView = new int[modelRowCount];
+            Arrays.fill(modelToView, -1);
+
+            for (int i = 0; i < viewToModel.length; ++i) {
+                modelToView[viewToModel[i]] = i;
+            }
+        }
+
+        int[] toViewToModel(int modelRowCount) {
+            return (viewToModel != null) ?
+                viewToModel : IntStream.range(0, modelRowCount).toArray();
+        }
+    }
+
+    /**
+     * Precomputed sort keys of one column, indexed by model row.
+     */
+    private static class ColumnKeys {
+        private final boolean descending;
+
+        private final double[] numbers;
+
+        private final Comparable<Object>[] objects;
+
+        // Null values sort before any other value
+        private final boolean[] isNull;
+
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        ColumnKeys(SortKey sortKey, Object[] rows, int[] includedRows,
+                TableFormat format, Class<?> columnClass) {
+            int column = sortKey.getColumn();
+            boolean isNumeric = Number.class.isAssignableFrom(columnClass);
+
+            this.descending = (sortKey.getSortOrder() == SortOrder.DESCENDING);
+            this.numbers = isNumeric ? new double[rows.length] : null;
+            this.objects = isNumeric ? null : new Comparable[rows.length];
+            this.isNull = new boolean[rows.length];
+
+            Arrays.stream(includedRows).parallel().forEach(row -> {
+                Object value = format.getValueAt(rows[row], row, column);
+
+                if (value == null) {
+                    isNull[row] = true;
+                }
+                else if (isNumeric) {
+                    numbers[row] = ((Number) value).doubleValue();
+                }
+                else {
+                    objects[row] = toComparable(value);
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Comparable<Object> toComparable(Object value) {
+            if ((value instanceof Comparable) && !(value instanceof String)) {
+                return (Comparable<Object>) value;
+            }
+
+            // Collators are not thread-safe, so each thread has its own
+            CollationKey key = COLLATORS.get().getCollationKey(value.toString());
+            return (Comparable<Object>) (Comparable<?>) key;
+        }
+
+        int compare(int row1, int row2) {
+            int result;
+
+            if (isNull[row1] || isNull[row2]) {
+                result = Boolean.compare(!isNull[row1], !isNull[row2]);
+            }
+            else if (numbers != null) {
+                result = Double.compare(numbers[row1], numbers[row2]);
+            }
+            else {
+                result = objects[row1].compareTo(objects[row2]);
+            }
+
+            return descending ? -result : result;
+        }
+    }
+}
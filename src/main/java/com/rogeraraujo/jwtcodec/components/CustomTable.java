@@ -17,34 +17,153 @@
 package com.rogeraraujo.jwtcodec.components;
 
 import lombok.Getter;
-import lombok.Setter;
 
 import javax.swing.*;
-import javax.swing.table.TableCellRenderer;
-import javax.swing.table.TableModel;
+import javax.swing.table.*;
+import java.awt.*;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * A specialized JTable that allows the user to customize the cell rendering
  * components returned by the JTable#getCellRenderer() method.
+ *
+ * <p>In high-volume rendering mode, meant for tables with many rows, cells
+ * of columns rendered by the default Object renderer get one
+ * CustomTableCellRenderer per column and row parity, with style caching
+ * enabled (see CustomTableCellRenderer#setStyleCaching()), instead of
+ * sharing the custom cell renderer. Consecutive cells painted by the same
+ * renderer usually have the same styling, so only their values are set. The
+ * component transformer of the custom cell renderer must then depend only on
+ * the selection and focus states and the row parity, not on the cell
+ * value.</p>
  */
 public class CustomTable extends JTable {
-    @Getter @Setter
+    public static final int DEFAULT_AUTO_FIT_SAMPLE_SIZE = 500;
+
+    @Getter
     private CustomTableCellRenderer customCellRenderer;
 
+    @Getter
+    private boolean highVolumeRendering;
+
+    // Renderers of the high-volume rendering mode, for even and odd rows
+    private Map<TableColumn, CustomTableCellRenderer[]> columnRenderers =
+        new WeakHashMap<>();
+
     public CustomTable(TableModel tableModel) {
         super(tableModel);
     }
 
+    public void setCustomCellRenderer(CustomTableCellRenderer customCellRenderer) {
+        this.customCellRenderer = customCellRenderer;
+        columnRenderers.clear();
+        repaint();
+    }
+
+    public void setHighVolumeRendering(boolean highVolumeRendering) {
+        this.highVolumeRendering = highVolumeRendering;
+        columnRenderers.clear();
+        repaint();
+    }
+
+    @Override
+    public void updateUI() {
+        super.updateUI();
+
+        // Called by the JTable constructor, before the fields are set
+        if (columnRenderers != null) {
+            columnRenderers.clear();
+        }
+    }
+
     @Override
     public TableCellRenderer getCellRenderer(int row, int column) {
         TableCellRenderer baseRenderer = super.getCellRenderer(row, column);
 
-        if (customCellRenderer != null) {
-            customCellRenderer.setBaseRenderer(baseRenderer);
-            return customCellRenderer;
-        }
-        else {
+        if (customCellRenderer == null) {
             return baseRenderer;
         }
+
+        if (highVolumeRendering &&
+            (baseRenderer.getClass() == DefaultTableCellRenderer.UIResource.class)) {
+            CustomTableCellRenderer[] renderers = columnRenderers.computeIfAbsent(
+                getColumnModel().getColumn(column),
+                tableColumn -> new CustomTableCellRenderer[] {
+                    createColumnRenderer(), createColumnRenderer() });
+
+            return renderers[row & 1];
+        }
+
+        customCellRenderer.setBaseRenderer(baseRenderer);
+        return customCellRenderer;
+    }
+
+    private CustomTableCellRenderer createColumnRenderer() {
+        CustomTableCellRenderer result = new CustomTableCellRenderer(
+            null, customCellRenderer.getComponentTransformer());
+        result.setStyleCaching(true);
+
+        return result;
+    }
+
+    /**
+     * Sets the preferred width of every column to fit its header and the
+     * contents of its cells. Tables with more rows than the sample size only
+     * measure a sample of evenly spaced rows, including the first and the
+     * last ones.
+     *
+     * @param maxSampledRows Maximum number of rows measured per column
+     */
+    public void autoFitColumns(int maxSampledRows) {
+        int[] rows = sampleRows(getRowCount(), maxSampledRows);
+        JTableHeader header = getTableHeader();
+        int spacing = getIntercellSpacing().width;
+
+        for (int column = 0; column < getColumnCount(); ++column) {
+            TableColumn tableColumn = getColumnModel().getColumn(column);
+            int width = tableColumn.getMinWidth();
+            TableCellRenderer headerRenderer = tableColumn.getHeaderRenderer();
+
+            if ((headerRenderer == null) && (header != null)) {
+                headerRenderer = header.getDefaultRenderer();
+            }
+
+            if (headerRenderer != null) {
+                Component component = headerRenderer.getTableCellRendererComponent(
+                    this, tableColumn.getHeaderValue(), false, false, -1, column);
+                width = Math.max(width, component.getPreferredSize().width);
+            }
+
+            for (int row : rows) {
+                Component component = prepareRenderer(
+                    getCellRenderer(row, column), row, column);
+                width = Math.max(width,
+                    component.getPreferredSize().width + spacing);
+            }
+
+            tableColumn.setPreferredWidth(
+                Math.min(width, tableColumn.getMaxWidth()));
+        }
+    }
+
+    /**
+     * Chooses the rows measured by autoFitColumns().
+     *
+     * @param rowCount Number of rows of the table
+     * @param maxSampledRows Maximum number of rows to choose
+     *
+     * @return Indices of the chosen rows, in ascending order
+     */
+    static int[] sampleRows(int rowCount, int maxSampledRows) {
+        int sampleSize = Math.min(rowCount, Math.max(maxSampledRows, 2));
+        int[] result = new int[sampleSize];
+
+        for (int i = 0; i < sampleSize; ++i) {
+            result[i] = (sampleSize == rowCount) ? i :
+                (int) ((long) i * (rowCount - 1) / (sampleSize - 1));
+        }
+
+        return result;
     }
 }
@@ -50,6 +50,34 @@ public class CustomTableCellRenderer extends DefaultTableCellRenderer {
     @Getter @Setter
     private ComponentTransformer componentTransformer;
 
+    /**
+     * Whether the styling of the last cell is reused when the next cell has
+     * the same row parity, selection state and table colors, so only the
+     * value of the cell is updated. Only applies without a base renderer and
+     * when this renderer is its own component. The component transformer is
+     * not called for cells whose styling is reused, so it must only depend
+     * on those states, not on the cell value.
+     */
+    @Getter
+    private boolean styleCaching;
+
+    // State of the last cell styled from scratch, if style caching is enabled
+    private JTable styledTable;
+
+    private boolean styledSelected;
+
+    private int styledRowParity;
+
+    private Color styledForeground;
+
+    private Color styledBackground;
+
+    private Color styledSelectionForeground;
+
+    private Color styledSelectionBackground;
+
+    private Font styledFont;
+
     public CustomTableCellRenderer(
             TableCellRenderer baseRenderer,
             ComponentTransformer componentTransformer) {
@@ -57,10 +85,23 @@ public class CustomTableCellRenderer extends DefaultTableCellRenderer {
         this.componentTransformer = componentTransformer;
     }
 
+    public void setStyleCaching(boolean styleCaching) {
+        this.styleCaching = styleCaching;
+        this.styledTable = null;
+    }
+
     @Override
     public Component getTableCellRendererComponent(
             JTable table, Object value, boolean isSelected, boolean hasFocus,
             int row, int column) {
+        boolean canCacheStyle = styleCaching && (baseRenderer == null) &&
+            (table != null) && !hasFocus && (table.getDropLocation() == null);
+
+        if (canCacheStyle && isStyleCurrent(table, isSelected, row)) {
+            setValue(value);
+            return this;
+        }
+
         Component result = (baseRenderer != null) ?
             baseRenderer.getTableCellRendererComponent(
                 table, value, isSelected, hasFocus, row, column) :
@@ -72,9 +113,35 @@ public class CustomTableCellRenderer extends DefaultTableCellRenderer {
                 result, table, value, isSelected, hasFocus, row, column);
         }
 
+        if (canCacheStyle && (result == this)) {
+            styledTable = table;
+            styledSelected = isSelected;
+            styledRowParity = row & 1;
+            styledForeground = table.getForeground();
+            styledBackground = table.getBackground();
+            styledSelectionForeground = table.getSelectionForeground();
+            styledSelectionBackground = table.getSelectionBackground();
+            styledFont = table.getFont();
+        }
+        else {
+            styledTable = null;
+        }
+
         return result;
     }
 
+    private boolean isStyleCurrent(JTable table, boolean isSelected, int row) {
+        // Colors and fonts are compared by identity, which is enough to
+        // detect that they were replaced
+        return (styledTable == table) && (styledSelected == isSelected) &&
+            (styledRowParity == (row & 1)) &&
+            (styledForeground == table.getForeground()) &&
+            (styledBackground == table.getBackground()) &&
+            (styledSelectionForeground == table.getSelectionForeground()) &&
+            (styledSelectionBackground == table.getSelectionBackground()) &&
+            (styledFont == table.getFont());
+    }
+
     /**
      * Transformer that applies a "striping" effect by using an alternate color
      * for the background of items displayed in even lines of JTables.
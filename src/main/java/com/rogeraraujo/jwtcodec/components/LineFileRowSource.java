@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.components;
+
+import lombok.Getter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A RowPageSource whose rows are the lines of a UTF-8 text file, such as the
+ * JSON lines written by the verify command, converted to rows by a parser
+ * function. When the file is opened, it is scanned once to count its lines
+ * and to record the offset of every INDEX_INTERVAL-th line, so the index
+ * takes a few kilobytes even for millions of lines. Pages are read with
+ * positional reads, so several threads may read pages at the same time.
+ * Line breaks may be "\n" or "\r\n". The file must not change while it is
+ * open.
+ *
+ * @param <T> Type of the rows
+ */
+public class LineFileRowSource<T> implements RowPageSource<T>, Closeable {
+    public static final int INDEX_INTERVAL = 1024;
+
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    @Getter
+    private final Path file;
+
+    private final Function<String, T> parser;
+
+    private final FileChannel channel;
+
+    private final int rowCount;
+
+    /**
+     * Offset of the lines whose index is a multiple of INDEX_INTERVAL.
+     */
+    private final long[] lineOffsets;
+
+    /**
+     * Opens a file and indexes its lines.
+     *
+     * @param file File to read
+     * @param parser Function that converts a line into a row
+     *
+     * @throws IOException If the file cannot be read
+     */
+    public LineFileRowSource(Path file, Function<String, T> parser)
+            throws IOException {
+        if (parser == null) {
+            throw new IllegalArgumentException("Parser cannot be null");
+        }
+
+        this.file = file;
+        this.parser = parser;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+
+        try {
+            long[] offsets = new long[16];
+            int lineCount = 0;
+            long lineStart = 0L;
+            long position = 0L;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+
+            while (channel.read(buffer, position) > 0) {
+                ((Buffer) buffer).flip();
+
+                while (buffer.hasRemaining()) {
+                    ++position;
+
+                    if (buffer.get() == '\n') {
+                        if ((lineCount % INDEX_INTERVAL) == 0) {
+                            offsets = addOffset(offsets, lineCount, lineStart);
+                        }
+
+                        ++lineCount;
+                        lineStart = position;
+                    }
+                }
+
+                ((Buffer) buffer).clear();
+            }
+
+            // Last line, without a line break
+            if (lineStart < position) {
+                if ((lineCount % INDEX_INTERVAL) == 0) {
+                    offsets = addOffset(offsets, lineCount, lineStart);
+                }
+
+                ++lineCount;
+            }
+
+            this.rowCount = lineCount;
+            this.lineOffsets = offsets;
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    private static long[] addOffset(long[] offsets, int lineIndex, long offset) {
+        int entryIndex = lineIndex / INDEX_INTERVAL;
+        long[] result = (entryIndex < offsets.length) ?
+            offsets : Arrays.copyOf(offsets, offsets.length * 2);
+        result[entryIndex] = offset;
+
+        return result;
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public List<T> readRows(int firstRow, int rowCount) throws IOException {
+        if ((firstRow < 0) || (rowCount < 0) ||
+            (firstRow + rowCount > this.rowCount)) {
+            throw new IndexOutOfBoundsException("Rows " + firstRow + " to " +
+                (firstRow + rowCount - 1) + " are out of range");
+        }
+
+        List<T> result = new ArrayList<>(rowCount);
+        int lineIndex = (firstRow / INDEX_INTERVAL) * INDEX_INTERVAL;
+        long position = lineOffsets[firstRow / INDEX_INTERVAL];
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        byte[] line = new byte[256];
+        int lineLength = 0;
+
+        while (result.size() < rowCount) {
+            int bytesRead = channel.read(buffer, position);
+            ((Buffer) buffer).flip();
+
+            if (bytesRead <= 0) {
+                // Last line, without a line break
+                result.add(parser.apply(decodeLine(line, lineLength)));
+                break;
+            }
+
+            position += bytesRead;
+
+            while (buffer.hasRemaining() && (result.size() < rowCount)) {
+                byte b = buffer.get();
+
+                if (b != '\n') {
+                    // Lines before the first row are skipped, not stored
+                    if (lineIndex >= firstRow) {
+                        if (lineLength == line.length) {
+                            line = Arrays.copyOf(line, line.length * 2);
+                        }
+
+                        line[lineLength++] = b;
+                    }
+
+                    continue;
+                }
+
+                if (lineIndex >= firstRow) {
+                    result.add(parser.apply(decodeLine(line, lineLength)));
+                }
+
+                ++lineIndex;
+                lineLength = 0;
+            }
+
+            ((Buffer) buffer).clear();
+        }
+
+        return result;
+    }
+
+    private static String decodeLine(byte[] line, int length) {
+        if ((length > 0) && (line[length - 1] == '\r')) {
+            --length;
+        }
+
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -19,14 +19,20 @@ package com.rogeraraujo.jwtcodec.components;
 import lombok.Getter;
 
 import javax.swing.table.AbstractTableModel;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 
 /**
  * A TableModel that stores rows in an instance of java.util.List and delegates
  * some cell-related tasks (e.g., column names and classes, reading the values
  * of specific cells) to an instance of the TableFormat interface.
  *
+ * <p>Optionally, the model keeps an index of its rows by a key extracted from
+ * each row (e.g., the name of a claim), so that checking whether a key exists
+ * takes constant time. Keys are expected to be unique; if several rows share
+ * a key, the index holds the last one added. If the list returned by
+ * getItems() is modified directly, rebuildIndex() must be called.</p>
+ *
  * @param <T> Type of the rows stored
  */
 public class ListTableModel<T> extends AbstractTableModel {
@@ -36,13 +42,62 @@ public class ListTableModel<T> extends AbstractTableModel {
     @Getter
     private TableFormat<T> format;
 
+    private final Function<? super T, ?> keyExtractor;
+
+    private final Map<Object, T> index;
+
     public ListTableModel(List<T> items, TableFormat<T> format) {
+        this(items, format, null);
+    }
+
+    /**
+     * Creates a model that indexes its rows by key.
+     *
+     * @param items Rows of the model; can be null
+     * @param format Table format
+     * @param keyExtractor Function that extracts the key of a row; can be
+     *                     null, in which case no index is kept
+     */
+    public ListTableModel(List<T> items, TableFormat<T> format,
+            Function<? super T, ?> keyExtractor) {
         if (format == null) {
             throw new IllegalArgumentException("Table format cannot be null");
         }
 
         this.items = (items != null) ? items : new ArrayList<>();
         this.format = format;
+        this.keyExtractor = keyExtractor;
+        this.index = (keyExtractor != null) ? new HashMap<>() : null;
+
+        rebuildIndex();
+    }
+
+    /**
+     * Rebuilds the key index from the rows of the model. It only needs to be
+     * called after the list returned by getItems() is modified directly.
+     */
+    public void rebuildIndex() {
+        if (index == null) {
+            return;
+        }
+
+        index.clear();
+
+        for (T row : items) {
+            indexRow(row);
+        }
+    }
+
+    private void indexRow(T row) {
+        if (index != null) {
+            index.put(keyExtractor.apply(row), row);
+        }
+    }
+
+    private void unindexRow(T row) {
+        if (index != null) {
+            index.remove(keyExtractor.apply(row), row);
+        }
     }
 
     /**
@@ -57,6 +112,7 @@ public class ListTableModel<T> extends AbstractTableModel {
     public boolean addRow(T newRow, boolean notify) {
         int rows = items.size();
         boolean result = items.add(newRow);
+        indexRow(newRow);
 
         if (notify) {
             fireTableRowsInserted(rows, rows);
@@ -76,6 +132,7 @@ public class ListTableModel<T> extends AbstractTableModel {
      */
     public T removeRow(int rowIndex, boolean notify) {
         T result = items.remove(rowIndex);
+        unindexRow(result);
 
         if (notify) {
             fireTableRowsDeleted(rowIndex, rowIndex);
@@ -100,7 +157,7 @@ public class ListTableModel<T> extends AbstractTableModel {
             return false;
         }
 
-        items.remove(rowIndex);
+        unindexRow(items.remove(rowIndex));
 
         if (notify) {
             fireTableRowsDeleted(rowIndex, rowIndex);
@@ -110,14 +167,151 @@ public class ListTableModel<T> extends AbstractTableModel {
     }
 
     /**
-     * Checks whether the model contains the specified row.
+     * Adds several rows to the end of the model, notifying registered
+     * listeners with a single event.
+     *
+     * @param newRows Rows to add
+     * @param notify Flag indicating whether registered listeners should be
+     *               notified
+     *
+     * @return true if the model changed
+     */
+    public boolean addRows(Collection<? extends T> newRows, boolean notify) {
+        int rows = items.size();
+
+        if (!items.addAll(newRows)) {
+            return false;
+        }
+
+        for (T newRow : newRows) {
+            indexRow(newRow);
+        }
+
+        if (notify) {
+            fireTableRowsInserted(rows, items.size() - 1);
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes several rows from the model in a single pass, notifying
+     * registered listeners with a single event: a deletion event if the rows
+     * are contiguous, or a data change event otherwise.
+     *
+     * @param rowIndices Indices of the rows to remove, in any order;
+     *                   duplicates are ignored
+     * @param notify Flag indicating whether registered listeners should be
+     *               notified
+     *
+     * @return The rows that were removed, in model order
+     */
+    public List<T> removeRows(int[] rowIndices, boolean notify) {
+        int[] sortedIndices = Arrays.stream(rowIndices)
+            .distinct().sorted().toArray();
+
+        if (sortedIndices.length == 0) {
+            return Collections.emptyList();
+        }
+
+        int firstIndex = sortedIndices[0];
+        int lastIndex = sortedIndices[sortedIndices.length - 1];
+
+        if ((firstIndex < 0) || (lastIndex >= items.size())) {
+            throw new IndexOutOfBoundsException("Row index out of range: " +
+                ((firstIndex < 0) ? firstIndex : lastIndex));
+        }
+
+        List<T> result = new ArrayList<>(sortedIndices.length);
+
+        if ((lastIndex - firstIndex + 1) == sortedIndices.length) {
+            List<T> range = items.subList(firstIndex, lastIndex + 1);
+            result.addAll(range);
+            range.clear();
+        }
+        else {
+            List<T> keptRows = new ArrayList<>(items.size() - sortedIndices.length);
+            int nextRemoved = 0;
+
+            for (int i = 0; i < items.size(); ++i) {
+                if ((nextRemoved < sortedIndices.length) &&
+                    (sortedIndices[nextRemoved] == i)) {
+                    result.add(items.get(i));
+                    ++nextRemoved;
+                }
+                else {
+                    keptRows.add(items.get(i));
+                }
+            }
+
+            items.clear();
+            items.addAll(keptRows);
+        }
+
+        for (T row : result) {
+            unindexRow(row);
+        }
+
+        if (notify) {
+            if ((lastIndex - firstIndex + 1) == sortedIndices.length) {
+                fireTableRowsDeleted(firstIndex, lastIndex);
+            }
+            else {
+                fireTableDataChanged();
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Replaces all rows of the model, notifying registered listeners with a
+     * single event.
+     *
+     * @param newRows New rows of the model
+     * @param notify Flag indicating whether registered listeners should be
+     *               notified
+     */
+    public void replaceAll(Collection<? extends T> newRows, boolean notify) {
+        if (newRows != items) {
+            items.clear();
+            items.addAll(newRows);
+        }
+
+        rebuildIndex();
+
+        if (notify) {
+            fireTableDataChanged();
+        }
+    }
+
+    /**
+     * Checks whether the model contains the specified row. If the model has
+     * a key index, rows are compared by key, in constant time.
      *
      * @param row Row to check
      *
      * @return true if the model contains the specified row
      */
     public boolean contains(T row) {
-        return items.contains(row);
+        return (index != null) ?
+            index.containsKey(keyExtractor.apply(row)) : items.contains(row);
+    }
+
+    /**
+     * Returns the row with a given key, in constant time. The model must have
+     * a key index.
+     *
+     * @param key Key to look up; can be null
+     *
+     * @return The row with the key, or null if there is none
+     */
+    public T getRowByKey(Object key) {
+        if (index == null) {
+            throw new IllegalStateException("Table model has no key index");
+        }
+
+        return index.get(key);
     }
 
     /**
@@ -143,6 +337,8 @@ public class ListTableModel<T> extends AbstractTableModel {
      */
     public T setRow(int rowIndex, T value, boolean notify) {
         T result = items.set(rowIndex, value);
+        unindexRow(result);
+        indexRow(value);
 
         if (notify) {
             fireTableRowsUpdated(rowIndex, rowIndex);
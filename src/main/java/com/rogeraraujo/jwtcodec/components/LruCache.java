@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.rogeraraujo.jwtcodec.components;
+
+import lombok.Getter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache with a maximum number of entries. When the cache is
+ * full, the least recently used entry is evicted to make room for a new one.
+ * The cache also counts how many lookups were hits and how many were misses.
+ *
+ * @param <K> Type of the keys
+ * @param <V> Type of the values
+ */
+public class LruCache<K, V> {
+    @Getter
+    private final int maxSize;
+
+    private final LinkedHashMap<K, V> entries;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    public LruCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException(
+                "Maximum size must be greater than zero");
+        }
+
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > LruCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the value associated with a key, counting the lookup as a hit
+     * or a miss.
+     *
+     * @param key Key to look up
+     *
+     * @return The value associated with the key, or null if there is none
+     */
+    public V get(K key) {
+        V result;
+
+        synchronized (entries) {
+            result = entries.get(key);
+        }
+
+        if (result != null) {
+            hitCount.incrementAndGet();
+        }
+        else {
+            missCount.incrementAndGet();
+        }
+
+        return result;
+    }
+
+    /**
+     * Associates a value with a key, possibly evicting the least recently
+     * used entry.
+     *
+     * @param key Key of the entry
+     * @param value Value of the entry; cannot be null
+     *
+     * @return The value previously associated with the key, or null if there
+     *         was none
+     */
+    public V put(K key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value cannot be null");
+        }
+
+        synchronized (entries) {
+            return entries.put(key, value);
+        }
+    }
+
+    /**
+     * Returns the value associated with a key, creating and storing it if it
+     * is not cached yet. The value is created outside of the cache lock, so a
+     * slow creation does not block lookups of other keys; if two threads race
+     * to create the same value, the first one stored wins.
+     *
+     * @param key Key to look up
+     * @param valueFactory Function that creates the value of a missing key;
+     *                     it must not return null
+     *
+     * @return The cached or newly-created value
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> valueFactory) {
+        V result = get(key);
+
+        if (result != null) {
+            return result;
+        }
+
+        V newValue = valueFactory.apply(key);
+
+        if (newValue == null) {
+            throw new IllegalStateException("Value factory returned null");
+        }
+
+        synchronized (entries) {
+            result = entries.putIfAbsent(key, newValue);
+        }
+
+        return (result != null) ? result : newValue;
+    }
+
+    /**
+     * Removes an entry from the cache.
+     *
+     * @param key Key of the entry to remove
+     *
+     * @return The value that was removed, or null if there was none
+     */
+    public V remove(K key) {
+        synchronized (entries) {
+            return entries.remove(key);
+        }
+    }
+
+    /**
+     * Removes all entries from the cache. The hit and miss counters are not
+     * reset.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Returns the number of entries currently stored in the cache.
+     *
+     * @return Number of entries
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns how many lookups found a cached value.
+     *
+     * @return Number of cache hits
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns how many lookups did not find a cached value.
+     *
+     * @return Number of cache misses
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+}
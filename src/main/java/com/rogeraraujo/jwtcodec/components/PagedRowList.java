@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.components;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A read-only List whose rows are read from a RowPageSource a page at a time,
+ * when first accessed, and kept in an LRU cache with a bounded number of
+ * pages. Used as the rows of a ListTableModel, it lets a table show millions
+ * of rows with constant memory use, since a JTable only reads the values of
+ * its visible rows. Sorting or filtering the table, or giving the model a key
+ * extractor, reads every row, though.
+ *
+ * @param <T> Type of the rows
+ */
+public class PagedRowList<T> extends AbstractList<T> implements RandomAccess {
+    public static final int DEFAULT_PAGE_SIZE = 1024;
+
+    public static final int DEFAULT_MAX_CACHED_PAGES = 64;
+
+    @Getter
+    private final RowPageSource<T> source;
+
+    @Getter
+    private final int pageSize;
+
+    private final LruCache<Integer, List<T>> pages;
+
+    public PagedRowList(RowPageSource<T> source) {
+        this(source, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    public PagedRowList(RowPageSource<T> source, int pageSize,
+            int maxCachedPages) {
+        if (source == null) {
+            throw new IllegalArgumentException("Row source cannot be null");
+        }
+
+        if (pageSize < 1) {
+            throw new IllegalArgumentException(
+                "Page size must be greater than zero");
+        }
+
+        this.source = source;
+        this.pageSize = pageSize;
+        this.pages = new LruCache<>(maxCachedPages);
+    }
+
+    /**
+     * Returns a row, reading its page from the source if it is not cached.
+     *
+     * @param index Index of the row
+     *
+     * @return The row
+     *
+     * @throws UncheckedIOException If the page cannot be read
+     */
+    @Override
+    public T get(int index) {
+        int size = size();
+
+        if ((index < 0) || (index >= size)) {
+            throw new IndexOutOfBoundsException(
+                "Index: " + index + ", Size: " + size);
+        }
+
+        List<T> page = pages.computeIfAbsent(index / pageSize,
+            pageIndex -> readPage(pageIndex, size));
+
+        return page.get(index % pageSize);
+    }
+
+    private List<T> readPage(int pageIndex, int size) {
+        int firstRow = pageIndex * pageSize;
+
+        try {
+            return source.readRows(firstRow, Math.min(pageSize, size - firstRow));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public int size() {
+        return source.getRowCount();
+    }
+
+    /**
+     * Returns the number of pages currently cached.
+     *
+     * @return Number of cached pages
+     */
+    public int getCachedPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * Returns how many row lookups found their page in the cache.
+     *
+     * @return Number of cache hits
+     */
+    public long getCacheHits() {
+        return pages.getHitCount();
+    }
+
+    /**
+     * Returns how many row lookups had to read their page from the source.
+     *
+     * @return Number of cache misses
+     */
+    public long getCacheMisses() {
+        return pages.getMissCount();
+    }
+
+    /**
+     * Removes all cached pages, e.g., after the source changed.
+     */
+    public void clearCache() {
+        pages.clear();
+    }
+}
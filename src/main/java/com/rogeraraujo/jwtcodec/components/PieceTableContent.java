@@ -0,0 +1,573 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.components;
+
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.undo.AbstractUndoableEdit;
+import javax.swing.undo.CannotRedoException;
+import javax.swing.undo.CannotUndoException;
+import javax.swing.undo.UndoableEdit;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Document content stored as a piece table. Inserted text is appended to a
+ * single, append-only buffer and the content is described by a list of
+ * pieces that reference ranges of that buffer, so inserting or removing text
+ * never moves the characters already stored. Reading a range that lies within
+ * one piece returns the buffer itself without copying, which keeps very large
+ * single-line documents (such as encoded tokens) cheap to lay out and paint.
+ * <p>
+ * The buffer is started afresh when all the text is removed, which is how a
+ * document is replaced, and compacted when more than half of it is no longer
+ * referenced, so documents that are edited for long do not keep growing.
+ * Each piece keeps the buffer array it refers to, thus undo records stay
+ * valid after the buffer is replaced.
+ * <p>
+ * As required by AbstractDocument, the content always ends with an implied
+ * newline character. Positions are tracked the same way as in
+ * javax.swing.text.StringContent and are restored when a removal is undone.
+ */
+public class PieceTableContent implements AbstractDocument.Content {
+    private static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+    /**
+     * Buffer length below which the buffer is never compacted, since the
+     * space saved would not be worth the copying.
+     */
+    private static final int MIN_COMPACTION_LENGTH = 8192;
+
+    private final int initialCapacity;
+
+    private char[] buffer;
+
+    private int bufferLength;
+
+    private final List<Piece> pieces = new ArrayList<>();
+
+    private int length;
+
+    private final List<WeakReference<Mark>> marks = new ArrayList<>();
+
+    // Last piece located by findPiece and its starting offset; speeds up
+    // sequential reads and edits at nearby offsets
+    private int cachedPieceIndex;
+
+    private int cachedPieceOffset;
+
+    public PieceTableContent() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a new instance of this class.
+     *
+     * @param initialCapacity Initial capacity of the character buffer
+     */
+    public PieceTableContent(int initialCapacity) {
+        this.initialCapacity = Math.max(initialCapacity, 16);
+        resetBuffer();
+    }
+
+    @Override
+    public synchronized Position createPosition(int offset)
+            throws BadLocationException {
+        if ((offset < 0) || (offset > length)) {
+            throw new BadLocationException("Invalid position", offset);
+        }
+
+        Mark mark = new Mark(offset);
+        marks.add(new WeakReference<>(mark));
+        return mark;
+    }
+
+    @Override
+    public synchronized int length() {
+        return length;
+    }
+
+    @Override
+    public UndoableEdit insertString(int where, String str)
+            throws BadLocationException {
+        if (str == null) {
+            throw new IllegalArgumentException("String cannot be null");
+        }
+
+        synchronized (this) {
+            if ((where < 0) || (where >= length)) {
+                throw new BadLocationException("Invalid insert", where);
+            }
+
+            int strLen = str.length();
+
+            if (strLen == 0) {
+                return null;
+            }
+
+            int bufferStart = append(str);
+            paste(where, bufferStart, strLen);
+            updateMarksForInsert(where, strLen);
+            compactIfWasteful();
+            return new InsertUndo(where, strLen);
+        }
+    }
+
+    @Override
+    public synchronized UndoableEdit remove(int where, int nitems)
+            throws BadLocationException {
+        if ((where < 0) || (nitems < 0) || (where + nitems >= length)) {
+            throw new BadLocationException("Invalid remove", where + nitems);
+        }
+
+        if (nitems == 0) {
+            return null;
+        }
+
+        List<MarkOffset> removedMarks = getMarksInRange(where, nitems);
+        List<Piece> removedPieces = cut(where, nitems);
+        updateMarksForRemove(where, nitems);
+
+        if (length == 1) {
+            // Only the implied newline is left, e.g., because the whole text
+            // is being replaced; the removed pieces keep the old buffer
+            resetBuffer();
+        }
+        else {
+            compactIfWasteful();
+        }
+
+        return new RemoveUndo(where, nitems, removedPieces, removedMarks);
+    }
+
+    @Override
+    public synchronized String getString(int where, int len)
+            throws BadLocationException {
+        Segment segment = new Segment();
+        getChars(where, len, segment);
+        return new String(segment.array, segment.offset, segment.count);
+    }
+
+    @Override
+    public synchronized void getChars(int where, int len, Segment txt)
+            throws BadLocationException {
+        if ((where < 0) || (len < 0) || (where + len > length)) {
+            throw new BadLocationException("Invalid location", where + len);
+        }
+
+        int index = findPiece(where);
+        Piece piece = pieces.get(index);
+        int skip = where - cachedPieceOffset;
+
+        if ((skip + len <= piece.length) || txt.isPartialReturn()) {
+            // The requested range lies within a single piece (or the caller
+            // accepts a partial return); hand out the buffer itself
+            txt.array = piece.chars;
+            txt.offset = piece.start + skip;
+            txt.count = Math.min(len, piece.length - skip);
+            return;
+        }
+
+        char[] chars = new char[len];
+        int copied = 0;
+
+        while (copied < len) {
+            piece = pieces.get(index);
+            int count = Math.min(len - copied, piece.length - skip);
+            System.arraycopy(piece.chars, piece.start + skip, chars, copied,
+                count);
+            copied += count;
+            skip = 0;
+            ++index;
+        }
+
+        txt.array = chars;
+        txt.offset = 0;
+        txt.count = len;
+    }
+
+    /**
+     * Returns the number of pieces currently describing the content. Mostly
+     * useful for testing and diagnostics.
+     *
+     * @return The number of pieces
+     */
+    public synchronized int getPieceCount() {
+        return pieces.size();
+    }
+
+    /**
+     * Returns the number of characters used in the current buffer, both by
+     * the content and by text that was removed. Mostly useful for testing and
+     * diagnostics.
+     *
+     * @return The number of characters used in the buffer
+     */
+    public synchronized int getBufferLength() {
+        return bufferLength;
+    }
+
+    private void resetBuffer() {
+        buffer = new char[initialCapacity];
+        buffer[0] = '\n';
+        bufferLength = 1;
+        pieces.clear();
+        pieces.add(new Piece(buffer, 0, 1));
+        length = 1;
+        invalidateCache();
+    }
+
+    /*
+     * Copies the content into a new buffer, as a single piece, when most of
+     * the current buffer holds removed text.
+     */
+    private void compactIfWasteful() {
+        if ((bufferLength < MIN_COMPACTION_LENGTH) ||
+            (bufferLength <= 2 * length)) {
+            return;
+        }
+
+        char[] newBuffer = new char[Math.max(initialCapacity, length * 2)];
+        int copied = 0;
+
+        for (Piece piece : pieces) {
+            System.arraycopy(piece.chars, piece.start, newBuffer, copied,
+                piece.length);
+            copied += piece.length;
+        }
+
+        buffer = newBuffer;
+        bufferLength = copied;
+        pieces.clear();
+        pieces.add(new Piece(buffer, 0, copied));
+        invalidateCache();
+    }
+
+    private int append(String str) {
+        int strLen = str.length();
+        int required = bufferLength + strLen;
+
+        if (required > buffer.length) {
+            // Earlier segments handed out and undo records keep pointing at
+            // the old array, whose contents are still valid since the buffer
+            // is append-only; the pieces in use are moved to the new array
+            char[] oldBuffer = buffer;
+            char[] newBuffer = new char[Math.max(required, buffer.length * 2)];
+            System.arraycopy(buffer, 0, newBuffer, 0, bufferLength);
+            buffer = newBuffer;
+
+            for (int i = 0; i < pieces.size(); ++i) {
+                Piece piece = pieces.get(i);
+
+                if (piece.chars == oldBuffer) {
+                    pieces.set(i, new Piece(newBuffer, piece.start,
+                        piece.length));
+                }
+            }
+        }
+
+        str.getChars(0, strLen, buffer, bufferLength);
+        int result = bufferLength;
+        bufferLength = required;
+        return result;
+    }
+
+    private void paste(int where, int bufferStart, int len) {
+        List<Piece> newPieces = new ArrayList<>(1);
+        newPieces.add(new Piece(buffer, bufferStart, len));
+        paste(where, newPieces);
+    }
+
+    private void paste(int where, List<Piece> newPieces) {
+        int index = findPiece(where);
+        int skip = where - cachedPieceOffset;
+
+        if ((skip == 0) && (index > 0) && (newPieces.size() == 1)) {
+            // Typing at the end of the previous piece usually continues the
+            // same buffer range; extend that piece instead of adding one
+            Piece previous = pieces.get(index - 1);
+            Piece inserted = newPieces.get(0);
+
+            if ((previous.chars == inserted.chars) &&
+                (previous.start + previous.length == inserted.start)) {
+                pieces.set(index - 1, new Piece(previous.chars, previous.start,
+                    previous.length + inserted.length));
+                length += inserted.length;
+                invalidateCache();
+                return;
+            }
+        }
+
+        if (skip > 0) {
+            Piece piece = pieces.get(index);
+            pieces.set(index, new Piece(piece.chars, piece.start, skip));
+            pieces.add(index + 1, new Piece(piece.chars, piece.start + skip,
+                piece.length - skip));
+            ++index;
+        }
+
+        pieces.addAll(index, newPieces);
+
+        for (Piece piece : newPieces) {
+            length += piece.length;
+        }
+
+        invalidateCache();
+    }
+
+    private List<Piece> cut(int where, int len) {
+        int index = findPiece(where);
+        int skip = where - cachedPieceOffset;
+
+        if (skip > 0) {
+            Piece piece = pieces.get(index);
+            pieces.set(index, new Piece(piece.chars, piece.start, skip));
+            pieces.add(index + 1, new Piece(piece.chars, piece.start + skip,
+                piece.length - skip));
+            ++index;
+        }
+
+        List<Piece> result = new ArrayList<>();
+        int remaining = len;
+
+        while (remaining > 0) {
+            Piece piece = pieces.get(index);
+
+            if (piece.length <= remaining) {
+                result.add(pieces.remove(index));
+                remaining -= piece.length;
+            }
+            else {
+                result.add(new Piece(piece.chars, piece.start, remaining));
+                pieces.set(index, new Piece(piece.chars,
+                    piece.start + remaining, piece.length - remaining));
+                remaining = 0;
+            }
+        }
+
+        length -= len;
+        invalidateCache();
+        return result;
+    }
+
+    /*
+     * Returns the index of the piece containing the character at the given
+     * offset and leaves its starting offset in cachedPieceOffset.
+     */
+    private int findPiece(int offset) {
+        int index = cachedPieceIndex;
+        int pieceOffset = cachedPieceOffset;
+
+        if (offset < pieceOffset) {
+            index = 0;
+            pieceOffset = 0;
+        }
+
+        int pieceCount = pieces.size();
+
+        while (index < pieceCount - 1) {
+            int pieceLength = pieces.get(index).length;
+
+            if (offset < pieceOffset + pieceLength) {
+                break;
+            }
+
+            pieceOffset += pieceLength;
+            ++index;
+        }
+
+        cachedPieceIndex = index;
+        cachedPieceOffset = pieceOffset;
+        return index;
+    }
+
+    private void invalidateCache() {
+        cachedPieceIndex = 0;
+        cachedPieceOffset = 0;
+    }
+
+    private void updateMarksForInsert(int offset, int len) {
+        // Zero is a special case where only marks after it are updated
+        int threshold = (offset == 0) ? 1 : offset;
+        Iterator<WeakReference<Mark>> iterator = marks.iterator();
+
+        while (iterator.hasNext()) {
+            Mark mark = iterator.next().get();
+
+            if (mark == null) {
+                iterator.remove();
+            }
+            else if (mark.offset >= threshold) {
+                mark.offset += len;
+            }
+        }
+    }
+
+    private void updateMarksForRemove(int offset, int len) {
+        Iterator<WeakReference<Mark>> iterator = marks.iterator();
+
+        while (iterator.hasNext()) {
+            Mark mark = iterator.next().get();
+
+            if (mark == null) {
+                iterator.remove();
+            }
+            else if (mark.offset >= offset + len) {
+                mark.offset -= len;
+            }
+            else if (mark.offset >= offset) {
+                mark.offset = offset;
+            }
+        }
+    }
+
+    private List<MarkOffset> getMarksInRange(int offset, int len) {
+        List<MarkOffset> result = new ArrayList<>();
+
+        for (WeakReference<Mark> reference : marks) {
+            Mark mark = reference.get();
+
+            if ((mark != null) && (mark.offset >= offset)
+                    && (mark.offset <= offset + len)) {
+                result.add(new MarkOffset(mark, mark.offset));
+            }
+        }
+
+        return result;
+    }
+
+    /*
+     * A range of a character buffer. Instances are immutable, so they can be
+     * shared between the piece list and undo records.
+     */
+    private static class Piece {
+        private final char[] chars;
+
+        private final int start;
+
+        private final int length;
+
+        private Piece(char[] chars, int start, int length) {
+            this.chars = chars;
+            this.start = start;
+            this.length = length;
+        }
+    }
+
+    private static class Mark implements Position {
+        private int offset;
+
+        private Mark(int offset) {
+            this.offset = offset;
+        }
+
+        @Override
+        public int getOffset() {
+            return offset;
+        }
+    }
+
+    private static class MarkOffset {
+        private final Mark mark;
+
+        private final int offset;
+
+        private MarkOffset(Mark mark, int offset) {
+            this.mark = mark;
+            this.offset = offset;
+        }
+    }
+
+    private class InsertUndo extends AbstractUndoableEdit {
+        private final int where;
+
+        private final int length;
+
+        private List<Piece> removedPieces;
+
+        private InsertUndo(int where, int length) {
+            this.where = where;
+            this.length = length;
+        }
+
+        @Override
+        public void undo() throws CannotUndoException {
+            super.undo();
+
+            synchronized (PieceTableContent.this) {
+                removedPieces = cut(where, length);
+                updateMarksForRemove(where, length);
+            }
+        }
+
+        @Override
+        public void redo() throws CannotRedoException {
+            super.redo();
+
+            synchronized (PieceTableContent.this) {
+                paste(where, removedPieces);
+                updateMarksForInsert(where, length);
+                removedPieces = null;
+            }
+        }
+    }
+
+    private class RemoveUndo extends AbstractUndoableEdit {
+        private final int where;
+
+        private final int length;
+
+        private final List<Piece> removedPieces;
+
+        private final List<MarkOffset> removedMarks;
+
+        private RemoveUndo(int where, int length, List<Piece> removedPieces,
+                List<MarkOffset> removedMarks) {
+            this.where = where;
+            this.length = length;
+            this.removedPieces = removedPieces;
+            this.removedMarks = removedMarks;
+        }
+
+        @Override
+        public void undo() throws CannotUndoException {
+            super.undo();
+
+            synchronized (PieceTableContent.this) {
+                paste(where, removedPieces);
+                updateMarksForInsert(where, length);
+
+                for (MarkOffset markOffset : removedMarks) {
+                    markOffset.mark.offset = markOffset.offset;
+                }
+            }
+        }
+
+        @Override
+        public void redo() throws CannotRedoException {
+            super.redo();
+
+            synchronized (PieceTableContent.this) {
+                cut(where, length);
+                updateMarksForRemove(where, length);
+            }
+        }
+    }
+}
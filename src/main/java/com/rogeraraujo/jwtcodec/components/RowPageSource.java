@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.components;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A source of rows that can be read a page at a time, such as a file too
+ * large to be loaded into memory. See PagedRowList.
+ *
+ * @param <T> Type of the rows
+ */
+public interface RowPageSource<T> {
+    /**
+     * Returns the number of rows of the source.
+     *
+     * @return Number of rows
+     */
+    int getRowCount();
+
+    /**
+     * Reads consecutive rows of the source.
+     *
+     * @param firstRow Index of the first row to read
+     * @param rowCount Number of rows to read
+     *
+     * @return The rows read
+     *
+     * @throws IOException If the rows cannot be read
+     */
+    List<T> readRows(int firstRow, int rowCount) throws IOException;
+}
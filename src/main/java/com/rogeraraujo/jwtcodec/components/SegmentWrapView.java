@@ -0,0 +1,404 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.components;
+
+import javax.swing.event.DocumentEvent;
+import javax.swing.text.*;
+import java.awt.*;
+
+/**
+ * A root view for plain documents that wraps every line into fixed-width
+ * segments: each visual row holds the same number of characters, derived from
+ * the widest character of the token alphabet. Unlike WrappedPlainView, it
+ * never searches for word boundaries, so the layout of a line is computed
+ * arithmetically from its length. The number of rows of each line is cached
+ * and only recomputed when the document or the view width changes, and only
+ * the rows intersecting the clip are painted, which keeps very long lines
+ * (such as a 1 MB encoded token) responsive.
+ * <p>
+ * Characters wider than the token alphabet (and tab characters) may overflow
+ * the right edge of a row.
+ */
+public class SegmentWrapView extends View implements TabExpander {
+    /**
+     * Characters that may appear in encoded tokens; the widest of them
+     * determines how many characters fit in a row.
+     */
+    private static final String TOKEN_ALPHABET =
+        "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_.=+/";
+
+    private final Segment segment = new Segment();
+
+    private Font font;
+
+    private FontMetrics metrics;
+
+    private int cellWidth = 1;
+
+    private int lineHeight = 1;
+
+    private int tabSize;
+
+    private int width;
+
+    private int charsPerRow = 1;
+
+    // firstRows[i] is the first visual row of line i; firstRows[lineCount]
+    // is the total number of rows
+    private int[] firstRows;
+
+    private boolean rowsValid;
+
+    public SegmentWrapView(Element elem) {
+        super(elem);
+    }
+
+    /**
+     * Returns the number of characters placed in each visual row.
+     *
+     * @return The number of characters per row
+     */
+    public int getCharsPerRow() {
+        updateMetrics();
+        return charsPerRow;
+    }
+
+    /**
+     * Returns the total number of visual rows.
+     *
+     * @return The number of rows
+     */
+    public int getRowCount() {
+        updateRows();
+        return firstRows[firstRows.length - 1];
+    }
+
+    @Override
+    public float getPreferredSpan(int axis) {
+        updateRows();
+
+        if (axis == X_AXIS) {
+            return Math.max(width, cellWidth);
+        }
+
+        return (float) getRowCount() * lineHeight;
+    }
+
+    @Override
+    public float getMinimumSpan(int axis) {
+        return (axis == X_AXIS) ? cellWidth : getPreferredSpan(axis);
+    }
+
+    @Override
+    public float getMaximumSpan(int axis) {
+        return (axis == X_AXIS) ? Integer.MAX_VALUE : getPreferredSpan(axis);
+    }
+
+    @Override
+    public void setSize(float width, float height) {
+        int newWidth = (int) width;
+
+        if (newWidth != this.width) {
+            int oldRowCount = rowsValid ? getRowCount() : -1;
+            this.width = newWidth;
+            rowsValid = false;
+
+            if (getRowCount() != oldRowCount) {
+                preferenceChanged(null, false, true);
+            }
+        }
+    }
+
+    @Override
+    public void paint(Graphics g, Shape a) {
+        updateRows();
+
+        Rectangle alloc = a.getBounds();
+        Rectangle clip = g.getClipBounds();
+
+        if (clip == null) {
+            clip = alloc;
+        }
+
+        int rowCount = getRowCount();
+        int firstRow = Math.max(0, (clip.y - alloc.y) / lineHeight);
+        int lastRow = Math.min(rowCount - 1,
+            (clip.y + clip.height - alloc.y) / lineHeight);
+
+        if (firstRow > lastRow) {
+            return;
+        }
+
+        Component host = getContainer();
+        g.setFont(font);
+
+        Color foreground = host.getForeground();
+        Color selectedForeground = foreground;
+        int selectionStart = 0;
+        int selectionEnd = 0;
+
+        if (host instanceof JTextComponent) {
+            JTextComponent textComponent = (JTextComponent) host;
+
+            if (!textComponent.isEnabled()) {
+                foreground = textComponent.getDisabledTextColor();
+                selectedForeground = foreground;
+            }
+            else {
+                Color tempColor = textComponent.getSelectedTextColor();
+
+                if (tempColor != null) {
+                    selectedForeground = tempColor;
+                }
+            }
+
+            Caret caret = textComponent.getCaret();
+
+            if ((caret != null) && caret.isSelectionVisible()) {
+                selectionStart = textComponent.getSelectionStart();
+                selectionEnd = textComponent.getSelectionEnd();
+            }
+        }
+
+        Element root = getElement();
+        int line = findLine(firstRow);
+
+        for (int row = firstRow; row <= lastRow; ++row) {
+            while (row >= firstRows[line + 1]) {
+                ++line;
+            }
+
+            int[] range = getRowRange(root, line, row - firstRows[line]);
+            int x = alloc.x;
+            int y = alloc.y + row * lineHeight + metrics.getAscent();
+
+            x = drawText(g, x, y, range[0], Math.min(range[1], selectionStart),
+                foreground);
+            x = drawText(g, x, y, Math.max(range[0], selectionStart),
+                Math.min(range[1], selectionEnd), selectedForeground);
+            drawText(g, x, y, Math.max(range[0], selectionEnd), range[1],
+                foreground);
+        }
+    }
+
+    // The float-based Utilities.getTabbedTextWidth needs Java 9; we target 8
+    @SuppressWarnings("deprecation")
+    @Override
+    public Shape modelToView(int pos, Shape a, Position.Bias b)
+            throws BadLocationException {
+        Document doc = getDocument();
+
+        if ((pos < 0) || (pos > doc.getLength())) {
+            throw new BadLocationException("Invalid position", pos);
+        }
+
+        updateRows();
+
+        Rectangle alloc = a.getBounds();
+        Element root = getElement();
+        int line = root.getElementIndex(pos);
+        int lineStart = root.getElement(line).getStartOffset();
+        int rowInLine = Math.min((pos - lineStart) / charsPerRow,
+            firstRows[line + 1] - firstRows[line] - 1);
+        int rowStart = lineStart + rowInLine * charsPerRow;
+
+        doc.getText(rowStart, pos - rowStart, segment);
+        int x = alloc.x + Utilities.getTabbedTextWidth(
+            segment, metrics, alloc.x, this, rowStart);
+        int y = alloc.y + (firstRows[line] + rowInLine) * lineHeight;
+
+        return new Rectangle(x, y, 1, lineHeight);
+    }
+
+    // The float-based Utilities.getTabbedTextOffset needs Java 9; we target 8
+    @SuppressWarnings("deprecation")
+    @Override
+    public int viewToModel(float fx, float fy, Shape a, Position.Bias[] bias) {
+        updateRows();
+        bias[0] = Position.Bias.Forward;
+
+        Rectangle alloc = a.getBounds();
+        int row = Math.max(0, Math.min(getRowCount() - 1,
+            ((int) fy - alloc.y) / lineHeight));
+        Element root = getElement();
+        int line = findLine(row);
+        int[] range = getRowRange(root, line, row - firstRows[line]);
+        int lineTextEnd = root.getElement(line).getEndOffset() - 1;
+
+        try {
+            getDocument().getText(range[0], range[1] - range[0], segment);
+        }
+        catch (BadLocationException e) {
+            return range[0];
+        }
+
+        int result = range[0] + Utilities.getTabbedTextOffset(
+            segment, metrics, alloc.x, (int) fx, this, range[0]);
+
+        if ((result == range[1]) && (range[1] < lineTextEnd)) {
+            // The end of a wrapped row is the start of the next one; keep
+            // the caret on the row that was clicked
+            --result;
+        }
+
+        return result;
+    }
+
+    @Override
+    public float nextTabStop(float x, int tabOffset) {
+        if (tabSize == 0) {
+            return x;
+        }
+
+        int ntabs = ((int) x) / tabSize;
+        return (float) (ntabs + 1) * tabSize;
+    }
+
+    @Override
+    public void insertUpdate(DocumentEvent e, Shape a, ViewFactory f) {
+        documentChanged();
+    }
+
+    @Override
+    public void removeUpdate(DocumentEvent e, Shape a, ViewFactory f) {
+        documentChanged();
+    }
+
+    @Override
+    public void changedUpdate(DocumentEvent e, Shape a, ViewFactory f) {
+        documentChanged();
+    }
+
+    private void documentChanged() {
+        int oldRowCount = rowsValid ? getRowCount() : -1;
+        rowsValid = false;
+
+        if (getRowCount() != oldRowCount) {
+            preferenceChanged(null, false, true);
+        }
+
+        Component host = getContainer();
+
+        if (host != null) {
+            host.repaint();
+        }
+    }
+
+    private void updateMetrics() {
+        Component host = getContainer();
+
+        if ((host == null) || (host.getFont() == font)) {
+            return;
+        }
+
+        font = host.getFont();
+        metrics = host.getFontMetrics(font);
+        lineHeight = Math.max(1, metrics.getHeight());
+        cellWidth = 1;
+
+        for (int i = 0; i < TOKEN_ALPHABET.length(); ++i) {
+            cellWidth = Math.max(cellWidth,
+                metrics.charWidth(TOKEN_ALPHABET.charAt(i)));
+        }
+
+        Object tabSizeProperty = getDocument().getProperty(
+            PlainDocument.tabSizeAttribute);
+        int tabChars = (tabSizeProperty instanceof Integer)
+            ? (Integer) tabSizeProperty : 8;
+        tabSize = tabChars * metrics.charWidth('m');
+        rowsValid = false;
+    }
+
+    private void updateRows() {
+        updateMetrics();
+
+        if (rowsValid) {
+            return;
+        }
+
+        charsPerRow = Math.max(1, width / cellWidth);
+
+        Element root = getElement();
+        int lineCount = root.getElementCount();
+
+        if ((firstRows == null) || (firstRows.length != lineCount + 1)) {
+            firstRows = new int[lineCount + 1];
+        }
+
+        int row = 0;
+
+        for (int i = 0; i < lineCount; ++i) {
+            Element line = root.getElement(i);
+            int lineLength = line.getEndOffset() - line.getStartOffset() - 1;
+            firstRows[i] = row;
+            row += Math.max(1, (lineLength + charsPerRow - 1) / charsPerRow);
+        }
+
+        firstRows[lineCount] = row;
+        rowsValid = true;
+    }
+
+    /*
+     * Returns the index of the line containing the given visual row.
+     */
+    private int findLine(int row) {
+        int low = 0;
+        int high = firstRows.length - 2;
+
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+
+            if (firstRows[mid] <= row) {
+                low = mid;
+            }
+            else {
+                high = mid - 1;
+            }
+        }
+
+        return low;
+    }
+
+    /*
+     * Returns the start (inclusive) and end (exclusive) document offsets of
+     * a row within a line, leaving the newline character out.
+     */
+    private int[] getRowRange(Element root, int line, int rowInLine) {
+        Element lineElem = root.getElement(line);
+        int lineTextEnd = lineElem.getEndOffset() - 1;
+        int start = lineElem.getStartOffset() + rowInLine * charsPerRow;
+        return new int[] { start, Math.min(lineTextEnd, start + charsPerRow) };
+    }
+
+    // The float-based Utilities.drawTabbedText needs Java 9; we target 8
+    @SuppressWarnings("deprecation")
+    private int drawText(Graphics g, int x, int y, int start, int end,
+            Color color) {
+        if (start >= end) {
+            return x;
+        }
+
+        try {
+            getDocument().getText(start, end - start, segment);
+        }
+        catch (BadLocationException e) {
+            return x;
+        }
+
+        g.setColor(color);
+        return Utilities.drawTabbedText(segment, x, y, g, this, start);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.components;
+
+import javax.swing.*;
+import javax.swing.plaf.ComponentUI;
+import javax.swing.plaf.basic.BasicTextAreaUI;
+import javax.swing.plaf.synth.SynthLookAndFeel;
+import javax.swing.plaf.synth.SynthTextAreaUI;
+import javax.swing.text.Document;
+import javax.swing.text.Element;
+import javax.swing.text.PlainDocument;
+import javax.swing.text.View;
+
+/**
+ * A JTextArea meant to hold encoded tokens of any size. Its default document
+ * stores text in a PieceTableContent, with no limit on the number of
+ * characters, and lines are always wrapped into fixed-width segments by a
+ * SegmentWrapView, so pasting or displaying a token of several megabytes
+ * does not trigger the word-boundary searches performed by WrappedPlainView.
+ * <p>
+ * Text area UI delegates create their views themselves, so the view can
+ * only be replaced by extending the delegate of the Look-and-Feel. Synth
+ * based Look-and-Feels (Nimbus, GTK) get a SynthTextAreaUI subclass; the
+ * others get a BasicTextAreaUI subclass, which still uses the colors, fonts
+ * and borders of the Look-and-Feel, but not its own painting, if any.
+ */
+public class TokenTextArea extends JTextArea {
+    public TokenTextArea() {
+        super();
+        setLineWrap(true);
+    }
+
+    @Override
+    public void updateUI() {
+        // Synth Look-and-Feels map every UI class ID to SynthLookAndFeel,
+        // which creates the actual delegates
+        Class<? extends ComponentUI> lafUIClass =
+            UIManager.getDefaults().getUIClass(getUIClassID());
+        boolean isSynth =
+            (UIManager.getLookAndFeel() instanceof SynthLookAndFeel) ||
+            ((lafUIClass != null) &&
+             SynthTextAreaUI.class.isAssignableFrom(lafUIClass));
+
+        setUI(isSynth ? new SynthTokenTextAreaUI() : new TokenTextAreaUI());
+    }
+
+    @Override
+    protected Document createDefaultModel() {
+        return new PlainDocument(new PieceTableContent());
+    }
+
+    /**
+     * Text area UI delegate that builds a SegmentWrapView for the document.
+     */
+    public static class TokenTextAreaUI extends BasicTextAreaUI {
+        @Override
+        public View create(Element elem) {
+            return new SegmentWrapView(elem);
+        }
+    }
+
+    /**
+     * Synth text area UI delegate that builds a SegmentWrapView for the
+     * document.
+     */
+    public static class SynthTokenTextAreaUI extends SynthTextAreaUI {
+        @Override
+        public View create(Element elem) {
+            return new SegmentWrapView(elem);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.gui;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.swing.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Runs blocking work (key generation, file I/O, signing and verification)
+ * on a SwingWorker thread, so the event dispatch thread stays responsive.
+ * While a task runs, the component that triggered it is disabled, its
+ * description is shown next to a progress bar, and a cancel button is made
+ * available; the result or exception is then delivered on the event
+ * dispatch thread. One task runs at a time.
+ *
+ * <p>Cancelling interrupts the task thread and discards its outcome; tasks
+ * doing long, non-interruptible work should check Progress.isCancelled()
+ * between steps.</p>
+ *
+ * <p>All methods must be called on the event dispatch thread.</p>
+ */
+@Slf4j
+public class BackgroundTaskRunner {
+    /**
+     * Work to run in the background.
+     *
+     * @param <R> Type of the result of the task
+     */
+    @FunctionalInterface
+    public interface Task<R> {
+        /**
+         * Runs the task.
+         *
+         * @param progress Object used to report progress and to check whether
+         *                 the task was cancelled
+         *
+         * @return The result of the task
+         *
+         * @throws Exception If the task fails
+         */
+        R run(Progress progress) throws Exception;
+    }
+
+    /**
+     * Lets a running task report its progress and check for cancellation.
+     * Can be used from any thread.
+     */
+    public interface Progress {
+        /**
+         * Reports the progress of the task. Until this method is called, the
+         * progress bar is indeterminate.
+         *
+         * @param percent Progress, from 0 to 100
+         */
+        void setPercent(int percent);
+
+        /**
+         * Checks whether the task was cancelled.
+         *
+         * @return True if the task was cancelled, false otherwise
+         */
+        boolean isCancelled();
+    }
+
+    private final JLabel lblStatus;
+
+    private final JProgressBar progressBar;
+
+    private final JButton btnCancel;
+
+    private Worker<?> currentWorker;
+
+    @Getter
+    private String currentDescription;
+
+    /**
+     * Creates a new instance of this class. The components are hidden while
+     * no task is running.
+     *
+     * @param lblStatus Label that shows the description of the running task
+     * @param progressBar Progress bar of the running task
+     * @param btnCancel Button that cancels the running task
+     */
+    public BackgroundTaskRunner(JLabel lblStatus, JProgressBar progressBar,
+            JButton btnCancel) {
+        if (lblStatus == null) {
+            throw new IllegalArgumentException("Status label cannot be null");
+        }
+
+        if (progressBar == null) {
+            throw new IllegalArgumentException("Progress bar cannot be null");
+        }
+
+        if (btnCancel == null) {
+            throw new IllegalArgumentException("Cancel button cannot be null");
+        }
+
+        this.lblStatus = lblStatus;
+        this.progressBar = progressBar;
+        this.btnCancel = btnCancel;
+
+        btnCancel.addActionListener(event -> cancel());
+        showIdle();
+    }
+
+    /**
+     * Checks whether a task is running.
+     *
+     * @return True if a task is running, false otherwise
+     */
+    public boolean isBusy() {
+        return currentWorker != null;
+    }
+
+    /**
+     * Starts a task in the background.
+     *
+     * @param description Description of the task, shown while it runs
+     * @param trigger Component to disable while the task runs; can be null
+     * @param task Task to run
+     * @param resultConsumer Receives the result of the task on the event
+     *                       dispatch thread; can be null
+     * @param errorConsumer Receives the exception thrown by the task on the
+     *                      event dispatch thread; can be null
+     * @param <R> Type of the result of the task
+     *
+     * @return True if the task was started, false if another task is running
+     */
+    public <R> boolean run(String description, JComponent trigger,
+            Task<R> task, Consumer<R> resultConsumer,
+            Consumer<Exception> errorConsumer) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+
+        if (currentWorker != null) {
+            return false;
+        }
+
+        Worker<R> worker = new Worker<>(trigger, task, resultConsumer,
+            errorConsumer);
+        currentWorker = worker;
+        currentDescription = description;
+
+        if (trigger != null) {
+            trigger.setEnabled(false);
+        }
+
+        lblStatus.setText(description);
+        lblStatus.setVisible(true);
+        progressBar.setIndeterminate(true);
+        progressBar.setValue(0);
+        progressBar.setVisible(true);
+        btnCancel.setEnabled(true);
+        btnCancel.setVisible(true);
+
+        worker.addPropertyChangeListener(event -> {
+            if ("progress".equals(event.getPropertyName()) &&
+                (currentWorker == worker)) {
+                progressBar.setIndeterminate(false);
+                progressBar.setValue((Integer) event.getNewValue());
+            }
+        });
+        worker.execute();
+        return true;
+    }
+
+    /**
+     * Cancels the running task, if any; its outcome is discarded.
+     */
+    public void cancel() {
+        if (currentWorker != null) {
+            btnCancel.setEnabled(false);
+            currentWorker.cancel(true);
+        }
+    }
+
+    private void showIdle() {
+        lblStatus.setText(" ");
+        lblStatus.setVisible(false);
+        progressBar.setVisible(false);
+        btnCancel.setVisible(false);
+    }
+
+    private class Worker<R> extends SwingWorker<R, Void> implements Progress {
+        private final JComponent trigger;
+
+        private final Task<R> task;
+
+        private final Consumer<R> resultConsumer;
+
+        private final Consumer<Exception> errorConsumer;
+
+        private Worker(JComponent trigger, Task<R> task,
+                Consumer<R> resultConsumer, Consumer<Exception> errorConsumer) {
+            this.trigger = trigger;
+            this.task = task;
+            this.resultConsumer = resultConsumer;
+            this.errorConsumer = errorConsumer;
+        }
+
+        @Override
+        protected R doInBackground() throws Exception {
+            return task.run(this);
+        }
+
+        @Override
+        public void setPercent(int percent) {
+            setProgress(Math.max(0, Math.min(percent, 100)));
+        }
+
+        @Override
+        protected void done() {
+            currentWorker = null;
+            currentDescription = null;
+            showIdle();
+
+            if (trigger != null) {
+                trigger.setEnabled(true);
+            }
+
+            if (isCancelled()) {
+                return;
+            }
+
+            R result;
+
+            try {
+                result = get();
+            } catch (CancellationException | InterruptedException ex) {
+                return;
+            } catch (ExecutionException ex) {
+                Throwable cause = (ex.getCause() != null) ? ex.getCause() : ex;
+                Exception exception = (cause instanceof Exception) ?
+                    (Exception) cause : new ExecutionException(cause);
+
+                if (errorConsumer != null) {
+                    errorConsumer.accept(exception);
+                }
+                else {
+                    log.error("Background task failed:", exception);
+                }
+
+                return;
+            }
+
+            if (resultConsumer != null) {
+                resultConsumer.accept(result);
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.gui;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.swing.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs a task in the background once its inputs stop changing. Each call to
+ * trigger() restarts a delay; when the delay elapses, the task factory is
+ * called on the event dispatch thread to capture the current inputs, and the
+ * task it returns runs on a background thread. Its result (or exception) is
+ * delivered on the event dispatch thread, unless a newer task has been
+ * started in the meantime: stale tasks are interrupted and their outcomes
+ * are discarded, so whatever is on screen is only replaced by the outcome of
+ * the latest inputs.
+ *
+ * <p>All methods must be called on the event dispatch thread.</p>
+ *
+ * @param <R> Type of the results of the task
+ */
+@Slf4j
+public class DebouncedTaskRunner<R> {
+    public static final int DEFAULT_DELAY_MILLIS = 300;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private static final ExecutorService EXECUTOR =
+        Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable,
+                "debounced-task-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    private final Supplier<Callable<R>> taskFactory;
+
+    private final Consumer<R> resultConsumer;
+
+    private final Consumer<Exception> errorConsumer;
+
+    private final Timer timer;
+
+    private Future<?> currentFuture;
+
+    /**
+     * Incremented whenever a task is started or cancelled; a task only
+     * delivers its outcome if the generation did not change meanwhile.
+     */
+    private int generation;
+
+    @Getter
+    private boolean running;
+
+    /**
+     * Creates a new instance of this class.
+     *
+     * @param delayMillis Time without calls to trigger() after which the task
+     *                    is started, in milliseconds
+     * @param taskFactory Called on the event dispatch thread to capture the
+     *                    inputs and create the task; may return null to skip
+     *                    the run
+     * @param resultConsumer Receives the result of the task on the event
+     *                       dispatch thread
+     * @param errorConsumer Receives the exception thrown by the task on the
+     *                      event dispatch thread; can be null
+     */
+    public DebouncedTaskRunner(int delayMillis,
+            Supplier<Callable<R>> taskFactory, Consumer<R> resultConsumer,
+            Consumer<Exception> errorConsumer) {
+        if (taskFactory == null) {
+            throw new IllegalArgumentException("Task factory cannot be null");
+        }
+
+        if (resultConsumer == null) {
+            throw new IllegalArgumentException("Result consumer cannot be null");
+        }
+
+        this.taskFactory = taskFactory;
+        this.resultConsumer = resultConsumer;
+        this.errorConsumer = errorConsumer;
+
+        timer = new Timer(Math.max(delayMillis, 0), event -> start());
+        timer.setRepeats(false);
+    }
+
+    /**
+     * Returns the delay after which the task is started.
+     *
+     * @return The delay, in milliseconds
+     */
+    public int getDelayMillis() {
+        return timer.getInitialDelay();
+    }
+
+    /**
+     * Signals that the inputs of the task changed. The task is started once
+     * this method is not called again for the configured delay.
+     */
+    public void trigger() {
+        timer.restart();
+    }
+
+    /**
+     * Starts the task immediately, without waiting for the delay.
+     */
+    public void runNow() {
+        timer.stop();
+        start();
+    }
+
+    /**
+     * Cancels a pending or running task; its outcome will not be delivered.
+     */
+    public void cancel() {
+        timer.stop();
+        ++generation;
+        cancelCurrentFuture();
+    }
+
+    private void start() {
+        int taskGeneration = ++generation;
+        cancelCurrentFuture();
+
+        Callable<R> task;
+
+        try {
+            task = taskFactory.get();
+        } catch (Exception ex) {
+            deliverError(ex);
+            return;
+        }
+
+        if (task == null) {
+            return;
+        }
+
+        running = true;
+        currentFuture = EXECUTOR.submit(() -> {
+            try {
+                R result = task.call();
+                SwingUtilities.invokeLater(() -> {
+                    if (taskGeneration == generation) {
+                        finish();
+                        resultConsumer.accept(result);
+                    }
+                });
+            } catch (Exception ex) {
+                SwingUtilities.invokeLater(() -> {
+                    if (taskGeneration == generation) {
+                        finish();
+                        deliverError(ex);
+                    }
+                });
+            }
+        });
+    }
+
+    private void finish() {
+        running = false;
+        currentFuture = null;
+    }
+
+    private void cancelCurrentFuture() {
+        if (currentFuture != null) {
+            currentFuture.cancel(true);
+            currentFuture = null;
+        }
+
+        running = false;
+    }
+
+    private void deliverError(Exception ex) {
+        if (errorConsumer != null) {
+            errorConsumer.accept(ex);
+        }
+        else {
+            log.error("Background task failed:", ex);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.gui;
+
+import com.rogeraraujo.jwtcodec.components.CustomTable;
+import com.rogeraraujo.jwtcodec.components.CustomTableCellRenderer;
+import com.rogeraraujo.jwtcodec.components.ListTableModel;
+import com.rogeraraujo.jwtcodec.components.TableFormat;
+import lombok.extern.slf4j.Slf4j;
+import net.miginfocom.swing.MigLayout;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This dialog box shows the latency histograms collected by EdtWatchdog:
+ * how long the event dispatch thread took to handle each kind of event, and
+ * how long each panel took to paint.
+ */
+@Slf4j
+public class DiagnosticsDialog extends JDialog {
+    private EdtWatchdog watchdog;
+
+    private JLabel lblSummary;
+
+    private ListTableModel<DiagnosticsRow> diagnosticsModel;
+
+    public static DiagnosticsDialog createInstance(
+            Frame frame, boolean modal, int width, int height,
+            EdtWatchdog watchdog) {
+        DiagnosticsDialog result = new DiagnosticsDialog(frame, modal);
+        result.watchdog = watchdog;
+        result.buildGui(width, height);
+        SwingUtils.centerWindow(result, null);
+
+        return result;
+    }
+
+    private DiagnosticsDialog(Frame frame, boolean modal) {
+        super(frame, "Diagnostics", modal);
+    }
+
+    private void buildGui(int width, int height) {
+        setDefaultCloseOperation(JDialog.DISPOSE_ON_CLOSE);
+
+        JPanel mainPanel = new JPanel(new MigLayout(
+            "insets dialog", "[grow, fill]", "[] [grow, fill] []"));
+
+        setContentPane(mainPanel);
+
+        lblSummary = new JLabel(" ");
+
+        mainPanel.add(lblSummary, "wrap");
+
+        diagnosticsModel = new ListTableModel<>(
+            new ArrayList<>(), new DiagnosticsRowTableFormat());
+        CustomTable tblDiagnostics = new CustomTable(diagnosticsModel);
+        tblDiagnostics.setCustomCellRenderer(new CustomTableCellRenderer(null,
+            new CustomTableCellRenderer.AlternateRowColorTransformer(null)));
+        tblDiagnostics.setAutoCreateRowSorter(true);
+
+        mainPanel.add(new JScrollPane(tblDiagnostics), "growx, growy, wrap");
+
+        // Bottom panel
+        JPanel bottomPanel = new JPanel(new MigLayout(
+            "insets 0", "[] [] push []", ""));
+
+        JButton btnRefresh = SwingUtils.createButton(
+            "Refresh", "icons/silk/eye.png", null, null);
+        btnRefresh.addActionListener(this::processBtnRefresh);
+
+        bottomPanel.add(btnRefresh, "sizegroup buttons");
+
+        JButton btnClear = SwingUtils.createButton(
+            "Clear", "icons/silk/delete.png", null, "Clear all histograms");
+        btnClear.addActionListener(this::processBtnClear);
+
+        bottomPanel.add(btnClear, "sizegroup buttons");
+
+        JButton btnClose = SwingUtils.createButton(
+            "Close", "icons/silk/door_in.png", null, null);
+        btnClose.addActionListener(this::processBtnClose);
+
+        bottomPanel.add(btnClose, "sizegroup buttons");
+
+        getRootPane().setDefaultButton(btnClose);
+
+        mainPanel.add(bottomPanel);
+
+        refresh();
+        tblDiagnostics.autoFitColumns(CustomTable.DEFAULT_AUTO_FIT_SAMPLE_SIZE);
+
+        if ((width > 0) && (height > 0)) {
+            setSize(width, height);
+        }
+        else {
+            pack();
+        }
+    }
+
+    private void refresh() {
+        List<DiagnosticsRow> rows = new ArrayList<>();
+
+        for (LatencyHistogram histogram : watchdog.getHandlerHistograms()) {
+            rows.add(new DiagnosticsRow("Dispatch", histogram));
+        }
+
+        for (LatencyHistogram histogram : watchdog.getPaintHistograms()) {
+            rows.add(new DiagnosticsRow("Paint", histogram));
+        }
+
+        diagnosticsModel.replaceAll(rows, true);
+        lblSummary.setText(String.format(
+            "Stalls longer than %d ms: %d", watchdog.getThresholdMillis(),
+            watchdog.getStallCount()));
+    }
+
+    private void processBtnRefresh(ActionEvent event) {
+        refresh();
+    }
+
+    private void processBtnClear(ActionEvent event) {
+        watchdog.clearHistograms();
+        refresh();
+    }
+
+    private void processBtnClose(ActionEvent event) {
+        setVisible(false);
+        dispose();
+    }
+
+    /**
+     * A row of the diagnostics table: a histogram and what it measures.
+     */
+    private static class DiagnosticsRow {
+        private final String kind;
+
+        private final LatencyHistogram histogram;
+
+        private DiagnosticsRow(String kind, LatencyHistogram histogram) {
+            this.kind = kind;
+            this.histogram = histogram;
+        }
+    }
+
+    private static class DiagnosticsRowTableFormat
+            implements TableFormat<DiagnosticsRow> {
+        private static final String[] COLUMN_NAMES = { "Kind", "Name",
+            "Count", "Mean (ms)", "P50 (ms)", "P90 (ms)", "P99 (ms)",
+            "Max (ms)" };
+
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            switch (column) {
+                case 0:  // Kind
+                case 1:  // Name
+                    return String.class;
+                case 2:  // Count
+                    return Long.class;
+                case 3:  // Mean
+                case 4:  // P50
+                case 5:  // P90
+                case 6:  // P99
+                case 7:  // Max
+                    return Double.class;
+            }
+
+            throw new IllegalArgumentException(
+                "Column [" + column + "] is invalid");
+        }
+
+        @Override
+        public Object getValueAt(DiagnosticsRow baseObject, int row,
+                int column) {
+            if (baseObject == null) {
+                return null;
+            }
+
+            LatencyHistogram histogram = baseObject.histogram;
+
+            switch (column) {
+                case 0:  // Kind
+                    return baseObject.kind;
+                case 1:  // Name
+                    return histogram.getName();
+                case 2:  // Count
+                    return histogram.getCount();
+                case 3:  // Mean
+                    return round(histogram.getMeanMillis());
+                case 4:  // P50
+                    return round(histogram.getPercentileMillis(50.0));
+                case 5:  // P90
+                    return round(histogram.getPercentileMillis(90.0));
+                case 6:  // P99
+                    return round(histogram.getPercentileMillis(99.0));
+                case 7:  // Max
+                    return round(histogram.getMaxMillis());
+            }
+
+            throw new IllegalArgumentException(
+                "Column [" + column + "] is invalid");
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000.0) / 1000.0;
+        }
+    }
+}
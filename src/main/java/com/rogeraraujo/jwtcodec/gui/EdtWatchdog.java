@@ -0,0 +1,438 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.gui;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Watches the event dispatch thread for stalls. Every event is dispatched
+ * through an instrumented EventQueue that records how long it took, in one
+ * LatencyHistogram per event kind and source (e.g., "Action: Encode Token"),
+ * and a daemon thread checks the dispatch in progress: when it runs longer
+ * than the configured threshold, the stack trace of the event dispatch
+ * thread is captured and logged with the name of the application method
+ * handling the event (e.g., "MainWindow.processBtnEncodeToken").
+ *
+ * <p>A RepaintManager is also installed to record how long each paint pass
+ * takes, in one LatencyHistogram per painted panel. Panels are identified by
+ * the name (Component.setName()) of the nearest named ancestor of the
+ * components being repainted.</p>
+ *
+ * <p>Time spent in nested dispatches, and waiting for events between them
+ * (e.g., while a modal dialog opened by a handler is shown), is neither
+ * counted against the outer event nor reported as a stall.</p>
+ */
+@Slf4j
+public class EdtWatchdog {
+    public static final long DEFAULT_THRESHOLD_MILLIS = 100L;
+
+    private static final String APP_PACKAGE = "com.rogeraraujo.jwtcodec.";
+
+    private static volatile EdtWatchdog instance;
+
+    @Getter
+    private final long thresholdMillis;
+
+    private final Map<String, LatencyHistogram> handlerHistograms =
+        new ConcurrentHashMap<>();
+
+    private final Map<String, LatencyHistogram> paintHistograms =
+        new ConcurrentHashMap<>();
+
+    private final AtomicLong stallCount = new AtomicLong();
+
+    private final Thread watcherThread;
+
+    // State of the innermost dispatch in progress, written by the event
+    // dispatch thread and read by the watcher thread
+    private volatile Thread eventThread;
+
+    private volatile long dispatchStartNanos;
+
+    private volatile long dispatchSequence;
+
+    private volatile String dispatchDescription;
+
+    private volatile boolean closed;
+
+    private EdtWatchdog(long thresholdMillis) {
+        this.thresholdMillis = thresholdMillis;
+
+        watcherThread = new Thread(this::watch, "edt-watchdog");
+        watcherThread.setDaemon(true);
+    }
+
+    /**
+     * Installs the watchdog: pushes the instrumented EventQueue, replaces the
+     * RepaintManager and starts the watcher thread. Only the first call has
+     * an effect.
+     *
+     * @param thresholdMillis Dispatches longer than this, in milliseconds,
+     *                        are logged with a stack trace; must be positive
+     *
+     * @return The installed watchdog
+     */
+    public static synchronized EdtWatchdog install(long thresholdMillis) {
+        if (thresholdMillis < 1L) {
+            throw new IllegalArgumentException(
+                "Threshold must be positive");
+        }
+
+        if (instance != null) {
+            return instance;
+        }
+
+        EdtWatchdog watchdog = new EdtWatchdog(thresholdMillis);
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(
+            watchdog.new TimingEventQueue());
+        RepaintManager.setCurrentManager(watchdog.new TimingRepaintManager());
+        watchdog.watcherThread.start();
+
+        instance = watchdog;
+        log.info("Event dispatch thread watchdog installed, threshold {} ms",
+            thresholdMillis);
+        return watchdog;
+    }
+
+    /**
+     * Returns the installed watchdog.
+     *
+     * @return The watchdog, or null if it was not installed
+     */
+    public static EdtWatchdog getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the number of dispatches that exceeded the threshold.
+     *
+     * @return The number of stalls
+     */
+    public long getStallCount() {
+        return stallCount.get();
+    }
+
+    /**
+     * Returns the dispatch latency histograms, sorted by name.
+     *
+     * @return A copy of the list of histograms
+     */
+    public List<LatencyHistogram> getHandlerHistograms() {
+        return sortedValues(handlerHistograms);
+    }
+
+    /**
+     * Returns the paint duration histograms, sorted by name.
+     *
+     * @return A copy of the list of histograms
+     */
+    public List<LatencyHistogram> getPaintHistograms() {
+        return sortedValues(paintHistograms);
+    }
+
+    /**
+     * Clears all histograms.
+     */
+    public void clearHistograms() {
+        handlerHistograms.clear();
+        paintHistograms.clear();
+    }
+
+    /**
+     * Stops the watcher thread. Dispatch and paint times keep being recorded.
+     */
+    public void close() {
+        closed = true;
+        watcherThread.interrupt();
+    }
+
+    /**
+     * Describes an event by its kind and source, e.g., "Action: Encode Token"
+     * or "Mouse: CustomTable".
+     *
+     * @param event Event to describe
+     *
+     * @return The description
+     */
+    static String describe(AWTEvent event) {
+        String kind;
+
+        if (event instanceof ActionEvent) {
+            kind = "Action";
+        }
+        else if (event instanceof ItemEvent) {
+            kind = "Item";
+        }
+        else if (event instanceof MouseEvent) {
+            kind = "Mouse";
+        }
+        else if (event instanceof KeyEvent) {
+            kind = "Key";
+        }
+        else if (event instanceof FocusEvent) {
+            kind = "Focus";
+        }
+        else if (event instanceof WindowEvent) {
+            kind = "Window";
+        }
+        else if (event instanceof InvocationEvent) {
+            return "Invocation";
+        }
+        else {
+            return event.getClass().getSimpleName();
+        }
+
+        return kind + ": " + describeSource(event.getSource());
+    }
+
+    private static String describeSource(Object source) {
+        if (source instanceof Component) {
+            Component component = (Component) source;
+
+            if (component.getName() != null) {
+                return component.getName();
+            }
+
+            if ((component instanceof AbstractButton) &&
+                (((AbstractButton) component).getText() != null) &&
+                !((AbstractButton) component).getText().isEmpty()) {
+                return ((AbstractButton) component).getText();
+            }
+        }
+
+        return (source != null) ? source.getClass().getSimpleName() : "?";
+    }
+
+    /**
+     * Finds the outermost application method in a stack trace of the event
+     * dispatch thread, skipping lambda bodies, lambda proxies and this class.
+     *
+     * @param stack Stack trace
+     *
+     * @return The method, as "SimpleClassName.methodName", or null if there
+     *         is no application method in the stack
+     */
+    static String findHandler(StackTraceElement[] stack) {
+        String lambdaHandler = null;
+
+        for (int i = stack.length - 1; i >= 0; --i) {
+            String className = stack[i].getClassName();
+
+            if (!className.startsWith(APP_PACKAGE) ||
+                className.contains("$$Lambda") ||
+                className.equals(EdtWatchdog.class.getName()) ||
+                className.startsWith(EdtWatchdog.class.getName() + "$")) {
+                continue;
+            }
+
+            String handler = className.substring(
+                className.lastIndexOf('.') + 1) + "." + stack[i].getMethodName();
+
+            if (!stack[i].getMethodName().startsWith("lambda$")) {
+                return handler;
+            }
+
+            if (lambdaHandler == null) {
+                lambdaHandler = handler;
+            }
+        }
+
+        return lambdaHandler;
+    }
+
+    private static List<LatencyHistogram> sortedValues(
+            Map<String, LatencyHistogram> histograms) {
+        List<LatencyHistogram> result = new ArrayList<>(histograms.values());
+        result.sort(Comparator.comparing(LatencyHistogram::getName));
+        return result;
+    }
+
+    private static void record(Map<String, LatencyHistogram> histograms,
+            String name, long nanos) {
+        histograms.computeIfAbsent(name, LatencyHistogram::new).record(nanos);
+    }
+
+    private void watch() {
+        long pollMillis = Math.max(10L, thresholdMillis / 4L);
+        long reportedSequence = -1L;
+
+        while (!closed) {
+            try {
+                Thread.sleep(pollMillis);
+            } catch (InterruptedException ex) {
+                break;
+            }
+
+            long sequence = dispatchSequence;
+            long start = dispatchStartNanos;
+            Thread thread = eventThread;
+
+            if ((start == 0L) || (thread == null) ||
+                (sequence == reportedSequence)) {
+                continue;
+            }
+
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+
+            if (elapsedMillis < thresholdMillis) {
+                continue;
+            }
+
+            StackTraceElement[] stack = thread.getStackTrace();
+
+            // The dispatch may have ended while the stack was captured
+            if ((dispatchSequence != sequence) || (dispatchStartNanos != start)) {
+                continue;
+            }
+
+            reportedSequence = sequence;
+            stallCount.incrementAndGet();
+
+            String handler = findHandler(stack);
+            Throwable stackHolder = new Throwable("Event dispatch thread stack");
+            stackHolder.setStackTrace(stack);
+
+            log.warn("Event dispatch thread stalled for {} ms in {} ({})",
+                elapsedMillis, (handler != null) ? handler : "unknown handler",
+                dispatchDescription, stackHolder);
+        }
+    }
+
+    /**
+     * EventQueue that times every dispatch.
+     */
+    private class TimingEventQueue extends EventQueue {
+        // Time spent in dispatches nested in the current one, or waiting for
+        // their events
+        private long nestedNanos;
+
+        @Override
+        public AWTEvent getNextEvent() throws InterruptedException {
+            // Only a handler running a secondary loop, e.g., of a modal
+            // dialog, waits for events while its dispatch is in progress
+            boolean nested = (Thread.currentThread() == eventThread) &&
+                (dispatchStartNanos != 0L);
+
+            if (!nested) {
+                return super.getNextEvent();
+            }
+
+            // The event thread is idle while it waits
+            long start = System.nanoTime();
+            dispatchStartNanos = 0L;
+            ++dispatchSequence;
+
+            try {
+                return super.getNextEvent();
+            } finally {
+                long end = System.nanoTime();
+                nestedNanos += end - start;
+                dispatchStartNanos = end;
+                ++dispatchSequence;
+            }
+        }
+
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            Thread currentThread = Thread.currentThread();
+            long outerStart = dispatchStartNanos;
+            String outerDescription = dispatchDescription;
+            long outerNestedNanos = nestedNanos;
+            String description = describe(event);
+            long start = System.nanoTime();
+
+            eventThread = currentThread;
+            dispatchDescription = description;
+            dispatchStartNanos = start;
+            ++dispatchSequence;
+            nestedNanos = 0L;
+
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                long end = System.nanoTime();
+                long elapsed = end - start;
+                record(handlerHistograms, description, elapsed - nestedNanos);
+
+                // Resumes the outer dispatch, if any; the event thread was
+                // responsive until now, so its stall timer restarts
+                nestedNanos = outerNestedNanos + elapsed;
+                dispatchDescription = outerDescription;
+                dispatchStartNanos = (outerStart != 0L) ? end : 0L;
+                ++dispatchSequence;
+            }
+        }
+    }
+
+    /**
+     * RepaintManager that times every paint pass and attributes it to the
+     * panels being repainted.
+     */
+    private class TimingRepaintManager extends RepaintManager {
+        private final Set<String> dirtyPanels = new TreeSet<>();
+
+        @Override
+        public void addDirtyRegion(JComponent c, int x, int y, int w, int h) {
+            if (c != null) {
+                String panel = findPanelName(c);
+
+                synchronized (dirtyPanels) {
+                    dirtyPanels.add(panel);
+                }
+            }
+
+            super.addDirtyRegion(c, x, y, w, h);
+        }
+
+        @Override
+        public void paintDirtyRegions() {
+            String panels;
+
+            synchronized (dirtyPanels) {
+                panels = dirtyPanels.isEmpty() ?
+                    "(window)" : String.join(" + ", dirtyPanels);
+                dirtyPanels.clear();
+            }
+
+            long start = System.nanoTime();
+
+            try {
+                super.paintDirtyRegions();
+            } finally {
+                record(paintHistograms, panels, System.nanoTime() - start);
+            }
+        }
+
+        private String findPanelName(Component component) {
+            for (Component c = component; c != null; c = c.getParent()) {
+                if (c.getName() != null) {
+                    return c.getName();
+                }
+            }
+
+            return component.getClass().getSimpleName();
+        }
+    }
+}
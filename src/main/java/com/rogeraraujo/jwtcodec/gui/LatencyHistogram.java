@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.gui;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of latencies with logarithmic buckets: bucket i counts the
+ * samples of less than 2^i microseconds (and at least 2^(i-1)), so the
+ * percentiles it reports are accurate to within a factor of two, which is
+ * enough to tell a smooth handler from a janky one. Instances are
+ * thread-safe.
+ */
+public class LatencyHistogram {
+    private static final int BUCKET_COUNT = 32;
+
+    @Getter
+    private final String name;
+
+    private final long[] buckets = new long[BUCKET_COUNT];
+
+    private long count;
+
+    private long totalNanos;
+
+    private long maxNanos;
+
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a sample.
+     *
+     * @param nanos Latency, in nanoseconds; negative values are recorded as
+     *              zero
+     */
+    public synchronized void record(long nanos) {
+        nanos = Math.max(nanos, 0L);
+        long micros = nanos / 1000L;
+        int bucket = Math.min(BUCKET_COUNT - 1,
+            64 - Long.numberOfLeadingZeros(micros));
+
+        ++buckets[bucket];
+        ++count;
+        totalNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized double getMeanMillis() {
+        return (count > 0L) ? totalNanos / 1_000_000.0 / count : 0.0;
+    }
+
+    public synchronized double getMaxMillis() {
+        return maxNanos / 1_000_000.0;
+    }
+
+    /**
+     * Returns an upper bound of the latency below which a given fraction of
+     * the samples falls.
+     *
+     * @param percentile Percentile, from 0 to 100
+     *
+     * @return The upper bound of the bucket holding the percentile, in
+     *         milliseconds, capped to the maximum latency recorded; 0 if
+     *         there are no samples
+     */
+    public synchronized double getPercentileMillis(double percentile) {
+        if (count == 0L) {
+            return 0.0;
+        }
+
+        long target = (long) Math.ceil(count * Math.max(0.0,
+            Math.min(percentile, 100.0)) / 100.0);
+        long seen = 0L;
+
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            seen += buckets[i];
+
+            if ((seen >= target) && (seen > 0L)) {
+                double upperBoundMillis = (1L << i) / 1000.0;
+                return Math.min(upperBoundMillis, getMaxMillis());
+            }
+        }
+
+        return getMaxMillis();
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(buckets, 0L);
+        count = 0L;
+        totalNanos = 0L;
+        maxNanos = 0L;
+    }
+}
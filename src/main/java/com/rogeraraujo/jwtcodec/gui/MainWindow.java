@@ -19,35 +19,30 @@ package com.rogeraraujo.jwtcodec.gui;
 import com.rogeraraujo.jwtcodec.Utils;
 import com.rogeraraujo.jwtcodec.components.*;
 import com.rogeraraujo.jwtcodec.jwt.*;
-import io.fusionauth.jwt.JWTUtils;
 import io.fusionauth.jwt.Signer;
 import io.fusionauth.jwt.Verifier;
 import io.fusionauth.jwt.domain.JWT;
-import io.fusionauth.jwt.domain.KeyPair;
-import io.fusionauth.jwt.ec.ECSigner;
-import io.fusionauth.jwt.ec.ECVerifier;
-import io.fusionauth.jwt.hmac.HMACSigner;
-import io.fusionauth.jwt.hmac.HMACVerifier;
-import io.fusionauth.jwt.rsa.RSAPSSSigner;
-import io.fusionauth.jwt.rsa.RSAPSSVerifier;
-import io.fusionauth.jwt.rsa.RSASigner;
-import io.fusionauth.jwt.rsa.RSAVerifier;
 import lombok.extern.slf4j.Slf4j;
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
+import javax.swing.event.ChangeEvent;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.*;
-import java.io.File;
+import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -60,6 +55,16 @@ public class MainWindow extends JFrame {
     private static final int EXCEPTION_DLG_BOX_WIDTH = 600;
     private static final int EXCEPTION_DLG_BOX_HEIGHT = 500;
 
+    private static final int DEFAULT_LIVE_ENCODE_DELAY_MILLIS = 50;
+
+    private JTabbedPane tabPane;
+
+    /**
+     * Factories of the tabs not built yet, keyed by their placeholders.
+     */
+    private final Map<Component, Supplier<JComponent>> lazyTabFactories =
+        new HashMap<>();
+
     // Encoding panel.
     // Claims panel
     private JCheckBox ckbIssuer;
@@ -105,6 +110,9 @@ public class MainWindow extends JFrame {
     private JButton btnEncSignatureLoadPrivateKey;
 
     // Encoded token panel
+    private JButton btnEncodeToken;
+    private JCheckBox ckbLiveEncode;
+    private JLabel lblLiveEncodeStatus;
     private JTextArea jtaEncodedTokenOutput;
 
     // Decoding panel
@@ -113,6 +121,9 @@ public class MainWindow extends JFrame {
     private JTextArea jtaDecSignaturePublicKey;
     private JButton btnDecSignatureLoadPublicKey;
     private JTextArea jtaEncodedTokenInput;
+    private JButton btnDecodeToken;
+    private JCheckBox ckbLiveDecode;
+    private JLabel lblLiveDecodeStatus;
 
     private JTextField jtfDecIssuer;
     private JTextField jtfDecSubject;
@@ -146,6 +157,23 @@ public class MainWindow extends JFrame {
     private File kgPrivateKeyFile;
     private File kgPublicKeyFile;
 
+    private JwtEngine jwtEngine;
+    private JwtVerificationCache verificationCache;
+
+    private JwtKeyRing keyRing;
+
+    private KeyPairPool keyPairPool;
+
+    private UniqueIdGenerator uniqueIdGenerator;
+
+    private BackgroundTaskRunner taskRunner;
+
+    private DebouncedTaskRunner<String> liveEncodeRunner;
+
+    private DebouncedTaskRunner<LiveDecodeResult> liveDecodeRunner;
+    private boolean applyingLiveDecodeResult;
+    private boolean liveDecodeOnStart;
+
     public static MainWindow createInstance(Properties config) {
         MainWindow result = new MainWindow();
         result.configure(config);
@@ -166,11 +194,14 @@ public class MainWindow extends JFrame {
         setLayout(new MigLayout(
             "", "[grow, fill]", "[grow, fill] []"));
 
-        JTabbedPane tabPane = new JTabbedPane(
+        // Only the first tab is built now; the others are built when they
+        // are first selected, so the window appears sooner
+        tabPane = new JTabbedPane(
             JTabbedPane.TOP, JTabbedPane.SCROLL_TAB_LAYOUT);
-        tabPane.addTab("Encoding", createEncodingPanel());
-        tabPane.addTab("Decoding", createDecodingPanel());
-        tabPane.addTab("Random Key Generation", createKeyGenerationPanel());
+        addTab("Encoding", createEncodingPanel());
+        addLazyTab("Decoding", this::createDecodingPanel);
+        addLazyTab("Random Key Generation", this::createKeyGenerationPanel);
+        tabPane.addChangeListener(this::processTabPaneChange);
 
         add(tabPane, "growx, growy, wrap");
         add(createBottomPanel());
@@ -178,6 +209,39 @@ public class MainWindow extends JFrame {
         setSize(800, 600);
     }
 
+    private void addTab(String title, JComponent panel) {
+        // Names the tab, so EdtWatchdog can tell which one is painted
+        panel.setName(title);
+        tabPane.addTab(title, panel);
+    }
+
+    private void addLazyTab(String title, Supplier<JComponent> panelFactory) {
+        JPanel placeholder = new JPanel();
+        placeholder.setName(title);
+        lazyTabFactories.put(placeholder, panelFactory);
+        tabPane.addTab(title, placeholder);
+    }
+
+    private void processTabPaneChange(ChangeEvent event) {
+        int index = tabPane.getSelectedIndex();
+        Component placeholder = (index >= 0) ?
+            tabPane.getComponentAt(index) : null;
+        Supplier<JComponent> panelFactory = (placeholder != null) ?
+            lazyTabFactories.remove(placeholder) : null;
+
+        if (panelFactory == null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        JComponent panel = panelFactory.get();
+        panel.setName(placeholder.getName());
+        tabPane.setComponentAt(index, panel);
+
+        log.debug("Built tab \"{}\" in {} ms", placeholder.getName(),
+            (System.nanoTime() - start) / 1_000_000L);
+    }
+
     private void confirmExit() {
         int answer = JOptionPane.showConfirmDialog(
             this, "Close JWT Codec?",
@@ -185,6 +249,24 @@ public class MainWindow extends JFrame {
             JOptionPane.QUESTION_MESSAGE);
 
         if (answer == JOptionPane.YES_OPTION) {
+            if (keyRing != null) {
+                keyRing.close();
+            }
+
+            if (keyPairPool != null) {
+                keyPairPool.close();
+            }
+
+            taskRunner.cancel();
+
+            if (liveEncodeRunner != null) {
+                liveEncodeRunner.cancel();
+            }
+
+            if (liveDecodeRunner != null) {
+                liveDecodeRunner.cancel();
+            }
+
             setVisible(false);
             dispose();
         }
@@ -211,6 +293,89 @@ public class MainWindow extends JFrame {
         String str = config.getProperty("default-pem-file-directory", "");
         defaultPemFileDir = Utils.stringIsEmptyOrBlank(str) ?
             null : new File(str);
+
+        Integer cacheSize = Utils.stringToInt(
+            config.getProperty("key-cache-size", ""));
+        jwtEngine = ((cacheSize != null) && (cacheSize > 0)) ?
+            new JwtEngine(cacheSize) : new JwtEngine();
+
+        Integer verificationCacheSize = Utils.stringToInt(
+            config.getProperty("verification-cache-size", ""));
+        Integer ttlSeconds = Utils.stringToInt(
+            config.getProperty("verification-cache-ttl-seconds", ""));
+        Integer negativeTtlSeconds = Utils.stringToInt(
+            config.getProperty("verification-cache-negative-ttl-seconds", ""));
+
+        if (verificationCacheSize == null) {
+            verificationCache = new JwtVerificationCache(jwtEngine);
+        }
+        else if (verificationCacheSize > 0) {
+            verificationCache = new JwtVerificationCache(jwtEngine,
+                verificationCacheSize,
+                ((ttlSeconds != null) && (ttlSeconds >= 0)) ?
+                    ttlSeconds * 1000L :
+                    JwtVerificationCache.DEFAULT_TTL_MILLIS,
+                ((negativeTtlSeconds != null) && (negativeTtlSeconds >= 0)) ?
+                    negativeTtlSeconds * 1000L :
+                    JwtVerificationCache.DEFAULT_NEGATIVE_TTL_MILLIS);
+        }
+
+        UniqueIdGenerator.Format uniqueIdFormat = UniqueIdGenerator.Format.fromName(
+            config.getProperty("unique-id-format", ""));
+        uniqueIdGenerator = new UniqueIdGenerator((uniqueIdFormat != null) ?
+            uniqueIdFormat : UniqueIdGenerator.DEFAULT_FORMAT);
+
+        Integer keyPoolDepth = Utils.stringToInt(
+            config.getProperty("key-pool-depth", ""));
+        KeyPairPool.WarmUpPolicy warmUpPolicy = KeyPairPool.WarmUpPolicy.fromName(
+            config.getProperty("key-pool-warm-up", ""));
+        Integer keyPoolThreads = Utils.stringToInt(
+            config.getProperty("key-pool-threads", ""));
+
+        if ((keyPoolDepth == null) || (keyPoolDepth > 0)) {
+            keyPairPool = new KeyPairPool(
+                (keyPoolDepth != null) ? keyPoolDepth : KeyPairPool.DEFAULT_DEPTH,
+                (warmUpPolicy != null) ?
+                    warmUpPolicy : KeyPairPool.DEFAULT_WARM_UP_POLICY,
+                ((keyPoolThreads != null) && (keyPoolThreads > 0)) ?
+                    keyPoolThreads : KeyPairPool.DEFAULT_THREAD_COUNT);
+        }
+
+        str = config.getProperty("key-ring-directory", "");
+
+        if (!Utils.stringIsEmptyOrBlank(str)) {
+            try {
+                keyRing = new JwtKeyRing(Paths.get(str.trim()));
+                keyRing.startWatching();
+                log.info("Loaded {} key(s) from key ring directory {}",
+                    keyRing.size(), keyRing.getDirectory());
+            } catch (Exception ex) {
+                log.error("Error loading key ring directory " + str + ":", ex);
+                keyRing = null;
+            }
+        }
+
+        Integer liveEncodeDelay = Utils.stringToInt(
+            config.getProperty("live-encode-delay-millis", ""));
+        liveEncodeRunner = new DebouncedTaskRunner<>(
+            ((liveEncodeDelay != null) && (liveEncodeDelay >= 0)) ?
+                liveEncodeDelay : DEFAULT_LIVE_ENCODE_DELAY_MILLIS,
+            this::createLiveEncodeTask, this::showLiveEncodeResult,
+            this::showLiveEncodeError);
+        ckbLiveEncode.setSelected(Boolean.parseBoolean(
+            config.getProperty("live-encode", "false").trim()));
+
+        Integer liveDecodeDelay = Utils.stringToInt(
+            config.getProperty("live-decode-delay-millis", ""));
+        liveDecodeRunner = new DebouncedTaskRunner<>(
+            ((liveDecodeDelay != null) && (liveDecodeDelay >= 0)) ?
+                liveDecodeDelay : DebouncedTaskRunner.DEFAULT_DELAY_MILLIS,
+            this::createLiveDecodeTask, this::showLiveDecodeResult,
+            this::showLiveDecodeError);
+
+        // Applied when the decoding tab is built
+        liveDecodeOnStart = Boolean.parseBoolean(
+            config.getProperty("live-decode", "false").trim());
     }
 
     private JPanel createEncodingPanel() {
@@ -376,6 +541,24 @@ public class MainWindow extends JFrame {
         result.add(jtfEncUniqueId, "skip 1, split 2, growx");
         result.add(btnGenerateUniqueId, "wrap");
 
+        // Changes to any claim update the live preview
+        for (JCheckBox checkBox : new JCheckBox[] { ckbIssuer, ckbSubject,
+                ckbAudience, ckbIssuedAt, ckbExpiration, ckbNotBefore,
+                ckbUniqueId }) {
+            checkBox.addItemListener(event -> triggerLiveEncode());
+        }
+
+        for (JTextField textField : new JTextField[] { jtfEncIssuer,
+                jtfEncSubject, jtfEncAudience, jtfEncUniqueId }) {
+            SwingUtils.addDocumentChangeListener(
+                textField.getDocument(), this::triggerLiveEncode);
+        }
+
+        for (JSpinner spinner : new JSpinner[] { spnIssuedAt, spnExpiration,
+                spnNotBefore }) {
+            spinner.addChangeListener(event -> triggerLiveEncode());
+        }
+
         // Additional procedures
         processCkbIssuer(generateCheckBoxStateChange(ckbIssuer));
         processCkbSubject(generateCheckBoxStateChange(ckbSubject));
@@ -480,7 +663,7 @@ public class MainWindow extends JFrame {
     }
 
     private void processBtnGenerateUniqueId(ActionEvent event) {
-        jtfEncUniqueId.setText(UUID.randomUUID().toString());
+        jtfEncUniqueId.setText(uniqueIdGenerator.nextId());
     }
 
     private JPanel createOtherEncodingClaimsPanel() {
@@ -492,8 +675,12 @@ public class MainWindow extends JFrame {
         result.add(lblOtherClaimsSelData, "wrap");
 
         encOtherClaimsModel = new ListTableModel<>(
-            new ArrayList<>(), new JwtClaimTableFormat());
+            new ArrayList<>(), new JwtClaimTableFormat(), JwtClaim::getKey);
+        encOtherClaimsModel.addTableModelListener(event -> triggerLiveEncode());
         tblEncOtherClaims = new CustomTable(encOtherClaimsModel);
+        tblEncOtherClaims.setName("Other Claims");
+        tblEncOtherClaims.setRowSorter(
+            new BackgroundRowSorter<>(encOtherClaimsModel));
         tblEncOtherClaims.getSelectionModel().addListSelectionListener(
             this::processTblEncOtherClaimsCellSelection);
         tblEncOtherClaims.getColumnModel().getSelectionModel()
@@ -618,6 +805,7 @@ public class MainWindow extends JFrame {
         // Inserts the new claim
         int newRowIdx = encOtherClaimsModel.getRowCount();
         encOtherClaimsModel.addRow(dlg.getClaim(), true);
+        newRowIdx = tblEncOtherClaims.convertRowIndexToView(newRowIdx);
         tblEncOtherClaims.getSelectionModel().setSelectionInterval(
             newRowIdx, newRowIdx);
     }
@@ -649,7 +837,6 @@ public class MainWindow extends JFrame {
         }
 
         // Requests the new data for them claim
-outerWhile:
         while (true) {
             dlg.setVisible(true);
 
@@ -658,16 +845,14 @@ outerWhile:
             }
 
             JwtClaim newClaim = dlg.getClaim();
+            JwtClaim claim = encOtherClaimsModel.getRowByKey(newClaim.getKey());
 
-            for (JwtClaim claim : encOtherClaimsModel.getItems()) {
-                if ((claim != origClaim) &&
-                    Utils.safeEquals(newClaim, claim)) {
-                    SwingUtils.showErrorMessage(this,
-                        "A claim with the name \"" + newClaim.getKey() + "\" " +
-                        "already exists.\n" +
-                        "Please change the claim name and try again.");
-                    continue outerWhile;
-                }
+            if ((claim != null) && (claim != origClaim)) {
+                SwingUtils.showErrorMessage(this,
+                    "A claim with the name \"" + newClaim.getKey() + "\" " +
+                    "already exists.\n" +
+                    "Please change the claim name and try again.");
+                continue;
             }
 
             break;
@@ -675,6 +860,7 @@ outerWhile:
 
         // Updates the claim
         encOtherClaimsModel.setRow(selRow, dlg.getClaim(), true);
+        selRow = tblEncOtherClaims.convertRowIndexToView(selRow);
         tblEncOtherClaims.getSelectionModel().setSelectionInterval(
             selRow, selRow);
     }
@@ -689,6 +875,8 @@ outerWhile:
             return;
         }
 
+        int firstSelViewRow = selRows[0];
+
         for (int i = 0; i < selRows.length; ++i) {
             selRows[i] = tblEncOtherClaims.convertRowIndexToModel(selRows[i]);
         }
@@ -713,25 +901,12 @@ outerWhile:
             return;
         }
 
-        if (selRows.length == 1) {
-            int selRow = selRows[0];
-
-            encOtherClaimsModel.removeRow(selRow, true);
-        }
-        else {
-            Arrays.sort(selRows);
-
-            for (int i = selRows.length - 1; i >= 0; --i) {
-                encOtherClaimsModel.removeRow(selRows[i], false);
-            }
-
-            encOtherClaimsModel.fireTableDataChanged();
-        }
+        encOtherClaimsModel.removeRows(selRows, true);
 
         int rowCount = tblEncOtherClaims.getRowCount();
 
         if (rowCount > 0) {
-            int firstSelRow = selRows[0];
+            int firstSelRow = firstSelViewRow;
 
             if (firstSelRow >= rowCount) {
                 firstSelRow = Math.max(firstSelRow - 1, 0);
@@ -766,6 +941,11 @@ outerWhile:
 
         cboEncSignatureAlgo = createSignatureAlgoComboBox();
         cboEncSignatureAlgo.addActionListener(this::processCboEncSignatureAlgo);
+        cboEncSignatureAlgo.addItemListener(event -> {
+            if (event.getStateChange() == ItemEvent.SELECTED) {
+                triggerLiveEncode();
+            }
+        });
 
         topPanel.add(cboEncSignatureAlgo);
 
@@ -778,6 +958,8 @@ outerWhile:
 
         jtaEncSignaturePrivateKey = SwingUtils.createTextArea(
             new LimitedDocument(10000), "", 1, 1, true, true, true, true);
+        SwingUtils.addDocumentChangeListener(
+            jtaEncSignaturePrivateKey.getDocument(), this::triggerLiveEncode);
 
         result.add(new JScrollPane(jtaEncSignaturePrivateKey),
             "growx, growy, wrap");
@@ -845,32 +1027,43 @@ outerWhile:
         }
 
         encPublicKeyFile = fileChooser.getSelectedFile();
+        File file = encPublicKeyFile;
 
-        try {
-            List<String> lines = Files.readAllLines(encPublicKeyFile.toPath());
-            jtaEncSignaturePrivateKey.setText(String.join("\n", lines));
-        } catch (Exception ex) {
-            log.error("Error reading file:", ex);
-            ExceptionDialog.createInstance(this, true,
-                EXCEPTION_DLG_BOX_WIDTH, EXCEPTION_DLG_BOX_HEIGHT,
-                "Error reading file.", ex).setVisible(true);
-        }
+        runTask("Reading " + file.getName() + "...",
+            btnEncSignatureLoadPrivateKey,
+            progress -> readKeyFile(file, progress),
+            jtaEncSignaturePrivateKey::setText,
+            ex -> showTaskError("Error reading file:", "Error reading file.", ex));
     }
 
     private JPanel createEncodedTokenPanel() {
         JPanel result = new JPanel(new MigLayout(
             "insets 0", "[grow, fill]", "[] [] [grow, fill] []"));
 
-        JButton btnEncodeToken = SwingUtils.createButton(
+        btnEncodeToken = SwingUtils.createButton(
             "Encode Token", "icons/silk/lock.png", null, null);
         btnEncodeToken.addActionListener(this::processBtnEncodeToken);
 
-        result.add(btnEncodeToken, "w pref!, wrap");
+        JPanel topPanel = new JPanel(new MigLayout(
+            "insets 0", "[] [] [grow, fill]", ""));
+
+        topPanel.add(btnEncodeToken, "w pref!");
+
+        ckbLiveEncode = SwingUtils.createCheckBox(
+            "Live preview", false, this::processCkbLiveEncode);
+
+        topPanel.add(ckbLiveEncode);
+
+        lblLiveEncodeStatus = new JLabel(" ");
+
+        topPanel.add(lblLiveEncodeStatus, "w 0:0");
+
+        result.add(topPanel, "growx, wrap");
 
         result.add(new JLabel("Encoded Token:"), "wrap");
 
-        jtaEncodedTokenOutput = SwingUtils.createTextArea(
-            null, "", 1, 1, false, true, true, true);
+        jtaEncodedTokenOutput = SwingUtils.createTokenTextArea(
+            "", 1, 1, false, true, true);
 
         result.add(new JScrollPane(jtaEncodedTokenOutput), "growx, growy, wrap");
 
@@ -951,6 +1144,43 @@ outerWhile:
         }
 
         // Creates the token
+        JWT unsignedToken = createUnsignedToken();
+
+        // Signs the token
+        Object selItem = cboEncSignatureAlgo.getSelectedItem();
+        @SuppressWarnings("unchecked")
+        JwtSignatureAlgorithm signatureAlgo = (selItem != null) ?
+            ((ComboBoxItem<JwtSignatureAlgorithm>) selItem).getItem() : null;
+
+        if (signatureAlgo == null) {
+            SwingUtils.showErrorMessage(this,
+                "Please choose a signature algorithm.");
+            cboEncSignatureAlgo.requestFocusInWindow();
+            return;
+        }
+
+        runTask("Signing token...", btnEncodeToken, progress -> {
+                Signer signer;
+
+                try {
+                    signer = jwtEngine.getSigner(signatureAlgo, key);
+                } catch (Exception ex) {
+                    throw new TaskStepException("Could not create signer. " +
+                        "Please check whether the key is in a valid format.", ex);
+                }
+
+                return JWT.getEncoder().encode(unsignedToken, signer);
+            },
+            jtaEncodedTokenOutput::setText,
+            ex -> showTaskError("Error signing token:",
+                "Error signing token.", ex));
+    }
+
+    /*
+     * Creates an unsigned token holding the claims currently enabled in the
+     * encoding tab.
+     */
+    private JWT createUnsignedToken() {
         JWT unsignedToken = new JWT();
 
         if (jtfEncIssuer.isEnabled()) {
@@ -990,97 +1220,70 @@ outerWhile:
             unsignedToken.addClaim(claim.getKey(), claim.getValue());
         }
 
-        // Signs the token
-        Object selItem = cboEncSignatureAlgo.getSelectedItem();
-        @SuppressWarnings("unchecked")
-        JwtSignatureAlgorithm signatureAlgo = (selItem != null) ?
-            ((ComboBoxItem<JwtSignatureAlgorithm>) selItem).getItem() : null;
+        return unsignedToken;
+    }
 
-        if (signatureAlgo == null) {
-            SwingUtils.showErrorMessage(this,
-                "Please choose a signature algorithm.");
-            cboEncSignatureAlgo.requestFocusInWindow();
-            return;
+    private void processCkbLiveEncode(ItemEvent event) {
+        if (event.getStateChange() == ItemEvent.SELECTED) {
+            triggerLiveEncode();
         }
+        else {
+            if (liveEncodeRunner != null) {
+                liveEncodeRunner.cancel();
+            }
 
-        Signer signer = null;
-
-        try {
-            switch (signatureAlgo) {
-                case HMAC_SHA_256:
-                    signer = HMACSigner.newSHA256Signer(key);
-                    break;
-
-                case HMAC_SHA_384:
-                    signer = HMACSigner.newSHA384Signer(key);
-                    break;
-
-                case HMAC_SHA_512:
-                    signer = HMACSigner.newSHA512Signer(key);
-                    break;
-
-                case RSA_SSA_PKCS_V1_5_SHA_256:
-                    signer = RSASigner.newSHA256Signer(key);
-                    break;
-
-                case RSA_SSA_PKCS_V1_5_SHA_384:
-                    signer = RSASigner.newSHA384Signer(key);
-                    break;
-
-                case RSA_SSA_PKCS_V1_5_SHA_512:
-                    signer = RSASigner.newSHA512Signer(key);
-                    break;
+            lblLiveEncodeStatus.setText(" ");
+            lblLiveEncodeStatus.setToolTipText(null);
+        }
+    }
 
-                case ECDSA_SHA_256:
-                    signer = ECSigner.newSHA256Signer(key);
-                    break;
+    private void triggerLiveEncode() {
+        if ((liveEncodeRunner != null) && ckbLiveEncode.isSelected()) {
+            liveEncodeRunner.trigger();
+        }
+    }
 
-                case ECDSA_SHA_384:
-                    signer = ECSigner.newSHA384Signer(key);
-                    break;
+    /*
+     * Captures the claims, algorithm and key on the event dispatch thread and
+     * returns the task that signs the token in the background. Unlike the
+     * "Encode Token" button, no confirmation is asked for empty claims.
+     */
+    private Callable<String> createLiveEncodeTask() {
+        String key = jtaEncSignaturePrivateKey.getText();
+        Object selItem = cboEncSignatureAlgo.getSelectedItem();
+        @SuppressWarnings("unchecked")
+        JwtSignatureAlgorithm signatureAlgo = (selItem != null) ?
+            ((ComboBoxItem<JwtSignatureAlgorithm>) selItem).getItem() : null;
 
-                case ECDSA_SHA_512:
-                    signer = ECSigner.newSHA512Signer(key);
-                    break;
+        if ((signatureAlgo == null) || Utils.stringIsEmpty(key)) {
+            // Keeps the last token on screen
+            lblLiveEncodeStatus.setText("Waiting for a key");
+            lblLiveEncodeStatus.setToolTipText(null);
+            return null;
+        }
 
-                case RSA_SSA_PSS_SHA_256:
-                    signer = RSAPSSSigner.newSHA256Signer(key);
-                    break;
+        JWT unsignedToken = createUnsignedToken();
 
-                case RSA_SSA_PSS_SHA_384:
-                    signer = RSAPSSSigner.newSHA384Signer(key);
-                    break;
+        // The engine keeps signers ready for reuse, so the key is only
+        // parsed again when the key or the algorithm changes
+        return () -> JWT.getEncoder().encode(unsignedToken,
+            jwtEngine.getSigner(signatureAlgo, key));
+    }
 
-                case RSA_SSA_PSS_SHA_512:
-                    signer = RSAPSSSigner.newSHA512Signer(key);
-                    break;
-            }
-        } catch (Exception ex) {
-            log.error("Could not create signer:", ex);
-            ExceptionDialog.createInstance(this, true,
-                EXCEPTION_DLG_BOX_WIDTH, EXCEPTION_DLG_BOX_HEIGHT,
-                "Could not create signer. Please check whether the key is " +
-                "in a valid format.", ex).setVisible(true);
-            return;
-        }
+    private void showLiveEncodeResult(String signedToken) {
+        jtaEncodedTokenOutput.setText(signedToken);
+        lblLiveEncodeStatus.setText("Up to date");
+        lblLiveEncodeStatus.setToolTipText(null);
+    }
 
-        if (signer == null) {
-            SwingUtils.showErrorMessage(this,
-                "Could not create signer. Please check whether the key is " +
-                "in a valid format.");
-            jtaEncSignaturePrivateKey.requestFocusInWindow();
-            return;
-        }
+    private void showLiveEncodeError(Exception ex) {
+        // The output keeps showing the last token signed successfully
+        log.debug("Live encoding failed: {}", ex.toString());
 
-        try {
-            String signedToken = JWT.getEncoder().encode(unsignedToken, signer);
-            jtaEncodedTokenOutput.setText(signedToken);
-        } catch (Exception ex) {
-            log.error("Error signing token:", ex);
-            ExceptionDialog.createInstance(this, true,
-                EXCEPTION_DLG_BOX_WIDTH, EXCEPTION_DLG_BOX_HEIGHT,
-                "Error signing token.", ex).setVisible(true);
-        }
+        String message = Utils.stringIsEmptyOrBlank(ex.getMessage()) ?
+            ex.getClass().getSimpleName() : ex.getMessage();
+        lblLiveEncodeStatus.setText("Not signed: " + message);
+        lblLiveEncodeStatus.setToolTipText(message);
     }
 
     private void processBtnCopyEncodedToken(ActionEvent event) {
@@ -1101,6 +1304,9 @@ outerWhile:
 
         result.add(createDecodingResultPanel(), "w 0:0");
 
+        // Additional procedures
+        ckbLiveDecode.setSelected(liveDecodeOnStart);
+
         return result;
     }
 
@@ -1116,6 +1322,11 @@ outerWhile:
 
         cboDecSignatureAlgo = createSignatureAlgoComboBox();
         cboDecSignatureAlgo.addActionListener(this::processCboDecSignatureAlgo);
+        cboDecSignatureAlgo.addItemListener(event -> {
+            if (event.getStateChange() == ItemEvent.SELECTED) {
+                triggerLiveDecode();
+            }
+        });
 
         topPanel.add(cboDecSignatureAlgo);
 
@@ -1127,6 +1338,8 @@ outerWhile:
 
         jtaDecSignaturePublicKey = SwingUtils.createTextArea(
             new LimitedDocument(10000), "", 1, 1, true, true, true, true);
+        SwingUtils.addDocumentChangeListener(
+            jtaDecSignaturePublicKey.getDocument(), this::triggerLiveDecode);
 
         result.add(new JScrollPane(jtaDecSignaturePublicKey),
             "grow, growy, wrap");
@@ -1140,17 +1353,33 @@ outerWhile:
 
         result.add(new JLabel("Encoded Token:"), "wrap");
 
-        jtaEncodedTokenInput = SwingUtils.createTextArea(
-            new LimitedDocument(10000), "", 1, 1, true, true, true, true);
+        jtaEncodedTokenInput = SwingUtils.createTokenTextArea(
+            "", 1, 1, true, true, true);
+        SwingUtils.addDocumentChangeListener(
+            jtaEncodedTokenInput.getDocument(), this::triggerLiveDecode);
 
         result.add(new JScrollPane(jtaEncodedTokenInput),
             "grow, growy, wrap");
 
-        JButton btnDecodeToken = SwingUtils.createButton(
+        btnDecodeToken = SwingUtils.createButton(
             "Decode Token", "icons/silk/lock_open.png", null, null);
         btnDecodeToken.addActionListener(this::processBtnDecodeToken);
 
-        result.add(btnDecodeToken, "w pref!");
+        JPanel bottomPanel = new JPanel(new MigLayout(
+            "insets 0", "[] [] [grow, fill]", ""));
+
+        bottomPanel.add(btnDecodeToken, "w pref!");
+
+        ckbLiveDecode = SwingUtils.createCheckBox(
+            "Live decode", false, this::processCkbLiveDecode);
+
+        bottomPanel.add(ckbLiveDecode);
+
+        lblLiveDecodeStatus = new JLabel(" ");
+
+        bottomPanel.add(lblLiveDecodeStatus, "w 0:0");
+
+        result.add(bottomPanel, "growx");
 
         // Additional procedures
         ComboBoxItem.setSelectedItem(cboDecSignatureAlgo,
@@ -1186,19 +1415,22 @@ outerWhile:
         }
 
         decPublicKeyFile = fileChooser.getSelectedFile();
+        File file = decPublicKeyFile;
 
-        try {
-            List<String> lines = Files.readAllLines(decPublicKeyFile.toPath());
-            jtaDecSignaturePublicKey.setText(String.join("\n", lines));
-        } catch (Exception ex) {
-            log.error("Error reading file:", ex);
-            ExceptionDialog.createInstance(this, true,
-                EXCEPTION_DLG_BOX_WIDTH, EXCEPTION_DLG_BOX_HEIGHT,
-                "Error reading file.", ex).setVisible(true);
-        }
+        runTask("Reading " + file.getName() + "...",
+            btnDecSignatureLoadPublicKey,
+            progress -> readKeyFile(file, progress),
+            jtaDecSignaturePublicKey::setText,
+            ex -> showTaskError("Error reading file:", "Error reading file.", ex));
     }
 
     private void processBtnDecodeToken(ActionEvent event) {
+        // The header is only read to find the key of the token in the key
+        // ring. The signature algorithm is always the one chosen by the user,
+        // since the header is written by whoever created the token
+        JwtHeaderInfo headerInfo = JwtHeaderInfo.peek(
+            jtaEncodedTokenInput.getText().trim());
+
         // Basic validation
         Object selItem = cboDecSignatureAlgo.getSelectedItem();
         @SuppressWarnings("unchecked")
@@ -1214,6 +1446,18 @@ outerWhile:
 
         String key = jtaDecSignaturePublicKey.getText();
 
+        // Fills in the key named by the token header, if a key ring is
+        // configured and the user did not provide a key
+        if (Utils.stringIsEmpty(key) && (keyRing != null) &&
+            (headerInfo != null)) {
+            String keyRingKey = keyRing.resolveKey(headerInfo);
+
+            if (keyRingKey != null) {
+                jtaDecSignaturePublicKey.setText(keyRingKey);
+                key = keyRingKey;
+            }
+        }
+
         if (Utils.stringIsEmpty(key)) {
             SwingUtils.showErrorMessage(this, "Please provide a non-empty key.");
             jtaDecSignaturePublicKey.requestFocusInWindow();
@@ -1229,66 +1473,37 @@ outerWhile:
         }
 
         // Decodes and verifies the token
-        Verifier verifier = null;
-
-        try {
-            switch (signatureAlgo) {
-                case HMAC_SHA_256:
-                case HMAC_SHA_384:
-                case HMAC_SHA_512:
-                    verifier = HMACVerifier.newVerifier(key);
-                    break;
+        String verificationKey = key;
 
-                case RSA_SSA_PKCS_V1_5_SHA_256:
-                case RSA_SSA_PKCS_V1_5_SHA_384:
-                case RSA_SSA_PKCS_V1_5_SHA_512:
-                    verifier = RSAVerifier.newVerifier(key);
-                    break;
-
-                case ECDSA_SHA_256:
-                case ECDSA_SHA_384:
-                case ECDSA_SHA_512:
-                    verifier = ECVerifier.newVerifier(key);
-                    break;
+        runTask("Decoding token...", btnDecodeToken, progress -> {
+                Verifier verifier;
 
-                case RSA_SSA_PSS_SHA_256:
-                case RSA_SSA_PSS_SHA_384:
-                case RSA_SSA_PSS_SHA_512:
-                    verifier = RSAPSSVerifier.newVerifier(key);
-                    break;
-            }
-        } catch (Exception ex) {
-            log.error("Could not create verifier:", ex);
-            ExceptionDialog.createInstance(this, true,
-                EXCEPTION_DLG_BOX_WIDTH, EXCEPTION_DLG_BOX_HEIGHT,
-                "Could not create verifier. Please check whether the key is " +
-                "in a valid format.", ex).setVisible(true);
-            return;
-        }
-
-        if (verifier == null) {
-            SwingUtils.showErrorMessage(this,
-                "Could not create verifier. Please check whether the key is " +
-                "in a valid format.");
-            jtaDecSignaturePublicKey.requestFocusInWindow();
-            return;
-        }
-
-        JWT signedToken;
+                try {
+                    verifier = jwtEngine.getVerifier(signatureAlgo,
+                        verificationKey);
+                } catch (Exception ex) {
+                    throw new TaskStepException("Could not create verifier. " +
+                        "Please check whether the key is in a valid format.", ex);
+                }
 
-        try {
-            signedToken = JWT.getDecoder().decode(encodedToken, verifier);
-        } catch (Exception ex) {
-            ex = JwtUtils.translateDecodingException(ex);
-            log.error("Could not decode or verify token:", ex);
-            ExceptionDialog.createInstance(this, true,
-                EXCEPTION_DLG_BOX_WIDTH, EXCEPTION_DLG_BOX_HEIGHT,
-                "Could not create decode or verify token.", ex)
-                .setVisible(true);
-            return;
-        }
+                return (verificationCache != null) ?
+                    verificationCache.decode(encodedToken, signatureAlgo,
+                        verificationKey) :
+                    JWT.getDecoder().decode(encodedToken, verifier);
+            },
+            signedToken -> {
+                logVerificationCacheStatistics();
+                showDecodedToken(signedToken);
+            },
+            ex -> {
+                logVerificationCacheStatistics();
+                showTaskError("Could not decode or verify token:",
+                    "Could not create decode or verify token.",
+                    JwtUtils.translateDecodingException(ex));
+            });
+    }
 
-        // Fills the fields
+    private void showDecodedToken(JWT signedToken) {
         jtfDecIssuer.setText(signedToken.issuer);
         jtfDecSubject.setText(signedToken.subject);
         jtfDecAudience.setText(Utils.objectToStr(signedToken.audience, ""));
@@ -1330,6 +1545,133 @@ outerWhile:
         jtaDecOtherClaims.setText(builder.toString());
     }
 
+    private void processCkbLiveDecode(ItemEvent event) {
+        if (event.getStateChange() == ItemEvent.SELECTED) {
+            triggerLiveDecode();
+        }
+        else {
+            if (liveDecodeRunner != null) {
+                liveDecodeRunner.cancel();
+            }
+
+            lblLiveDecodeStatus.setText(" ");
+            lblLiveDecodeStatus.setToolTipText(null);
+        }
+    }
+
+    private void triggerLiveDecode() {
+        if ((liveDecodeRunner != null) && (ckbLiveDecode != null) &&
+            !applyingLiveDecodeResult && ckbLiveDecode.isSelected()) {
+            liveDecodeRunner.trigger();
+        }
+    }
+
+    /*
+     * Captures the decoding inputs on the event dispatch thread and returns
+     * the task that decodes and verifies the token in the background.
+     */
+    private Callable<LiveDecodeResult> createLiveDecodeTask() {
+        String encodedToken = jtaEncodedTokenInput.getText().trim();
+
+        if (Utils.stringIsEmpty(encodedToken)) {
+            // Keeps the last result on screen
+            lblLiveDecodeStatus.setText(" ");
+            lblLiveDecodeStatus.setToolTipText(null);
+            return null;
+        }
+
+        Object selItem = cboDecSignatureAlgo.getSelectedItem();
+        @SuppressWarnings("unchecked")
+        JwtSignatureAlgorithm selectedSignatureAlgo = (selItem != null) ?
+            ((ComboBoxItem<JwtSignatureAlgorithm>) selItem).getItem() : null;
+        String key = jtaDecSignaturePublicKey.getText();
+        JwtKeyRing currentKeyRing = keyRing;
+
+        lblLiveDecodeStatus.setText("Decoding...");
+        lblLiveDecodeStatus.setToolTipText(null);
+
+        return () -> decodeLive(encodedToken, selectedSignatureAlgo, key,
+            currentKeyRing);
+    }
+
+    private LiveDecodeResult decodeLive(String encodedToken,
+            JwtSignatureAlgorithm signatureAlgo, String key,
+            JwtKeyRing currentKeyRing) throws Exception {
+        // As with the Decode Token button, the algorithm is the one chosen by
+        // the user; the header is only read to find the key in the key ring
+        JwtHeaderInfo headerInfo = JwtHeaderInfo.peek(encodedToken);
+
+        if (signatureAlgo == null) {
+            throw new IllegalArgumentException(
+                "No signature algorithm chosen");
+        }
+
+        String keyRingKey = null;
+
+        if (Utils.stringIsEmpty(key) && (currentKeyRing != null) &&
+            (headerInfo != null)) {
+            keyRingKey = currentKeyRing.resolveKey(headerInfo);
+            key = keyRingKey;
+        }
+
+        if (Utils.stringIsEmpty(key)) {
+            throw new IllegalArgumentException("No key provided");
+        }
+
+        // Bails out early if newer input arrived while the header was read
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedException();
+        }
+
+        JWT signedToken = (verificationCache != null) ?
+            verificationCache.decode(encodedToken, signatureAlgo, key) :
+            JWT.getDecoder().decode(encodedToken,
+                jwtEngine.getVerifier(signatureAlgo, key));
+
+        return new LiveDecodeResult(keyRingKey, signedToken);
+    }
+
+    private void showLiveDecodeResult(LiveDecodeResult result) {
+        applyingLiveDecodeResult = true;
+
+        try {
+            if ((result.keyRingKey != null) &&
+                Utils.stringIsEmpty(jtaDecSignaturePublicKey.getText())) {
+                jtaDecSignaturePublicKey.setText(result.keyRingKey);
+            }
+
+            showDecodedToken(result.signedToken);
+        } finally {
+            applyingLiveDecodeResult = false;
+        }
+
+        logVerificationCacheStatistics();
+        lblLiveDecodeStatus.setText("Signature verified");
+        lblLiveDecodeStatus.setToolTipText(null);
+    }
+
+    private void showLiveDecodeError(Exception ex) {
+        // The fields keep showing the last token decoded successfully
+        ex = JwtUtils.translateDecodingException(ex);
+        log.debug("Live decoding failed: {}", ex.toString());
+
+        String message = Utils.stringIsEmptyOrBlank(ex.getMessage()) ?
+            ex.getClass().getSimpleName() : ex.getMessage();
+        lblLiveDecodeStatus.setText("Not decoded: " + message);
+        lblLiveDecodeStatus.setToolTipText(message);
+    }
+
+    private void logVerificationCacheStatistics() {
+        if ((verificationCache != null) && log.isDebugEnabled()) {
+            log.debug("Verification cache: {} hits, {} negative hits, " +
+                "{} misses, hit ratio {}",
+                verificationCache.getHitCount(),
+                verificationCache.getNegativeHitCount(),
+                verificationCache.getMissCount(),
+                String.format("%.2f", verificationCache.getHitRatio()));
+        }
+    }
+
     private JPanel createDecodingResultPanel() {
         JPanel result = new JPanel(new MigLayout(
             "insets 0", "[] [grow, fill]",
@@ -1544,57 +1886,29 @@ outerWhile:
             return;
         }
 
-        String key = null;
-        KeyPair keyPair = null;
-
-        switch (kgType) {
-            case HMAC_SHA_256:
-                key = JWTUtils.generateSHA256_HMACSecret();
-                break;
-
-            case HMAC_SHA_384:
-                key = JWTUtils.generateSHA384_HMACSecret();
-                break;
-
-            case HMAC_SHA_512:
-                key = JWTUtils.generateSHA512_HMACSecret();
-                break;
-
-            case RSA_2048:
-                keyPair = JWTUtils.generate2048_RSAKeyPair();
-                break;
-
-            case RSA_3072:
-                keyPair = JWTUtils.generate3072_RSAKeyPair();
-                break;
-
-            case RSA_4096:
-                keyPair = JWTUtils.generate4096_RSAKeyPair();
-                break;
-
-            case EC_256:
-                keyPair = JWTUtils.generate256_ECKeyPair();
-                break;
-
-            case EC_384:
-                keyPair = JWTUtils.generate384_ECKeyPair();
-                break;
-
-            case EC_521:
-                keyPair = JWTUtils.generate521_ECKeyPair();
-                break;
-        }
-
-        if (key != null) {
-            jtaKgPrivateKey.setText(key);
-            jtaKgPrivateKey.setCaretPosition(0);
+        if (!kgType.isAsymmetric()) {
+            runTask("Generating secret key...", btnGenerateKey,
+                progress -> JwtUtils.generateSecret(kgType),
+                key -> {
+                    jtaKgPrivateKey.setText(key);
+                    jtaKgPrivateKey.setCaretPosition(0);
+                },
+                ex -> showTaskError("Error generating key:",
+                    "Error generating key.", ex));
         }
-        else if (keyPair != null) {
-            jtaKgPrivateKey.setText(keyPair.privateKey);
-            jtaKgPublicKey.setText(keyPair.publicKey);
-
-            jtaKgPrivateKey.setCaretPosition(0);
-            jtaKgPublicKey.setCaretPosition(0);
+        else {
+            runTask("Generating key pair...", btnGenerateKey,
+                progress -> (keyPairPool != null) ?
+                    keyPairPool.take(kgType) : JwtUtils.generateKeyPair(kgType),
+                keyPair -> {
+                    jtaKgPrivateKey.setText(keyPair.privateKey);
+                    jtaKgPublicKey.setText(keyPair.publicKey);
+
+                    jtaKgPrivateKey.setCaretPosition(0);
+                    jtaKgPublicKey.setCaretPosition(0);
+                },
+                ex -> showTaskError("Error generating key pair:",
+                    "Error generating key pair.", ex));
         }
     }
 
@@ -1620,17 +1934,11 @@ outerWhile:
         }
 
         kgPrivateKeyFile = fileChooser.getSelectedFile();
+        File file = kgPrivateKeyFile;
 
-        try {
-            Files.write(kgPrivateKeyFile.toPath(), Arrays.asList(key),
-                StandardCharsets.UTF_8, StandardOpenOption.CREATE,
-                StandardOpenOption.WRITE);
-        } catch (Exception ex) {
-            log.error("Error writing file:", ex);
-            ExceptionDialog.createInstance(this, true,
-                EXCEPTION_DLG_BOX_WIDTH, EXCEPTION_DLG_BOX_HEIGHT,
-                "Error writing file.", ex).setVisible(true);
-        }
+        runTask("Writing " + file.getName() + "...", btnKgSavePrivateKey,
+            progress -> writeKeyFile(file, key), null,
+            ex -> showTaskError("Error writing file:", "Error writing file.", ex));
     }
 
     private void processBtnKgCopyPublicKey(ActionEvent event) {
@@ -1655,22 +1963,81 @@ outerWhile:
         }
 
         kgPublicKeyFile = fileChooser.getSelectedFile();
+        File file = kgPublicKeyFile;
 
-        try {
-            Files.write(kgPublicKeyFile.toPath(), Arrays.asList(key),
-                StandardCharsets.UTF_8, StandardOpenOption.CREATE,
-                StandardOpenOption.WRITE);
-        } catch (Exception ex) {
-            log.error("Error writing file:", ex);
-            ExceptionDialog.createInstance(this, true,
-                EXCEPTION_DLG_BOX_WIDTH, EXCEPTION_DLG_BOX_HEIGHT,
-                "Error writing file.", ex).setVisible(true);
+        runTask("Writing " + file.getName() + "...", btnKgSavePublicKey,
+            progress -> writeKeyFile(file, key), null,
+            ex -> showTaskError("Error writing file:", "Error writing file.", ex));
+    }
+
+    private <R> void runTask(String description, JComponent trigger,
+            BackgroundTaskRunner.Task<R> task, Consumer<R> resultConsumer,
+            Consumer<Exception> errorConsumer) {
+        if (!taskRunner.run(description, trigger, task, resultConsumer,
+            errorConsumer)) {
+            SwingUtils.showErrorMessage(this, "Please wait for the current " +
+                "task to finish, or cancel it.");
         }
     }
 
+    private void showTaskError(String logMessage, String errorMessage,
+            Exception ex) {
+        if (ex instanceof TaskStepException) {
+            errorMessage = ex.getMessage();
+            ex = (Exception) ex.getCause();
+        }
+
+        log.error(logMessage, ex);
+        ExceptionDialog.createInstance(this, true,
+            EXCEPTION_DLG_BOX_WIDTH, EXCEPTION_DLG_BOX_HEIGHT,
+            errorMessage, ex).setVisible(true);
+    }
+
+    /*
+     * Reads a key file in chunks, reporting progress, so that files on slow
+     * network shares can be cancelled. Lines are joined with "\n", as done by
+     * Files.readAllLines().
+     */
+    private static String readKeyFile(File file,
+            BackgroundTaskRunner.Progress progress) throws Exception {
+        long size = file.length();
+        ByteArrayOutputStream output = new ByteArrayOutputStream(
+            (int) Math.min(Math.max(size, 0L), 1L << 20));
+        byte[] buffer = new byte[8192];
+
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            int count;
+
+            while ((count = input.read(buffer)) != -1) {
+                if (progress.isCancelled()) {
+                    throw new InterruptedException();
+                }
+
+                output.write(buffer, 0, count);
+
+                if (size > 0L) {
+                    progress.setPercent((int) (output.size() * 100L / size));
+                }
+            }
+        }
+
+        String text = new String(output.toByteArray(), StandardCharsets.UTF_8);
+
+        try (BufferedReader reader = new BufferedReader(new StringReader(text))) {
+            return reader.lines().collect(Collectors.joining("\n"));
+        }
+    }
+
+    private static Void writeKeyFile(File file, String key) throws Exception {
+        Files.write(file.toPath(), Arrays.asList(key),
+            StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE);
+        return null;
+    }
+
     private JPanel createBottomPanel() {
         JPanel result = new JPanel(new MigLayout(
-            "insets 0", "[] push []", ""));
+            "insets 0", "[] [] push [] [] [] []", ""));
 
         JButton btnAbout = SwingUtils.createButton(
             "About...", "icons/silk/information.png", null, null);
@@ -1678,6 +2045,31 @@ outerWhile:
 
         result.add(btnAbout, "sizegroup buttons");
 
+        if (EdtWatchdog.getInstance() != null) {
+            JButton btnDiagnostics = SwingUtils.createButton(
+                "Diagnostics...", "icons/silk/time.png", null,
+                "Show how long the user interface takes to respond");
+            btnDiagnostics.addActionListener(this::processBtnDiagnostics);
+
+            result.add(btnDiagnostics, "sizegroup buttons");
+        }
+
+        JLabel lblTaskStatus = new JLabel(" ");
+
+        result.add(lblTaskStatus);
+
+        JProgressBar pgbTask = new JProgressBar(0, 100);
+
+        result.add(pgbTask);
+
+        JButton btnCancelTask = SwingUtils.createButton(
+            "Cancel", "icons/silk/cancel.png", null, "Cancel the running task");
+
+        result.add(btnCancelTask);
+
+        taskRunner = new BackgroundTaskRunner(
+            lblTaskStatus, pgbTask, btnCancelTask);
+
         JButton btnClose = SwingUtils.createButton(
             "Close", "icons/silk/door_in.png", null, null);
         btnClose.addActionListener(this::processBtnClose);
@@ -1691,7 +2083,37 @@ outerWhile:
         AboutDialog.createInstance(this, true, 600, 500).setVisible(true);
     }
 
+    private void processBtnDiagnostics(ActionEvent event) {
+        DiagnosticsDialog.createInstance(this, false, 800, 400,
+            EdtWatchdog.getInstance()).setVisible(true);
+    }
+
     private void processBtnClose(ActionEvent event) {
         confirmExit();
     }
+
+    /**
+     * Exception thrown by a background task to replace the error message
+     * shown for its cause.
+     */
+    private static class TaskStepException extends Exception {
+        private TaskStepException(String message, Exception cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Outcome of a live decoding: the token and the key taken from the key
+     * ring, if any.
+     */
+    private static class LiveDecodeResult {
+        private final String keyRingKey;
+
+        private final JWT signedToken;
+
+        private LiveDecodeResult(String keyRingKey, JWT signedToken) {
+            this.keyRingKey = keyRingKey;
+            this.signedToken = signedToken;
+        }
+    }
 }
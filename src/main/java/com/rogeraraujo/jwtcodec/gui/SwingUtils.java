@@ -18,8 +18,11 @@ package com.rogeraraujo.jwtcodec.gui;
 
 import com.rogeraraujo.jwtcodec.Utils;
 import com.rogeraraujo.jwtcodec.components.CustomListCellRenderer;
+import com.rogeraraujo.jwtcodec.components.TokenTextArea;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.plaf.FontUIResource;
 import javax.swing.text.Document;
 import java.awt.*;
@@ -269,8 +272,40 @@ public class SwingUtils {
             Document document, String text, int rows, int columns,
             boolean editable, boolean lineWrap, boolean overrideTabKeyStroke,
             boolean useTextFieldFont) {
-        JTextArea result = new JTextArea();
+        return configureTextArea(new JTextArea(), document, text, rows,
+            columns, editable, lineWrap, overrideTabKeyStroke, useTextFieldFont);
+    }
 
+    /**
+     * Creates a TokenTextArea instance, which is meant to hold encoded tokens
+     * of any size. Lines are always wrapped into fixed-width segments.
+     *
+     * @param text Text to apply to the created instance; can be null
+     * @param rows Number of rows to apply to the created instance; only
+     *             used if >= 0
+     * @param columns Number of columns to apply to the created instance; only
+     *                used if >= 0
+     * @param editable Flag indicating whether the created instance should be
+     *                 editable
+     * @param overrideTabKeyStroke Flag indicating whether to make the Tab and
+     *                             Shift-Tab keystrokes work as focus control
+     *                             keys instead of inserting tab characters
+     * @param useTextFieldFont Flag indicating whether to replace the default
+     *                         JTextArea font by the font used in JTextField
+     *
+     * @return A newly-created TokenTextArea instance
+     */
+    public static TokenTextArea createTokenTextArea(
+            String text, int rows, int columns, boolean editable,
+            boolean overrideTabKeyStroke, boolean useTextFieldFont) {
+        return configureTextArea(new TokenTextArea(), null, text, rows,
+            columns, editable, true, overrideTabKeyStroke, useTextFieldFont);
+    }
+
+    private static <T extends JTextArea> T configureTextArea(
+            T result, Document document, String text, int rows, int columns,
+            boolean editable, boolean lineWrap, boolean overrideTabKeyStroke,
+            boolean useTextFieldFont) {
         if (document != null) {
             result.setDocument(document);
         }
@@ -316,6 +351,37 @@ public class SwingUtils {
         return result;
     }
 
+    /**
+     * Adds a listener to a document that runs a given action whenever text is
+     * inserted or removed, or attributes change.
+     *
+     * @param document Document to listen to
+     * @param action Action to run when the document changes
+     */
+    public static void addDocumentChangeListener(
+            Document document, Runnable action) {
+        if (document == null) {
+            throw new IllegalArgumentException("Document cannot be null");
+        }
+
+        if (action == null) {
+            throw new IllegalArgumentException("Action cannot be null");
+        }
+
+        document.addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent event) {
+                action.run();
+            }
+
+            @Override public void removeUpdate(DocumentEvent event) {
+                action.run();
+            }
+
+            @Override public void changedUpdate(DocumentEvent event) {
+                action.run();
+            }});
+    }
+
     /**
      * Creates a JCheckBox instance.
      *
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.domain.Algorithm;
+
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.Arrays;
+
+/**
+ * Creates the JCA Signature instances used by the asymmetric signature
+ * algorithms, with the same parameters as the FusionAuth JWT signers and
+ * verifiers, and converts ECDSA signatures between the DER encoding used by
+ * JCA and the R || S concatenation used by JWTs.
+ */
+class JcaSignatures {
+    // Private constructor to prevent instantiation
+    private JcaSignatures() { }
+
+    /**
+     * Creates a Signature instance for an asymmetric signature algorithm. The
+     * instance still needs to be initialized with a key.
+     *
+     * @param signatureAlgo Asymmetric signature algorithm
+     *
+     * @return A newly-created Signature instance
+     *
+     * @throws GeneralSecurityException If the algorithm is not available
+     */
+    static Signature getInstance(JwtSignatureAlgorithm signatureAlgo)
+            throws GeneralSecurityException {
+        Algorithm algorithm = signatureAlgo.getAlgorithm();
+
+        if (!isRsaPss(signatureAlgo)) {
+            return Signature.getInstance(algorithm.getName());
+        }
+
+        // For RSASSA-PSS, the name of the algorithm is the name of the hash
+        Signature result = Signature.getInstance("RSASSA-PSS");
+        result.setParameter(new PSSParameterSpec(algorithm.getName(), "MGF1",
+            new MGF1ParameterSpec(algorithm.getName()),
+            algorithm.getSaltLength(), 1));
+
+        return result;
+    }
+
+    /**
+     * Converts a DER-encoded ECDSA signature, as produced by JCA, into the
+     * fixed-length R || S concatenation required by RFC 7518. Unlike
+     * io.fusionauth.jwt.ec.ECDSASignature, this method pads R and S of any
+     * length, not only those that are one byte shorter than the curve size.
+     *
+     * @param derSignature DER-encoded signature
+     * @param signatureAlgo ECDSA signature algorithm
+     *
+     * @return The concatenated signature
+     *
+     * @throws IllegalArgumentException If the signature is not a valid DER
+     *                                  sequence of two integers
+     */
+    static byte[] derToConcatenated(
+            byte[] derSignature, JwtSignatureAlgorithm signatureAlgo) {
+        int partLength = getEcdsaPartLength(signatureAlgo);
+        byte[] result = new byte[2 * partLength];
+
+        if ((derSignature.length < 8) || (derSignature[0] != 0x30)) {
+            throw new IllegalArgumentException("Invalid DER signature");
+        }
+
+        // The sequence length takes two bytes when it is longer than 127
+        int offset = ((derSignature[1] & 0xFF) == 0x81) ? 3 : 2;
+        offset = copyDerInteger(derSignature, offset, result, 0, partLength);
+        copyDerInteger(derSignature, offset, result, partLength, partLength);
+
+        return result;
+    }
+
+    private static int copyDerInteger(byte[] derSignature, int offset,
+            byte[] result, int resultOffset, int partLength) {
+        if ((offset + 2 > derSignature.length) || (derSignature[offset] != 0x02)) {
+            throw new IllegalArgumentException("Invalid DER signature");
+        }
+
+        int length = derSignature[offset + 1] & 0xFF;
+        int start = offset + 2;
+        int end = start + length;
+
+        if (end > derSignature.length) {
+            throw new IllegalArgumentException("Invalid DER signature");
+        }
+
+        // Skips the leading zeros, including the sign byte
+        while ((start < end) && (derSignature[start] == 0)) {
+            ++start;
+        }
+
+        if (end - start > partLength) {
+            throw new IllegalArgumentException("Invalid DER signature");
+        }
+
+        System.arraycopy(derSignature, start, result,
+            resultOffset + partLength - (end - start), end - start);
+
+        return end;
+    }
+
+    /**
+     * Converts an ECDSA signature from the R || S concatenation used by JWTs
+     * into the DER encoding expected by JCA.
+     *
+     * @param concatenatedSignature Concatenated signature; its length must be
+     *                              even
+     *
+     * @return The DER-encoded signature
+     */
+    static byte[] concatenatedToDer(byte[] concatenatedSignature) {
+        int partLength = concatenatedSignature.length / 2;
+        byte[] r = toDerInteger(
+            Arrays.copyOfRange(concatenatedSignature, 0, partLength));
+        byte[] s = toDerInteger(
+            Arrays.copyOfRange(concatenatedSignature, partLength,
+                concatenatedSignature.length));
+        int sequenceLength = r.length + s.length;
+        int headerLength = (sequenceLength > 127) ? 3 : 2;
+        byte[] result = new byte[headerLength + sequenceLength];
+
+        result[0] = 0x30;
+
+        if (sequenceLength > 127) {
+            result[1] = (byte) 0x81;
+        }
+
+        result[headerLength - 1] = (byte) sequenceLength;
+        System.arraycopy(r, 0, result, headerLength, r.length);
+        System.arraycopy(s, 0, result, headerLength + r.length, s.length);
+
+        return result;
+    }
+
+    private static byte[] toDerInteger(byte[] unsignedValue) {
+        int start = 0;
+
+        while ((start < unsignedValue.length - 1) && (unsignedValue[start] == 0)) {
+            ++start;
+        }
+
+        // A zero byte keeps the value positive when its highest bit is set
+        int signLength = ((unsignedValue[start] & 0x80) != 0) ? 1 : 0;
+        int valueLength = unsignedValue.length - start;
+        byte[] result = new byte[2 + signLength + valueLength];
+
+        result[0] = 0x02;
+        result[1] = (byte) (signLength + valueLength);
+        System.arraycopy(unsignedValue, start, result, 2 + signLength, valueLength);
+
+        return result;
+    }
+
+    /**
+     * Returns the length of R and S in a concatenated ECDSA signature, which
+     * is the size of the curve order in bytes.
+     *
+     * @param signatureAlgo ECDSA signature algorithm
+     *
+     * @return The length of R and S, in bytes
+     */
+    static int getEcdsaPartLength(JwtSignatureAlgorithm signatureAlgo) {
+        switch (signatureAlgo) {
+            case ECDSA_SHA_256:
+                return 32;
+            case ECDSA_SHA_384:
+                return 48;
+            case ECDSA_SHA_512:
+                return 66;
+        }
+
+        throw new IllegalArgumentException(
+            "Signature algorithm [" + signatureAlgo + "] is not ECDSA");
+    }
+
+    static boolean isEcdsa(JwtSignatureAlgorithm signatureAlgo) {
+        return signatureAlgo.getShortName().startsWith("ES");
+    }
+
+    static boolean isRsaPss(JwtSignatureAlgorithm signatureAlgo) {
+        return signatureAlgo.getShortName().startsWith("PS");
+    }
+}
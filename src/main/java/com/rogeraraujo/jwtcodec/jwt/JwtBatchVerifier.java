@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.Verifier;
+import io.fusionauth.jwt.domain.JWT;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+
+/**
+ * Decodes and verifies many JSON Web Tokens in parallel. The tokens are split
+ * into chunks that run as fork/join tasks; every worker thread verifies with
+ * its own JCA Mac or Signature instance, kept by the verifiers created by
+ * JwtEngine, so workers do not contend on shared state. Tokens can be
+ * verified either with a fixed algorithm and key, or with the algorithm
+ * named by each token header and a key found by a JwtKeyResolver. Instances
+ * of this class are thread-safe.
+ */
+public class JwtBatchVerifier {
+    /**
+     * Number of tokens below which a task verifies its tokens itself instead
+     * of splitting them further. Verifying a token costs at least a few
+     * microseconds, so small chunks keep the workers balanced without making
+     * the task overhead noticeable.
+     */
+    static final int SEQUENTIAL_THRESHOLD = 64;
+
+    private final JwtEngine jwtEngine;
+
+    @Getter
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a batch verifier that runs on the common fork/join pool.
+     *
+     * @param jwtEngine Engine that provides the verifiers
+     */
+    public JwtBatchVerifier(JwtEngine jwtEngine) {
+        this(jwtEngine, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a batch verifier that runs on a specific fork/join pool.
+     *
+     * @param jwtEngine Engine that provides the verifiers
+     * @param pool Pool that runs the verification tasks
+     */
+    public JwtBatchVerifier(JwtEngine jwtEngine, ForkJoinPool pool) {
+        if (jwtEngine == null) {
+            throw new IllegalArgumentException("JWT engine cannot be null");
+        }
+
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+
+        this.jwtEngine = jwtEngine;
+        this.pool = pool;
+    }
+
+    /**
+     * Decodes and verifies a list of tokens.
+     *
+     * @param encodedTokens Tokens to verify; null elements are reported as
+     *                      invalid tokens
+     * @param signatureAlgo Signature algorithm
+     * @param key Secret key (HMAC) or PEM-encoded public key (RSA, EC)
+     *
+     * @return One result per token, in the same order as the tokens
+     *
+     * @throws RuntimeException If the Verifier cannot be created, usually
+     *                          because the key is not in a valid format
+     */
+    public List<JwtVerificationResult> verify(List<String> encodedTokens,
+            JwtSignatureAlgorithm signatureAlgo, String key) {
+        if (encodedTokens == null) {
+            throw new IllegalArgumentException("Token list cannot be null");
+        }
+
+        return verify(encodedTokens.toArray(new String[0]), signatureAlgo, key);
+    }
+
+    /**
+     * Decodes and verifies a stream of tokens. The stream is consumed before
+     * the verification starts.
+     *
+     * @param encodedTokens Tokens to verify; null elements are reported as
+     *                      invalid tokens
+     * @param signatureAlgo Signature algorithm
+     * @param key Secret key (HMAC) or PEM-encoded public key (RSA, EC)
+     *
+     * @return One result per token, in the same order as the tokens
+     *
+     * @throws RuntimeException If the Verifier cannot be created, usually
+     *                          because the key is not in a valid format
+     */
+    public List<JwtVerificationResult> verify(Stream<String> encodedTokens,
+            JwtSignatureAlgorithm signatureAlgo, String key) {
+        if (encodedTokens == null) {
+            throw new IllegalArgumentException("Token stream cannot be null");
+        }
+
+        return verify(encodedTokens.toArray(String[]::new), signatureAlgo, key);
+    }
+
+    /**
+     * Decodes and verifies a list of tokens that may have been signed with
+     * different algorithms and keys. The algorithm of each token is read
+     * from its header, without a full decode, and its key is found by a
+     * JwtKeyResolver. The header only chooses among the algorithms that fit
+     * the type of the key (see JwtUtils.getVerificationAlgorithms). Tokens
+     * whose algorithm is not supported or does not fit the key, or whose key
+     * cannot be found, are reported as invalid tokens.
+     *
+     * @param encodedTokens Tokens to verify; null elements are reported as
+     *                      invalid tokens
+     * @param keyResolver Finds the key of each token
+     *
+     * @return One result per token, in the same order as the tokens
+     */
+    public List<JwtVerificationResult> verify(List<String> encodedTokens,
+            JwtKeyResolver keyResolver) {
+        if (encodedTokens == null) {
+            throw new IllegalArgumentException("Token list cannot be null");
+        }
+
+        if (keyResolver == null) {
+            throw new IllegalArgumentException("Key resolver cannot be null");
+        }
+
+        return verify(encodedTokens.toArray(new String[0]), null, keyResolver);
+    }
+
+    private List<JwtVerificationResult> verify(String[] encodedTokens,
+            JwtSignatureAlgorithm signatureAlgo, String key) {
+        // Creating the verifier up front reports key errors once, instead of
+        // once per token
+        return verify(encodedTokens, jwtEngine.getVerifier(signatureAlgo, key),
+            null);
+    }
+
+    private List<JwtVerificationResult> verify(String[] encodedTokens,
+            Verifier verifier, JwtKeyResolver keyResolver) {
+        JwtVerificationResult[] results =
+            new JwtVerificationResult[encodedTokens.length];
+
+        pool.invoke(new VerificationTask(encodedTokens, results, verifier,
+            keyResolver, jwtEngine, 0, encodedTokens.length));
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Decodes and verifies one token, never throwing an exception.
+     *
+     * @param index Position of the token in the batch
+     * @param encodedToken Token to verify; can be null
+     * @param verifier Verifier of the token signature
+     *
+     * @return The verification result
+     */
+    static JwtVerificationResult verifyToken(
+            int index, String encodedToken, Verifier verifier) {
+        try {
+            if (encodedToken == null) {
+                throw new IllegalArgumentException("Token cannot be null");
+            }
+
+            JWT decodedToken = JWT.getDecoder().decode(encodedToken, verifier);
+
+            return new JwtVerificationResult(
+                index, encodedToken, decodedToken, null);
+        } catch (Exception ex) {
+            return createFailedResult(index, encodedToken, ex);
+        }
+    }
+
+    private static JwtVerificationResult createFailedResult(
+            int index, String encodedToken, Exception exception) {
+        Exception translatedEx = JwtUtils.translateDecodingException(exception);
+        String errorMessage = (translatedEx.getMessage() != null) ?
+            translatedEx.getMessage() : translatedEx.getClass().getName();
+
+        return new JwtVerificationResult(index, encodedToken, null, errorMessage);
+    }
+
+    /**
+     * Sends tokens to the verifier of the algorithm named by their headers
+     * and of the key found by a JwtKeyResolver. Each fork/join leaf task has
+     * its own instance, which remembers the verifiers it already used, so
+     * that the shared Verifier cache of JwtEngine is only consulted once per
+     * algorithm and key.
+     */
+    private static class RoutingVerifier {
+        private final JwtKeyResolver keyResolver;
+
+        private final JwtEngine jwtEngine;
+
+        private final Map<JwtSignatureAlgorithm, Map<String, Verifier>> verifiers =
+            new EnumMap<>(JwtSignatureAlgorithm.class);
+
+        private final Map<String, Set<JwtSignatureAlgorithm>> keyAlgorithms =
+            new HashMap<>();
+
+        RoutingVerifier(JwtKeyResolver keyResolver, JwtEngine jwtEngine) {
+            this.keyResolver = keyResolver;
+            this.jwtEngine = jwtEngine;
+        }
+
+        JwtVerificationResult verify(int index, String encodedToken) {
+            JwtHeaderInfo headerInfo = JwtHeaderInfo.peek(encodedToken);
+
+            if (headerInfo == null) {
+                return new JwtVerificationResult(index, encodedToken, null,
+                    "The token is in an invalid format.");
+            }
+
+            JwtSignatureAlgorithm signatureAlgo =
+                headerInfo.getSignatureAlgorithm();
+
+            if (signatureAlgo == null) {
+                return new JwtVerificationResult(index, encodedToken, null,
+                    (headerInfo.getAlgorithmName() == null) ||
+                    "none".equals(headerInfo.getAlgorithmName()) ?
+                        "The token does not have a signature algorithm." :
+                        "The token signature algorithm [" +
+                        headerInfo.getAlgorithmName() + "] is not supported.");
+            }
+
+            Verifier verifier;
+
+            try {
+                String key = keyResolver.resolveKey(headerInfo);
+
+                if (key == null) {
+                    return new JwtVerificationResult(index, encodedToken, null,
+                        "No key was found for the token" +
+                        ((headerInfo.getKeyId() != null) ?
+                            " (key ID [" + headerInfo.getKeyId() + "])." : "."));
+                }
+
+                // The header comes from the token, so it must not pick an
+                // algorithm of another family than the key, e.g., HS256
+                // with an RSA public key as the secret
+                if (!keyAlgorithms.computeIfAbsent(
+                        key, JwtUtils::getVerificationAlgorithms)
+                        .contains(signatureAlgo)) {
+                    return new JwtVerificationResult(index, encodedToken, null,
+                        "The token signature algorithm [" + signatureAlgo +
+                        "] does not match the type of its key.");
+                }
+
+                verifier = verifiers
+                    .computeIfAbsent(signatureAlgo, algo -> new HashMap<>())
+                    .computeIfAbsent(key,
+                        k -> jwtEngine.getVerifier(signatureAlgo, k));
+            } catch (Exception ex) {
+                return createFailedResult(index, encodedToken, ex);
+            }
+
+            return verifyToken(index, encodedToken, verifier);
+        }
+    }
+
+    /**
+     * Fork/join task that verifies a range of tokens, splitting it in halves
+     * while it is larger than SEQUENTIAL_THRESHOLD.
+     */
+    private static class VerificationTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final String[] encodedTokens;
+
+        private final JwtVerificationResult[] results;
+
+        // Either the fixed verifier or the key resolver is null
+        private final transient Verifier verifier;
+
+        private final transient JwtKeyResolver keyResolver;
+
+        private final transient JwtEngine jwtEngine;
+
+        private final int start;
+
+        private final int end;
+
+        VerificationTask(String[] encodedTokens, JwtVerificationResult[] results,
+                Verifier verifier, JwtKeyResolver keyResolver,
+                JwtEngine jwtEngine, int start, int end) {
+            this.encodedTokens = encodedTokens;
+            this.results = results;
+            this.verifier = verifier;
+            this.keyResolver = keyResolver;
+            this.jwtEngine = jwtEngine;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if ((end - start) <= SEQUENTIAL_THRESHOLD) {
+                RoutingVerifier routingVerifier = (verifier != null) ?
+                    null : new RoutingVerifier(keyResolver, jwtEngine);
+
+                for (int i = start; i < end; ++i) {
+                    results[i] = (verifier != null) ?
+                        verifyToken(i, encodedTokens[i], verifier) :
+                        routingVerifier.verify(i, encodedTokens[i]);
+                }
+
+                return;
+            }
+
+            int middle = (start + end) >>> 1;
+
+            invokeAll(
+                new VerificationTask(encodedTokens, results, verifier,
+                    keyResolver, jwtEngine, start, middle),
+                new VerificationTask(encodedTokens, results, verifier,
+                    keyResolver, jwtEngine, middle, end));
+        }
+    }
+}
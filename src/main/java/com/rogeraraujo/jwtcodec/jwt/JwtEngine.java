@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.rogeraraujo.jwtcodec.jwt;
+
+import com.rogeraraujo.jwtcodec.components.LruCache;
+import io.fusionauth.jwt.InvalidKeyTypeException;
+import io.fusionauth.jwt.Signer;
+import io.fusionauth.jwt.Verifier;
+import io.fusionauth.jwt.domain.JWT;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Signs and verifies JSON Web Tokens with any JwtSignatureAlgorithm. Signers
+ * and verifiers are built from the key text (a secret or a PEM-encoded key)
+ * and kept in a bounded LRU cache, so repeated operations with the same key
+ * do not parse the key again. The signers and verifiers themselves keep
+ * per-thread JCA Mac and Signature instances initialized with the key (see
+ * ReusableMacSigner and ReusableSignatureSigner). Instances of this class are
+ * thread-safe.
+ */
+public class JwtEngine {
+    public static final int DEFAULT_CACHE_SIZE = 32;
+
+    private final LruCache<CacheKey, Signer> signerCache;
+
+    private final LruCache<CacheKey, Verifier> verifierCache;
+
+    public JwtEngine() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    public JwtEngine(int cacheSize) {
+        signerCache = new LruCache<>(cacheSize);
+        verifierCache = new LruCache<>(cacheSize);
+    }
+
+    /**
+     * Returns a Signer for a signature algorithm and a key, reusing a cached
+     * instance if one exists.
+     *
+     * @param signatureAlgo Signature algorithm
+     * @param key Secret key (HMAC) or PEM-encoded private key (RSA, EC)
+     *
+     * @return The Signer instance
+     *
+     * @throws RuntimeException If the Signer cannot be created, usually
+     *                          because the key is not in a valid format
+     */
+    public Signer getSigner(JwtSignatureAlgorithm signatureAlgo, String key) {
+        return signerCache.computeIfAbsent(
+            new CacheKey(signatureAlgo, computeKeyFingerprint(key)),
+            cacheKey -> createSigner(signatureAlgo, key));
+    }
+
+    /**
+     * Returns a Verifier for a signature algorithm and a key, reusing a
+     * cached instance if one exists.
+     *
+     * @param signatureAlgo Signature algorithm
+     * @param key Secret key (HMAC) or PEM-encoded public key (RSA, EC)
+     *
+     * @return The Verifier instance
+     *
+     * @throws RuntimeException If the Verifier cannot be created, usually
+     *                          because the key is not in a valid format
+     */
+    public Verifier getVerifier(JwtSignatureAlgorithm signatureAlgo, String key) {
+        return verifierCache.computeIfAbsent(
+            new CacheKey(signatureAlgo, computeKeyFingerprint(key)),
+            cacheKey -> createVerifier(signatureAlgo, key));
+    }
+
+    /**
+     * Encodes and signs a JSON Web Token.
+     *
+     * @param unsignedToken Token to encode
+     * @param signatureAlgo Signature algorithm
+     * @param key Secret key (HMAC) or PEM-encoded private key (RSA, EC)
+     *
+     * @return The encoded token
+     */
+    public String encode(JWT unsignedToken, JwtSignatureAlgorithm signatureAlgo,
+            String key) {
+        return JWT.getEncoder().encode(
+            unsignedToken, getSigner(signatureAlgo, key));
+    }
+
+    /**
+     * Decodes and verifies a JSON Web Token.
+     *
+     * @param encodedToken Token to decode
+     * @param signatureAlgo Signature algorithm
+     * @param key Secret key (HMAC) or PEM-encoded public key (RSA, EC)
+     *
+     * @return The decoded token
+     */
+    public JWT decode(String encodedToken, JwtSignatureAlgorithm signatureAlgo,
+            String key) {
+        return JWT.getDecoder().decode(
+            encodedToken, getVerifier(signatureAlgo, key));
+    }
+
+    /**
+     * Returns how many Signer and Verifier lookups were served from the cache.
+     *
+     * @return Number of cache hits
+     */
+    public long getCacheHits() {
+        return signerCache.getHitCount() + verifierCache.getHitCount();
+    }
+
+    /**
+     * Returns how many Signer and Verifier lookups had to build a new
+     * instance.
+     *
+     * @return Number of cache misses
+     */
+    public long getCacheMisses() {
+        return signerCache.getMissCount() + verifierCache.getMissCount();
+    }
+
+    /**
+     * Removes all cached Signer and Verifier instances.
+     */
+    public void clearCache() {
+        signerCache.clear();
+        verifierCache.clear();
+    }
+
+    /**
+     * Creates a new Signer for a signature algorithm and a key, without
+     * using any cache.
+     *
+     * @param signatureAlgo Signature algorithm
+     * @param key Secret key (HMAC) or PEM-encoded private key (RSA, EC)
+     *
+     * @return The newly-created Signer instance
+     */
+    public static Signer createSigner(
+            JwtSignatureAlgorithm signatureAlgo, String key) {
+        if (signatureAlgo == null) {
+            throw new IllegalArgumentException(
+                "Signature algorithm cannot be null");
+        }
+
+        switch (signatureAlgo) {
+            case HMAC_SHA_256:
+            case HMAC_SHA_384:
+            case HMAC_SHA_512:
+                return new ReusableMacSigner(signatureAlgo,
+                    getSecretBytes(key));
+
+            case RSA_SSA_PKCS_V1_5_SHA_256:
+            case RSA_SSA_PKCS_V1_5_SHA_384:
+            case RSA_SSA_PKCS_V1_5_SHA_512:
+            case RSA_SSA_PSS_SHA_256:
+            case RSA_SSA_PSS_SHA_384:
+            case RSA_SSA_PSS_SHA_512:
+                return new ReusableSignatureSigner(signatureAlgo,
+                    JwtUtils.parsePrivateKey(key, RSAPrivateKey.class));
+
+            case ECDSA_SHA_256:
+            case ECDSA_SHA_384:
+            case ECDSA_SHA_512:
+                return new ReusableSignatureSigner(signatureAlgo,
+                    JwtUtils.parsePrivateKey(key, ECPrivateKey.class));
+        }
+
+        throw new IllegalArgumentException(
+            "Signature algorithm [" + signatureAlgo + "] is not supported");
+    }
+
+    /**
+     * Creates a new Verifier for a signature algorithm and a key, without
+     * using any cache.
+     *
+     * @param signatureAlgo Signature algorithm
+     * @param key Secret key (HMAC) or PEM-encoded public key (RSA, EC)
+     *
+     * @return The newly-created Verifier instance
+     */
+    public static Verifier createVerifier(
+            JwtSignatureAlgorithm signatureAlgo, String key) {
+        if (signatureAlgo == null) {
+            throw new IllegalArgumentException(
+                "Signature algorithm cannot be null");
+        }
+
+        switch (signatureAlgo) {
+            case HMAC_SHA_256:
+            case HMAC_SHA_384:
+            case HMAC_SHA_512:
+                // Otherwise a token signed with a public key as the HMAC
+                // secret would pass as valid
+                if (JwtUtils.isPemText(key)) {
+                    throw new InvalidKeyTypeException("A PEM-encoded key " +
+                        "cannot be used as an HMAC secret.");
+                }
+
+                return new ReusableMacVerifier(getSecretBytes(key));
+
+            case RSA_SSA_PKCS_V1_5_SHA_256:
+            case RSA_SSA_PKCS_V1_5_SHA_384:
+            case RSA_SSA_PKCS_V1_5_SHA_512:
+            case RSA_SSA_PSS_SHA_256:
+            case RSA_SSA_PSS_SHA_384:
+            case RSA_SSA_PSS_SHA_512:
+                return new ReusableSignatureVerifier(
+                    JwtUtils.parsePublicKey(key, RSAPublicKey.class),
+                    signatureAlgo.getFamily());
+
+            case ECDSA_SHA_256:
+            case ECDSA_SHA_384:
+            case ECDSA_SHA_512:
+                return new ReusableSignatureVerifier(
+                    JwtUtils.parsePublicKey(key, ECPublicKey.class),
+                    signatureAlgo.getFamily());
+        }
+
+        throw new IllegalArgumentException(
+            "Signature algorithm [" + signatureAlgo + "] is not supported");
+    }
+
+    private static byte[] getSecretBytes(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Computes a fingerprint of a key, so the cache does not need to hold on
+     * to the key text itself.
+     *
+     * @param key Key text; cannot be null
+     *
+     * @return Base64url-encoded SHA-256 hash of the key text
+     */
+    static String computeKeyFingerprint(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                .digest(key.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Key of the Signer and Verifier caches.
+     */
+    private static class CacheKey {
+        private final JwtSignatureAlgorithm signatureAlgo;
+
+        private final String keyFingerprint;
+
+        CacheKey(JwtSignatureAlgorithm signatureAlgo, String keyFingerprint) {
+            this.signatureAlgo = signatureAlgo;
+            this.keyFingerprint = keyFingerprint;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+
+            CacheKey anotherObj = (CacheKey) obj;
+
+            return (signatureAlgo == anotherObj.signatureAlgo) &&
+                keyFingerprint.equals(anotherObj.keyFingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(signatureAlgo, keyFingerprint);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * The routing-related fields of a JSON Web Token header: "alg", "kid" and
+ * "typ". They are read by decoding only the first segment of the token and
+ * scanning its JSON for top-level string members, which is much cheaper than
+ * a full decode, so a token can be sent to the right verifier before it is
+ * parsed.
+ */
+public class JwtHeaderInfo {
+    /**
+     * Value of the "alg" member, e.g., "HS256"; null if absent.
+     */
+    @Getter
+    private final String algorithmName;
+
+    /**
+     * Value of the "kid" member; null if absent.
+     */
+    @Getter
+    private final String keyId;
+
+    /**
+     * Value of the "typ" member, usually "JWT"; null if absent.
+     */
+    @Getter
+    private final String type;
+
+    private JwtHeaderInfo(String algorithmName, String keyId, String type) {
+        this.algorithmName = algorithmName;
+        this.keyId = keyId;
+        this.type = type;
+    }
+
+    /**
+     * Returns the signature algorithm named by the "alg" member.
+     *
+     * @return The signature algorithm, or null if the member is absent or
+     *         names an algorithm that is not supported, such as "none"
+     */
+    public JwtSignatureAlgorithm getSignatureAlgorithm() {
+        return JwtSignatureAlgorithm.fromShortName(algorithmName);
+    }
+
+    /**
+     * Reads the header fields of an encoded token without decoding the rest
+     * of it. The signature is not verified.
+     *
+     * @param encodedToken Encoded token; can be null
+     *
+     * @return The header fields, or null if the token does not start with a
+     *         base64url-encoded JSON object
+     */
+    public static JwtHeaderInfo peek(String encodedToken) {
+        if (encodedToken == null) {
+            return null;
+        }
+
+        int end = encodedToken.indexOf('.');
+
+        if (end < 1) {
+            return null;
+        }
+
+        String json;
+
+        try {
+            json = new String(Base64.getUrlDecoder().decode(
+                encodedToken.substring(0, end)), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+
+        return new Parser(json).parse();
+    }
+
+    /**
+     * Minimal JSON scanner that reads the top-level string members of an
+     * object and skips every other value.
+     */
+    private static class Parser {
+        private final String json;
+
+        private int position;
+
+        Parser(String json) {
+            this.json = json;
+        }
+
+        JwtHeaderInfo parse() {
+            String algorithmName = null;
+            String keyId = null;
+            String type = null;
+
+            try {
+                expect('{');
+
+                if (peekChar() == '}') {
+                    ++position;
+                }
+                else {
+                    while (true) {
+                        String name = readString();
+                        expect(':');
+
+                        if (peekChar() == '"') {
+                            String value = readString();
+
+                            switch (name) {
+                                case "alg": algorithmName = value; break;
+                                case "kid": keyId = value; break;
+                                case "typ": type = value; break;
+                                default: break;
+                            }
+                        }
+                        else {
+                            skipValue();
+                        }
+
+                        char ch = nextChar();
+
+                        if (ch == '}') {
+                            break;
+                        }
+
+                        if (ch != ',') {
+                            return null;
+                        }
+                    }
+                }
+
+                if (peekChar() != 0) {
+                    return null;
+                }
+            } catch (IllegalStateException ex) {
+                return null;
+            }
+
+            return new JwtHeaderInfo(algorithmName, keyId, type);
+        }
+
+        // Returns the next non-whitespace character without consuming it, or
+        // 0 at the end of the text
+        private char peekChar() {
+            while ((position < json.length()) &&
+                   Character.isWhitespace(json.charAt(position))) {
+                ++position;
+            }
+
+            return (position < json.length()) ? json.charAt(position) : 0;
+        }
+
+        private char nextChar() {
+            char result = peekChar();
+
+            if (result == 0) {
+                throw new IllegalStateException("Unexpected end of JSON");
+            }
+
+            ++position;
+
+            return result;
+        }
+
+        private void expect(char expected) {
+            if (nextChar() != expected) {
+                throw new IllegalStateException("Expected [" + expected + "]");
+            }
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder result = new StringBuilder();
+
+            while (position < json.length()) {
+                char ch = json.charAt(position++);
+
+                if (ch == '"') {
+                    return result.toString();
+                }
+
+                if (ch != '\\') {
+                    result.append(ch);
+                    continue;
+                }
+
+                if (position >= json.length()) {
+                    break;
+                }
+
+                char escaped = json.charAt(position++);
+
+                switch (escaped) {
+                    case 'b': result.append('\b'); break;
+                    case 'f': result.append('\f'); break;
+                    case 'n': result.append('\n'); break;
+                    case 'r': result.append('\r'); break;
+                    case 't': result.append('\t'); break;
+                    case 'u':
+                        if (position + 4 > json.length()) {
+                            throw new IllegalStateException("Invalid escape");
+                        }
+
+                        try {
+                            result.append((char) Integer.parseInt(
+                                json.substring(position, position + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw new IllegalStateException("Invalid escape");
+                        }
+
+                        position += 4;
+                        break;
+                    default: result.append(escaped);
+                }
+            }
+
+            throw new IllegalStateException("Unterminated string");
+        }
+
+        // Skips a number, literal, object or array
+        private void skipValue() {
+            char ch = peekChar();
+
+            if ((ch == '{') || (ch == '[')) {
+                int depth = 0;
+
+                do {
+                    ch = peekChar();
+
+                    if (ch == '"') {
+                        readString();
+                        continue;
+                    }
+
+                    ch = nextChar();
+
+                    if ((ch == '{') || (ch == '[')) {
+                        ++depth;
+                    }
+                    else if ((ch == '}') || (ch == ']')) {
+                        --depth;
+                    }
+                } while (depth > 0);
+
+                return;
+            }
+
+            int start = position;
+
+            while ((position < json.length()) &&
+                   (",}] \t\r\n".indexOf(json.charAt(position)) < 0)) {
+                ++position;
+            }
+
+            if (position == start) {
+                throw new IllegalStateException("Missing value");
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+/**
+ * Finds the key that verifies a token, given the fields of its header. Used
+ * to verify streams of tokens signed with different algorithms or keys.
+ * Implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface JwtKeyResolver {
+    /**
+     * Finds the key that verifies a token.
+     *
+     * @param headerInfo Header fields of the token; the signature algorithm
+     *                   is always supported, but it is chosen by whoever
+     *                   created the token
+     *
+     * @return Secret key (HMAC) or PEM-encoded public key (RSA, EC), or null
+     *         if no key is available for the token; tokens whose algorithm
+     *         does not fit the type of the key are rejected by the caller
+     */
+    String resolveKey(JwtHeaderInfo headerInfo);
+}
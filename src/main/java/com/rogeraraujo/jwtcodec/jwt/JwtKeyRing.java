@@ -0,0 +1,445 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwks.domain.JSONWebKey;
+import io.fusionauth.jwt.JWTUtils;
+import io.fusionauth.jwt.domain.Algorithm;
+import io.fusionauth.jwt.json.Mapper;
+import io.fusionauth.pem.domain.PEM;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.PublicKey;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * A set of public keys loaded from the PEM and JWKS files of a directory,
+ * indexed by key ID ("kid") and by JWK SHA-256 thumbprint (RFC 7638), so the
+ * key of a token is found in constant time. The key ID of a key in a PEM file
+ * is the file name without its extension; keys in JWKS files use their "kid"
+ * member. Only RSA and EC keys of JWKS files are loaded; symmetric ("oct")
+ * keys are skipped.
+ *
+ * <p>Once watching is started, a WatchService reloads only the files that
+ * are created, modified or deleted, so keys can be rotated without a restart
+ * or a rescan of the whole directory. If a changed file cannot be parsed, for
+ * instance because it is still being written, its previous keys are kept
+ * until a later change succeeds.</p>
+ *
+ * <p>Lookups never block and may run concurrently with reloads. Instances of
+ * this class are thread-safe.</p>
+ */
+@Slf4j
+public class JwtKeyRing implements JwtKeyResolver, Closeable {
+    private static final Set<String> PEM_FILE_EXTENSIONS = new HashSet<>(
+        Arrays.asList("pem", "crt", "cer", "pub"));
+
+    private static final Set<String> JWKS_FILE_EXTENSIONS = new HashSet<>(
+        Arrays.asList("json", "jwks", "jwk"));
+
+    @Getter
+    private final Path directory;
+
+    private final Map<String, Entry> keysById = new ConcurrentHashMap<>();
+
+    private final Map<String, Entry> keysByThumbprint = new ConcurrentHashMap<>();
+
+    private final Map<Path, List<Entry>> keysByFile = new ConcurrentHashMap<>();
+
+    private WatchService watchService;
+
+    private Thread watcherThread;
+
+    /**
+     * Creates a key ring with the keys of the files in a directory.
+     * Subdirectories are not scanned.
+     *
+     * @param directory Directory to scan
+     *
+     * @throws IOException If the directory cannot be listed
+     */
+    public JwtKeyRing(Path directory) throws IOException {
+        if ((directory == null) || !Files.isDirectory(directory)) {
+            throw new IllegalArgumentException(
+                "Key ring directory [" + directory + "] does not exist");
+        }
+
+        this.directory = directory.toAbsolutePath().normalize();
+        rescan();
+    }
+
+    /**
+     * Starts watching the directory for changes in a daemon thread. Calling
+     * this method more than once has no effect.
+     *
+     * @throws IOException If the directory cannot be watched
+     */
+    public synchronized void startWatching() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+            StandardWatchEventKinds.ENTRY_MODIFY,
+            StandardWatchEventKinds.ENTRY_DELETE);
+
+        WatchService service = watchService;
+        watcherThread = new Thread(() -> watch(service), "jwt-key-ring-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey watchKey = service.take();
+
+                for (WatchEvent<?> event : watchKey.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        // Some events were lost, so every file is checked
+                        rescan();
+                        continue;
+                    }
+
+                    Path file = directory.resolve((Path) event.context());
+
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                        removeFile(file);
+                    }
+                    else {
+                        loadFile(file);
+                    }
+                }
+
+                if (!watchKey.reset()) {
+                    log.warn("Key ring directory {} is no longer accessible",
+                        directory);
+                    return;
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ex) {
+            // The key ring was closed
+        } catch (Exception ex) {
+            log.error("Key ring watcher stopped unexpectedly:", ex);
+        }
+    }
+
+    /**
+     * Stops watching the directory. The keys already loaded remain
+     * available.
+     */
+    @Override
+    public synchronized void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ex) {
+                log.warn("Error closing key ring watcher:", ex);
+            }
+
+            watchService = null;
+            watcherThread = null;
+        }
+    }
+
+    /**
+     * Loads the keys of every file in the directory, and forgets the keys of
+     * files that no longer exist.
+     *
+     * @throws IOException If the directory cannot be listed
+     */
+    public synchronized void rescan() throws IOException {
+        Set<Path> files = new HashSet<>();
+
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.filter(Files::isRegularFile).forEach(files::add);
+        }
+
+        for (Path file : new ArrayList<>(keysByFile.keySet())) {
+            if (!files.contains(file)) {
+                removeFile(file);
+            }
+        }
+
+        for (Path file : files) {
+            loadFile(file);
+        }
+    }
+
+    /**
+     * Loads or reloads the keys of one file, replacing the keys it had
+     * before. Files with unknown extensions are ignored.
+     *
+     * @param file File to load
+     */
+    synchronized void loadFile(Path file) {
+        String extension = getExtension(file);
+        boolean isPem = PEM_FILE_EXTENSIONS.contains(extension);
+
+        if ((!isPem && !JWKS_FILE_EXTENSIONS.contains(extension)) ||
+            !Files.isRegularFile(file)) {
+            return;
+        }
+
+        List<Entry> entries;
+
+        try {
+            String contents = new String(
+                Files.readAllBytes(file), StandardCharsets.UTF_8);
+            entries = isPem ? parsePemFile(file, contents) :
+                parseJwksFile(file, contents);
+        } catch (Exception ex) {
+            log.warn("Could not load keys from {}: {}", file, ex.toString());
+            return;
+        }
+
+        removeFile(file);
+        keysByFile.put(file, entries);
+
+        for (Entry entry : entries) {
+            if (entry.keyId != null) {
+                Entry previous = keysById.put(entry.keyId, entry);
+
+                if ((previous != null) && !previous.file.equals(file)) {
+                    log.warn("Key ID [{}] of {} replaces the one of {}",
+                        entry.keyId, file, previous.file);
+                }
+            }
+
+            keysByThumbprint.put(entry.thumbprint, entry);
+        }
+
+        log.debug("Loaded {} key(s) from {}", entries.size(), file);
+    }
+
+    /**
+     * Forgets the keys of one file.
+     *
+     * @param file File whose keys are removed
+     */
+    synchronized void removeFile(Path file) {
+        List<Entry> entries = keysByFile.remove(file);
+
+        if (entries == null) {
+            return;
+        }
+
+        for (Entry entry : entries) {
+            if (entry.keyId != null) {
+                keysById.remove(entry.keyId, entry);
+            }
+
+            keysByThumbprint.remove(entry.thumbprint, entry);
+        }
+    }
+
+    private static String getExtension(Path file) {
+        String fileName = file.getFileName().toString();
+        int index = fileName.lastIndexOf('.');
+
+        return (index >= 0) ?
+            fileName.substring(index + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static List<Entry> parsePemFile(Path file, String contents) {
+        PublicKey publicKey = JwtUtils.parsePublicKey(contents, PublicKey.class);
+        String fileName = file.getFileName().toString();
+        String keyId = fileName.substring(0, fileName.lastIndexOf('.'));
+
+        return Collections.singletonList(
+            new Entry(keyId, publicKey, null, file));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Entry> parseJwksFile(Path file, String contents) {
+        Map<String, Object> json = Mapper.deserialize(
+            contents.getBytes(StandardCharsets.UTF_8), Map.class);
+        Object keys = json.get("keys");
+        List<Object> jsonKeys = (keys instanceof List) ?
+            (List<Object>) keys : Collections.singletonList(json);
+        List<Entry> result = new ArrayList<>();
+
+        for (Object jsonKey : jsonKeys) {
+            Object keyType = (jsonKey instanceof Map) ?
+                ((Map<String, Object>) jsonKey).get("kty") : null;
+
+            if (!"RSA".equals(keyType) && !"EC".equals(keyType)) {
+                continue;
+            }
+
+            JSONWebKey webKey = Mapper.deserialize(
+                Mapper.serialize(jsonKey), JSONWebKey.class);
+
+            JwtSignatureAlgorithm signatureAlgo = (webKey.alg != null) ?
+                JwtSignatureAlgorithm.fromShortName(webKey.alg.name()) : null;
+            result.add(new Entry(webKey.kid, JSONWebKey.parse(webKey),
+                signatureAlgo, file));
+        }
+
+        return result;
+    }
+
+    /**
+     * Finds a key by its key ID.
+     *
+     * @param keyId Key ID; can be null
+     *
+     * @return The key, or null if there is none with that ID
+     */
+    public Entry getKeyById(String keyId) {
+        return (keyId != null) ? keysById.get(keyId) : null;
+    }
+
+    /**
+     * Finds a key by its JWK SHA-256 thumbprint.
+     *
+     * @param thumbprint Base64url-encoded thumbprint; can be null
+     *
+     * @return The key, or null if there is none with that thumbprint
+     */
+    public Entry getKeyByThumbprint(String thumbprint) {
+        return (thumbprint != null) ? keysByThumbprint.get(thumbprint) : null;
+    }
+
+    /**
+     * Returns the number of keys in the key ring.
+     *
+     * @return Number of keys
+     */
+    public int size() {
+        return keysByThumbprint.size();
+    }
+
+    /**
+     * Finds the key of a token by the "kid" member of its header, which may
+     * be either a key ID or a thumbprint. A token without a key ID gets the
+     * only key of the ring, if there is exactly one. The key is only returned
+     * if it can verify the algorithm of the token header (see
+     * Entry.canVerify), so that a token cannot name a public key and have it
+     * used as an HMAC secret.
+     *
+     * @param headerInfo Header fields of the token
+     *
+     * @return PEM-encoded public key, or null if no key matches the token
+     */
+    @Override
+    public String resolveKey(JwtHeaderInfo headerInfo) {
+        String keyId = headerInfo.getKeyId();
+        Entry entry;
+
+        if (keyId != null) {
+            entry = keysById.get(keyId);
+
+            if (entry == null) {
+                entry = keysByThumbprint.get(keyId);
+            }
+        }
+        else {
+            Iterator<Entry> iterator = keysByThumbprint.values().iterator();
+            entry = iterator.hasNext() ? iterator.next() : null;
+
+            if (iterator.hasNext()) {
+                entry = null;
+            }
+        }
+
+        return ((entry != null) &&
+            entry.canVerify(headerInfo.getSignatureAlgorithm())) ?
+            entry.pemPublicKey : null;
+    }
+
+    /**
+     * A public key of the key ring.
+     */
+    public static class Entry {
+        /**
+         * Key ID; null if a JWKS key has no "kid" member.
+         */
+        @Getter
+        private final String keyId;
+
+        /**
+         * Base64url-encoded JWK SHA-256 thumbprint (RFC 7638).
+         */
+        @Getter
+        private final String thumbprint;
+
+        /**
+         * The key in PEM format, as accepted by JwtEngine.
+         */
+        @Getter
+        private final String pemPublicKey;
+
+        /**
+         * Signature algorithm declared by a JWKS key; null if not declared.
+         */
+        @Getter
+        private final JwtSignatureAlgorithm signatureAlgorithm;
+
+        /**
+         * Signature algorithms the key may verify: the declared algorithm, if
+         * it fits the key type, or else every algorithm of the key type.
+         */
+        @Getter
+        private final Set<JwtSignatureAlgorithm> allowedSignatureAlgorithms;
+
+        /**
+         * File the key was loaded from.
+         */
+        @Getter
+        private final Path file;
+
+        Entry(String keyId, PublicKey publicKey,
+                JwtSignatureAlgorithm signatureAlgorithm, Path file) {
+            this.keyId = keyId;
+            this.thumbprint = JWTUtils.generateJWS_kid_S256(
+                JSONWebKey.build(publicKey));
+            this.pemPublicKey = PEM.encode(publicKey);
+            this.signatureAlgorithm = signatureAlgorithm;
+            this.file = file;
+
+            Set<JwtSignatureAlgorithm> algorithms =
+                JwtUtils.getVerificationAlgorithms(pemPublicKey);
+
+            if (signatureAlgorithm != null) {
+                algorithms.retainAll(Collections.singleton(signatureAlgorithm));
+            }
+
+            this.allowedSignatureAlgorithms =
+                Collections.unmodifiableSet(algorithms);
+        }
+
+        /**
+         * Checks whether the key may verify tokens signed with an algorithm.
+         *
+         * @param signatureAlgorithm Signature algorithm; can be null
+         *
+         * @return Whether the algorithm is one of the allowed ones
+         */
+        public boolean canVerify(JwtSignatureAlgorithm signatureAlgorithm) {
+            return (signatureAlgorithm != null) &&
+                allowedSignatureAlgorithms.contains(signatureAlgorithm);
+        }
+    }
+}
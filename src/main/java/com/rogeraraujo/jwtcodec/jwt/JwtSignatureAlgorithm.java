@@ -16,10 +16,13 @@
 
 package com.rogeraraujo.jwtcodec.jwt;
 
+import io.fusionauth.jwt.domain.Algorithm;
 import lombok.Getter;
 
 import java.text.Collator;
 import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * This enumeration represents the different signature algorithms that this
@@ -55,6 +58,57 @@ public enum JwtSignatureAlgorithm {
         return shortName;
     }
 
+    /**
+     * Finds the signature algorithm with a specific short name.
+     *
+     * @param shortName Short name of the algorithm, e.g., "HS256"; the
+     *                  comparison ignores case; can be null
+     *
+     * @return The matching signature algorithm, or null if there is none
+     */
+    public static JwtSignatureAlgorithm fromShortName(String shortName) {
+        for (JwtSignatureAlgorithm signatureAlgo : values()) {
+            if (signatureAlgo.shortName.equalsIgnoreCase(shortName)) {
+                return signatureAlgo;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the FusionAuth JWT algorithm that matches this signature
+     * algorithm.
+     *
+     * @return The matching Algorithm instance
+     */
+    public Algorithm getAlgorithm() {
+        return Algorithm.valueOf(shortName);
+    }
+
+    /**
+     * Returns the signature algorithms of the same family as this one, i.e.,
+     * the algorithms that differ only in the hash function (for instance,
+     * HS256, HS384 and HS512). A key that verifies tokens signed with one
+     * algorithm of a family can verify tokens signed with any of them.
+     *
+     * @return Set containing the signature algorithms of the same family,
+     *         including this one
+     */
+    public Set<JwtSignatureAlgorithm> getFamily() {
+        Set<JwtSignatureAlgorithm> result =
+            EnumSet.noneOf(JwtSignatureAlgorithm.class);
+        String familyPrefix = shortName.substring(0, 2);
+
+        for (JwtSignatureAlgorithm signatureAlgo : values()) {
+            if (signatureAlgo.shortName.startsWith(familyPrefix)) {
+                result.add(signatureAlgo);
+            }
+        }
+
+        return result;
+    }
+
     /**
      * A Comparator that compares instances of JwtSignatureAlgorithm by their
      * short names.
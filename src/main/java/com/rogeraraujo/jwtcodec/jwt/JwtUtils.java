@@ -16,7 +16,29 @@
 
 package com.rogeraraujo.jwtcodec.jwt;
 
+import com.rogeraraujo.jwtcodec.Utils;
+import io.fusionauth.jwks.domain.JSONWebKey;
 import io.fusionauth.jwt.*;
+import io.fusionauth.jwt.domain.JWT;
+import io.fusionauth.jwt.domain.KeyPair;
+import io.fusionauth.pem.domain.PEM;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Utility class that provides JSON Web Token-related methods.
@@ -72,4 +94,316 @@ public class JwtUtils {
 
         return exception;
     }
+
+    /**
+     * Creates an unsigned token from a map of claim names to values, such as
+     * a row of a claims file. The registered claims are set through the
+     * matching JWT fields, as the encoding tab does: "iat", "exp" and "nbf"
+     * accept epoch seconds (as a number or a string of digits) or ISO-8601
+     * timestamps, and "iss", "sub" and "jti" are converted to strings. Every
+     * other claim is added with its value unchanged. Claims with null values
+     * are skipped.
+     *
+     * @param claims Claim names and values
+     *
+     * @return The newly-created token
+     *
+     * @throws IllegalArgumentException If a timestamp claim has an invalid
+     *                                  value
+     */
+    public static JWT createToken(Map<String, ?> claims) {
+        JWT result = new JWT();
+
+        for (Map.Entry<String, ?> claim : claims.entrySet()) {
+            String name = claim.getKey();
+            Object value = claim.getValue();
+
+            if ((name == null) || (value == null)) {
+                continue;
+            }
+
+            switch (name) {
+                case "iss":
+                    result.setIssuer(value.toString());
+                    break;
+                case "sub":
+                    result.setSubject(value.toString());
+                    break;
+                case "aud":
+                    result.setAudience(value);
+                    break;
+                case "jti":
+                    result.setUniqueId(value.toString());
+                    break;
+                case "iat":
+                    result.setIssuedAt(parseTimestamp(name, value));
+                    break;
+                case "exp":
+                    result.setExpiration(parseTimestamp(name, value));
+                    break;
+                case "nbf":
+                    result.setNotBefore(parseTimestamp(name, value));
+                    break;
+                default:
+                    result.addClaim(name, value);
+            }
+        }
+
+        return result;
+    }
+
+    private static ZonedDateTime parseTimestamp(String name, Object value) {
+        try {
+            if (value instanceof Number) {
+                return ZonedDateTime.ofInstant(Instant.ofEpochSecond(
+                    ((Number) value).longValue()), ZoneOffset.UTC);
+            }
+
+            String str = value.toString().trim();
+
+            return Utils.stringContainsDigitsOnly(str) ?
+                ZonedDateTime.ofInstant(Instant.ofEpochSecond(
+                    Long.parseLong(str)), ZoneOffset.UTC) :
+                ZonedDateTime.parse(str).withZoneSameInstant(ZoneOffset.UTC);
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Claim [" + name +
+                "] must be in epoch seconds or ISO-8601 format", ex);
+        }
+    }
+
+    /**
+     * Generates a secret for an HMAC key generation type.
+     *
+     * @param kgType Key generation type; must not be asymmetric
+     *
+     * @return The Base64-encoded secret
+     */
+    public static String generateSecret(KeyGenerationType kgType) {
+        if (kgType == null) {
+            throw new IllegalArgumentException(
+                "Key generation type cannot be null");
+        }
+
+        switch (kgType) {
+            case HMAC_SHA_256:
+                return JWTUtils.generateSHA256_HMACSecret();
+
+            case HMAC_SHA_384:
+                return JWTUtils.generateSHA384_HMACSecret();
+
+            case HMAC_SHA_512:
+                return JWTUtils.generateSHA512_HMACSecret();
+        }
+
+        throw new IllegalArgumentException(
+            "Key generation type [" + kgType + "] is not symmetric");
+    }
+
+    /**
+     * Generates a key pair for an asymmetric key generation type. RSA key
+     * pairs, especially the larger ones, may take seconds to generate.
+     *
+     * @param kgType Key generation type; must be asymmetric
+     *
+     * @return The key pair, with PEM-encoded keys
+     */
+    public static KeyPair generateKeyPair(KeyGenerationType kgType) {
+        if (kgType == null) {
+            throw new IllegalArgumentException(
+                "Key generation type cannot be null");
+        }
+
+        switch (kgType) {
+            case RSA_2048:
+                return JWTUtils.generate2048_RSAKeyPair();
+
+            case RSA_3072:
+                return JWTUtils.generate3072_RSAKeyPair();
+
+            case RSA_4096:
+                return JWTUtils.generate4096_RSAKeyPair();
+
+            case EC_256:
+                return JWTUtils.generate256_ECKeyPair();
+
+            case EC_384:
+                return JWTUtils.generate384_ECKeyPair();
+
+            case EC_521:
+                return JWTUtils.generate521_ECKeyPair();
+        }
+
+        throw new IllegalArgumentException(
+            "Key generation type [" + kgType + "] is not asymmetric");
+    }
+
+    /**
+     * Computes the JWK SHA-256 thumbprint (RFC 7638) of a public key, which
+     * is commonly used as its key ID.
+     *
+     * @param pemPublicKey PEM-encoded public key or certificate
+     *
+     * @return Base64url-encoded thumbprint
+     */
+    public static String computeThumbprint(String pemPublicKey) {
+        return JWTUtils.generateJWS_kid_S256(JSONWebKey.build(
+            parsePublicKey(pemPublicKey, PublicKey.class)));
+    }
+
+    /**
+     * Computes the JWK SHA-256 thumbprint (RFC 7638) of an HMAC secret, as
+     * the thumbprint of an "oct" key whose bytes are the UTF-8 encoding of
+     * the secret, which is how the secret is used to sign tokens.
+     *
+     * @param secret HMAC secret
+     *
+     * @return Base64url-encoded thumbprint
+     */
+    public static String computeSecretThumbprint(String secret) {
+        if (secret == null) {
+            throw new IllegalArgumentException("Secret cannot be null");
+        }
+
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String json = "{\"k\":\"" + encoder.encodeToString(
+            secret.getBytes(StandardCharsets.UTF_8)) + "\",\"kty\":\"oct\"}";
+
+        try {
+            return encoder.encodeToString(MessageDigest.getInstance("SHA-256")
+                .digest(json.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Returns the signature algorithms that may verify tokens with a key,
+     * based only on the type of the key: HMAC algorithms for a secret, RSA
+     * algorithms for an RSA public key and ECDSA algorithms for an EC public
+     * key. Text that contains a PEM block is never accepted as an HMAC
+     * secret, so that a token whose header names an HMAC algorithm cannot be
+     * verified with a public key that anyone can obtain.
+     *
+     * @param key Secret key (HMAC) or PEM-encoded public key (RSA, EC)
+     *
+     * @return Set containing the allowed signature algorithms; empty if the
+     *         key looks like PEM but does not contain a supported public key
+     */
+    public static Set<JwtSignatureAlgorithm> getVerificationAlgorithms(
+            String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null");
+        }
+
+        Set<JwtSignatureAlgorithm> result =
+            EnumSet.noneOf(JwtSignatureAlgorithm.class);
+
+        if (!isPemText(key)) {
+            result.addAll(JwtSignatureAlgorithm.HMAC_SHA_256.getFamily());
+            return result;
+        }
+
+        PublicKey publicKey;
+
+        try {
+            publicKey = parsePublicKey(key, PublicKey.class);
+        } catch (Exception ex) {
+            return result;
+        }
+
+        if (publicKey instanceof RSAPublicKey) {
+            result.addAll(
+                JwtSignatureAlgorithm.RSA_SSA_PKCS_V1_5_SHA_256.getFamily());
+            result.addAll(JwtSignatureAlgorithm.RSA_SSA_PSS_SHA_256.getFamily());
+        }
+        else if (publicKey instanceof ECPublicKey) {
+            result.addAll(JwtSignatureAlgorithm.ECDSA_SHA_256.getFamily());
+        }
+
+        return result;
+    }
+
+    /**
+     * Checks whether a key text contains a PEM block, such as a public key,
+     * a private key or a certificate.
+     *
+     * @param key Key text; can be null
+     *
+     * @return Whether the text contains a PEM block
+     */
+    static boolean isPemText(String key) {
+        return (key != null) && key.contains("-----BEGIN ");
+    }
+
+    /**
+     * Parses a PEM-encoded private key, checking whether it has the expected
+     * type. RSA keys shorter than 2048 bits are rejected, as they are in the
+     * FusionAuth JWT signers.
+     *
+     * @param pemKey PEM-encoded private key
+     * @param keyType Expected type of the key, e.g., RSAPrivateKey.class
+     * @param <T> Expected type of the key
+     *
+     * @return The parsed private key
+     */
+    public static <T extends PrivateKey> T parsePrivateKey(
+            String pemKey, Class<T> keyType) {
+        PEM pem = PEM.decode(pemKey);
+
+        if (pem.privateKey == null) {
+            throw new MissingPrivateKeyException(
+                "The provided PEM encoded string did not contain a private key.");
+        }
+
+        return checkKey(pem.privateKey, keyType);
+    }
+
+    /**
+     * Parses a PEM-encoded public key or certificate, checking whether the key
+     * has the expected type. RSA keys shorter than 2048 bits are rejected, as
+     * they are in the FusionAuth JWT verifiers.
+     *
+     * @param pemKey PEM-encoded public key or certificate
+     * @param keyType Expected type of the key, e.g., RSAPublicKey.class
+     * @param <T> Expected type of the key
+     *
+     * @return The parsed public key
+     */
+    public static <T extends PublicKey> T parsePublicKey(
+            String pemKey, Class<T> keyType) {
+        PEM pem = PEM.decode(pemKey);
+        PublicKey publicKey = pem.publicKey;
+
+        if ((publicKey == null) && (pem.certificate != null)) {
+            publicKey = pem.certificate.getPublicKey();
+        }
+
+        if (publicKey == null) {
+            throw new MissingPublicKeyException(
+                "The provided PEM encoded string did not contain a public key.");
+        }
+
+        return checkKey(publicKey, keyType);
+    }
+
+    private static <T> T checkKey(Key key, Class<T> keyType) {
+        if (!keyType.isInstance(key)) {
+            throw new InvalidKeyTypeException(
+                "Expecting a key of type [" + keyType.getSimpleName() +
+                "], but found " + key.getAlgorithm() + " / " + key.getFormat());
+        }
+
+        if (key instanceof RSAKey) {
+            int keyLength = ((RSAKey) key).getModulus().bitLength();
+
+            if (keyLength < 2048) {
+                throw new InvalidKeyLengthException("Key length of [" +
+                    keyLength + "] is less than the required key length of " +
+                    "2048 bits.");
+            }
+        }
+
+        return keyType.cast(key);
+    }
 }
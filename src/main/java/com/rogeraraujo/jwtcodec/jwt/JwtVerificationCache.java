@@ -0,0 +1,271 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import com.rogeraraujo.jwtcodec.components.LruCache;
+import io.fusionauth.jwt.InvalidJWTException;
+import io.fusionauth.jwt.MissingSignatureException;
+import io.fusionauth.jwt.NoneNotAllowedException;
+import io.fusionauth.jwt.domain.JWT;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the outcome of decoding and verifying tokens, so a token seen
+ * repeatedly is only verified once. Entries are keyed by a SHA-256 hash of
+ * the signature algorithm, the key and the token, and a successful outcome is
+ * kept until the token expires or the time-to-live elapses, whichever comes
+ * first. Malformed tokens are remembered for a shorter time-to-live, so that
+ * repeated garbage is rejected cheaply too; other failures, such as invalid
+ * signatures or expired tokens, are not cached. Instances of this class are
+ * thread-safe.
+ */
+public class JwtVerificationCache {
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000L;
+
+    public static final long DEFAULT_NEGATIVE_TTL_MILLIS = 10 * 1000L;
+
+    private final JwtEngine jwtEngine;
+
+    private final LruCache<String, Entry> entries;
+
+    @Getter
+    private final long ttlMillis;
+
+    @Getter
+    private final long negativeTtlMillis;
+
+    private final Clock clock;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong negativeHitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    public JwtVerificationCache(JwtEngine jwtEngine) {
+        this(jwtEngine, DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS,
+            DEFAULT_NEGATIVE_TTL_MILLIS);
+    }
+
+    public JwtVerificationCache(JwtEngine jwtEngine, int maxSize,
+            long ttlMillis, long negativeTtlMillis) {
+        this(jwtEngine, maxSize, ttlMillis, negativeTtlMillis,
+            Clock.systemUTC());
+    }
+
+    JwtVerificationCache(JwtEngine jwtEngine, int maxSize, long ttlMillis,
+            long negativeTtlMillis, Clock clock) {
+        if (jwtEngine == null) {
+            throw new IllegalArgumentException("JWT engine cannot be null");
+        }
+
+        if ((ttlMillis < 0L) || (negativeTtlMillis < 0L)) {
+            throw new IllegalArgumentException(
+                "Time-to-live cannot be negative");
+        }
+
+        this.jwtEngine = jwtEngine;
+        this.entries = new LruCache<>(maxSize);
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Decodes and verifies a JSON Web Token, returning the cached outcome if
+     * the same token was verified recently with the same algorithm and key.
+     * The returned token may be shared with other callers, so it must not be
+     * modified.
+     *
+     * @param encodedToken Token to decode
+     * @param signatureAlgo Signature algorithm
+     * @param key Secret key (HMAC) or PEM-encoded public key (RSA, EC)
+     *
+     * @return The decoded token
+     *
+     * @throws RuntimeException If the token cannot be decoded or verified;
+     *                          the same exceptions are thrown as by
+     *                          JwtEngine#decode(String, JwtSignatureAlgorithm, String)
+     */
+    public JWT decode(String encodedToken, JwtSignatureAlgorithm signatureAlgo,
+            String key) {
+        if ((encodedToken == null) || (signatureAlgo == null)) {
+            throw new IllegalArgumentException(
+                "Token and signature algorithm cannot be null");
+        }
+
+        String cacheKey = computeCacheKey(encodedToken, signatureAlgo, key);
+        long now = clock.millis();
+        Entry entry = entries.get(cacheKey);
+
+        if (entry != null) {
+            if (entry.expiresAt > now) {
+                if (entry.decodedToken != null) {
+                    hitCount.incrementAndGet();
+                    return entry.decodedToken;
+                }
+
+                negativeHitCount.incrementAndGet();
+                throw entry.exception;
+            }
+
+            entries.remove(cacheKey);
+        }
+
+        missCount.incrementAndGet();
+        JWT result;
+
+        try {
+            result = jwtEngine.decode(encodedToken, signatureAlgo, key);
+        } catch (InvalidJWTException | MissingSignatureException |
+                 NoneNotAllowedException ex) {
+            // These failures depend on the token text alone
+            if (negativeTtlMillis > 0L) {
+                entries.put(cacheKey, new Entry(null, ex, now + negativeTtlMillis));
+            }
+
+            throw ex;
+        }
+
+        long expiresAt = now + ttlMillis;
+
+        if (result.expiration != null) {
+            expiresAt = Math.min(expiresAt,
+                result.expiration.toInstant().toEpochMilli());
+        }
+
+        if (expiresAt > now) {
+            entries.put(cacheKey, new Entry(result, null, expiresAt));
+        }
+
+        return result;
+    }
+
+    private static String computeCacheKey(String encodedToken,
+            JwtSignatureAlgorithm signatureAlgo, String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(signatureAlgo.getShortName()
+                .getBytes(StandardCharsets.US_ASCII));
+            digest.update((byte) 0);
+            digest.update(JwtEngine.computeKeyFingerprint(key)
+                .getBytes(StandardCharsets.US_ASCII));
+            digest.update((byte) 0);
+
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                digest.digest(encodedToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Returns the maximum number of cached outcomes.
+     *
+     * @return Maximum number of entries
+     */
+    public int getMaxSize() {
+        return entries.getMaxSize();
+    }
+
+    /**
+     * Returns the number of outcomes currently cached, including expired
+     * ones that were not looked up since they expired.
+     *
+     * @return Number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns how many lookups were answered with a cached successful
+     * outcome.
+     *
+     * @return Number of hits
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns how many lookups were answered with a cached failure for a
+     * malformed token.
+     *
+     * @return Number of negative hits
+     */
+    public long getNegativeHitCount() {
+        return negativeHitCount.get();
+    }
+
+    /**
+     * Returns how many lookups had to decode and verify the token.
+     *
+     * @return Number of misses
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns the fraction of lookups answered from the cache, counting both
+     * successful and negative hits.
+     *
+     * @return Hit ratio between 0.0 and 1.0; 0.0 if there were no lookups
+     */
+    public double getHitRatio() {
+        long hits = hitCount.get() + negativeHitCount.get();
+        long total = hits + missCount.get();
+
+        return (total > 0L) ? (double) hits / total : 0.0;
+    }
+
+    /**
+     * Removes all cached outcomes. The statistics are not reset.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Outcome of the verification of a token.
+     */
+    private static class Entry {
+        // Null for a negative entry
+        final JWT decodedToken;
+
+        // Null for a positive entry
+        final RuntimeException exception;
+
+        final long expiresAt;
+
+        Entry(JWT decodedToken, RuntimeException exception, long expiresAt) {
+            this.decodedToken = decodedToken;
+            this.exception = exception;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
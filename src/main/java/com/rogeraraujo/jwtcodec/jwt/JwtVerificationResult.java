@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.domain.JWT;
+import lombok.Getter;
+
+/**
+ * Result of the verification of one token in a batch. Either the decoded
+ * token or the error message is available, never both.
+ */
+public class JwtVerificationResult {
+    /**
+     * Position of the token in the batch, starting at zero.
+     */
+    @Getter
+    private final int index;
+
+    @Getter
+    private final String encodedToken;
+
+    /**
+     * The decoded token; null if the verification failed.
+     */
+    @Getter
+    private final JWT decodedToken;
+
+    /**
+     * Description of the verification failure, as translated by
+     * JwtUtils#translateDecodingException(Exception); null if the
+     * verification succeeded.
+     */
+    @Getter
+    private final String errorMessage;
+
+    public JwtVerificationResult(int index, String encodedToken,
+            JWT decodedToken, String errorMessage) {
+        this.index = index;
+        this.encodedToken = encodedToken;
+        this.decodedToken = decodedToken;
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Checks whether the token was successfully decoded and verified.
+     *
+     * @return true if the token is valid, false otherwise
+     */
+    public boolean isValid() {
+        return decodedToken != null;
+    }
+
+    @Override
+    public String toString() {
+        return "index=" + index + ", valid=" + isValid() +
+            ((errorMessage != null) ? ", error=" + errorMessage : "");
+    }
+}
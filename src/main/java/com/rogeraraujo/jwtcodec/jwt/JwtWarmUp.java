@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.domain.JWT;
+import io.fusionauth.jwt.domain.KeyPair;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Signs and verifies synthetic tokens with every JwtSignatureAlgorithm and
+ * throwaway keys, so that the FusionAuth, Jackson and JCA classes are loaded
+ * and their hot paths compiled by the JIT before the user encodes or decodes
+ * the first token. The tokens go through a private JwtEngine, thus the same
+ * code runs as for real tokens without touching the caches of the
+ * application. Warm-up runs at most once per instance.
+ */
+@Slf4j
+public class JwtWarmUp {
+    public static final int DEFAULT_ITERATIONS = 200;
+
+    @Getter
+    private final int iterations;
+
+    private volatile boolean cancelled;
+
+    private volatile long elapsedMillis = -1L;
+
+    private volatile long keyGenerationMillis = -1L;
+
+    private Thread thread;
+
+    public JwtWarmUp() {
+        this(DEFAULT_ITERATIONS);
+    }
+
+    public JwtWarmUp(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException(
+                "Iterations must be greater than zero");
+        }
+
+        this.iterations = iterations;
+    }
+
+    /**
+     * Starts warming up on a low-priority daemon thread. Calling this method
+     * again has no effect.
+     */
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+
+        thread = new Thread(this::run, "jwt-warm-up");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * Asks the warm-up to stop after the current algorithm.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Returns how long the warm-up took.
+     *
+     * @return Duration of the warm-up in milliseconds, or -1 if it has not
+     *         finished yet
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Returns how long the generation of the throwaway keys took. Keys are
+     * generated before the first token is signed, thus this is the part of
+     * getElapsedMillis() that is not spent signing and verifying tokens.
+     *
+     * @return Duration of the key generation in milliseconds, or -1 if it
+     *         has not finished yet
+     */
+    public long getKeyGenerationMillis() {
+        return keyGenerationMillis;
+    }
+
+    /**
+     * Warms up every signature algorithm on the calling thread. Failures are
+     * logged and do not stop the other algorithms.
+     *
+     * @return Number of algorithms warmed up successfully
+     */
+    public int run() {
+        long start = System.nanoTime();
+        Map<JwtSignatureAlgorithm, KeyPair> keys = generateKeys();
+        keyGenerationMillis = (System.nanoTime() - start) / 1_000_000L;
+
+        JwtEngine engine = new JwtEngine();
+        int result = 0;
+
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("iss", "jwtcodec");
+        claims.put("sub", "warm-up");
+        claims.put("iat", System.currentTimeMillis() / 1000L);
+        JWT unsignedToken = JwtUtils.createToken(claims);
+
+        for (Map.Entry<JwtSignatureAlgorithm, KeyPair> entry :
+                keys.entrySet()) {
+            if (cancelled) {
+                break;
+            }
+
+            JwtSignatureAlgorithm signatureAlgo = entry.getKey();
+            KeyPair keyPair = entry.getValue();
+
+            try {
+                for (int i = 0; (i < iterations) && !cancelled; ++i) {
+                    String encodedToken = engine.encode(
+                        unsignedToken, signatureAlgo, keyPair.privateKey);
+                    engine.decode(encodedToken, signatureAlgo,
+                        keyPair.publicKey);
+                }
+
+                ++result;
+            } catch (Exception ex) {
+                log.debug("Error warming up {}:", signatureAlgo, ex);
+            }
+        }
+
+        elapsedMillis = (System.nanoTime() - start) / 1_000_000L;
+        log.info("JIT warm-up of {} signature algorithms ({} iterations " +
+            "each) {} in {} ms, {} ms of which generating keys", result,
+            iterations, cancelled ? "cancelled" : "finished", elapsedMillis,
+            keyGenerationMillis);
+
+        return result;
+    }
+
+    /**
+     * Generates the signing and verification keys of every signature
+     * algorithm. Secrets are returned as key pairs whose private and public
+     * keys are the same. Algorithms whose keys cannot be generated are left
+     * out.
+     */
+    private Map<JwtSignatureAlgorithm, KeyPair> generateKeys() {
+        Map<KeyGenerationType, KeyPair> keyPairs =
+            new EnumMap<>(KeyGenerationType.class);
+        Map<JwtSignatureAlgorithm, KeyPair> result =
+            new EnumMap<>(JwtSignatureAlgorithm.class);
+
+        for (JwtSignatureAlgorithm signatureAlgo :
+                JwtSignatureAlgorithm.values()) {
+            if (cancelled) {
+                break;
+            }
+
+            try {
+                KeyGenerationType kgType = getKeyGenerationType(signatureAlgo);
+
+                if (signatureAlgo.isAsymmetric()) {
+                    result.put(signatureAlgo, keyPairs.computeIfAbsent(
+                        kgType, JwtUtils::generateKeyPair));
+                }
+                else {
+                    String secret = JwtUtils.generateSecret(kgType);
+                    result.put(signatureAlgo, new KeyPair(secret, secret));
+                }
+            } catch (Exception ex) {
+                log.debug("Error generating keys for {}:", signatureAlgo, ex);
+            }
+        }
+
+        return result;
+    }
+
+    private static KeyGenerationType getKeyGenerationType(
+            JwtSignatureAlgorithm signatureAlgo) {
+        switch (signatureAlgo) {
+            case HMAC_SHA_256:
+                return KeyGenerationType.HMAC_SHA_256;
+
+            case HMAC_SHA_384:
+                return KeyGenerationType.HMAC_SHA_384;
+
+            case HMAC_SHA_512:
+                return KeyGenerationType.HMAC_SHA_512;
+
+            case ECDSA_SHA_256:
+                return KeyGenerationType.EC_256;
+
+            case ECDSA_SHA_384:
+                return KeyGenerationType.EC_384;
+
+            case ECDSA_SHA_512:
+                return KeyGenerationType.EC_521;
+
+            default:
+                // RSA keys of any size work with every RSA algorithm
+                return KeyGenerationType.RSA_2048;
+        }
+    }
+}
@@ -52,6 +52,32 @@ public enum KeyGenerationType {
         return description;
     }
 
+    /**
+     * Returns the key generation type with a given name, e.g., "RSA_4096".
+     * Case, dashes and underscores are ignored, so "rsa-4096" and "ec256"
+     * are accepted as well.
+     *
+     * @param name Name of the key generation type; can be null
+     *
+     * @return The key generation type, or null if there is none with that
+     *         name
+     */
+    public static KeyGenerationType fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        String normalizedName = name.trim().replace("-", "").replace("_", "");
+
+        for (KeyGenerationType kgType : values()) {
+            if (kgType.name().replace("_", "").equalsIgnoreCase(normalizedName)) {
+                return kgType;
+            }
+        }
+
+        return null;
+    }
+
     /**
      * A Comparator that compares KeyGenerationType instances by their
      * description.
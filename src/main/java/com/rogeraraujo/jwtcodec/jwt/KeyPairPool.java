@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.domain.KeyPair;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps a few key pairs of each asymmetric KeyGenerationType generated in
+ * advance, so that taking one is instant even for slow types such as RSA
+ * 4096-bit. Key pairs are generated by low-priority daemon threads, and the
+ * pool of a type is refilled as soon as a key pair is taken. If the pool of a
+ * type is empty, the key pair is generated on the calling thread. Each key
+ * pair is handed out only once. Instances of this class are thread-safe.
+ */
+@Slf4j
+public class KeyPairPool implements Closeable {
+    public static final int DEFAULT_DEPTH = 2;
+
+    public static final int DEFAULT_THREAD_COUNT = 1;
+
+    public static final WarmUpPolicy DEFAULT_WARM_UP_POLICY =
+        WarmUpPolicy.ON_DEMAND;
+
+    /**
+     * When the pools of the key generation types are first filled.
+     */
+    public enum WarmUpPolicy {
+        /**
+         * Every asymmetric type is filled when the pool is created.
+         */
+        EAGER,
+
+        /**
+         * A type is filled after a key pair of that type is first taken.
+         */
+        ON_DEMAND;
+
+        /**
+         * Returns the policy with a given name, ignoring case and accepting
+         * dashes in place of underscores.
+         *
+         * @param name Name of the policy; can be null
+         *
+         * @return The policy, or null if there is none with that name
+         */
+        public static WarmUpPolicy fromName(String name) {
+            if (name == null) {
+                return null;
+            }
+
+            String normalizedName = name.trim().replace('-', '_');
+
+            for (WarmUpPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(normalizedName)) {
+                    return policy;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    @Getter
+    private final int depth;
+
+    @Getter
+    private final WarmUpPolicy warmUpPolicy;
+
+    private final Map<KeyGenerationType, Slot> slots =
+        new EnumMap<>(KeyGenerationType.class);
+
+    private final ExecutorService executor;
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    public KeyPairPool() {
+        this(DEFAULT_DEPTH, DEFAULT_WARM_UP_POLICY, DEFAULT_THREAD_COUNT);
+    }
+
+    public KeyPairPool(int depth, WarmUpPolicy warmUpPolicy, int threadCount) {
+        if (depth < 1) {
+            throw new IllegalArgumentException(
+                "Depth must be greater than zero");
+        }
+
+        if (warmUpPolicy == null) {
+            throw new IllegalArgumentException("Warm-up policy cannot be null");
+        }
+
+        if (threadCount < 1) {
+            throw new IllegalArgumentException(
+                "Thread count must be greater than zero");
+        }
+
+        this.depth = depth;
+        this.warmUpPolicy = warmUpPolicy;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable,
+                "key-pair-pool-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+
+        for (KeyGenerationType kgType : KeyGenerationType.values()) {
+            if (kgType.isAsymmetric()) {
+                slots.put(kgType, new Slot(kgType));
+            }
+        }
+
+        if (warmUpPolicy == WarmUpPolicy.EAGER) {
+            slots.values().forEach(Slot::refill);
+        }
+    }
+
+    /**
+     * Takes a key pair of a type, generating it on the calling thread if none
+     * is ready, and schedules the generation of a replacement.
+     *
+     * @param kgType Key generation type; must be asymmetric
+     *
+     * @return The key pair
+     */
+    public KeyPair take(KeyGenerationType kgType) {
+        Slot slot = getSlot(kgType);
+        KeyPair result = slot.keyPairs.poll();
+
+        if (result != null) {
+            hitCount.incrementAndGet();
+        }
+        else {
+            missCount.incrementAndGet();
+        }
+
+        slot.refill();
+
+        return (result != null) ? result : JwtUtils.generateKeyPair(kgType);
+    }
+
+    /**
+     * Returns how many key pairs of a type are ready to be taken.
+     *
+     * @param kgType Key generation type; must be asymmetric
+     *
+     * @return Number of ready key pairs
+     */
+    public int getAvailableCount(KeyGenerationType kgType) {
+        return getSlot(kgType).keyPairs.size();
+    }
+
+    /**
+     * Returns how many key pairs were taken from the pool.
+     *
+     * @return Number of pool hits
+     */
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns how many key pairs had to be generated on the calling thread
+     * because the pool was empty.
+     *
+     * @return Number of pool misses
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Stops the generation threads. Key pairs that are ready can still be
+     * taken, but the pool is no longer refilled.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private Slot getSlot(KeyGenerationType kgType) {
+        Slot slot = (kgType != null) ? slots.get(kgType) : null;
+
+        if (slot == null) {
+            throw new IllegalArgumentException(
+                "Key generation type [" + kgType + "] is not asymmetric");
+        }
+
+        return slot;
+    }
+
+    /**
+     * Ready key pairs of one key generation type.
+     */
+    private class Slot {
+        private final KeyGenerationType kgType;
+
+        private final BlockingQueue<KeyPair> keyPairs;
+
+        /**
+         * Number of key pairs scheduled but not generated yet.
+         */
+        private int pendingCount;
+
+        Slot(KeyGenerationType kgType) {
+            this.kgType = kgType;
+            this.keyPairs = new ArrayBlockingQueue<>(depth);
+        }
+
+        /**
+         * Schedules enough generations to fill the slot.
+         */
+        synchronized void refill() {
+            while (keyPairs.size() + pendingCount < depth) {
+                try {
+                    executor.execute(this::generate);
+                } catch (RejectedExecutionException ex) {
+                    // The pool was closed
+                    return;
+                }
+
+                ++pendingCount;
+            }
+        }
+
+        private void generate() {
+            KeyPair keyPair = null;
+
+            try {
+                keyPair = JwtUtils.generateKeyPair(kgType);
+            } catch (Exception ex) {
+                log.error("Error generating " + kgType + " key pair:", ex);
+            }
+
+            // Updated together, so refill() never sees a key pair twice
+            synchronized (this) {
+                if (keyPair != null) {
+                    keyPairs.offer(keyPair);
+                }
+
+                --pendingCount;
+            }
+        }
+    }
+}
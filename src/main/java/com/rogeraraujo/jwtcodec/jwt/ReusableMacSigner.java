@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.JWTSigningException;
+import io.fusionauth.jwt.Signer;
+import io.fusionauth.jwt.domain.Algorithm;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+
+/**
+ * A Signer for the HMAC signature algorithms (HS256, HS384 and HS512) that
+ * keeps one Mac instance per thread, already initialized with the secret key.
+ * The FusionAuth JWT HMACSigner looks up and initializes a new Mac instance on
+ * every call, which costs more than the signature itself for short tokens.
+ * Instances of this class are thread-safe.
+ */
+public class ReusableMacSigner implements Signer {
+    private final Algorithm algorithm;
+
+    private final SecretKeySpec secretKey;
+
+    private final ThreadLocal<Mac> macs;
+
+    public ReusableMacSigner(JwtSignatureAlgorithm signatureAlgo, byte[] secret) {
+        if ((signatureAlgo == null) || signatureAlgo.isAsymmetric()) {
+            throw new IllegalArgumentException(
+                "Signature algorithm must be HS256, HS384 or HS512");
+        }
+
+        if ((secret == null) || (secret.length < 1)) {
+            throw new IllegalArgumentException("Secret cannot be empty");
+        }
+
+        this.algorithm = signatureAlgo.getAlgorithm();
+        this.secretKey = new SecretKeySpec(secret, algorithm.getName());
+        this.macs = ThreadLocal.withInitial(this::createMac);
+    }
+
+    private Mac createMac() {
+        try {
+            Mac result = Mac.getInstance(algorithm.getName());
+            result.init(secretKey);
+
+            return result;
+        } catch (GeneralSecurityException ex) {
+            throw new JWTSigningException(
+                "An unexpected exception occurred when attempting to sign the JWT", ex);
+        }
+    }
+
+    @Override
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public String getKid() {
+        // No "kid" header is written, as with the FusionAuth JWT signers
+        return null;
+    }
+
+    @Override
+    public byte[] sign(String payload) {
+        Mac mac = macs.get();
+
+        try {
+            // doFinal() also resets the Mac, leaving it ready for the next call
+            return mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (RuntimeException ex) {
+            macs.remove();
+            throw ex;
+        }
+    }
+}
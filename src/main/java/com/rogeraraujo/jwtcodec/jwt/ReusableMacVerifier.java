@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.InvalidJWTSignatureException;
+import io.fusionauth.jwt.JWTVerifierException;
+import io.fusionauth.jwt.Verifier;
+import io.fusionauth.jwt.domain.Algorithm;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * A Verifier for the HMAC signature algorithms (HS256, HS384 and HS512) that
+ * keeps, for each thread and algorithm, one Mac instance already initialized
+ * with the secret key. Instances of this class are thread-safe.
+ */
+public class ReusableMacVerifier implements Verifier {
+    private final byte[] secret;
+
+    private final ThreadLocal<Map<Algorithm, Mac>> macs =
+        ThreadLocal.withInitial(() -> new EnumMap<>(Algorithm.class));
+
+    public ReusableMacVerifier(byte[] secret) {
+        if ((secret == null) || (secret.length < 1)) {
+            throw new IllegalArgumentException("Secret cannot be empty");
+        }
+
+        this.secret = secret.clone();
+    }
+
+    @Override
+    public boolean canVerify(Algorithm algorithm) {
+        return (algorithm == Algorithm.HS256) ||
+            (algorithm == Algorithm.HS384) ||
+            (algorithm == Algorithm.HS512);
+    }
+
+    @Override
+    public void verify(Algorithm algorithm, byte[] message, byte[] signature) {
+        Map<Algorithm, Mac> threadMacs = macs.get();
+        boolean verified;
+
+        try {
+            Mac mac = threadMacs.get(algorithm);
+
+            if (mac == null) {
+                mac = Mac.getInstance(algorithm.getName());
+                mac.init(new SecretKeySpec(secret, algorithm.getName()));
+                threadMacs.put(algorithm, mac);
+            }
+
+            // doFinal() also resets the Mac, leaving it ready for the next call
+            verified = MessageDigest.isEqual(mac.doFinal(message), signature);
+        } catch (GeneralSecurityException | RuntimeException ex) {
+            threadMacs.remove(algorithm);
+            throw new JWTVerifierException(
+                "An unexpected exception occurred when attempting to verify the JWT", ex);
+        }
+
+        if (!verified) {
+            throw new InvalidJWTSignatureException();
+        }
+    }
+}
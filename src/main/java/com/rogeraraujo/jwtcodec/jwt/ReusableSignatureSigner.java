@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.JWTSigningException;
+import io.fusionauth.jwt.Signer;
+import io.fusionauth.jwt.domain.Algorithm;
+
+import java.nio.charset.StandardCharsets;
+import java.security.PrivateKey;
+import java.security.Signature;
+
+/**
+ * A Signer for the RSA and ECDSA signature algorithms (RS*, PS* and ES*) that
+ * keeps one Signature instance per thread, already initialized with the
+ * private key. A Signature returns to its initialized state after each
+ * signature, so it can be reused without calling initSign() again. Instances
+ * of this class are thread-safe.
+ */
+public class ReusableSignatureSigner implements Signer {
+    private final JwtSignatureAlgorithm signatureAlgo;
+
+    private final Algorithm algorithm;
+
+    private final PrivateKey privateKey;
+
+    private final ThreadLocal<Signature> signatures;
+
+    public ReusableSignatureSigner(
+            JwtSignatureAlgorithm signatureAlgo, PrivateKey privateKey) {
+        if ((signatureAlgo == null) || !signatureAlgo.isAsymmetric()) {
+            throw new IllegalArgumentException(
+                "Signature algorithm must be asymmetric");
+        }
+
+        if (privateKey == null) {
+            throw new IllegalArgumentException("Private key cannot be null");
+        }
+
+        this.signatureAlgo = signatureAlgo;
+        this.algorithm = signatureAlgo.getAlgorithm();
+        this.privateKey = privateKey;
+        this.signatures = ThreadLocal.withInitial(this::createSignature);
+    }
+
+    private Signature createSignature() {
+        try {
+            Signature result = JcaSignatures.getInstance(signatureAlgo);
+            result.initSign(privateKey);
+
+            return result;
+        } catch (Exception ex) {
+            throw new JWTSigningException(
+                "An unexpected exception occurred when attempting to sign the JWT", ex);
+        }
+    }
+
+    @Override
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public String getKid() {
+        // No "kid" header is written, as with the FusionAuth JWT signers
+        return null;
+    }
+
+    @Override
+    public byte[] sign(String payload) {
+        Signature signature = signatures.get();
+
+        try {
+            signature.update(payload.getBytes(StandardCharsets.UTF_8));
+            byte[] result = signature.sign();
+
+            // JWTs carry ECDSA signatures as R || S instead of DER
+            return JcaSignatures.isEcdsa(signatureAlgo) ?
+                JcaSignatures.derToConcatenated(result, signatureAlgo) : result;
+        } catch (Exception ex) {
+            signatures.remove();
+            throw new JWTSigningException(
+                "An unexpected exception occurred when attempting to sign the JWT", ex);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.InvalidJWTSignatureException;
+import io.fusionauth.jwt.JWTVerifierException;
+import io.fusionauth.jwt.Verifier;
+import io.fusionauth.jwt.domain.Algorithm;
+
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A Verifier for the RSA and ECDSA signature algorithms (RS*, PS* and ES*)
+ * that keeps, for each thread and algorithm, one Signature instance already
+ * initialized with the public key. Instances of this class are thread-safe.
+ */
+public class ReusableSignatureVerifier implements Verifier {
+    private final PublicKey publicKey;
+
+    private final Map<Algorithm, JwtSignatureAlgorithm> signatureAlgos =
+        new EnumMap<>(Algorithm.class);
+
+    private final ThreadLocal<Map<Algorithm, Signature>> signatures =
+        ThreadLocal.withInitial(() -> new EnumMap<>(Algorithm.class));
+
+    /**
+     * Creates a verifier.
+     *
+     * @param publicKey Public key that verifies the signatures
+     * @param signatureAlgos Signature algorithms accepted by the verifier;
+     *                       usually a family of algorithms, as returned by
+     *                       JwtSignatureAlgorithm#getFamily()
+     */
+    public ReusableSignatureVerifier(
+            PublicKey publicKey, Set<JwtSignatureAlgorithm> signatureAlgos) {
+        if (publicKey == null) {
+            throw new IllegalArgumentException("Public key cannot be null");
+        }
+
+        if ((signatureAlgos == null) || signatureAlgos.isEmpty()) {
+            throw new IllegalArgumentException(
+                "Signature algorithms cannot be empty");
+        }
+
+        this.publicKey = publicKey;
+
+        for (JwtSignatureAlgorithm signatureAlgo : EnumSet.copyOf(signatureAlgos)) {
+            if (!signatureAlgo.isAsymmetric()) {
+                throw new IllegalArgumentException(
+                    "Signature algorithm [" + signatureAlgo + "] is not asymmetric");
+            }
+
+            this.signatureAlgos.put(signatureAlgo.getAlgorithm(), signatureAlgo);
+        }
+    }
+
+    @Override
+    public boolean canVerify(Algorithm algorithm) {
+        return (algorithm != null) && signatureAlgos.containsKey(algorithm);
+    }
+
+    @Override
+    public void verify(Algorithm algorithm, byte[] message, byte[] signature) {
+        JwtSignatureAlgorithm signatureAlgo = signatureAlgos.get(algorithm);
+
+        if (signatureAlgo == null) {
+            throw new IllegalArgumentException(
+                "Algorithm [" + algorithm + "] is not supported by this verifier");
+        }
+
+        if (JcaSignatures.isEcdsa(signatureAlgo) && (signature.length !=
+                2 * JcaSignatures.getEcdsaPartLength(signatureAlgo))) {
+            throw new InvalidJWTSignatureException();
+        }
+
+        Map<Algorithm, Signature> threadSignatures = signatures.get();
+        boolean verified;
+
+        try {
+            Signature jcaSignature = threadSignatures.get(algorithm);
+
+            if (jcaSignature == null) {
+                jcaSignature = JcaSignatures.getInstance(signatureAlgo);
+                jcaSignature.initVerify(publicKey);
+                threadSignatures.put(algorithm, jcaSignature);
+            }
+
+            // JWTs carry ECDSA signatures as R || S instead of DER
+            byte[] jcaSignatureBytes = JcaSignatures.isEcdsa(signatureAlgo) ?
+                JcaSignatures.concatenatedToDer(signature) : signature;
+
+            // verify() also resets the Signature, leaving it ready for the
+            // next call
+            jcaSignature.update(message);
+            verified = jcaSignature.verify(jcaSignatureBytes);
+        } catch (Exception ex) {
+            threadSignatures.remove(algorithm);
+            throw new JWTVerifierException(
+                "An unexpected exception occurred when attempting to verify the JWT", ex);
+        }
+
+        if (!verified) {
+            throw new InvalidJWTSignatureException();
+        }
+    }
+}
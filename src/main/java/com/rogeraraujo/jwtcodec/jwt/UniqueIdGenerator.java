@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import lombok.Getter;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates unique IDs for the "jti" claim. Besides random UUIDs, it
+ * generates time-ordered IDs, either UUIDv7 (RFC 9562) or ULID, whose
+ * leading 48 bits are a millisecond timestamp. Time-ordered IDs are inserted
+ * near each other in B-tree indexes instead of at random places.
+ *
+ * <p>The timestamp is followed by a 12-bit counter kept, together with the
+ * timestamp, per thread; when a thread generates more than 4096 IDs within a
+ * millisecond, its timestamp is advanced, so the IDs a thread gets from a
+ * generator are strictly increasing. IDs of different threads are only
+ * ordered by their millisecond, as the threads do not share a counter that
+ * they would contend on. The remaining bits are random, which keeps the IDs
+ * of different threads unique, and come from per-thread buffers filled by
+ * per-thread SecureRandom instances, so threads do not contend on a shared
+ * random number generator either. Instances of this class are
+ * thread-safe.</p>
+ */
+public class UniqueIdGenerator {
+    /**
+     * Format of the generated IDs.
+     */
+    public enum Format {
+        /**
+         * Random (version 4) UUID, as created by UUID.randomUUID().
+         */
+        RANDOM_UUID,
+
+        /**
+         * Time-ordered (version 7) UUID in its canonical 36-character form.
+         */
+        UUID_V7,
+
+        /**
+         * Time-ordered ULID in its 26-character Crockford Base32 form.
+         */
+        ULID;
+
+        /**
+         * Returns the format with a given name, ignoring case and accepting
+         * dashes in place of underscores.
+         *
+         * @param name Name of the format; can be null
+         *
+         * @return The format, or null if there is none with that name
+         */
+        public static Format fromName(String name) {
+            if (name == null) {
+                return null;
+            }
+
+            String normalizedName = name.trim().replace('-', '_');
+
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(normalizedName)) {
+                    return format;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    public static final Format DEFAULT_FORMAT = Format.UUID_V7;
+
+    private static final int COUNTER_BITS = 12;
+
+    private static final int ENTROPY_BUFFER_SIZE = 4096;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final char[] CROCKFORD_BASE32_DIGITS =
+        "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final ThreadLocal<EntropyBuffer> ENTROPY_BUFFERS =
+        ThreadLocal.withInitial(EntropyBuffer::new);
+
+    @Getter
+    private final Format format;
+
+    private final LongSupplier clock;
+
+    private final ThreadLocal<Sequence> sequences =
+        ThreadLocal.withInitial(Sequence::new);
+
+    public UniqueIdGenerator() {
+        this(DEFAULT_FORMAT);
+    }
+
+    public UniqueIdGenerator(Format format) {
+        this(format, System::currentTimeMillis);
+    }
+
+    UniqueIdGenerator(Format format, LongSupplier clock) {
+        if (format == null) {
+            throw new IllegalArgumentException("Format cannot be null");
+        }
+
+        this.format = format;
+        this.clock = clock;
+    }
+
+    /**
+     * Generates a new ID.
+     *
+     * @return The ID, in the format of this generator
+     */
+    public String nextId() {
+        switch (format) {
+            case UUID_V7:
+                return toString(nextUuidV7());
+
+            case ULID:
+                return nextUlid();
+        }
+
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Generates a new version 7 UUID, regardless of the format of this
+     * generator.
+     *
+     * @return The UUID
+     */
+    public UUID nextUuidV7() {
+        long timestampAndCounter = nextTimestampAndCounter();
+        long random = ENTROPY_BUFFERS.get().nextLong();
+
+        // 48-bit timestamp, 4-bit version, 12-bit counter
+        long mostSigBits = ((timestampAndCounter >>> COUNTER_BITS) << 16) |
+            0x7000L | (timestampAndCounter & 0xFFFL);
+
+        // 2-bit variant, 62 random bits
+        long leastSigBits = (random >>> 2) | 0x8000000000000000L;
+
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    private String nextUlid() {
+        long timestampAndCounter = nextTimestampAndCounter();
+        EntropyBuffer entropyBuffer = ENTROPY_BUFFERS.get();
+
+        // 48-bit timestamp, 12-bit counter and 68 random bits
+        long high = (timestampAndCounter << 4) | (entropyBuffer.nextLong() & 0xFL);
+        long low = entropyBuffer.nextLong();
+
+        // Every character takes 5 bits of the 128-bit value, starting from
+        // the lowest ones; the first character takes the top 3 bits
+        char[] chars = new char[26];
+
+        for (int i = 25; i >= 0; --i) {
+            chars[i] = CROCKFORD_BASE32_DIGITS[(int) (low & 0x1F)];
+            low = (low >>> 5) | (high << 59);
+            high >>>= 5;
+        }
+
+        return new String(chars);
+    }
+
+    private long nextTimestampAndCounter() {
+        long now = clock.getAsLong() << COUNTER_BITS;
+        Sequence sequence = sequences.get();
+
+        // The counter overflows into the timestamp if needed, and a clock
+        // that goes backwards does not break the ordering
+        sequence.lastTimestampAndCounter = Math.max(
+            now, sequence.lastTimestampAndCounter + 1);
+
+        return sequence.lastTimestampAndCounter;
+    }
+
+    /**
+     * Formats a UUID in its canonical form. Unlike UUID.toString(), it does
+     * not create intermediate strings.
+     *
+     * @param uuid UUID to format
+     *
+     * @return The UUID in its 36-character form
+     */
+    static String toString(UUID uuid) {
+        char[] chars = new char[36];
+        formatHex(uuid.getMostSignificantBits(), chars, 0, 0);
+        formatHex(uuid.getLeastSignificantBits(), chars, 18, 16);
+
+        return new String(chars);
+    }
+
+    private static void formatHex(long value, char[] chars, int offset,
+            int firstDigitIndex) {
+        int pos = offset;
+
+        for (int i = 0; i < 16; ++i) {
+            int digitIndex = firstDigitIndex + i;
+
+            if ((digitIndex == 8) || (digitIndex == 12) ||
+                (digitIndex == 16) || (digitIndex == 20)) {
+                chars[pos++] = '-';
+            }
+
+            chars[pos++] = HEX_DIGITS[(int) ((value >>> (60 - 4 * i)) & 0xF)];
+        }
+    }
+
+    /**
+     * Time-ordered sequence of one thread.
+     */
+    private static class Sequence {
+        /**
+         * Last timestamp in milliseconds, shifted left by COUNTER_BITS, plus
+         * the counter of IDs generated by the thread in that millisecond.
+         */
+        long lastTimestampAndCounter;
+    }
+
+    /**
+     * Random bytes of one thread, refilled from a SecureRandom of the same
+     * thread when exhausted.
+     */
+    private static class EntropyBuffer {
+        private final SecureRandom random = new SecureRandom();
+
+        private final byte[] bytes = new byte[ENTROPY_BUFFER_SIZE];
+
+        private int position = ENTROPY_BUFFER_SIZE;
+
+        long nextLong() {
+            if (position > (ENTROPY_BUFFER_SIZE - 8)) {
+                random.nextBytes(bytes);
+                position = 0;
+            }
+
+            long result = 0L;
+
+            for (int i = 0; i < 8; ++i) {
+                result = (result << 8) | (bytes[position++] & 0xFFL);
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.cli;
+
+import com.rogeraraujo.jwtcodec.jwt.JwtKeyRing;
+import com.rogeraraujo.jwtcodec.jwt.JwtUtils;
+import com.rogeraraujo.jwtcodec.jwt.KeyGenerationType;
+import io.fusionauth.jwt.json.Mapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.interfaces.ECPrivateKey;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the KeygenCommand class.
+ */
+@Slf4j
+class KeygenCommandTest {
+    private static void generate(KeyGenerationType kgType, int count,
+            String prefix, Path directory) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(2);
+
+        try {
+            KeygenCommand.generate(kgType, count, prefix, directory, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parseLine(String line) {
+        return Mapper.deserialize(
+            line.getBytes(StandardCharsets.UTF_8), Map.class);
+    }
+
+    @Test
+    void keyPairTest(@TempDir Path directory) throws IOException {
+        generate(KeyGenerationType.EC_256, 12, "ec-", directory);
+
+        List<String> manifest = Files.readAllLines(
+            directory.resolve(KeygenCommand.MANIFEST_FILE_NAME));
+        assertEquals(manifest.size(), 12);
+
+        JwtKeyRing keyRing = new JwtKeyRing(directory);
+        assertEquals(keyRing.size(), 12);
+
+        for (int i = 0; i < manifest.size(); ++i) {
+            Map<String, Object> entry = parseLine(manifest.get(i));
+            String keyId = String.format("ec-%02d", i + 1);
+
+            assertEquals(entry.get("kid"), keyId);
+            assertEquals(entry.get("type"), "EC_256");
+            assertEquals(entry.get("publicKeyFile"), keyId + ".pem");
+            assertEquals(keyRing.getKeyById(keyId).getThumbprint(),
+                entry.get("thumbprint"));
+
+            String privateKey = new String(Files.readAllBytes(directory.resolve(
+                keyId + ".key")), StandardCharsets.US_ASCII);
+            JwtUtils.parsePrivateKey(privateKey, ECPrivateKey.class);
+        }
+
+        // Existing keys are not overwritten
+        assertThrows(FileAlreadyExistsException.class,
+            () -> generate(KeyGenerationType.EC_256, 12, "ec-", directory));
+    }
+
+    @Test
+    void secretTest(@TempDir Path directory) throws IOException {
+        generate(KeyGenerationType.HMAC_SHA_256, 300, "hs-", directory);
+
+        List<String> manifest = Files.readAllLines(
+            directory.resolve(KeygenCommand.MANIFEST_FILE_NAME));
+        assertEquals(manifest.size(), 300);
+
+        Map<String, Object> entry = parseLine(manifest.get(299));
+        assertEquals(entry.get("kid"), "hs-300");
+        assertEquals(entry.get("secretFile"), "hs-300.secret");
+
+        String secret = Files.readAllLines(directory.resolve("hs-300.secret")).get(0);
+        assertEquals(entry.get("thumbprint"),
+            JwtUtils.computeSecretThumbprint(secret));
+
+        // Secrets are readable by their owner only
+        if (directory.getFileSystem().supportedFileAttributeViews()
+                .contains("posix")) {
+            assertEquals(Files.getPosixFilePermissions(
+                directory.resolve("hs-300.secret")),
+                PosixFilePermissions.fromString("rw-------"));
+        }
+
+        // Secrets are not loaded as public keys
+        assertEquals(new JwtKeyRing(directory).size(), 0);
+    }
+
+    @Test
+    void computeSecretThumbprintTest() {
+        // SHA-256 of {"k":"c2VjcmV0","kty":"oct"}, as defined by RFC 7638
+        assertEquals(JwtUtils.computeSecretThumbprint("secret"),
+            "DWBh0SEIAPYh1x5uvot4z3AhaikHkxNJa3Ada2fT-Cg");
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.cli;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the MappedFileLineReader class.
+ */
+@Slf4j
+class MappedFileLineReaderTest {
+    @TempDir
+    Path tempDir;
+
+    private static List<String> readAllLines(Path file, int chunkSize)
+            throws IOException {
+        List<String> result = new ArrayList<>();
+
+        try (LineReader reader = new MappedFileLineReader(file, chunkSize)) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                result.add(line);
+            }
+        }
+
+        return result;
+    }
+
+    @Test
+    void readLineTest() throws IOException {
+        Path file = tempDir.resolve("lines.txt");
+        Files.write(file, "first\r\nsecond\n\nthird line\nlast, no terminator ç"
+            .getBytes(StandardCharsets.UTF_8));
+        List<String> expected = Arrays.asList("first", "second", "",
+            "third line", "last, no terminator ç");
+
+        // Small chunk sizes make lines span chunk boundaries
+        for (int chunkSize : new int[] { 24, 25, 64, 1024 }) {
+            assertEquals(readAllLines(file, chunkSize), expected);
+        }
+
+        assertThrows(IOException.class, () -> readAllLines(file, 8));
+    }
+
+    @Test
+    void emptyFileTest() throws IOException {
+        Path file = tempDir.resolve("empty.txt");
+        Files.write(file, new byte[0]);
+        assertTrue(readAllLines(file, 16).isEmpty());
+
+        Files.write(file, "\n".getBytes(StandardCharsets.UTF_8));
+        assertEquals(readAllLines(file, 16), Arrays.asList(""));
+    }
+}
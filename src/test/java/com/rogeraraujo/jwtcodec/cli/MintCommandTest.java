@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.cli;
+
+import com.rogeraraujo.jwtcodec.jwt.JwtEngine;
+import com.rogeraraujo.jwtcodec.jwt.JwtSignatureAlgorithm;
+import com.rogeraraujo.jwtcodec.jwt.UniqueIdGenerator;
+import io.fusionauth.jwt.JWTUtils;
+import io.fusionauth.jwt.Signer;
+import io.fusionauth.jwt.domain.JWT;
+import io.fusionauth.jwt.domain.KeyPair;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the MintCommand class.
+ */
+@Slf4j
+class MintCommandTest {
+    private static final JwtSignatureAlgorithm SIGNATURE_ALGO =
+        JwtSignatureAlgorithm.ECDSA_SHA_256;
+
+    private static final KeyPair KEY_PAIR = JWTUtils.generate256_ECKeyPair();
+
+    private static String[] mint(String input, boolean isCsv, int batchSize)
+            throws IOException {
+        return mint(input, isCsv, null, batchSize);
+    }
+
+    private static String[] mint(String input, boolean isCsv,
+            UniqueIdGenerator idGenerator, int batchSize) throws IOException {
+        Signer signer = new JwtEngine().getSigner(
+            SIGNATURE_ALGO, KEY_PAIR.privateKey);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (LineReader reader = new StreamLineReader(new ByteArrayInputStream(
+                input.getBytes(StandardCharsets.UTF_8)))) {
+            long tokenCount = MintCommand.mint(reader, isCsv,
+                Channels.newChannel(out), pool, signer, idGenerator, batchSize);
+            String[] result = out.toString("UTF-8").split("\n");
+            assertEquals(tokenCount, result.length);
+
+            return result;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static JWT decode(String encodedToken) {
+        return new JwtEngine().decode(
+            encodedToken, SIGNATURE_ALGO, KEY_PAIR.publicKey);
+    }
+
+    @Test
+    void jsonlTest() throws IOException {
+        StringBuilder input = new StringBuilder();
+
+        for (int i = 0; i < 200; ++i) {
+            input.append("{\"sub\":\"subject-").append(i)
+                .append("\",\"exp\":1900000000,\"roles\":[\"admin\"]}\n\n");
+        }
+
+        // A small batch size makes the command pipeline several batches
+        String[] tokens = mint(input.toString(), false, 7);
+        assertEquals(tokens.length, 200);
+
+        for (int i = 0; i < tokens.length; ++i) {
+            JWT token = decode(tokens[i]);
+            assertEquals(token.subject, "subject-" + i);
+            assertEquals(token.expiration.toEpochSecond(), 1900000000L);
+            assertEquals(token.getList("roles"), Collections.singletonList("admin"));
+        }
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+            () -> mint("{\"sub\":\"a\"}\n\n{not json}\n", false, 10));
+        assertTrue(ex.getMessage().startsWith("Line 3: "));
+    }
+
+    @Test
+    void csvTest() throws IOException {
+        String[] tokens = mint("iss,sub,exp,scope\n" +
+            "issuer,first,2030-01-01T00:00:00Z,\"read, \"\"write\"\"\"\n" +
+            "issuer,second,,\n", true, 10);
+        assertEquals(tokens.length, 2);
+
+        JWT first = decode(tokens[0]);
+        assertEquals(first.issuer, "issuer");
+        assertEquals(first.subject, "first");
+        assertEquals(first.expiration.toEpochSecond(), 1893456000L);
+        assertEquals(first.getString("scope"), "read, \"write\"");
+
+        JWT second = decode(tokens[1]);
+        assertNull(second.expiration);
+        assertNull(second.getString("scope"));
+
+        assertThrows(IllegalArgumentException.class,
+            () -> mint("sub,scope\nonly-one-field\n", true, 10));
+        assertEquals(CsvLineParser.parse("a,\"b,c\",,d"),
+            Arrays.asList("a", "b,c", "", "d"));
+    }
+
+    @Test
+    void jtiTest() throws IOException {
+        String[] tokens = mint("{\"sub\":\"a\"}\n{\"sub\":\"b\",\"jti\":\"given\"}\n" +
+            "{\"sub\":\"c\"}\n", false,
+            new UniqueIdGenerator(UniqueIdGenerator.Format.ULID), 10);
+        assertEquals(tokens.length, 3);
+
+        String first = decode(tokens[0]).uniqueId;
+        String third = decode(tokens[2]).uniqueId;
+        assertEquals(first.length(), 26);
+        assertEquals(decode(tokens[1]).uniqueId, "given");
+        assertTrue(first.compareTo(third) < 0);
+    }
+}
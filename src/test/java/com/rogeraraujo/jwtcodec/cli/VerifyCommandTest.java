@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.cli;
+
+import com.rogeraraujo.jwtcodec.jwt.JwtBatchVerifier;
+import com.rogeraraujo.jwtcodec.jwt.JwtEngine;
+import com.rogeraraujo.jwtcodec.jwt.JwtSignatureAlgorithm;
+import io.fusionauth.jwt.JWTUtils;
+import io.fusionauth.jwt.domain.JWT;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the VerifyCommand class.
+ */
+@Slf4j
+class VerifyCommandTest {
+    private static final JwtSignatureAlgorithm SIGNATURE_ALGO =
+        JwtSignatureAlgorithm.HMAC_SHA_256;
+
+    private static final String SECRET = JWTUtils.generateSHA256_HMACSecret();
+
+    @TempDir
+    Path tempDir;
+
+    private static String createToken(String subject) {
+        return new JwtEngine().encode(
+            new JWT().setSubject(subject), SIGNATURE_ALGO, SECRET);
+    }
+
+    @Test
+    void verifyTest() throws Exception {
+        StringBuilder input = new StringBuilder();
+
+        for (int i = 0; i < 10; ++i) {
+            input.append(createToken("subject-" + i)).append('\n');
+        }
+
+        input.append("\n  \ninvalid-token\n");
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (LineReader reader = new StreamLineReader(new ByteArrayInputStream(
+                input.toString().getBytes(StandardCharsets.UTF_8)))) {
+            // A small batch size makes the command pipeline several batches
+            JwtBatchVerifier batchVerifier =
+                new JwtBatchVerifier(new JwtEngine(), pool);
+            VerifyCommand.Statistics stats = VerifyCommand.verify(reader, out,
+                pool, tokens -> batchVerifier.verify(tokens, SIGNATURE_ALGO, SECRET),
+                3);
+
+            assertEquals(stats.validCount, 10);
+            assertEquals(stats.invalidCount, 1);
+        } finally {
+            pool.shutdown();
+        }
+
+        String[] outputLines = out.toString("UTF-8").split("\n");
+        assertEquals(outputLines.length, 11);
+
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(outputLines[i], "{\"line\":" + (i + 1) +
+                ",\"valid\":true,\"claims\":{\"sub\":\"subject-" + i + "\"}}");
+        }
+
+        assertEquals(outputLines[10], "{\"line\":13,\"valid\":false," +
+            "\"error\":\"The token is in an invalid format.\"}");
+    }
+
+    @Test
+    void executeTest() throws Exception {
+        Path inputFile = tempDir.resolve("tokens.txt");
+        Path outputFile = tempDir.resolve("results.jsonl");
+        Path keyFile = tempDir.resolve("secret.txt");
+        Files.write(inputFile, Arrays.asList(
+            createToken("first"), createToken("second")));
+        Files.write(keyFile, Collections.singletonList(SECRET));
+
+        VerifyCommand command = new VerifyCommand();
+        List<String> args = Arrays.asList("--alg", "hs256", "--key-file",
+            keyFile.toString(), "--out", outputFile.toString(),
+            inputFile.toString());
+        assertEquals(command.execute(
+            new CommandOptions(args, command.getFlagNames())),
+            CommandRunner.EXIT_SUCCESS);
+        assertEquals(Files.readAllLines(outputFile).size(), 2);
+
+        // Without --alg, the algorithm comes from each token header
+        assertEquals(command.execute(new CommandOptions(Arrays.asList(
+            "--key", SECRET, "--out", outputFile.toString(),
+            inputFile.toString()), command.getFlagNames())),
+            CommandRunner.EXIT_SUCCESS);
+        assertEquals(Files.readAllLines(outputFile).size(), 2);
+
+        assertThrows(UsageException.class, () -> command.execute(
+            new CommandOptions(Arrays.asList("--alg", "XX256", "--key", SECRET),
+                command.getFlagNames())));
+        assertThrows(UsageException.class, () -> command.execute(
+            new CommandOptions(Arrays.asList("--alg", "HS256"),
+                command.getFlagNames())));
+        assertEquals(command.execute(new CommandOptions(Arrays.asList(
+            "--alg", "ES256", "--key", "not-a-key", inputFile.toString()),
+            command.getFlagNames())), CommandRunner.EXIT_FAILURE);
+    }
+}
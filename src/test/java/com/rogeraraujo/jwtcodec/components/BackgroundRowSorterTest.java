@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.components;
+
+import com.rogeraraujo.jwtcodec.components.ListTableModelTest.IntegerStringPair;
+import com.rogeraraujo.jwtcodec.components.ListTableModelTest.IntegerStringPairFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.event.RowSorterEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the BackgroundRowSorter class.
+ */
+@Slf4j
+class BackgroundRowSorterTest {
+    private static final int ROW_COUNT = 200_000;
+
+    private final Semaphore sortedEvents = new Semaphore(0);
+
+    private BackgroundRowSorter<IntegerStringPair> createSorter(
+            ListTableModel<IntegerStringPair> model) {
+        BackgroundRowSorter<IntegerStringPair> sorter =
+            new BackgroundRowSorter<>(model);
+        sorter.addRowSorterListener(event -> {
+            if (event.getType() == RowSorterEvent.Type.SORTED) {
+                sortedEvents.release();
+            }
+        });
+
+        return sorter;
+    }
+
+    /**
+     * Runs an action on the event dispatch thread and waits until the rows
+     * are sorted again.
+     */
+    private void runAndWaitForSort(Runnable action) throws Exception {
+        sortedEvents.drainPermits();
+        SwingUtilities.invokeAndWait(action);
+        assertTrue(sortedEvents.tryAcquire(30, TimeUnit.SECONDS));
+
+        // Waits for any other pending event
+        SwingUtilities.invokeAndWait(() -> { });
+    }
+
+    private static List<Integer> viewKeys(
+            BackgroundRowSorter<IntegerStringPair> sorter) {
+        List<Integer> result = new ArrayList<>();
+
+        for (int i = 0; i < sorter.getViewRowCount(); ++i) {
+            result.add(sorter.getModel().getRow(
+                sorter.convertRowIndexToModel(i)).getKey());
+        }
+
+        return result;
+    }
+
+    @Test
+    void sortTest() throws Exception {
+        List<IntegerStringPair> rows = new ArrayList<>();
+
+        for (int i = 0; i < ROW_COUNT; ++i) {
+            // Values repeat, so ties are broken by the second sort key
+            rows.add(new IntegerStringPair(i, "v" + (i % 1000)));
+        }
+
+        Collections.shuffle(rows);
+        ListTableModel<IntegerStringPair> model = new ListTableModel<>(
+            rows, new IntegerStringPairFormat());
+        BackgroundRowSorter<IntegerStringPair> sorter = createSorter(model);
+
+        runAndWaitForSort(() -> sorter.toggleSortOrder(0));
+
+        for (int i = 0; i < ROW_COUNT; i += 997) {
+            assertEquals(model.getRow(sorter.convertRowIndexToModel(i)).getKey(), i);
+            assertEquals(sorter.convertRowIndexToView(
+                sorter.convertRowIndexToModel(i)), i);
+        }
+
+        // Descending by value, then ascending by key
+        runAndWaitForSort(() -> sorter.setSortKeys(Arrays.asList(
+            new RowSorter.SortKey(1, SortOrder.DESCENDING),
+            new RowSorter.SortKey(0, SortOrder.ASCENDING))));
+
+        List<Integer> keys = viewKeys(sorter);
+        assertEquals(keys.get(0), 999);
+        assertEquals(keys.get(1), 1999);
+        assertEquals(keys.get(ROW_COUNT - 1), 199_000);
+
+        runAndWaitForSort(() -> sorter.setSortKeys(null));
+        assertEquals(sorter.convertRowIndexToModel(5), 5);
+    }
+
+    @Test
+    void filterTest() throws Exception {
+        List<IntegerStringPair> rows = new ArrayList<>();
+
+        for (int i = 0; i < 1000; ++i) {
+            rows.add(new IntegerStringPair(i, "Value-" + i));
+        }
+
+        ListTableModel<IntegerStringPair> model = new ListTableModel<>(
+            rows, new IntegerStringPairFormat());
+        BackgroundRowSorter<IntegerStringPair> sorter = createSorter(model);
+
+        runAndWaitForSort(() -> sorter.setFilterText("value-1"));
+        assertEquals(sorter.getViewRowCount(), 1 + 10 + 100);
+
+        // Narrowing only tests the rows already shown
+        List<Integer> tested = Collections.synchronizedList(new ArrayList<>());
+        runAndWaitForSort(() -> sorter.narrowRowFilter(row -> {
+            tested.add(row.getKey());
+            return row.getValue().startsWith("Value-12");
+        }));
+        assertEquals(tested.size(), 111);
+        assertEquals(viewKeys(sorter).subList(0, 3),
+            Arrays.asList(12, 120, 121));
+
+        runAndWaitForSort(() -> sorter.setFilterText("VALUE-99"));
+        assertEquals(viewKeys(sorter), Arrays.asList(99, 990, 991,
+            992, 993, 994, 995, 996, 997, 998, 999));
+
+        // Deleted rows leave the view at once, before the new sort
+        SwingUtilities.invokeAndWait(() -> {
+            model.removeRows(new int[] { 990, 991 }, false);
+            sorter.rowsDeleted(990, 991);
+            assertEquals(sorter.getViewRowCount(), 9);
+            assertEquals(model.getRow(sorter.convertRowIndexToModel(1)).getKey(),
+                992);
+        });
+
+        runAndWaitForSort(() -> sorter.setFilterText(null));
+        assertEquals(sorter.getViewRowCount(), 998);
+    }
+
+    @Test
+    void pendingFilterTest() throws Exception {
+        List<IntegerStringPair> rows = new ArrayList<>();
+
+        for (int i = 0; i < 1000; ++i) {
+            rows.add(new IntegerStringPair(i, "Value-" + i));
+        }
+
+        ListTableModel<IntegerStringPair> model = new ListTableModel<>(
+            rows, new IntegerStringPairFormat());
+        BackgroundRowSorter<IntegerStringPair> sorter = createSorter(model);
+
+        runAndWaitForSort(() -> sorter.setFilterText("value-12"));
+        assertEquals(sorter.getViewRowCount(), 11);
+
+        // The filter is broadened, then narrowed again before the broader
+        // one is applied; the rows shown were filtered by "value-12", which
+        // "value-13" does not contain
+        runAndWaitForSort(() -> {
+            sorter.setFilterText("value-1");
+            sorter.setFilterText("value-13");
+        });
+        assertEquals(viewKeys(sorter), Arrays.asList(13, 130, 131,
+            132, 133, 134, 135, 136, 137, 138, 139));
+
+        // Same with a row filter narrowed while a broader one is pending
+        runAndWaitForSort(() -> {
+            sorter.setRowFilter(row -> row.getKey() < 500);
+            sorter.narrowRowFilter(row -> row.getKey() < 100);
+        });
+        assertEquals(sorter.getViewRowCount(), 100);
+    }
+}
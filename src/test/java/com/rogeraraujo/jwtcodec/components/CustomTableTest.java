@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.components;
+
+import com.rogeraraujo.jwtcodec.components.ListTableModelTest.IntegerStringPair;
+import com.rogeraraujo.jwtcodec.components.ListTableModelTest.IntegerStringPairFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.table.TableCellRenderer;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the CustomTable class and of
+ * the style caching of the CustomTableCellRenderer class.
+ */
+@Slf4j
+class CustomTableTest {
+    private static CustomTable createTable(int rowCount) {
+        List<IntegerStringPair> rows = new ArrayList<>();
+
+        for (int i = 0; i < rowCount; ++i) {
+            rows.add(new IntegerStringPair(i, "value-" + i));
+        }
+
+        CustomTable table = new CustomTable(new ListTableModel<>(
+            rows, new IntegerStringPairFormat()));
+        table.setCustomCellRenderer(new CustomTableCellRenderer(null,
+            new CustomTableCellRenderer.AlternateRowColorTransformer(Color.YELLOW)));
+
+        return table;
+    }
+
+    private static String describeCell(CustomTable table, int row, int column) {
+        Component component = table.prepareRenderer(
+            table.getCellRenderer(row, column), row, column);
+
+        return ((JLabel) component).getText() + "|" +
+            component.getForeground() + "|" + component.getBackground();
+    }
+
+    @Test
+    void highVolumeRenderingTest() {
+        CustomTable table = createTable(10);
+        table.getSelectionModel().setSelectionInterval(3, 4);
+
+        List<String> expected = new ArrayList<>();
+
+        for (int row = 0; row < 10; ++row) {
+            expected.add(describeCell(table, row, 1));
+        }
+
+        table.setHighVolumeRendering(true);
+
+        // Odd and even rows of a column have their own renderers, and the
+        // Integer column keeps its default renderer
+        TableCellRenderer evenRenderer = table.getCellRenderer(0, 1);
+        assertSame(table.getCellRenderer(2, 1), evenRenderer);
+        assertNotSame(table.getCellRenderer(1, 1), evenRenderer);
+        assertSame(table.getCellRenderer(0, 0), table.getCustomCellRenderer());
+
+        // Twice, so the second pass reuses the cached styles
+        for (int pass = 0; pass < 2; ++pass) {
+            for (int row = 0; row < 10; ++row) {
+                assertEquals(describeCell(table, row, 1), expected.get(row));
+            }
+        }
+
+        // Changing the table colors is detected
+        table.setSelectionBackground(Color.MAGENTA);
+        assertTrue(describeCell(table, 3, 1).endsWith(Color.MAGENTA.toString()));
+    }
+
+    @Test
+    void autoFitColumnsTest() {
+        CustomTable table = createTable(20000);
+        table.getColumnModel().getColumn(1).setPreferredWidth(1);
+        table.autoFitColumns(CustomTable.DEFAULT_AUTO_FIT_SAMPLE_SIZE);
+
+        // The last row, which is always measured, has the longest value
+        assertTrue(table.getColumnModel().getColumn(1).getPreferredWidth() >=
+            table.getFontMetrics(table.getFont()).stringWidth("value-19999"));
+
+        assertArrayEquals(CustomTable.sampleRows(3, 10), new int[] { 0, 1, 2 });
+        assertArrayEquals(CustomTable.sampleRows(101, 5),
+            new int[] { 0, 25, 50, 75, 100 });
+        assertEquals(CustomTable.sampleRows(0, 5).length, 0);
+    }
+}
@@ -19,10 +19,14 @@ package com.rogeraraujo.jwtcodec.components;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 
+import javax.swing.event.TableModelEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Test class to exercise the functionality of the ListTableModel class.
@@ -139,4 +143,85 @@ class ListTableModelTest {
         assertEquals(tableModel.getValueAt(1, 1), "b");
         assertThrows(RuntimeException.class, () -> tableModel.getValueAt(1, 2));
     }
+
+    private static List<IntegerStringPair> createRows(int start, int end) {
+        return IntStream.range(start, end)
+            .mapToObj(i -> new IntegerStringPair(i, "v" + i))
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void bulkMutationTest() {
+        ListTableModel<IntegerStringPair> tableModel = createTableModel();
+        List<TableModelEvent> events = new ArrayList<>();
+        tableModel.addTableModelListener(events::add);
+
+        tableModel.addRows(createRows(0, 10), true);
+        assertEquals(tableModel.getRowCount(), 10);
+        assertEquals(events.size(), 1);
+        assertEquals(events.get(0).getType(), TableModelEvent.INSERT);
+        assertEquals(events.get(0).getFirstRow(), 0);
+        assertEquals(events.get(0).getLastRow(), 9);
+
+        // Contiguous rows are removed with a single deletion event
+        events.clear();
+        List<IntegerStringPair> removed = tableModel.removeRows(
+            new int[] { 4, 2, 3, 3 }, true);
+        assertEquals(removed.stream().map(IntegerStringPair::getKey)
+            .collect(Collectors.toList()), Arrays.asList(2, 3, 4));
+        assertEquals(events.size(), 1);
+        assertEquals(events.get(0).getType(), TableModelEvent.DELETE);
+        assertEquals(events.get(0).getFirstRow(), 2);
+        assertEquals(events.get(0).getLastRow(), 4);
+
+        // Scattered rows are removed with a single data change event
+        events.clear();
+        tableModel.removeRows(new int[] { 6, 0 }, true);
+        assertEquals(events.size(), 1);
+        assertEquals(events.get(0).getType(), TableModelEvent.UPDATE);
+        assertEquals(tableModel.getItems().stream().map(IntegerStringPair::getKey)
+            .collect(Collectors.toList()), Arrays.asList(1, 5, 6, 7, 8));
+
+        assertThrows(IndexOutOfBoundsException.class,
+            () -> tableModel.removeRows(new int[] { 1, 5 }, true));
+        assertEquals(tableModel.getRowCount(), 5);
+
+        events.clear();
+        tableModel.replaceAll(createRows(100, 103), true);
+        assertEquals(events.size(), 1);
+        assertEquals(tableModel.getValueAt(2, 0), 102);
+    }
+
+    @Test
+    public void keyIndexTest() {
+        ListTableModel<IntegerStringPair> tableModel = new ListTableModel<>(
+            createRows(0, 3), new IntegerStringPairFormat(),
+            IntegerStringPair::getKey);
+
+        assertTrue(tableModel.contains(new IntegerStringPair(2, "other")));
+        assertFalse(tableModel.contains(new IntegerStringPair(3, "v3")));
+        assertEquals(tableModel.getRowByKey(1).getValue(), "v1");
+
+        tableModel.addRows(createRows(3, 20000), false);
+        assertEquals(tableModel.getRowByKey(19999).getValue(), "v19999");
+
+        tableModel.removeRows(new int[] { 0, 19999 }, false);
+        assertNull(tableModel.getRowByKey(0));
+        assertNull(tableModel.getRowByKey(19999));
+
+        tableModel.setRow(0, new IntegerStringPair(-1, "renamed"), false);
+        assertNull(tableModel.getRowByKey(1));
+        assertEquals(tableModel.getRowByKey(-1).getValue(), "renamed");
+
+        tableModel.removeRow(tableModel.getRowByKey(-1), false);
+        assertFalse(tableModel.contains(new IntegerStringPair(-1, null)));
+
+        tableModel.getItems().add(new IntegerStringPair(50000, "direct"));
+        assertNull(tableModel.getRowByKey(50000));
+        tableModel.rebuildIndex();
+        assertNotNull(tableModel.getRowByKey(50000));
+
+        assertThrows(IllegalStateException.class,
+            () -> createTableModel().getRowByKey(1));
+    }
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.rogeraraujo.jwtcodec.components;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the LruCache class.
+ */
+@Slf4j
+class LruCacheTest {
+    @Test
+    public void evictionTest() {
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(0));
+
+        LruCache<Integer, String> cache = new LruCache<>(2);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        assertEquals(cache.get(1), "a");
+
+        // Key 2 is now the least recently used entry
+        cache.put(3, "c");
+        assertEquals(cache.size(), 2);
+        assertNull(cache.get(2));
+        assertEquals(cache.get(1), "a");
+        assertEquals(cache.get(3), "c");
+    }
+
+    @Test
+    public void hitAndMissCountTest() {
+        LruCache<Integer, String> cache = new LruCache<>(10);
+        assertEquals(cache.computeIfAbsent(1, key -> "a"), "a");
+        assertEquals(cache.computeIfAbsent(1, key -> "b"), "a");
+        assertNull(cache.get(2));
+
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 2);
+
+        assertThrows(IllegalStateException.class,
+            () -> cache.computeIfAbsent(3, key -> null));
+        assertThrows(IllegalArgumentException.class, () -> cache.put(3, null));
+    }
+}
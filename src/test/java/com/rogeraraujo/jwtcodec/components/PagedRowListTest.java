@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.components;
+
+import com.rogeraraujo.jwtcodec.components.ListTableModelTest.IntegerStringPair;
+import com.rogeraraujo.jwtcodec.components.ListTableModelTest.IntegerStringPairFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the PagedRowList and
+ * LineFileRowSource classes.
+ */
+@Slf4j
+class PagedRowListTest {
+    private static final int ROW_COUNT = 100_000;
+
+    private static Path writeRows(Path directory, String lastLineBreak)
+            throws IOException {
+        Path file = directory.resolve("rows.txt");
+
+        try (BufferedWriter writer = Files.newBufferedWriter(
+                file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < ROW_COUNT; ++i) {
+                // Rows of different lengths, some with Windows line breaks
+                writer.write(i + "\t" + ((i % 7 == 0) ? "ç" : "value-" + i));
+                writer.write((i == ROW_COUNT - 1) ? lastLineBreak :
+                    ((i % 3 == 0) ? "\r\n" : "\n"));
+            }
+        }
+
+        return file;
+    }
+
+    private static IntegerStringPair parseRow(String line) {
+        int tab = line.indexOf('\t');
+
+        return new IntegerStringPair(
+            Integer.parseInt(line.substring(0, tab)), line.substring(tab + 1));
+    }
+
+    @Test
+    void pagingTest(@TempDir Path directory) throws IOException {
+        try (LineFileRowSource<IntegerStringPair> source = new LineFileRowSource<>(
+                writeRows(directory, "\n"), PagedRowListTest::parseRow)) {
+            PagedRowList<IntegerStringPair> rows = new PagedRowList<>(source, 100, 8);
+            ListTableModel<IntegerStringPair> tableModel = new ListTableModel<>(
+                rows, new IntegerStringPairFormat());
+
+            assertEquals(tableModel.getRowCount(), ROW_COUNT);
+            assertEquals(tableModel.getValueAt(0, 1), "ç");
+            assertEquals(tableModel.getValueAt(ROW_COUNT - 1, 0), ROW_COUNT - 1);
+            assertEquals(tableModel.getValueAt(5, 1), "value-5");
+
+            Random random = new Random(1);
+
+            for (int i = 0; i < 2000; ++i) {
+                int index = random.nextInt(ROW_COUNT);
+                IntegerStringPair row = rows.get(index);
+
+                assertEquals(row.getKey(), index);
+                assertEquals(row.getValue(),
+                    (index % 7 == 0) ? "ç" : "value-" + index);
+            }
+
+            // Only a few pages are kept in memory
+            assertTrue(rows.getCachedPageCount() <= 8);
+
+            // Scrolling through a page reads it only once
+            rows.clearCache();
+            long misses = rows.getCacheMisses();
+
+            for (int i = 1000; i < 1100; ++i) {
+                assertEquals(tableModel.getValueAt(i, 0), i);
+            }
+
+            assertEquals(rows.getCacheMisses() - misses, 1);
+            assertThrows(IndexOutOfBoundsException.class, () -> rows.get(ROW_COUNT));
+            assertThrows(UnsupportedOperationException.class,
+                () -> rows.add(new IntegerStringPair(0, "")));
+        }
+    }
+
+    @Test
+    void lastLineTest(@TempDir Path directory) throws IOException {
+        try (LineFileRowSource<IntegerStringPair> source = new LineFileRowSource<>(
+                writeRows(directory, ""), PagedRowListTest::parseRow)) {
+            assertEquals(source.getRowCount(), ROW_COUNT);
+            assertEquals(source.readRows(ROW_COUNT - 2, 2).get(1).getValue(),
+                "value-" + (ROW_COUNT - 1));
+        }
+
+        Path emptyFile = Files.write(directory.resolve("empty.txt"), new byte[0]);
+
+        try (LineFileRowSource<String> source = new LineFileRowSource<>(
+                emptyFile, line -> line)) {
+            assertEquals(new PagedRowList<>(source).size(), 0);
+        }
+    }
+}
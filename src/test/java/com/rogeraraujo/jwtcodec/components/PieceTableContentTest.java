@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.components;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.text.BadLocationException;
+import javax.swing.text.PlainDocument;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.undo.UndoManager;
+import javax.swing.undo.UndoableEdit;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the PieceTableContent class.
+ */
+@Slf4j
+class PieceTableContentTest {
+    @Test
+    public void editTest() throws BadLocationException {
+        PieceTableContent content = new PieceTableContent(16);
+        assertEquals(1, content.length());
+        assertEquals("\n", content.getString(0, 1));
+
+        content.insertString(0, "world");
+        content.insertString(0, "hello ");
+        content.insertString(content.length() - 1, "!");
+        assertEquals("hello world!\n",
+            content.getString(0, content.length()));
+
+        content.remove(5, 6);
+        assertEquals("hello!\n", content.getString(0, content.length()));
+        assertEquals("llo", content.getString(2, 3));
+
+        assertThrows(BadLocationException.class,
+            () -> content.insertString(content.length(), "x"));
+        assertThrows(BadLocationException.class,
+            () -> content.remove(0, content.length()));
+
+        // Compare against a StringBuilder over random edits
+        Random random = new Random(42L);
+        StringBuilder expected = new StringBuilder("hello!");
+
+        for (int i = 0; i < 2000; ++i) {
+            int where = random.nextInt(expected.length() + 1);
+
+            if (random.nextBoolean() || (expected.length() == 0)) {
+                String str = Integer.toString(i, 36);
+                content.insertString(where, str);
+                expected.insert(where, str);
+            }
+            else {
+                int len = random.nextInt(Math.min(5, expected.length() - where) + 1);
+                content.remove(where, len);
+                expected.delete(where, where + len);
+            }
+        }
+
+        assertEquals(expected + "\n", content.getString(0, content.length()));
+    }
+
+    @Test
+    public void typingTest() throws BadLocationException {
+        PieceTableContent content = new PieceTableContent();
+
+        for (int i = 0; i < 1000; ++i) {
+            content.insertString(i, "x");
+        }
+
+        // Consecutive inserts extend a single piece
+        assertEquals(2, content.getPieceCount());
+
+        Segment segment = new Segment();
+        content.getChars(0, 1000, segment);
+        assertEquals(1000, segment.count);
+        assertEquals('x', segment.array[segment.offset + 999]);
+    }
+
+    @Test
+    public void positionAndUndoTest() throws BadLocationException {
+        PieceTableContent content = new PieceTableContent();
+        content.insertString(0, "abcdef");
+
+        Position start = content.createPosition(0);
+        Position middle = content.createPosition(3);
+        Position end = content.createPosition(6);
+
+        content.insertString(0, "xy");
+        assertEquals(0, start.getOffset());
+        assertEquals(5, middle.getOffset());
+        assertEquals(8, end.getOffset());
+
+        UndoableEdit edit = content.remove(3, 4);
+        assertEquals("xyaf\n", content.getString(0, content.length()));
+        assertEquals(3, middle.getOffset());
+        assertEquals(4, end.getOffset());
+
+        edit.undo();
+        assertEquals("xyabcdef\n", content.getString(0, content.length()));
+        assertEquals(5, middle.getOffset());
+        assertEquals(8, end.getOffset());
+
+        edit.redo();
+        assertEquals("xyaf\n", content.getString(0, content.length()));
+
+        // Undo through a document, as a text component would
+        PlainDocument doc = new PlainDocument(new PieceTableContent());
+        UndoManager undoManager = new UndoManager();
+        doc.addUndoableEditListener(undoManager);
+        doc.insertString(0, "first\nsecond", null);
+        doc.remove(0, 6);
+        assertEquals(1, doc.getDefaultRootElement().getElementCount());
+
+        undoManager.undo();
+        assertEquals("first\nsecond", doc.getText(0, doc.getLength()));
+        assertEquals(2, doc.getDefaultRootElement().getElementCount());
+        assertEquals(6, doc.getDefaultRootElement().getElement(1)
+            .getStartOffset());
+
+        undoManager.undo();
+        assertEquals(0, doc.getLength());
+    }
+
+    @Test
+    public void bufferReuseTest() throws BadLocationException {
+        PieceTableContent content = new PieceTableContent();
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 100_000; ++i) {
+            sb.append((char) ('a' + (i % 26)));
+        }
+
+        String text = sb.toString();
+
+        // Replacing the whole text starts the buffer afresh
+        for (int i = 0; i < 200; ++i) {
+            if (content.length() > 1) {
+                content.remove(0, content.length() - 1);
+            }
+
+            content.insertString(0, text);
+        }
+
+        assertEquals(text.length() + 1, content.getBufferLength());
+        assertEquals(text + "\n", content.getString(0, content.length()));
+
+        // Repeated partial replacements get the buffer compacted
+        for (int i = 0; i < 200; ++i) {
+            content.remove(10, 50_000);
+            content.insertString(10, text.substring(10, 50_010));
+        }
+
+        assertTrue(content.getBufferLength() <= 2 * content.length(),
+            "Buffer length: " + content.getBufferLength());
+        assertEquals(text + "\n", content.getString(0, content.length()));
+
+        // Undo records keep working after the buffer is replaced
+        UndoableEdit removal = content.remove(0, content.length() - 1);
+        assertEquals(1, content.getBufferLength());
+        content.insertString(0, "new");
+        UndoableEdit insertion = content.insertString(3, "er");
+        insertion.undo();
+        content.remove(0, 3);
+        removal.undo();
+        assertEquals(text + "\n", content.getString(0, content.length()));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.components;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import javax.swing.plaf.metal.MetalLookAndFeel;
+import javax.swing.plaf.nimbus.NimbusLookAndFeel;
+import javax.swing.plaf.synth.SynthTextAreaUI;
+import javax.swing.text.BadLocationException;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the TokenTextArea class.
+ */
+@Slf4j
+class TokenTextAreaTest {
+    // The float-based modelToView2D and viewToModel2D need Java 9; we target 8
+    @SuppressWarnings("deprecation")
+    @Test
+    public void largeTokenTest() throws BadLocationException {
+        StringBuilder token = new StringBuilder(1 << 20);
+
+        while (token.length() < (1 << 20)) {
+            token.append("eyJhbGciOiJIUzI1NiJ9.");
+        }
+
+        TokenTextArea textArea = new TokenTextArea();
+        textArea.setText(token.toString());
+        textArea.setSize(400, 300);
+
+        // Nothing is truncated
+        assertEquals(token.length(), textArea.getDocument().getLength());
+        assertEquals(token.toString(), textArea.getText());
+
+        Rectangle first = textArea.modelToView(0);
+        Rectangle last = textArea.modelToView(token.length());
+        assertTrue(last.y > first.y);
+
+        // Offsets map back to themselves across wrapped rows
+        for (int pos = 1; pos < token.length(); pos += 9973) {
+            Rectangle rect = textArea.modelToView(pos);
+            assertEquals(pos, textArea.viewToModel(
+                new Point(rect.x, rect.y + rect.height / 2)));
+        }
+
+        // Painting a region far down the token only touches a few rows
+        BufferedImage image = new BufferedImage(400, 300,
+            BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.translate(0, -last.y);
+        graphics.setClip(0, last.y - 200, 400, 300);
+        textArea.paint(graphics);
+        graphics.dispose();
+    }
+
+    @Test
+    public void lookAndFeelTest() throws Exception {
+        LookAndFeel originalLaf = UIManager.getLookAndFeel();
+
+        try {
+            UIManager.setLookAndFeel(new NimbusLookAndFeel());
+            TokenTextArea textArea = new TokenTextArea();
+            textArea.setText("eyJhbGciOiJIUzI1NiJ9.e30.c2ln");
+
+            assertTrue(textArea.getUI() instanceof SynthTextAreaUI);
+            assertTrue(textArea.getUI().getRootView(textArea).getView(0)
+                instanceof SegmentWrapView);
+
+            UIManager.setLookAndFeel(new MetalLookAndFeel());
+            SwingUtilities.updateComponentTreeUI(textArea);
+
+            assertTrue(textArea.getUI() instanceof TokenTextArea.TokenTextAreaUI);
+            assertTrue(textArea.getUI().getRootView(textArea).getView(0)
+                instanceof SegmentWrapView);
+        } finally {
+            UIManager.setLookAndFeel(originalLaf);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.gui;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the BackgroundTaskRunner class.
+ */
+@Slf4j
+class BackgroundTaskRunnerTest {
+    @Test
+    void runTest() throws Exception {
+        JLabel lblStatus = new JLabel();
+        JProgressBar progressBar = new JProgressBar(0, 100);
+        JButton btnCancel = new JButton();
+        JButton btnTrigger = new JButton();
+
+        BackgroundTaskRunner runner = onEdt(() ->
+            new BackgroundTaskRunner(lblStatus, progressBar, btnCancel));
+        assertFalse(progressBar.isVisible());
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch delivered = new CountDownLatch(1);
+        List<String> results = new CopyOnWriteArrayList<>();
+
+        assertTrue(onEdt(() -> runner.run("Working", btnTrigger, progress -> {
+                progress.setPercent(50);
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+                return "done";
+            }, result -> {
+                results.add(result);
+                delivered.countDown();
+            }, null)));
+
+        onEdt(() -> {
+            // A second task is refused while the first one runs
+            assertTrue(runner.isBusy());
+            assertFalse(btnTrigger.isEnabled());
+            assertTrue(progressBar.isVisible());
+            assertEquals("Working", lblStatus.getText());
+            assertFalse(runner.run("Other", null, progress -> "x", null, null));
+            return null;
+        });
+
+        release.countDown();
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+
+        onEdt(() -> {
+            assertEquals("done", results.get(0));
+            assertFalse(runner.isBusy());
+            assertTrue(btnTrigger.isEnabled());
+            assertFalse(progressBar.isVisible());
+            return null;
+        });
+    }
+
+    @Test
+    void cancelAndErrorTest() throws Exception {
+        BackgroundTaskRunner runner = onEdt(() -> new BackgroundTaskRunner(
+            new JLabel(), new JProgressBar(), new JButton()));
+
+        CountDownLatch started = new CountDownLatch(1);
+        List<Object> outcomes = new CopyOnWriteArrayList<>();
+
+        onEdt(() -> runner.run("Slow", null, progress -> {
+                started.countDown();
+                Thread.sleep(10_000L);
+                return "late";
+            }, outcomes::add, outcomes::add));
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        onEdt(() -> {
+            runner.cancel();
+            return null;
+        });
+
+        // Cancelled tasks deliver nothing; failures reach the error consumer
+        CountDownLatch failed = new CountDownLatch(1);
+
+        while (onEdt(runner::isBusy)) {
+            Thread.sleep(10L);
+        }
+
+        onEdt(() -> runner.run("Failing", null, progress -> {
+                throw new IllegalStateException("boom");
+            }, outcomes::add, ex -> {
+                outcomes.add(ex);
+                failed.countDown();
+            }));
+
+        assertTrue(failed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, outcomes.size());
+        assertTrue(outcomes.get(0) instanceof IllegalStateException);
+    }
+
+    private static <T> T onEdt(Callable<T> callable)
+            throws Exception {
+        FutureTask<T> task = new FutureTask<>(callable);
+        SwingUtilities.invokeAndWait(task);
+        return task.get();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.gui;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the DebouncedTaskRunner class.
+ */
+@Slf4j
+class DebouncedTaskRunnerTest {
+    @Test
+    void debounceTest() throws Exception {
+        AtomicInteger input = new AtomicInteger();
+        AtomicInteger taskCount = new AtomicInteger();
+        List<Integer> results = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        DebouncedTaskRunner<Integer> runner = createOnEdt(() ->
+            new DebouncedTaskRunner<>(100, () -> {
+                int value = input.get();
+                taskCount.incrementAndGet();
+                return () -> value * 2;
+            }, result -> {
+                results.add(result);
+                latch.countDown();
+            }, null));
+
+        // A burst of changes starts a single task with the latest input
+        for (int i = 1; i <= 5; ++i) {
+            input.set(i);
+            SwingUtilities.invokeAndWait(runner::trigger);
+        }
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        assertEquals(1, taskCount.get());
+        assertEquals(1, results.size());
+        assertEquals(10, results.get(0).intValue());
+    }
+
+    @Test
+    void staleTaskTest() throws Exception {
+        CountDownLatch slowTaskStarted = new CountDownLatch(1);
+        CountDownLatch slowTaskFinished = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger taskCount = new AtomicInteger();
+        List<String> results = new CopyOnWriteArrayList<>();
+        List<Exception> errors = new CopyOnWriteArrayList<>();
+
+        DebouncedTaskRunner<String> runner = createOnEdt(() ->
+            new DebouncedTaskRunner<>(0, () -> {
+                if (taskCount.incrementAndGet() == 1) {
+                    return () -> {
+                        slowTaskStarted.countDown();
+
+                        try {
+                            Thread.sleep(10_000L);
+                        } finally {
+                            slowTaskFinished.countDown();
+                        }
+
+                        return "stale";
+                    };
+                }
+
+                return () -> "fresh";
+            }, result -> {
+                results.add(result);
+                latch.countDown();
+            }, errors::add));
+
+        SwingUtilities.invokeAndWait(runner::runNow);
+        assertTrue(slowTaskStarted.await(5, TimeUnit.SECONDS));
+
+        // The newer task interrupts the slow one, whose outcome is discarded
+        SwingUtilities.invokeAndWait(runner::runNow);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(slowTaskFinished.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+
+        assertEquals(1, results.size());
+        assertEquals("fresh", results.get(0));
+        assertTrue(errors.isEmpty());
+    }
+
+    private static <T> T createOnEdt(Callable<T> callable) throws Exception {
+        FutureTask<T> task = new FutureTask<>(callable);
+        SwingUtilities.invokeAndWait(task);
+        return task.get();
+    }
+}
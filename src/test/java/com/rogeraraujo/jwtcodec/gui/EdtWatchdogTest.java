@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.gui;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the EdtWatchdog and
+ * LatencyHistogram classes.
+ */
+@Slf4j
+class EdtWatchdogTest {
+    @Test
+    void histogramTest() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        assertEquals(0.0, histogram.getPercentileMillis(50.0));
+
+        for (int i = 0; i < 99; ++i) {
+            histogram.record(1_000_000L);  // 1 ms
+        }
+
+        histogram.record(300_000_000L);  // 300 ms
+
+        assertEquals(100L, histogram.getCount());
+        assertEquals(300.0, histogram.getMaxMillis(), 0.001);
+        assertEquals(3.99, histogram.getMeanMillis(), 0.001);
+
+        // Percentiles are accurate within a factor of two
+        double p50 = histogram.getPercentileMillis(50.0);
+        assertTrue((p50 >= 1.0) && (p50 <= 2.0), "p50 = " + p50);
+        assertEquals(300.0, histogram.getPercentileMillis(100.0), 0.001);
+
+        histogram.clear();
+        assertEquals(0L, histogram.getCount());
+    }
+
+    @Test
+    void describeAndFindHandlerTest() {
+        JButton button = new JButton("Encode Token");
+        assertEquals("Action: Encode Token", EdtWatchdog.describe(
+            new ActionEvent(button, ActionEvent.ACTION_PERFORMED, "")));
+
+        button.setName("encode");
+        assertEquals("Action: encode", EdtWatchdog.describe(
+            new ActionEvent(button, ActionEvent.ACTION_PERFORMED, "")));
+
+        StackTraceElement[] stack = {
+            new StackTraceElement("java.lang.Thread", "sleep", null, -1),
+            new StackTraceElement("com.rogeraraujo.jwtcodec.jwt.JwtEngine",
+                "getSigner", null, 1),
+            new StackTraceElement("com.rogeraraujo.jwtcodec.gui.MainWindow",
+                "processBtnEncodeToken", null, 2),
+            new StackTraceElement("com.rogeraraujo.jwtcodec.gui.MainWindow",
+                "lambda$createEncodedTokenPanel$12", null, 3),
+            new StackTraceElement(
+                "com.rogeraraujo.jwtcodec.gui.EdtWatchdog$TimingEventQueue",
+                "dispatchEvent", null, 4),
+            new StackTraceElement("java.awt.EventDispatchThread", "run",
+                null, -1) };
+
+        assertEquals("MainWindow.processBtnEncodeToken",
+            EdtWatchdog.findHandler(stack));
+        assertNull(EdtWatchdog.findHandler(new StackTraceElement[] {
+            new StackTraceElement("java.lang.Thread", "run", null, -1) }));
+    }
+
+    @Test
+    void stallTest() throws Exception {
+        EdtWatchdog watchdog = EdtWatchdog.install(50L);
+        long stallCount = watchdog.getStallCount();
+
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                Thread.sleep(300L);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        SwingUtilities.invokeAndWait(() -> { });
+        assertTrue(watchdog.getStallCount() > stallCount);
+
+        List<LatencyHistogram> histograms = watchdog.getHandlerHistograms();
+        assertTrue(histograms.stream().anyMatch(histogram ->
+            histogram.getName().equals("Invocation") &&
+            (histogram.getMaxMillis() >= 300.0)));
+    }
+
+    @Test
+    void secondaryLoopTest() throws Exception {
+        EdtWatchdog watchdog = EdtWatchdog.install(50L);
+        SwingUtilities.invokeAndWait(() -> { });
+        long stallCount = watchdog.getStallCount();
+        watchdog.clearHistograms();
+
+        // Waiting for events in a secondary loop, as a modal dialog does,
+        // is neither a stall nor part of the dispatch time of the handler
+        SwingUtilities.invokeAndWait(() -> {
+            SecondaryLoop loop = Toolkit.getDefaultToolkit()
+                .getSystemEventQueue().createSecondaryLoop();
+            Thread exitThread = new Thread(() -> {
+                try {
+                    Thread.sleep(300L);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+
+                loop.exit();
+            });
+
+            exitThread.start();
+            assertTrue(loop.enter());
+        });
+
+        SwingUtilities.invokeAndWait(() -> { });
+        assertEquals(stallCount, watchdog.getStallCount());
+
+        List<LatencyHistogram> histograms = watchdog.getHandlerHistograms();
+        assertTrue(histograms.stream().noneMatch(histogram ->
+            histogram.getMaxMillis() >= 300.0));
+    }
+}
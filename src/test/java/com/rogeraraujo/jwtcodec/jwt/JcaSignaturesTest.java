@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the ECDSA signature conversions of the
+ * JcaSignatures class.
+ */
+@Slf4j
+class JcaSignaturesTest {
+    private static byte[] createDerSignature(BigInteger r, BigInteger s) {
+        byte[] rBytes = r.toByteArray();
+        byte[] sBytes = s.toByteArray();
+        int sequenceLength = 4 + rBytes.length + sBytes.length;
+        int headerLength = (sequenceLength > 127) ? 3 : 2;
+        byte[] result = new byte[headerLength + sequenceLength];
+
+        result[0] = 0x30;
+
+        if (sequenceLength > 127) {
+            result[1] = (byte) 0x81;
+        }
+
+        result[headerLength - 1] = (byte) sequenceLength;
+        result[headerLength] = 0x02;
+        result[headerLength + 1] = (byte) rBytes.length;
+        System.arraycopy(rBytes, 0, result, headerLength + 2, rBytes.length);
+        result[headerLength + 2 + rBytes.length] = 0x02;
+        result[headerLength + 3 + rBytes.length] = (byte) sBytes.length;
+        System.arraycopy(sBytes, 0, result,
+            headerLength + 4 + rBytes.length, sBytes.length);
+
+        return result;
+    }
+
+    @Test
+    void ecdsaConversionTest() {
+        Random random = new Random(42);
+        JwtSignatureAlgorithm[] signatureAlgos = {
+            JwtSignatureAlgorithm.ECDSA_SHA_256,
+            JwtSignatureAlgorithm.ECDSA_SHA_384,
+            JwtSignatureAlgorithm.ECDSA_SHA_512 };
+
+        for (JwtSignatureAlgorithm signatureAlgo : signatureAlgos) {
+            int partLength = JcaSignatures.getEcdsaPartLength(signatureAlgo);
+            int maxBits = (signatureAlgo == JwtSignatureAlgorithm.ECDSA_SHA_512) ?
+                521 : partLength * 8;
+
+            // Includes values that are several bytes shorter than the curve
+            // size, which are rare in real signatures but must be padded
+            for (int bits = maxBits; bits > maxBits - 40; --bits) {
+                BigInteger r = new BigInteger(bits, random).setBit(bits - 1);
+                BigInteger s = new BigInteger(maxBits, random);
+                byte[] derSignature = createDerSignature(r, s);
+
+                byte[] concatenatedSignature =
+                    JcaSignatures.derToConcatenated(derSignature, signatureAlgo);
+                assertEquals(concatenatedSignature.length, 2 * partLength);
+                assertEquals(new BigInteger(1, Arrays.copyOfRange(
+                    concatenatedSignature, 0, partLength)), r);
+                assertEquals(new BigInteger(1, Arrays.copyOfRange(
+                    concatenatedSignature, partLength, 2 * partLength)), s);
+
+                assertArrayEquals(
+                    JcaSignatures.concatenatedToDer(concatenatedSignature),
+                    derSignature);
+            }
+        }
+
+        assertThrows(IllegalArgumentException.class,
+            () -> JcaSignatures.derToConcatenated(new byte[] { 1, 2, 3 },
+                JwtSignatureAlgorithm.ECDSA_SHA_256));
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.JWTUtils;
+import io.fusionauth.jwt.domain.JWT;
+import io.fusionauth.jwt.domain.KeyPair;
+import io.fusionauth.jwt.hmac.HMACSigner;
+import io.fusionauth.jwt.rsa.RSASigner;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the JwtBatchVerifier class.
+ */
+@Slf4j
+class JwtBatchVerifierTest {
+    @Test
+    void verifyTest() {
+        JwtSignatureAlgorithm signatureAlgo = JwtSignatureAlgorithm.ECDSA_SHA_256;
+        KeyPair keyPair = JWTUtils.generate256_ECKeyPair();
+        JwtEngine jwtEngine = new JwtEngine();
+        List<String> encodedTokens = new ArrayList<>();
+
+        // Enough tokens to make the tasks split a few times
+        for (int i = 0; i < 500; ++i) {
+            JWT token = new JWT().setSubject("subject-" + i);
+
+            if (i % 100 == 1) {
+                token.setExpiration(ZonedDateTime.now(ZoneOffset.UTC).minusHours(1));
+            }
+
+            encodedTokens.add(jwtEngine.encode(
+                token, signatureAlgo, keyPair.privateKey));
+        }
+
+        encodedTokens.set(2, "not-a-token");
+        encodedTokens.set(3, null);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        try {
+            List<JwtVerificationResult> results =
+                new JwtBatchVerifier(jwtEngine, pool).verify(
+                    encodedTokens, signatureAlgo, keyPair.publicKey);
+
+            assertEquals(results.size(), encodedTokens.size());
+
+            for (int i = 0; i < results.size(); ++i) {
+                JwtVerificationResult result = results.get(i);
+                assertEquals(result.getIndex(), i);
+                assertEquals(result.getEncodedToken(), encodedTokens.get(i));
+
+                if (i % 100 == 1) {
+                    assertFalse(result.isValid());
+                    assertEquals(result.getErrorMessage(),
+                        "The token has already expired.");
+                }
+                else if (i == 2) {
+                    assertFalse(result.isValid());
+                    assertEquals(result.getErrorMessage(),
+                        "The token is in an invalid format.");
+                }
+                else if (i == 3) {
+                    assertFalse(result.isValid());
+                    assertNotNull(result.getErrorMessage());
+                }
+                else {
+                    assertTrue(result.isValid(), result.toString());
+                    assertNull(result.getErrorMessage());
+                    assertEquals(result.getDecodedToken().subject, "subject-" + i);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void wrongKeyTest() {
+        JwtSignatureAlgorithm signatureAlgo = JwtSignatureAlgorithm.HMAC_SHA_256;
+        JwtEngine jwtEngine = new JwtEngine();
+        String encodedToken = jwtEngine.encode(
+            new JWT(), signatureAlgo, JWTUtils.generateSHA256_HMACSecret());
+
+        List<JwtVerificationResult> results = new JwtBatchVerifier(jwtEngine)
+            .verify(Stream.of(encodedToken, encodedToken),
+                signatureAlgo, JWTUtils.generateSHA256_HMACSecret());
+
+        assertEquals(results.size(), 2);
+
+        for (JwtVerificationResult result : results) {
+            assertFalse(result.isValid());
+            assertEquals(result.getErrorMessage(),
+                "The token signature is invalid.");
+        }
+
+        assertThrows(RuntimeException.class, () -> new JwtBatchVerifier(jwtEngine)
+            .verify(new ArrayList<>(), JwtSignatureAlgorithm.ECDSA_SHA_256,
+                "not-a-key"));
+    }
+
+    @Test
+    void routingTest() {
+        String secret = JWTUtils.generateSHA256_HMACSecret();
+        KeyPair rsaKeyPair = JWTUtils.generate2048_RSAKeyPair();
+        JwtKeyResolver keyResolver = headerInfo -> {
+            if ("hmac".equals(headerInfo.getKeyId())) {
+                return secret;
+            }
+
+            return "rsa".equals(headerInfo.getKeyId()) ?
+                rsaKeyPair.publicKey : null;
+        };
+        List<String> encodedTokens = new ArrayList<>();
+
+        for (int i = 0; i < 100; ++i) {
+            JWT token = new JWT().setSubject("subject-" + i);
+            encodedTokens.add(JWT.getEncoder().encode(token, (i % 3 == 0) ?
+                HMACSigner.newSHA256Signer(secret, "hmac") : (i % 3 == 1) ?
+                HMACSigner.newSHA512Signer(secret, "hmac") :
+                RSASigner.newSHA384Signer(rsaKeyPair.privateKey, "rsa")));
+        }
+
+        encodedTokens.addAll(Arrays.asList(
+            // Unknown key ID
+            JWT.getEncoder().encode(new JWT(),
+                HMACSigner.newSHA256Signer(secret, "other")),
+            // No signature algorithm
+            "eyJhbGciOiJub25lIn0.e30.",
+            // Unsupported signature algorithm
+            "eyJhbGciOiJYUzI1NiJ9.e30.c2ln",
+            "garbage"));
+
+        List<JwtVerificationResult> results = new JwtBatchVerifier(new JwtEngine())
+            .verify(encodedTokens, keyResolver);
+
+        for (int i = 0; i < 100; ++i) {
+            assertTrue(results.get(i).isValid(), results.get(i).toString());
+            assertEquals(results.get(i).getDecodedToken().subject, "subject-" + i);
+        }
+
+        assertEquals(results.get(100).getErrorMessage(),
+            "No key was found for the token (key ID [other]).");
+        assertEquals(results.get(101).getErrorMessage(),
+            "The token does not have a signature algorithm.");
+        assertEquals(results.get(102).getErrorMessage(),
+            "The token signature algorithm [XS256] is not supported.");
+        assertEquals(results.get(103).getErrorMessage(),
+            "The token is in an invalid format.");
+    }
+
+    @Test
+    void algorithmConfusionTest() {
+        KeyPair rsaKeyPair = JWTUtils.generate2048_RSAKeyPair();
+        JwtKeyResolver keyResolver = headerInfo -> rsaKeyPair.publicKey;
+
+        // Signed with the public key text as an HMAC secret
+        String forgedToken = JWT.getEncoder().encode(
+            new JWT().setSubject("admin"),
+            HMACSigner.newSHA256Signer(rsaKeyPair.publicKey, "rsa"));
+        String validToken = JWT.getEncoder().encode(
+            new JWT().setSubject("user"),
+            RSASigner.newSHA256Signer(rsaKeyPair.privateKey, "rsa"));
+
+        List<JwtVerificationResult> results = new JwtBatchVerifier(new JwtEngine())
+            .verify(Arrays.asList(forgedToken, validToken), keyResolver);
+
+        assertFalse(results.get(0).isValid());
+        assertEquals(results.get(0).getErrorMessage(),
+            "The token signature algorithm [HS256] does not match the type " +
+            "of its key.");
+        assertTrue(results.get(1).isValid(), results.get(1).toString());
+
+        // A fixed HMAC verifier does not accept a public key either
+        assertThrows(RuntimeException.class, () -> new JwtBatchVerifier(
+            new JwtEngine()).verify(Collections.singletonList(forgedToken),
+                JwtSignatureAlgorithm.HMAC_SHA_256, rsaKeyPair.publicKey));
+    }
+}
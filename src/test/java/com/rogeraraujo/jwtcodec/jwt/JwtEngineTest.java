@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.InvalidJWTSignatureException;
+import io.fusionauth.jwt.InvalidKeyTypeException;
+import io.fusionauth.jwt.JWTUtils;
+import io.fusionauth.jwt.domain.JWT;
+import io.fusionauth.jwt.domain.KeyPair;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the JwtEngine class.
+ */
+@Slf4j
+class JwtEngineTest {
+    private static JWT createToken() {
+        return new JWT().setIssuer("jwtcodec").setSubject("test")
+            .addClaim("role", "admin");
+    }
+
+    @Test
+    void encodeDecodeTest() {
+        JwtEngine engine = new JwtEngine();
+        KeyPair rsaKeyPair = JWTUtils.generate2048_RSAKeyPair();
+
+        for (JwtSignatureAlgorithm signatureAlgo :
+                JwtSignatureAlgorithm.values()) {
+            String privateKey;
+            String publicKey;
+
+            if (!signatureAlgo.isAsymmetric()) {
+                privateKey = publicKey = JWTUtils.generateSHA512_HMACSecret();
+            }
+            else if (signatureAlgo.getShortName().startsWith("ES")) {
+                // ECDSA signatures must use the curve that matches the hash
+                KeyPair ecKeyPair =
+                    (signatureAlgo == JwtSignatureAlgorithm.ECDSA_SHA_256) ?
+                        JWTUtils.generate256_ECKeyPair() :
+                    (signatureAlgo == JwtSignatureAlgorithm.ECDSA_SHA_384) ?
+                        JWTUtils.generate384_ECKeyPair() :
+                        JWTUtils.generate521_ECKeyPair();
+                privateKey = ecKeyPair.privateKey;
+                publicKey = ecKeyPair.publicKey;
+            }
+            else {
+                privateKey = rsaKeyPair.privateKey;
+                publicKey = rsaKeyPair.publicKey;
+            }
+
+            String encodedToken = engine.encode(
+                createToken(), signatureAlgo, privateKey);
+            JWT decodedToken = engine.decode(
+                encodedToken, signatureAlgo, publicKey);
+
+            assertEquals(decodedToken.issuer, "jwtcodec", signatureAlgo.toString());
+            assertEquals(decodedToken.getString("role"), "admin");
+        }
+    }
+
+    @Test
+    void cacheTest() {
+        JwtEngine engine = new JwtEngine(1);
+        String key1 = JWTUtils.generateSHA256_HMACSecret();
+        String key2 = JWTUtils.generateSHA256_HMACSecret();
+
+        assertSame(engine.getSigner(JwtSignatureAlgorithm.HMAC_SHA_256, key1),
+            engine.getSigner(JwtSignatureAlgorithm.HMAC_SHA_256, key1));
+        assertEquals(engine.getCacheHits(), 1);
+        assertEquals(engine.getCacheMisses(), 1);
+
+        // A different algorithm or key must not reuse the cached instance
+        assertNotSame(engine.getSigner(JwtSignatureAlgorithm.HMAC_SHA_256, key1),
+            engine.getSigner(JwtSignatureAlgorithm.HMAC_SHA_384, key1));
+        engine.getSigner(JwtSignatureAlgorithm.HMAC_SHA_256, key2);
+        assertEquals(engine.getCacheMisses(), 3);
+
+        String encodedToken = engine.encode(
+            createToken(), JwtSignatureAlgorithm.HMAC_SHA_256, key1);
+        assertThrows(InvalidJWTSignatureException.class, () -> engine.decode(
+            encodedToken, JwtSignatureAlgorithm.HMAC_SHA_256, key2));
+    }
+
+    @Test
+    void invalidKeyTest() {
+        JwtEngine engine = new JwtEngine();
+        assertThrows(RuntimeException.class, () -> engine.getSigner(
+            JwtSignatureAlgorithm.RSA_SSA_PKCS_V1_5_SHA_256, "not a PEM key"));
+        assertThrows(IllegalArgumentException.class, () -> engine.getVerifier(
+            null, "secret"));
+        assertThrows(IllegalArgumentException.class, () -> engine.getVerifier(
+            JwtSignatureAlgorithm.HMAC_SHA_256, null));
+
+        // A public key must not be usable as an HMAC secret
+        KeyPair keyPair = JWTUtils.generate256_ECKeyPair();
+        assertThrows(InvalidKeyTypeException.class, () -> engine.getVerifier(
+            JwtSignatureAlgorithm.HMAC_SHA_256, keyPair.publicKey));
+    }
+}
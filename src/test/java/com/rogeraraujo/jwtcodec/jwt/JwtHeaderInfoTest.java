@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.domain.JWT;
+import io.fusionauth.jwt.hmac.HMACSigner;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the JwtHeaderInfo class.
+ */
+@Slf4j
+class JwtHeaderInfoTest {
+    private static String encodeHeader(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+            json.getBytes(StandardCharsets.UTF_8)) + ".e30.c2ln";
+    }
+
+    @Test
+    void peekTest() {
+        String encodedToken = JWT.getEncoder().encode(new JWT(),
+            HMACSigner.newSHA384Signer("secret-secret-secret", "key-1"));
+        JwtHeaderInfo headerInfo = JwtHeaderInfo.peek(encodedToken);
+
+        assertNotNull(headerInfo);
+        assertEquals(headerInfo.getAlgorithmName(), "HS384");
+        assertEquals(headerInfo.getSignatureAlgorithm(),
+            JwtSignatureAlgorithm.HMAC_SHA_384);
+        assertEquals(headerInfo.getKeyId(), "key-1");
+        assertEquals(headerInfo.getType(), "JWT");
+
+        // Members of other types are skipped, and escapes are decoded
+        headerInfo = JwtHeaderInfo.peek(encodeHeader(" { \"crit\" : [\"b64\", " +
+            "{\"alg\": \"x\"}], \"b64\": false, \"n\": -1.5e3, \"x5c\": null," +
+            "\"kid\": \"a\\\"b\\u00e7\", \"alg\": \"none\" } "));
+        assertNotNull(headerInfo);
+        assertEquals(headerInfo.getAlgorithmName(), "none");
+        assertNull(headerInfo.getSignatureAlgorithm());
+        assertEquals(headerInfo.getKeyId(), "a\"bç");
+        assertNull(headerInfo.getType());
+
+        headerInfo = JwtHeaderInfo.peek(encodeHeader("{}"));
+        assertNotNull(headerInfo);
+        assertNull(headerInfo.getAlgorithmName());
+    }
+
+    @Test
+    void invalidHeaderTest() {
+        assertNull(JwtHeaderInfo.peek(null));
+        assertNull(JwtHeaderInfo.peek(""));
+        assertNull(JwtHeaderInfo.peek("no-dots"));
+        assertNull(JwtHeaderInfo.peek(".e30.c2ln"));
+        assertNull(JwtHeaderInfo.peek("!!!.e30.c2ln"));
+        assertNull(JwtHeaderInfo.peek(encodeHeader("[\"alg\"]")));
+        assertNull(JwtHeaderInfo.peek(encodeHeader("{\"alg\": \"HS256\"")));
+        assertNull(JwtHeaderInfo.peek(encodeHeader("{\"alg\" \"HS256\"}")));
+        assertNull(JwtHeaderInfo.peek(encodeHeader("{\"alg\": \"HS256\"} x")));
+        assertNull(JwtHeaderInfo.peek(encodeHeader("{\"alg\": }")));
+    }
+}
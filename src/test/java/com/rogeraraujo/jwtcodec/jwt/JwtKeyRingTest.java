@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwks.domain.JSONWebKey;
+import io.fusionauth.jwt.JWTUtils;
+import io.fusionauth.jwt.domain.Algorithm;
+import io.fusionauth.jwt.domain.JWT;
+import io.fusionauth.jwt.domain.KeyPair;
+import io.fusionauth.jwt.ec.ECSigner;
+import io.fusionauth.jwt.hmac.HMACSigner;
+import io.fusionauth.jwt.rsa.RSASigner;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the JwtKeyRing class.
+ */
+@Slf4j
+class JwtKeyRingTest {
+    private static final long WATCH_TIMEOUT_MILLIS = 30_000;
+
+    private static void writeJwks(Path file, String keyId, String publicKey)
+            throws Exception {
+        JSONWebKey webKey = JSONWebKey.build(publicKey);
+        webKey.kid = keyId;
+        String json = "{\"keys\":[" + webKey.toJSON() + "," +
+            "{\"kty\":\"oct\",\"kid\":\"secret\",\"k\":\"c2VjcmV0\"}]}";
+        Files.write(file, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static JwtHeaderInfo headerOf(String encodedToken) {
+        return JwtHeaderInfo.peek(encodedToken);
+    }
+
+    @Test
+    void lookupTest(@TempDir Path directory) throws Exception {
+        KeyPair rsaKeyPair = JWTUtils.generate2048_RSAKeyPair();
+        KeyPair ecKeyPair = JWTUtils.generate256_ECKeyPair();
+        Files.write(directory.resolve("rsa-key.pem"),
+            rsaKeyPair.publicKey.getBytes(StandardCharsets.UTF_8));
+        writeJwks(directory.resolve("keys.json"), "ec-key", ecKeyPair.publicKey);
+        Files.write(directory.resolve("notes.txt"),
+            "not a key".getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("broken.pem"),
+            "not a key".getBytes(StandardCharsets.UTF_8));
+
+        JwtKeyRing keyRing = new JwtKeyRing(directory);
+
+        // The symmetric key and the unparseable files are skipped
+        assertEquals(keyRing.size(), 2);
+
+        JwtKeyRing.Entry rsaEntry = keyRing.getKeyById("rsa-key");
+        assertNotNull(rsaEntry);
+        assertSame(keyRing.getKeyByThumbprint(rsaEntry.getThumbprint()), rsaEntry);
+        assertEquals(JwtUtils.parsePublicKey(rsaEntry.getPemPublicKey(), RSAPublicKey.class),
+            JwtUtils.parsePublicKey(rsaKeyPair.publicKey, RSAPublicKey.class));
+        assertNull(keyRing.getKeyById("secret"));
+        assertNull(keyRing.getKeyById(null));
+
+        String rsaToken = JWT.getEncoder().encode(new JWT().setSubject("a"),
+            RSASigner.newSHA256Signer(rsaKeyPair.privateKey, "rsa-key"));
+        String ecToken = JWT.getEncoder().encode(new JWT().setSubject("b"),
+            ECSigner.newSHA256Signer(ecKeyPair.privateKey, "ec-key"));
+        String thumbprintToken = JWT.getEncoder().encode(new JWT().setSubject("c"),
+            RSASigner.newSHA256Signer(rsaKeyPair.privateKey,
+                rsaEntry.getThumbprint()));
+        String unknownToken = JWT.getEncoder().encode(new JWT().setSubject("d"),
+            RSASigner.newSHA256Signer(rsaKeyPair.privateKey, "unknown"));
+        String noKeyIdToken = JWT.getEncoder().encode(new JWT().setSubject("e"),
+            RSASigner.newSHA256Signer(rsaKeyPair.privateKey));
+
+        assertSame(keyRing.resolveKey(headerOf(rsaToken)),
+            rsaEntry.getPemPublicKey());
+        assertSame(keyRing.resolveKey(headerOf(thumbprintToken)),
+            rsaEntry.getPemPublicKey());
+        assertNull(keyRing.resolveKey(headerOf(unknownToken)));
+
+        // Without a key ID, a key is only chosen if it is the only one
+        assertNull(keyRing.resolveKey(headerOf(noKeyIdToken)));
+
+        List<JwtVerificationResult> results = new JwtBatchVerifier(
+            new JwtEngine()).verify(Arrays.asList(
+                rsaToken, ecToken, thumbprintToken, unknownToken), keyRing);
+
+        assertTrue(results.get(0).isValid());
+        assertTrue(results.get(1).isValid());
+        assertTrue(results.get(2).isValid());
+        assertFalse(results.get(3).isValid());
+
+        keyRing.removeFile(directory.resolve("keys.json"));
+        assertEquals(keyRing.size(), 1);
+        assertNull(keyRing.getKeyById("ec-key"));
+        assertSame(keyRing.resolveKey(headerOf(noKeyIdToken)),
+            rsaEntry.getPemPublicKey());
+    }
+
+    @Test
+    void algorithmMismatchTest(@TempDir Path directory) throws Exception {
+        KeyPair rsaKeyPair = JWTUtils.generate2048_RSAKeyPair();
+        Files.write(directory.resolve("rsa-key.pem"),
+            rsaKeyPair.publicKey.getBytes(StandardCharsets.UTF_8));
+
+        JSONWebKey webKey = JSONWebKey.build(rsaKeyPair.publicKey);
+        webKey.kid = "rs256-key";
+        webKey.alg = Algorithm.RS256;
+        Files.write(directory.resolve("keys.json"),
+            ("{\"keys\":[" + webKey.toJSON() + "]}")
+                .getBytes(StandardCharsets.UTF_8));
+
+        JwtKeyRing keyRing = new JwtKeyRing(directory);
+        JwtKeyRing.Entry rsaEntry = keyRing.getKeyById("rsa-key");
+        assertEquals(rsaEntry.getAllowedSignatureAlgorithms().size(), 6);
+        assertEquals(keyRing.getKeyById("rs256-key").getAllowedSignatureAlgorithms(),
+            Collections.singleton(JwtSignatureAlgorithm.RSA_SSA_PKCS_V1_5_SHA_256));
+
+        // Signed with the published public key text as an HMAC secret
+        String forgedToken = JWT.getEncoder().encode(
+            new JWT().setSubject("admin"),
+            HMACSigner.newSHA256Signer(rsaEntry.getPemPublicKey(), "rsa-key"));
+        assertNull(keyRing.resolveKey(headerOf(forgedToken)));
+
+        List<JwtVerificationResult> results = new JwtBatchVerifier(
+            new JwtEngine()).verify(Collections.singletonList(forgedToken),
+                keyRing);
+        assertFalse(results.get(0).isValid());
+
+        // Keys declaring an algorithm only verify that algorithm
+        String rs384Token = JWT.getEncoder().encode(new JWT().setSubject("a"),
+            RSASigner.newSHA384Signer(rsaKeyPair.privateKey, "rs256-key"));
+        String rs256Token = JWT.getEncoder().encode(new JWT().setSubject("b"),
+            RSASigner.newSHA256Signer(rsaKeyPair.privateKey, "rs256-key"));
+        assertNull(keyRing.resolveKey(headerOf(rs384Token)));
+        assertNotNull(keyRing.resolveKey(headerOf(rs256Token)));
+    }
+
+    @Test
+    void reloadTest(@TempDir Path directory) throws Exception {
+        KeyPair oldKeyPair = JWTUtils.generate256_ECKeyPair();
+        KeyPair newKeyPair = JWTUtils.generate256_ECKeyPair();
+        Path file = directory.resolve("signing.pem");
+        Files.write(file, oldKeyPair.publicKey.getBytes(StandardCharsets.UTF_8));
+
+        try (JwtKeyRing keyRing = new JwtKeyRing(directory)) {
+            keyRing.startWatching();
+            String oldThumbprint = keyRing.getKeyById("signing").getThumbprint();
+
+            // A rotated key replaces the previous one of the same file
+            Files.write(file, newKeyPair.publicKey.getBytes(StandardCharsets.UTF_8));
+            String newThumbprint = waitForKey(keyRing, "signing", oldThumbprint);
+
+            assertNotNull(newThumbprint);
+            assertNotEquals(newThumbprint, oldThumbprint);
+            assertNull(keyRing.getKeyByThumbprint(oldThumbprint));
+            assertEquals(keyRing.size(), 1);
+
+            // New files are picked up and deleted ones are forgotten
+            writeJwks(directory.resolve("extra.jwks"), "extra",
+                oldKeyPair.publicKey);
+            Files.delete(file);
+            long deadline = System.currentTimeMillis() + WATCH_TIMEOUT_MILLIS;
+
+            while (((keyRing.getKeyById("extra") == null) ||
+                    (keyRing.getKeyById("signing") != null)) &&
+                (System.currentTimeMillis() < deadline)) {
+                Thread.sleep(20);
+            }
+
+            assertNotNull(keyRing.getKeyById("extra"));
+            assertNull(keyRing.getKeyById("signing"));
+            assertEquals(keyRing.size(), 1);
+        }
+    }
+
+    private static String waitForKey(JwtKeyRing keyRing, String keyId,
+            String oldThumbprint) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WATCH_TIMEOUT_MILLIS;
+
+        while (System.currentTimeMillis() < deadline) {
+            JwtKeyRing.Entry entry = keyRing.getKeyById(keyId);
+
+            if ((entry != null) && !entry.getThumbprint().equals(oldThumbprint)) {
+                return entry.getThumbprint();
+            }
+
+            Thread.sleep(20);
+        }
+
+        return null;
+    }
+}
@@ -17,9 +17,17 @@
 package com.rogeraraujo.jwtcodec.jwt;
 
 import io.fusionauth.jwt.*;
+import io.fusionauth.jwt.domain.JWT;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -55,4 +63,52 @@ class JwtUtilsTest {
         Exception ex8 = new IllegalArgumentException("");
         assertSame(JwtUtils.translateDecodingException(ex8), ex8);
     }
+
+    @Test
+    void createTokenTest() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("iss", "issuer");
+        claims.put("sub", 42);
+        claims.put("aud", Arrays.asList("a1", "a2"));
+        claims.put("iat", 1600000000);
+        claims.put("exp", "1900000000");
+        claims.put("nbf", "2021-01-01T00:00:00-03:00");
+        claims.put("scope", "read");
+        claims.put("ignored", null);
+
+        JWT token = JwtUtils.createToken(claims);
+        assertEquals(token.issuer, "issuer");
+        assertEquals(token.subject, "42");
+        assertEquals(token.audience, Arrays.asList("a1", "a2"));
+        assertEquals(token.issuedAt.toEpochSecond(), 1600000000L);
+        assertEquals(token.expiration.toEpochSecond(), 1900000000L);
+        assertEquals(token.notBefore.toEpochSecond(), 1609470000L);
+        assertEquals(token.getOtherClaims(),
+            Collections.singletonMap("scope", "read"));
+
+        assertThrows(IllegalArgumentException.class, () -> JwtUtils.createToken(
+            Collections.singletonMap("exp", "tomorrow")));
+    }
+
+    @Test
+    void getVerificationAlgorithmsTest() {
+        assertEquals(JwtUtils.getVerificationAlgorithms("secret"), EnumSet.of(
+            JwtSignatureAlgorithm.HMAC_SHA_256, JwtSignatureAlgorithm.HMAC_SHA_384,
+            JwtSignatureAlgorithm.HMAC_SHA_512));
+
+        Set<JwtSignatureAlgorithm> rsaAlgos = JwtUtils.getVerificationAlgorithms(
+            JWTUtils.generate2048_RSAKeyPair().publicKey);
+        assertEquals(rsaAlgos.size(), 6);
+        assertTrue(rsaAlgos.contains(JwtSignatureAlgorithm.RSA_SSA_PSS_SHA_512));
+        assertFalse(rsaAlgos.contains(JwtSignatureAlgorithm.HMAC_SHA_256));
+
+        assertEquals(JwtUtils.getVerificationAlgorithms(
+            JWTUtils.generate384_ECKeyPair().publicKey),
+            JwtSignatureAlgorithm.ECDSA_SHA_384.getFamily());
+
+        // PEM text without a valid key allows nothing, not even HMAC
+        assertTrue(JwtUtils.getVerificationAlgorithms(
+            "-----BEGIN PUBLIC KEY-----\ngarbage\n-----END PUBLIC KEY-----")
+            .isEmpty());
+    }
 }
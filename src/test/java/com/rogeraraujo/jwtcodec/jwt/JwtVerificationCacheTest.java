@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.InvalidJWTException;
+import io.fusionauth.jwt.InvalidJWTSignatureException;
+import io.fusionauth.jwt.JWTExpiredException;
+import io.fusionauth.jwt.JWTUtils;
+import io.fusionauth.jwt.domain.JWT;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the JwtVerificationCache class.
+ */
+@Slf4j
+class JwtVerificationCacheTest {
+    private static final JwtSignatureAlgorithm SIGNATURE_ALGO =
+        JwtSignatureAlgorithm.HMAC_SHA_256;
+
+    private static final String SECRET = JWTUtils.generateSHA256_HMACSecret();
+
+    /**
+     * A Clock whose time only changes when the test advances it.
+     */
+    private static class ManualClock extends Clock {
+        private long millis = System.currentTimeMillis();
+
+        void advance(long deltaMillis) {
+            millis += deltaMillis;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+
+    @Test
+    void positiveEntryTest() {
+        ManualClock clock = new ManualClock();
+        JwtVerificationCache cache = new JwtVerificationCache(
+            new JwtEngine(), 16, 60_000L, 5_000L, clock);
+        JwtEngine jwtEngine = new JwtEngine();
+        String encodedToken = jwtEngine.encode(
+            new JWT().setSubject("subject"), SIGNATURE_ALGO, SECRET);
+
+        JWT first = cache.decode(encodedToken, SIGNATURE_ALGO, SECRET);
+        assertEquals(first.subject, "subject");
+        assertSame(cache.decode(encodedToken, SIGNATURE_ALGO, SECRET), first);
+        assertSame(cache.decode(encodedToken, SIGNATURE_ALGO, SECRET), first);
+        assertEquals(cache.getHitCount(), 2);
+        assertEquals(cache.getMissCount(), 1);
+        assertEquals(cache.getHitRatio(), 2.0 / 3.0, 1e-9);
+
+        // A different key is a different entry, and its failure is not cached
+        String otherSecret = JWTUtils.generateSHA256_HMACSecret();
+        assertThrows(InvalidJWTSignatureException.class,
+            () -> cache.decode(encodedToken, SIGNATURE_ALGO, otherSecret));
+        assertThrows(InvalidJWTSignatureException.class,
+            () -> cache.decode(encodedToken, SIGNATURE_ALGO, otherSecret));
+        assertEquals(cache.getMissCount(), 3);
+
+        // The time-to-live elapses
+        clock.advance(60_001L);
+        assertNotSame(cache.decode(encodedToken, SIGNATURE_ALGO, SECRET), first);
+        assertEquals(cache.getMissCount(), 4);
+    }
+
+    @Test
+    void expirationTest() throws InterruptedException {
+        JwtVerificationCache cache = new JwtVerificationCache(new JwtEngine());
+        String encodedToken = new JwtEngine().encode(new JWT().setExpiration(
+            ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(2)), SIGNATURE_ALGO, SECRET);
+
+        assertNotNull(cache.decode(encodedToken, SIGNATURE_ALGO, SECRET));
+        assertNotNull(cache.decode(encodedToken, SIGNATURE_ALGO, SECRET));
+        assertEquals(cache.getHitCount(), 1);
+
+        // The entry must not outlive the token, even though the time-to-live
+        // is much longer
+        Thread.sleep(3_000L);
+        assertThrows(JWTExpiredException.class,
+            () -> cache.decode(encodedToken, SIGNATURE_ALGO, SECRET));
+        assertEquals(cache.getHitCount(), 1);
+    }
+
+    @Test
+    void negativeEntryTest() {
+        ManualClock clock = new ManualClock();
+        JwtVerificationCache cache = new JwtVerificationCache(
+            new JwtEngine(), 16, 60_000L, 5_000L, clock);
+
+        for (int i = 0; i < 3; ++i) {
+            assertThrows(InvalidJWTException.class,
+                () -> cache.decode("malformed", SIGNATURE_ALGO, SECRET));
+        }
+
+        assertEquals(cache.getNegativeHitCount(), 2);
+        assertEquals(cache.getMissCount(), 1);
+
+        clock.advance(5_001L);
+        assertThrows(InvalidJWTException.class,
+            () -> cache.decode("malformed", SIGNATURE_ALGO, SECRET));
+        assertEquals(cache.getMissCount(), 2);
+
+        JwtVerificationCache noNegativeCache = new JwtVerificationCache(
+            new JwtEngine(), 16, 60_000L, 0L, clock);
+
+        for (int i = 0; i < 2; ++i) {
+            assertThrows(InvalidJWTException.class,
+                () -> noNegativeCache.decode("malformed", SIGNATURE_ALGO, SECRET));
+        }
+
+        assertEquals(noNegativeCache.getNegativeHitCount(), 0);
+        assertEquals(noNegativeCache.size(), 0);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+
+package com.rogeraraujo.jwtcodec.jwt;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the JwtWarmUp class.
+ */
+@Slf4j
+class JwtWarmUpTest {
+    @Test
+    void runTest() {
+        JwtWarmUp warmUp = new JwtWarmUp(2);
+        assertEquals(warmUp.getElapsedMillis(), -1L);
+        assertEquals(warmUp.getKeyGenerationMillis(), -1L);
+
+        assertEquals(warmUp.run(), JwtSignatureAlgorithm.values().length);
+        assertTrue(warmUp.getKeyGenerationMillis() >= 0L);
+        assertTrue(warmUp.getElapsedMillis() >= warmUp.getKeyGenerationMillis());
+    }
+
+    @Test
+    void cancelTest() {
+        JwtWarmUp warmUp = new JwtWarmUp(2);
+        warmUp.cancel();
+
+        assertEquals(warmUp.run(), 0);
+        assertTrue(warmUp.getElapsedMillis() >= 0L);
+    }
+
+    @Test
+    void invalidIterationsTest() {
+        assertThrows(IllegalArgumentException.class, () -> new JwtWarmUp(0));
+    }
+}
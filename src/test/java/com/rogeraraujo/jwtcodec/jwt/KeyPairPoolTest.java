@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.domain.KeyPair;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the KeyPairPool class.
+ */
+@Slf4j
+class KeyPairPoolTest {
+    private static final long TIMEOUT_MILLIS = 30_000;
+
+    private static void waitForAvailableCount(KeyPairPool pool,
+            KeyGenerationType kgType, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+
+        while ((pool.getAvailableCount(kgType) < count) &&
+               (System.currentTimeMillis() < deadline)) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(pool.getAvailableCount(kgType), count);
+    }
+
+    @Test
+    void onDemandTest() throws Exception {
+        try (KeyPairPool pool = new KeyPairPool(
+                2, KeyPairPool.WarmUpPolicy.ON_DEMAND, 2)) {
+            assertEquals(pool.getAvailableCount(KeyGenerationType.EC_256), 0);
+
+            // The first key pair is generated on the calling thread
+            KeyPair first = pool.take(KeyGenerationType.EC_256);
+            JwtUtils.parsePrivateKey(first.privateKey, ECPrivateKey.class);
+            JwtUtils.parsePublicKey(first.publicKey, ECPublicKey.class);
+            assertEquals(pool.getMissCount(), 1);
+
+            waitForAvailableCount(pool, KeyGenerationType.EC_256, 2);
+
+            KeyPair second = pool.take(KeyGenerationType.EC_256);
+            KeyPair third = pool.take(KeyGenerationType.EC_256);
+            assertEquals(pool.getHitCount(), 2);
+            assertNotEquals(second.privateKey, third.privateKey);
+            assertNotEquals(first.privateKey, second.privateKey);
+
+            // Other types are not generated until they are used
+            assertEquals(pool.getAvailableCount(KeyGenerationType.EC_384), 0);
+            waitForAvailableCount(pool, KeyGenerationType.EC_256, 2);
+        }
+    }
+
+    @Test
+    void eagerTest() throws Exception {
+        try (KeyPairPool pool = new KeyPairPool(
+                1, KeyPairPool.WarmUpPolicy.EAGER, 4)) {
+            waitForAvailableCount(pool, KeyGenerationType.EC_384, 1);
+            waitForAvailableCount(pool, KeyGenerationType.RSA_2048, 1);
+
+            pool.take(KeyGenerationType.EC_384);
+            assertEquals(pool.getHitCount(), 1);
+            assertEquals(pool.getMissCount(), 0);
+        }
+    }
+
+    @Test
+    void invalidArgumentsTest() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new KeyPairPool(0, KeyPairPool.WarmUpPolicy.EAGER, 1));
+
+        try (KeyPairPool pool = new KeyPairPool()) {
+            assertThrows(IllegalArgumentException.class,
+                () -> pool.take(KeyGenerationType.HMAC_SHA_256));
+            assertThrows(IllegalArgumentException.class, () -> pool.take(null));
+        }
+
+        assertEquals(KeyPairPool.WarmUpPolicy.fromName(" On-Demand "),
+            KeyPairPool.WarmUpPolicy.ON_DEMAND);
+        assertNull(KeyPairPool.WarmUpPolicy.fromName("later"));
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import io.fusionauth.jwt.InvalidJWTSignatureException;
+import io.fusionauth.jwt.InvalidKeyTypeException;
+import io.fusionauth.jwt.JWTUtils;
+import io.fusionauth.jwt.MissingVerifierException;
+import io.fusionauth.jwt.Signer;
+import io.fusionauth.jwt.Verifier;
+import io.fusionauth.jwt.domain.JWT;
+import io.fusionauth.jwt.domain.KeyPair;
+import io.fusionauth.jwt.ec.ECSigner;
+import io.fusionauth.jwt.ec.ECVerifier;
+import io.fusionauth.jwt.hmac.HMACSigner;
+import io.fusionauth.jwt.hmac.HMACVerifier;
+import io.fusionauth.jwt.rsa.RSAPSSSigner;
+import io.fusionauth.jwt.rsa.RSAPSSVerifier;
+import io.fusionauth.jwt.rsa.RSASigner;
+import io.fusionauth.jwt.rsa.RSAVerifier;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the ReusableMacSigner,
+ * ReusableMacVerifier, ReusableSignatureSigner and ReusableSignatureVerifier
+ * classes, as created by JwtEngine. Tokens signed by them must be accepted by
+ * the FusionAuth JWT verifiers and vice versa.
+ */
+@Slf4j
+class ReusableSignerTest {
+    private static final String HMAC_SECRET =
+        JWTUtils.generateSHA256_HMACSecret();
+
+    private static final KeyPair RSA_KEY_PAIR =
+        JWTUtils.generate2048_RSAKeyPair();
+
+    private static final KeyPair[] EC_KEY_PAIRS = {
+        JWTUtils.generate256_ECKeyPair(),
+        JWTUtils.generate384_ECKeyPair(),
+        JWTUtils.generate521_ECKeyPair() };
+
+    private static String getPrivateKey(JwtSignatureAlgorithm signatureAlgo) {
+        return getKeyPair(signatureAlgo).privateKey;
+    }
+
+    private static String getPublicKey(JwtSignatureAlgorithm signatureAlgo) {
+        return getKeyPair(signatureAlgo).publicKey;
+    }
+
+    private static KeyPair getKeyPair(JwtSignatureAlgorithm signatureAlgo) {
+        switch (signatureAlgo) {
+            case HMAC_SHA_256:
+            case HMAC_SHA_384:
+            case HMAC_SHA_512:
+                return new KeyPair(HMAC_SECRET, HMAC_SECRET);
+            case ECDSA_SHA_256:
+                return EC_KEY_PAIRS[0];
+            case ECDSA_SHA_384:
+                return EC_KEY_PAIRS[1];
+            case ECDSA_SHA_512:
+                return EC_KEY_PAIRS[2];
+            default:
+                return RSA_KEY_PAIR;
+        }
+    }
+
+    private static Signer createFusionAuthSigner(
+            JwtSignatureAlgorithm signatureAlgo, String key) {
+        switch (signatureAlgo) {
+            case HMAC_SHA_256: return HMACSigner.newSHA256Signer(key);
+            case HMAC_SHA_384: return HMACSigner.newSHA384Signer(key);
+            case HMAC_SHA_512: return HMACSigner.newSHA512Signer(key);
+            case RSA_SSA_PKCS_V1_5_SHA_256: return RSASigner.newSHA256Signer(key);
+            case RSA_SSA_PKCS_V1_5_SHA_384: return RSASigner.newSHA384Signer(key);
+            case RSA_SSA_PKCS_V1_5_SHA_512: return RSASigner.newSHA512Signer(key);
+            case ECDSA_SHA_256: return ECSigner.newSHA256Signer(key);
+            case ECDSA_SHA_384: return ECSigner.newSHA384Signer(key);
+            case ECDSA_SHA_512: return ECSigner.newSHA512Signer(key);
+            case RSA_SSA_PSS_SHA_256: return RSAPSSSigner.newSHA256Signer(key);
+            case RSA_SSA_PSS_SHA_384: return RSAPSSSigner.newSHA384Signer(key);
+            default: return RSAPSSSigner.newSHA512Signer(key);
+        }
+    }
+
+    private static Verifier createFusionAuthVerifier(
+            JwtSignatureAlgorithm signatureAlgo, String key) {
+        switch (signatureAlgo.getShortName().substring(0, 2)) {
+            case "HS": return HMACVerifier.newVerifier(key);
+            case "RS": return RSAVerifier.newVerifier(key);
+            case "ES": return ECVerifier.newVerifier(key);
+            default: return RSAPSSVerifier.newVerifier(key);
+        }
+    }
+
+    @Test
+    void interoperabilityTest() {
+        for (JwtSignatureAlgorithm signatureAlgo :
+                JwtSignatureAlgorithm.values()) {
+            String privateKey = getPrivateKey(signatureAlgo);
+            String publicKey = getPublicKey(signatureAlgo);
+            JWT token = new JWT().setSubject(signatureAlgo.getShortName());
+
+            // Reusable signer, FusionAuth verifier. Signs twice to make sure
+            // the JCA objects are reset between uses
+            Signer signer = JwtEngine.createSigner(signatureAlgo, privateKey);
+            JWT.getEncoder().encode(token, signer);
+            String encodedToken1 = JWT.getEncoder().encode(token, signer);
+            assertEquals(JWT.getDecoder().decode(encodedToken1,
+                createFusionAuthVerifier(signatureAlgo, publicKey)).subject,
+                signatureAlgo.getShortName());
+
+            // FusionAuth signer, reusable verifier
+            Verifier verifier = JwtEngine.createVerifier(signatureAlgo, publicKey);
+            String encodedToken2 = JWT.getEncoder().encode(
+                token, createFusionAuthSigner(signatureAlgo, privateKey));
+            assertEquals(JWT.getDecoder().decode(encodedToken2, verifier).subject,
+                signatureAlgo.getShortName());
+            assertEquals(JWT.getDecoder().decode(encodedToken1, verifier).subject,
+                signatureAlgo.getShortName());
+
+            // A tampered signature must be rejected, and the verifier must
+            // keep working afterwards
+            String tamperedToken = encodedToken1.substring(
+                0, encodedToken1.lastIndexOf('.') + 1) +
+                encodedToken2.substring(encodedToken2.lastIndexOf('.') + 1,
+                    encodedToken2.length() - 4) + "AAAA";
+            assertThrows(RuntimeException.class,
+                () -> JWT.getDecoder().decode(tamperedToken, verifier));
+            assertNotNull(JWT.getDecoder().decode(encodedToken1, verifier));
+        }
+    }
+
+    @Test
+    void algorithmFamilyTest() {
+        Verifier verifier = JwtEngine.createVerifier(
+            JwtSignatureAlgorithm.RSA_SSA_PKCS_V1_5_SHA_256,
+            RSA_KEY_PAIR.publicKey);
+        String rs512Token = JWT.getEncoder().encode(new JWT(),
+            JwtEngine.createSigner(JwtSignatureAlgorithm.RSA_SSA_PKCS_V1_5_SHA_512,
+                RSA_KEY_PAIR.privateKey));
+        String ps256Token = JWT.getEncoder().encode(new JWT(),
+            JwtEngine.createSigner(JwtSignatureAlgorithm.RSA_SSA_PSS_SHA_256,
+                RSA_KEY_PAIR.privateKey));
+
+        assertNotNull(JWT.getDecoder().decode(rs512Token, verifier));
+        assertThrows(MissingVerifierException.class,
+            () -> JWT.getDecoder().decode(ps256Token, verifier));
+
+        assertThrows(InvalidKeyTypeException.class, () -> JwtEngine.createVerifier(
+            JwtSignatureAlgorithm.ECDSA_SHA_256, RSA_KEY_PAIR.publicKey));
+        assertThrows(InvalidKeyTypeException.class, () -> JwtEngine.createSigner(
+            JwtSignatureAlgorithm.RSA_SSA_PSS_SHA_256, EC_KEY_PAIRS[0].privateKey));
+    }
+
+    @Test
+    void concurrencyTest() throws Exception {
+        JwtSignatureAlgorithm signatureAlgo = JwtSignatureAlgorithm.ECDSA_SHA_256;
+        Signer signer = JwtEngine.createSigner(
+            signatureAlgo, getPrivateKey(signatureAlgo));
+        Verifier verifier = JwtEngine.createVerifier(
+            signatureAlgo, getPublicKey(signatureAlgo));
+        Verifier wrongVerifier = JwtEngine.createVerifier(signatureAlgo,
+            JWTUtils.generate256_ECKeyPair().publicKey);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+
+            for (int i = 0; i < 8; ++i) {
+                String subject = "subject-" + i;
+
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 50; ++j) {
+                        String encodedToken = JWT.getEncoder().encode(
+                            new JWT().setSubject(subject), signer);
+                        assertEquals(JWT.getDecoder().decode(
+                            encodedToken, verifier).subject, subject);
+                        assertThrows(InvalidJWTSignatureException.class,
+                            () -> JWT.getDecoder().decode(
+                                encodedToken, wrongVerifier));
+                    }
+
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
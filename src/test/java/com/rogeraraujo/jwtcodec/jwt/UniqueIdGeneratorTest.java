@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2021, Roger Araújo, All Rights Reserved
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific
+ * language governing permissions and limitations under the License.
+ */
+package com.rogeraraujo.jwtcodec.jwt;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class to exercise the functionality of the UniqueIdGenerator class.
+ */
+@Slf4j
+class UniqueIdGeneratorTest {
+    private static final long TIMESTAMP = 1_700_000_000_000L;
+
+    @Test
+    void uuidV7Test() {
+        AtomicLong clock = new AtomicLong(TIMESTAMP);
+        UniqueIdGenerator generator = new UniqueIdGenerator(
+            UniqueIdGenerator.Format.UUID_V7, clock::get);
+        String previousId = "";
+
+        // More IDs than the counter holds in one millisecond, so the
+        // timestamp has to be advanced
+        for (int i = 0; i < 10_000; ++i) {
+            String id = generator.nextId();
+            UUID uuid = UUID.fromString(id);
+
+            assertEquals(uuid.version(), 7);
+            assertEquals(uuid.variant(), 2);
+            assertEquals(UniqueIdGenerator.toString(uuid), uuid.toString());
+            assertEquals(id, uuid.toString());
+            assertTrue(previousId.compareTo(id) < 0);
+
+            previousId = id;
+        }
+
+        UUID uuid = UUID.fromString(previousId);
+        assertEquals(uuid.getMostSignificantBits() >>> 16, TIMESTAMP + 2);
+
+        // A clock that goes backwards does not break the ordering
+        clock.set(TIMESTAMP - 1000);
+        assertTrue(previousId.compareTo(generator.nextId()) < 0);
+
+        clock.set(TIMESTAMP + 5000);
+        uuid = generator.nextUuidV7();
+        assertEquals(uuid.getMostSignificantBits() >>> 16, TIMESTAMP + 5000);
+        assertEquals(uuid.getMostSignificantBits() & 0xFFFL, 0L);
+    }
+
+    @Test
+    void ulidTest() {
+        UniqueIdGenerator generator = new UniqueIdGenerator(
+            UniqueIdGenerator.Format.ULID, () -> TIMESTAMP);
+        String previousId = "";
+
+        for (int i = 0; i < 10_000; ++i) {
+            String id = generator.nextId();
+
+            assertEquals(id.length(), 26);
+            assertTrue(id.matches("[0-7][0-9A-HJKMNP-TV-Z]{25}"));
+            assertTrue(previousId.compareTo(id) < 0);
+
+            previousId = id;
+        }
+
+        // The first 10 characters hold the timestamp
+        String id = new UniqueIdGenerator(UniqueIdGenerator.Format.ULID,
+            () -> TIMESTAMP).nextId();
+        long timestamp = 0L;
+
+        for (int i = 0; i < 10; ++i) {
+            timestamp = (timestamp << 5) |
+                "0123456789ABCDEFGHJKMNPQRSTVWXYZ".indexOf(id.charAt(i));
+        }
+
+        assertEquals(timestamp, TIMESTAMP);
+    }
+
+    @Test
+    void concurrencyTest() {
+        for (UniqueIdGenerator.Format format : UniqueIdGenerator.Format.values()) {
+            // A fixed clock makes every thread count within the same
+            // millisecond, so uniqueness comes from the random bits
+            UniqueIdGenerator generator = new UniqueIdGenerator(
+                format, () -> TIMESTAMP);
+            Set<String> ids = ConcurrentHashMap.newKeySet();
+
+            IntStream.range(0, 100_000).parallel()
+                .forEach(i -> ids.add(generator.nextId()));
+
+            assertEquals(ids.size(), 100_000);
+        }
+    }
+
+    @Test
+    void fromNameTest() {
+        assertEquals(UniqueIdGenerator.Format.fromName("uuid-v7"),
+            UniqueIdGenerator.Format.UUID_V7);
+        assertEquals(UniqueIdGenerator.Format.fromName(" ULID "),
+            UniqueIdGenerator.Format.ULID);
+        assertNull(UniqueIdGenerator.Format.fromName("uuid-v9"));
+        assertNull(UniqueIdGenerator.Format.fromName(null));
+    }
+}